@@ -0,0 +1,166 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.GameDelta;
+import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.model.player.Player;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * BlackholeListener Class<br>
+ * Listener that hands every notification to a JMH {@link Blackhole}, so the fan-out benchmarks measure
+ * the work done by the server and not the network.
+ */
+public class BlackholeListener implements GameListenerInterface {
+
+    /**
+     * Sink of the notifications
+     */
+    private final Blackhole bh;
+
+    /**
+     * @param bh the sink of the notifications
+     */
+    public BlackholeListener(Blackhole bh) {
+        this.bh = bh;
+    }
+
+    @Override
+    public void playerJoined(GameImmutable model, String nickname, Color playerColor) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void requireNumPlayersGameID(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void wrongChooseCard(GameImmutable model, String msg) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void pointsAdded(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void playerLeft(GameImmutable model, String nickname) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void playerReconnected(GameImmutable model, String nickPlayerReconnected) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void joinUnableGameFull(Player triedToJoin, GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void joinUnableNicknameAlreadyIn(Player triedToJoin, GameImmutable gameModel) {
+        bh.consume(gameModel);
+    }
+
+    @Override
+    public void AskForReconnection(Player triedToJoin, GameImmutable gameModel) {
+        bh.consume(gameModel);
+    }
+
+    @Override
+    public void gameStarted(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void gameEnded(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void requireInitialReady(GameImmutable model, int index) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void requireGoalsReady(GameImmutable model, int index) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void cardsReady(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void cardPlaced(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void cardDrawn(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void nextTurn(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void playerDisconnected(GameImmutable model, String nick) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void errorReconnecting(String why) {
+        bh.consume(why);
+    }
+
+    @Override
+    public void lastCircle(GameImmutable model) {
+        bh.consume(model);
+    }
+
+    @Override
+    public void playerReady(GameImmutable gameImmutable, String nickname) {
+        bh.consume(gameImmutable);
+    }
+
+    @Override
+    public void onlyOnePlayerConnected(GameImmutable gameModel, int secondsToWaitUntilGameEnded) {
+        bh.consume(gameModel);
+    }
+
+    @Override
+    public void sentMessage(GameImmutable model, Message msg) {
+        bh.consume(msg);
+    }
+
+    @Override
+    public void deltaReceived(GameDelta delta) {
+        bh.consume(delta);
+    }
+
+    @Override
+    public void chatReceived(Message msg) {
+        bh.consume(msg);
+    }
+
+    @Override
+    public void chatHistory(List<Message> page) {
+        bh.consume(page);
+    }
+
+    @Override
+    public void resynced(GameImmutable model) {
+        bh.consume(model);
+    }
+}
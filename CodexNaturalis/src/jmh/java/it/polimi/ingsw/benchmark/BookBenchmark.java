@@ -0,0 +1,89 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exceptions.CellNotAvailableException;
+import it.polimi.ingsw.exceptions.PlacementConditionViolated;
+import it.polimi.ingsw.model.Book;
+import it.polimi.ingsw.model.Cell;
+import it.polimi.ingsw.model.cards.PlayableCard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookBenchmark Class<br>
+ * Placement, frontier and printing of a player book in the middle of a match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookBenchmark {
+
+    /**
+     * Cards placed on the book after the initial card
+     */
+    @Param({"10", "25"})
+    public int cards;
+
+    /**
+     * Book with the cards already placed
+     */
+    private Book book;
+
+    /**
+     * Cards placed on {@link #book}, in order
+     */
+    private PlayableCard[] placedCards;
+
+    /**
+     * Row and column of the cells of {@link #book}, in order of placement
+     */
+    private int[][] placedCells;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        book = Fixtures.book(42, cards);
+        placedCards = new PlayableCard[cards];
+        placedCells = new int[cards][];
+        for (Cell cell : book.getCells()) {
+            int order = cell.getPlacementOrder();
+            if (cell.getCard() != null && order > 0) {
+                placedCards[order - 1] = cell.getCard();
+                placedCells[order - 1] = new int[]{cell.getRow(), cell.getColumn()};
+            }
+        }
+    }
+
+    /**
+     * Places again, on an empty book, the cards of {@link #book} in the same cells
+     *
+     * @return the new book
+     */
+    @Benchmark
+    public Book addCard() throws PlacementConditionViolated, CellNotAvailableException {
+        Book b = new Book(40, 40);
+        b.addInitial(book.getInitialCard());
+        for (int i = 0; i < cards; i++) {
+            b.addCard(placedCards[i], b.getAvailableCell(placedCells[i][0], placedCells[i][1]));
+        }
+        return b;
+    }
+
+    @Benchmark
+    public ArrayList<Cell> showAvailableCells() {
+        return book.showAvailableCells();
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return book.isAvailable(34, 34);
+    }
+
+    @Benchmark
+    public String bookToString() {
+        return book.toString();
+    }
+}
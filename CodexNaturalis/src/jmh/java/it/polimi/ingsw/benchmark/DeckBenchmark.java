@@ -0,0 +1,28 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.model.Deck;
+import it.polimi.ingsw.model.cards.CardType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeckBenchmark Class<br>
+ * Construction of the decks, done for every new game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    @Param({"ResourceCard", "GoldCard", "InitialCard"})
+    public CardType cardType;
+
+    @Benchmark
+    public Deck newDeck() {
+        return new Deck(cardType);
+    }
+}
@@ -0,0 +1,98 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exceptions.CellNotAvailableException;
+import it.polimi.ingsw.exceptions.PlacementConditionViolated;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.Book;
+import it.polimi.ingsw.model.Cell;
+import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.Deck;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.cards.PlayableCard;
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.model.player.Player;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures Class<br>
+ * Books and games in the state reached during a real match, shared by the benchmarks.
+ */
+public final class Fixtures {
+
+    /**
+     * Initial cards, front side
+     */
+    static final List<PlayableCard> INITIAL_CARDS = new Deck(CardType.InitialCard).getFrontCards();
+
+    /**
+     * Resource cards, back side: they can be placed on every available cell
+     */
+    static final List<PlayableCard> RESOURCE_BACKS = new Deck(CardType.ResourceCard).getBackCards();
+
+    private Fixtures() {
+    }
+
+    /**
+     * Builds a player book with the initial card and some cards placed on random available cells
+     *
+     * @param seed  the seed of the random placements
+     * @param cards the number of cards to place after the initial card
+     * @return the book
+     */
+    static Book book(long seed, int cards) {
+        Random random = new Random(seed);
+        Book book = new Book(40, 40);
+        book.addInitial(INITIAL_CARDS.get(random.nextInt(INITIAL_CARDS.size())));
+        for (int i = 0; i < cards; i++) {
+            place(book, random);
+        }
+        return book;
+    }
+
+    /**
+     * Places a random resource card on a random available cell
+     *
+     * @param book   the book
+     * @param random the source of the random choices
+     */
+    static void place(Book book, Random random) {
+        List<Cell> available = book.showAvailableCells();
+        Cell cell = available.get(random.nextInt(available.size()));
+        try {
+            book.addCard(RESOURCE_BACKS.get(random.nextInt(RESOURCE_BACKS.size())), cell);
+        } catch (PlacementConditionViolated | CellNotAvailableException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Builds a running game whose players have already placed some cards
+     *
+     * @param players  the number of players
+     * @param cards    the number of cards placed by each player
+     * @param listener the listener of every player
+     * @return the game
+     */
+    static Game game(int players, int cards, GameListenerInterface listener) {
+        Game game = new Game();
+        game.setPlayersNumber(players);
+        game.initializeBoard();
+        Color[] colors = Color.values();
+        for (int i = 0; i < players; i++) {
+            game.addPlayer(listener, "player" + i, colors[i % colors.length]);
+        }
+        long seed = 0;
+        for (Player p : game.getPlayers()) {
+            Random random = new Random(seed++);
+            Book book = p.getPlayerBook();
+            book.addInitial(INITIAL_CARDS.get(random.nextInt(INITIAL_CARDS.size())));
+            for (int i = 0; i < cards; i++) {
+                place(book, random);
+            }
+        }
+        game.setCurrentPlayer(game.getPlayers().getFirst());
+        return game;
+    }
+}
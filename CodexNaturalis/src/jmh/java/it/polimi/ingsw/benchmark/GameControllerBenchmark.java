@@ -0,0 +1,87 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.controller.GameController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameControllerBenchmark Class<br>
+ * Throughput of the commands executed by the mailboxes of the games, with one client and with four clients
+ * sending commands at the same time, spread over one or more games. <br>
+ * The score is in commands per second for all the threads together: divide it by the cores of the machine
+ * to get the commands per second per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameControllerBenchmark {
+
+    /**
+     * Number of games the clients are spread over
+     */
+    @Param({"1", "16"})
+    public int games;
+
+    private GameController[] controllers;
+
+    /**
+     * Index of the next game assigned to a client
+     */
+    private final AtomicInteger nextGame = new AtomicInteger();
+
+    /**
+     * A client that always sends its commands to the same game
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        int game;
+        String nickname;
+
+        @Setup(Level.Trial)
+        public void setup(GameControllerBenchmark benchmark) {
+            game = benchmark.nextGame.getAndIncrement() % benchmark.games;
+            nickname = "player" + game;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole bh) throws RemoteException {
+        controllers = new GameController[games];
+        for (int i = 0; i < games; i++) {
+            controllers[i] = new GameController();
+            controllers[i].settingGame(new BlackholeListener(bh), 4, i, "player" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (GameController controller : controllers) {
+            controller.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean queryOneClient(Client client) {
+        return controllers[client.game].hasPlayer(client.nickname);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean queryFourClients(Client client) {
+        return controllers[client.game].hasPlayer(client.nickname);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateFourClients(Client client) {
+        controllers[client.game].setGameCreated(true);
+    }
+}
@@ -0,0 +1,71 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.model.game.GameImmutable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameImmutableBenchmark Class<br>
+ * Copy of the game sent to the clients and its Java serialization, as done by RMI. <br>
+ * The size of the serialized copy is printed at the end of each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameImmutableBenchmark {
+
+    @Param({"2", "4"})
+    public int players;
+
+    /**
+     * Cards placed by each player
+     */
+    @Param({"0", "20"})
+    public int cards;
+
+    private Game game;
+    private GameImmutable immutable;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole bh) {
+        game = Fixtures.game(players, cards, new BlackholeListener(bh));
+        immutable = new GameImmutable(game);
+    }
+
+    @TearDown(Level.Trial)
+    public void printSize() throws IOException {
+        System.out.println("serialized GameImmutable: " + serialize(immutable).length + " bytes");
+    }
+
+    @Benchmark
+    public GameImmutable newGameImmutable() {
+        return new GameImmutable(game);
+    }
+
+    @Benchmark
+    public byte[] serializeGameImmutable() throws IOException {
+        return serialize(immutable);
+    }
+
+    /**
+     * @param obj the object to serialize
+     * @return the object written with Java serialization
+     * @throws IOException if the object can't be serialized
+     */
+    private static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(obj);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.model.Book;
+import it.polimi.ingsw.model.ObjectiveDeck;
+import it.polimi.ingsw.model.cards.GoalType;
+import it.polimi.ingsw.model.cards.ObjectiveCard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GoalBenchmark Class<br>
+ * Scoring of an objective of each goal type on a book at the end of a match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalBenchmark {
+
+    /**
+     * Goal type of the scored objective
+     */
+    @Param({"ResourceCondition", "SymbolCondition", "DiagonalPlacement", "LPlacement"})
+    public GoalType goalType;
+
+    private Book book;
+    private ObjectiveCard objective;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        book = Fixtures.book(42, 25);
+        for (ObjectiveCard card : new ObjectiveDeck().getFrontCards()) {
+            if (card.getGoalType() == goalType) {
+                objective = card;
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int checkGoal() {
+        return book.checkGoal(objective);
+    }
+
+    /**
+     * Full scan of the book, the reference for the placement objectives scored by {@link #checkGoal()}
+     *
+     * @return the points of the objective
+     */
+    @Benchmark
+    public int checkGoalScan() {
+        return switch (goalType) {
+            case DiagonalPlacement -> book.checkDiagonalPlacement(objective);
+            case LPlacement -> book.checkLPlacement(objective);
+            default -> book.checkGoal(objective);
+        };
+    }
+}
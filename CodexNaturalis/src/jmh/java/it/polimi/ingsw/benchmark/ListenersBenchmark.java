@@ -0,0 +1,50 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.listener.ListenersHandler;
+import it.polimi.ingsw.model.game.Game;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ListenersBenchmark Class<br>
+ * Fan-out of a notification to the listeners of a game, both for a change sent as a delta and for a
+ * notification that still sends a whole copy of the game to every listener.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenersBenchmark {
+
+    /**
+     * Number of listeners notified
+     */
+    @Param({"1", "4", "16"})
+    public int listeners;
+
+    private Game game;
+    private ListenersHandler handler;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole bh) {
+        game = Fixtures.game(4, 20, new BlackholeListener(bh));
+        handler = new ListenersHandler();
+        for (int i = 0; i < listeners; i++) {
+            handler.addListener(new BlackholeListener(bh));
+        }
+    }
+
+    @Benchmark
+    public void notifyNextTurn() {
+        handler.notify_nextTurn(game);
+    }
+
+    @Benchmark
+    public void notifyGameStarted() {
+        handler.notify_GameStarted(game);
+    }
+}
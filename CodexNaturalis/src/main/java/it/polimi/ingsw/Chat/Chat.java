@@ -5,65 +5,135 @@ import it.polimi.ingsw.model.player.Player;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
- * The Chat class manages a list of messages exchanged between players.
+ * The Chat class manages a list of messages exchanged between players. <br>
+ * The messages are kept in a ring of fixed capacity: a new message takes the place of the oldest one
+ * when the chat is full, so adding a message never moves the others. <br>
+ * The chat of the game, on the server, numbers the messages added to it and keeps a long history, that the clients
+ * read one page at a time with {@link #getPage(long, int)}; the chat of a client keeps only the latest messages.
  */
 public class Chat implements Serializable {
-    private List<Message> msgs;
 
     /**
-     * Default constructor that initializes an empty list of messages.
+     * The messages, the oldest one is at index head
+     */
+    private final Message[] msgs;
+
+    /**
+     * Index of the oldest message
+     */
+    private int head;
+
+    /**
+     * Number of messages in the chat
+     */
+    private int size;
+
+    /**
+     * Number given to the next message added with {@link #addMsg(Message)}
+     */
+    private long nextSeq;
+
+    /**
+     * Length of the longest text in the chat, -1 if it must be computed again
+     */
+    private int maxTextLength;
+
+    /**
+     * Default constructor that initializes an empty chat keeping the latest {@link DefaultValue#max_messagesShow} messages.
      */
     public Chat() {
-        msgs = new ArrayList<>();
+        this(DefaultValue.max_messagesShow);
     }
 
     /**
-     * Constructor that initializes the chat with a given list of messages.
+     * Constructor that initializes an empty chat keeping the given number of messages.
      *
-     * @param msgs the list of messages
+     * @param capacity the max number of messages kept
      */
-    public Chat(List<Message> msgs) {
-        this.msgs = msgs;
+    public Chat(int capacity) {
+        this.msgs = new Message[Math.max(1, capacity)];
+        this.head = 0;
+        this.size = 0;
+        this.nextSeq = 0;
+        this.maxTextLength = 0;
     }
 
     /**
-     * Returns the list of messages.
+     * Returns the list of messages, from the oldest to the latest.
      *
      * @return msgs
      */
     public List<Message> getMsgs() {
-        return msgs;
+        List<Message> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(get(i));
+        }
+        return ret;
+    }
+
+    /**
+     * @param i the index of the message, 0 is the oldest
+     * @return the message
+     */
+    private Message get(int i) {
+        return msgs[(head + i) % msgs.length];
     }
 
 
     /**
-     * Adds a message to the list. If the list exceeds the maximum number of messages allowed,
-     * it removes the oldest message.
+     * Numbers the message and adds it to the chat. If the chat is full, the oldest message is removed.
      *
      * @param m the message to add
      */
     public void addMsg(Message m) {
-        if (msgs.size() >= DefaultValue.max_messagesShow)
-            msgs.remove(0);
-        msgs.add(m);
+        m.setSeq(nextSeq);
+        append(m);
     }
 
     /**
-     * Creates a message with a sender and text, then adds it to the list. If the list exceeds
-     * the maximum number of messages allowed, it removes the oldest message.
+     * Creates a message with a sender and text, then adds it to the chat. If the chat is full,
+     * the oldest message is removed.
      *
      * @param sender the player sending the message
      * @param text   the text of the message
      */
     public void addMsg(Player sender, String text) {
-        Message temp = new Message(text, sender);
-        if (msgs.size() >= DefaultValue.max_messagesShow)
-            msgs.remove(0);
-        msgs.add(temp);
+        addMsg(new Message(text, sender));
+    }
+
+    /**
+     * Adds a message already numbered by the chat of the game, keeping its number.
+     * If the chat is full, the oldest message is removed.
+     *
+     * @param m the message to add
+     */
+    public void addReceivedMsg(Message m) {
+        append(m);
+    }
+
+    /**
+     * Adds a message after the latest one, in place of the oldest one if the chat is full
+     *
+     * @param m the message to add
+     */
+    private void append(Message m) {
+        if (size == msgs.length) {
+            if (msgs[head].getText().length() >= maxTextLength) {
+                maxTextLength = -1;
+            }
+            msgs[head] = m;
+            head = (head + 1) % msgs.length;
+        } else {
+            msgs[(head + size) % msgs.length] = m;
+            size++;
+        }
+        if (maxTextLength >= 0) {
+            maxTextLength = Math.max(maxTextLength, m.getText().length());
+        }
+        nextSeq = Math.max(nextSeq, m.getSeq() + 1);
     }
 
 
@@ -71,16 +141,75 @@ public class Chat implements Serializable {
      * @return the last message as a string.
      */
     public String getLast() {
-        return msgs.get(msgs.size() - 1).toString();
+        return getLastMessage().toString();
     }
 
     /**
      * @return the last message in message form
      */
     public Message getLastMessage() {
-        return msgs.get(msgs.size() - 1);
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("The chat is empty");
+        }
+        return get(size - 1);
     }
 
+    /**
+     * @return the number of the oldest numbered message of the chat, -1 if there isn't any
+     */
+    public long getFirstSeq() {
+        for (int i = 0; i < size; i++) {
+            if (get(i).getSeq() >= 0) {
+                return get(i).getSeq();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number that will be given to the next message added with {@link #addMsg(Message)}
+     */
+    public long getNextSeq() {
+        return nextSeq;
+    }
+
+    /**
+     * Returns a page of the history of the chat, the messages removed from the chat are not part of it.
+     *
+     * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+     * @param limit   the max number of messages of the page
+     * @return the messages numbered from fromSeq on, at most limit, from the oldest to the latest
+     */
+    public List<Message> getPage(long fromSeq, int limit) {
+        int count = Math.max(0, Math.min(limit, size));
+        int start = size - count;
+        if (fromSeq >= 0) {
+            //the chat of the game numbers its messages one after the other, the oldest one is the first to check
+            start = 0;
+            while (start < size && get(start).getSeq() < fromSeq) {
+                start++;
+            }
+            count = Math.max(0, Math.min(limit, size - start));
+        }
+        List<Message> page = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            page.add(get(i));
+        }
+        return page;
+    }
+
+    /**
+     * @return the length of the longest text in the chat
+     */
+    private int maxTextLength() {
+        if (maxTextLength < 0) {
+            maxTextLength = 0;
+            for (int i = 0; i < size; i++) {
+                maxTextLength = Math.max(maxTextLength, get(i).getText().length());
+            }
+        }
+        return maxTextLength;
+    }
 
 
     /**
@@ -89,15 +218,9 @@ public class Chat implements Serializable {
     @Override
     public String toString() {
         StringBuilder ret = new StringBuilder();
-        int i = 0;
-        int len = this.getMsgs().stream()
-                .map(Message::getText)
-                .max(Comparator.comparingInt(String::length))
-                .orElse("")
-                .length();
-        for (Message m : msgs) {
-            ret.append(m.toString(i, len, false)).append("\n");
-            i++;
+        int len = maxTextLength();
+        for (int i = 0; i < size; i++) {
+            ret.append(get(i).toString(i, len, false)).append("\n");
         }
         return ret.toString();
     }
@@ -110,19 +233,13 @@ public class Chat implements Serializable {
      */
     public String toString(String privateMsgByNickname) {
         StringBuilder ret = new StringBuilder();
-        int i = 0;
-        int len = this.getMsgs().stream()
-                .map(Message::getText)
-                .max(Comparator.comparingInt(String::length))
-                .orElse("")
-                .length();
-
-        for (Message m : msgs) {
+        int len = maxTextLength();
+        for (int i = 0; i < size; i++) {
+            Message m = get(i);
             boolean isPrivate = !m.whoIsReceiver().equals("*") &&
-                    (m.getSender().getNickname().equals(privateMsgByNickname) ||
+                    (m.getSender().equals(privateMsgByNickname) ||
                             m.whoIsReceiver().equals(privateMsgByNickname));
             ret.append(m.toString(i, len, isPrivate)).append("\n");
-            i++;
         }
         return ret.toString();
     }
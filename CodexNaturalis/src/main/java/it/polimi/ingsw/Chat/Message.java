@@ -6,14 +6,21 @@ import java.io.Serializable;
 import java.time.LocalTime;
 
 /**
- * The Message class represents a message sent by a player in the chat.
+ * The Message class represents a message sent by a player in the chat. <br>
+ * The sender is kept by nickname, the ID of a player in the game, so a message only carries its text,
+ * the nickname and the time and never drags the book or the cards of the sender along.
  */
 public class Message implements Serializable {
 
     private String text;
-    private Player sender;
+    private String sender;
     private LocalTime time;
 
+    /**
+     * Number of the message in the chat of the game, -1 if it has not been added to the chat of the game
+     */
+    private long seq = -1;
+
     /**
      * Constructor that initializes a message with the given text and sender.
      * The time of the message is set to the current time.
@@ -22,9 +29,20 @@ public class Message implements Serializable {
      * @param sender the player who sends the message
      */
     public Message(String text, Player sender) {
+        this(text, sender.getNickname(), LocalTime.now());
+    }
+
+    /**
+     * Constructor that initializes a message with the given text, sender and time.
+     *
+     * @param text   the text content of the message
+     * @param sender the nickname of the player who sends the message
+     * @param time   the time the message has been sent
+     */
+    public Message(String text, String sender, LocalTime time) {
         this.text = text;
         this.sender = sender;
-        this.time = LocalTime.now();
+        this.time = time;
     }
 
     /**
@@ -54,13 +72,31 @@ public class Message implements Serializable {
 
     /**
      *
-     * @return the message's sender
+     * @return the nickname of the message's sender
      */
-    public Player getSender() {
+    public String getSender() {
         return sender;
     }
 
 
+    /**
+     * Returns the number of the message in the chat of the game, given in order to the messages added to it:
+     * the clients use it to ask for the messages sent before the ones they have.
+     *
+     * @return the number of the message, -1 if it has not been added to the chat of the game
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Set the number of the message in the chat of the game.
+     * @param seq the number of the message
+     */
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
     /**
      * Returns the time the message was sent.
      * @return the message's time of sending
@@ -90,7 +126,7 @@ public class Message implements Serializable {
         String padding = " ".repeat(Math.max(0, (len - text.length())));
         String priv = isPrivate ? "[PRIVATE]: " : "";
         String timestamp = String.format("[%02d:%02d:%02d] ", time.getHour(), time.getMinute(), time.getSecond());
-        String nickname = sender.getNickname().length() > 4 ? sender.getNickname().substring(0, 4) + "." : sender.getNickname();
+        String nickname = sender.length() > 4 ? sender.substring(0, 4) + "." : sender;
         return priv + timestamp + nickname + ": " + text + padding;
 
     }
@@ -2,6 +2,8 @@ package it.polimi.ingsw.Chat;
 
 import it.polimi.ingsw.model.player.Player;
 
+import java.time.LocalTime;
+
 /**
  * The MessagePrivate class represents a private message sent by a player in the chat.
  */
@@ -21,6 +23,19 @@ public class MessagePrivate extends Message{
         this.receiverPrivate=receiver;
     }
 
+    /**
+     * Constructor that initializes a private message with the given text, sender, receiver and time.
+     *
+     * @param text     the text content of the message
+     * @param sender   the nickname of the player who sends the message
+     * @param receiver the receiver of the private message
+     * @param time     the time the message has been sent
+     */
+    public MessagePrivate(String text, String sender, String receiver, LocalTime time){
+        super(text,sender,time);
+        this.receiverPrivate=receiver;
+    }
+
     /**
      * Returns the designated receiver for the private message.
      *
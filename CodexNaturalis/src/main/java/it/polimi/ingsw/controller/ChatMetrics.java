@@ -0,0 +1,140 @@
+package it.polimi.ingsw.controller;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static it.polimi.ingsw.view.PrintAsync.printAsync;
+
+/**
+ * ChatMetrics Class<br>
+ * Counts the batches of messages of the chat delivered by all the games and the time the messages waited
+ * to be delivered. <br>
+ * The counters are updated by the mailboxes of the games without locking and are exported with JMX,
+ * under the name {@link #NAME}, so they can be read with any JMX console while the server is running.
+ */
+public class ChatMetrics implements ChatMetricsMXBean {
+
+    /**
+     * The JMX name of the metrics
+     */
+    public static final String NAME = "it.polimi.ingsw:type=ChatMetrics";
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static ChatMetrics instance = null;
+
+    /**
+     * Batches delivered
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * Messages delivered
+     */
+    private final LongAdder messages = new LongAdder();
+
+    /**
+     * Messages refused by the {@link ChatRateLimiter} of their game
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Sum of the times between the first message of each batch and its delivery
+     */
+    private final LongAdder latencyNanos = new LongAdder();
+
+    /**
+     * Largest batch delivered
+     */
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Longest time between the first message of a batch and its delivery
+     */
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the ChatMetrics class, registered in the JMX platform server
+     */
+    public static synchronized ChatMetrics getInstance() {
+        if (instance == null) {
+            instance = new ChatMetrics();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(instance, name);
+                }
+            } catch (JMException e) {
+                printAsync("The metrics of the chat are not exported: " + e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Counts a batch of messages delivered
+     *
+     * @param size the number of messages of the batch
+     * @param latencyNanos the time between the first message of the batch and its delivery
+     */
+    public void batchDelivered(int size, long latencyNanos) {
+        batches.increment();
+        messages.add(size);
+        this.latencyNanos.add(latencyNanos);
+        maxBatchSize.accumulate(size);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    /**
+     * Counts a message refused because its sender sent too many messages
+     */
+    public void messageRejected() {
+        rejected.increment();
+    }
+
+    @Override
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    @Override
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long n = batches.sum();
+        return n == 0 ? 0 : (double) messages.sum() / n;
+    }
+
+    @Override
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    @Override
+    public double getAverageLatency_millis() {
+        long n = batches.sum();
+        return n == 0 ? 0 : (double) latencyNanos.sum() / n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getMaxLatency_millis() {
+        return (double) maxLatencyNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,43 @@
+package it.polimi.ingsw.controller;
+
+/**
+ * ChatMetricsMXBean Interface<br>
+ * Metrics of the delivery of the chat, exported with JMX by {@link ChatMetrics}
+ */
+public interface ChatMetricsMXBean {
+
+    /**
+     * @return the number of batches of messages delivered
+     */
+    long getBatches();
+
+    /**
+     * @return the number of messages delivered
+     */
+    long getMessages();
+
+    /**
+     * @return the number of messages refused because their sender sent too many messages
+     */
+    long getRejected();
+
+    /**
+     * @return the average number of messages of a batch
+     */
+    double getAverageBatchSize();
+
+    /**
+     * @return the largest batch delivered
+     */
+    long getMaxBatchSize();
+
+    /**
+     * @return the average time, in milliseconds, between the first message of a batch and its delivery
+     */
+    double getAverageLatency_millis();
+
+    /**
+     * @return the longest time, in milliseconds, between the first message of a batch and its delivery
+     */
+    double getMaxLatency_millis();
+}
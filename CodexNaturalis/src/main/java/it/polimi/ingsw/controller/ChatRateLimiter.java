@@ -0,0 +1,110 @@
+package it.polimi.ingsw.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChatRateLimiter Class<br>
+ * Token bucket of each player of a game, limiting the messages of the chat he can send. <br>
+ * The bucket of a player holds at most burst tokens and earns ratePerSecond tokens every second; a message takes
+ * one token and is refused when the bucket is empty. The tokens are refilled when a message arrives, from the
+ * time elapsed since the previous one, so the limiter needs no timer. It is checked by the thread that received
+ * the message, against the players published by the {@link GameController}, and only the accepted messages are
+ * queued in the mailbox of the game, so a player who floods the chat doesn't delay the commands of the game.
+ */
+public class ChatRateLimiter {
+
+    /**
+     * Tokens earned in a nanosecond
+     */
+    private final double tokensPerNano;
+
+    /**
+     * Max number of tokens of a bucket
+     */
+    private final double burst;
+
+    /**
+     * The bucket of each player, by nickname
+     */
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param ratePerSecond the messages a player can send every second
+     * @param burst the messages a player can send at once, after a pause
+     */
+    public ChatRateLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("The rate and the burst of the chat must be positive");
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+    }
+
+    /**
+     * Takes a token from the bucket of the player
+     *
+     * @param nickname the nickname of the player sending a message
+     * @return true if the message can be sent, false if the player sent too many messages
+     */
+    public boolean tryAcquire(String nickname) {
+        return tryAcquire(nickname, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the player
+     *
+     * @param nickname the nickname of the player sending a message
+     * @param nowNanos the current time, as given by {@link System#nanoTime()}
+     * @return true if the message can be sent, false if the player sent too many messages
+     */
+    boolean tryAcquire(String nickname, long nowNanos) {
+        if (nickname == null) {
+            return false;
+        }
+        Bucket bucket = buckets.computeIfAbsent(nickname, n -> new Bucket(burst, nowNanos));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(burst, bucket.tokens + (nowNanos - bucket.lastNanos) * tokensPerNano);
+            bucket.lastNanos = nowNanos;
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Forgets the bucket of a player who left the game
+     *
+     * @param nickname the nickname of the player
+     */
+    public void remove(String nickname) {
+        buckets.remove(nickname);
+    }
+
+    /**
+     * Bucket Class<br>
+     * The tokens of a player
+     */
+    private static final class Bucket {
+
+        /**
+         * Tokens left, a message takes one
+         */
+        private double tokens;
+
+        /**
+         * Time of the last refill
+         */
+        private long lastNanos;
+
+        private Bucket(double tokens, long lastNanos) {
+            this.tokens = tokens;
+            this.lastNanos = lastNanos;
+        }
+    }
+}
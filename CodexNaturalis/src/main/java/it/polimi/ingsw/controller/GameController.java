@@ -6,17 +6,20 @@ import it.polimi.ingsw.listener.GameListenerInterface;
 
 import it.polimi.ingsw.model.Color;
 import it.polimi.ingsw.model.DefaultValue;
-import it.polimi.ingsw.model.Ping;
+import it.polimi.ingsw.model.GameRandom;
 import it.polimi.ingsw.model.cards.CardType;
 import it.polimi.ingsw.model.game.Game;
 import it.polimi.ingsw.model.game.GameStatus;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.HashedWheelTimer;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
 
 import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static it.polimi.ingsw.view.PrintAsync.printAsync;
 
@@ -26,9 +29,17 @@ import static it.polimi.ingsw.view.PrintAsync.printAsync;
  * The class can add, remove, reconnect and disconnects players to the game and let players pick and place cards
  * from the Board to them Book. <br>
  * <br>
- * It manages all the game from the beginning (GameStatus.WAIT to the ending {GameStatus.Ended}
+ * It manages all the game from the beginning (GameStatus.WAIT to the ending {GameStatus.Ended} <br>
+ * <br>
+ * Every action is a command executed by the {@link GameMailbox} of the game, in the order it was received:
+ * the model is only accessed by the mailbox, including the expired ping deadlines and the end of the reconnection
+ * timer, scheduled on the {@link HashedWheelTimer} shared by all the games, so the controller doesn't lock
+ * and an idle game doesn't hold any thread. The callers wait for their command to be executed. <br>
+ * The commands that change the game are written in the {@link GameJournal} in the order they are executed,
+ * once the player and the turn have been checked, so that the game can be rebuilt after a crash of the server:
+ * the commands refused are never written, so they are not executed again while rebuilding the game.
  */
-public class GameController implements GameControllerInterface, Serializable, Runnable {
+public class GameController implements GameControllerInterface, Serializable {
 
     /**
      * The {@link Game} to control
@@ -36,48 +47,245 @@ public class GameController implements GameControllerInterface, Serializable, Ru
     private final Game model;
 
     /**
-     * Singleton Pattern, instance of the class
+     * To set if the game is created
      */
-    private static GameController instance = null;
+    private boolean gameCreated;
 
     /**
-     * To set if the game is created
+     * To control the ping system: the deadline of the next ping of each listener of the game
      */
-    private boolean gameCreated;
+    private final transient Map<GameListenerInterface, HashedWheelTimer.Timeout> pingDeadlines;
 
     /**
-     * To control the ping system for each listener of the game
+     * False when the pings are no more monitored, because no player is online or the game was removed
      */
-    private final transient Map<GameListenerInterface, Ping> receivedPings;
+    private transient volatile boolean monitoringPings;
 
     /**
      * Timer started when only one player is playing (usefull during a Disconnection of a player)
      * it ends the game if no one reconnects within {@link DefaultValue#secondsToWaitReconnection} seconds
      */
-    private Thread reconnectionTh;
+    private transient HashedWheelTimer.Timeout reconnectionTimer;
+
+    /**
+     * Limits the messages of the chat sent by each player
+     */
+    private final transient ChatRateLimiter chatLimiter = new ChatRateLimiter(DefaultValue.chatMessagesPerSecond, DefaultValue.chatBurst);
+
+    /**
+     * The players of the game by nickname, published by the mailbox after each command, so that the sender of a
+     * chat message is matched with its client and rate limited without entering the mailbox
+     */
+    private transient volatile Map<String, Player> roster = Map.of();
+
+    /**
+     * Messages received and not yet delivered, accessed only by the mailbox
+     */
+    private final transient List<Message> chatBatch = new ArrayList<>();
+
+    /**
+     * Time the first message of the batch was received
+     */
+    private transient long chatBatchStart;
+
+    /**
+     * Mailbox that executes the commands of this game
+     */
+    private final transient GameMailbox mailbox;
+
+    /**
+     * Told by the mailbox when the game starts or stops waiting for players, or ends; null if no one observes it
+     */
+    private transient volatile StatusObserver observer;
+
+    /**
+     * The last state told to the observer, accessed only by the mailbox
+     */
+    private transient boolean waiting, ended;
+
+    /**
+     * Observer of the state of a game that matters to the registry of the games, see {@link GamesManager}
+     */
+    interface StatusObserver {
+        /**
+         * Called by the mailbox of the game after the command that changed its state
+         *
+         * @param game    the controller of the game
+         * @param waiting true if the game has been created and is waiting for players
+         * @param ended   true if the game is ended
+         */
+        void statusChanged(GameController game, boolean waiting, boolean ended);
+    }
 
 
     /**GameController Constructor
      * Initializes a GameModel
      */
     public GameController()  {
-        model = new Game();
-        receivedPings = new HashMap<>();
+        this(GameRandom.newSeed());
+    }
+
+    /**
+     * GameController Constructor
+     * Initializes a GameModel whose random choices are taken from the seed, used to replay a game
+     *
+     * @param seed the seed of the game
+     */
+    public GameController(long seed) {
+        model = new Game(new GameRandom(seed));
+        pingDeadlines = new ConcurrentHashMap<>();
+        monitoringPings = true;
+        mailbox = new GameMailbox();
         this.gameCreated= false;
+    }
 
-        new Thread(this).start();
+    /**
+     * GameController Constructor
+     * Controls a game rebuilt from a {@link GameSnapshot}
+     *
+     * @param model the game
+     */
+    public GameController(Game model) {
+        this.model = model;
+        pingDeadlines = new ConcurrentHashMap<>();
+        monitoringPings = true;
+        mailbox = new GameMailbox();
+        this.gameCreated = true;
+    }
+
+    /**
+     * Cancels the timers of the controller, used when the game is removed from the {@link GamesManager}
+     */
+    public void shutdown() {
+        stopPingDeadlines();
+        mailbox.tell(this::stopReconnectionTimer);
     }
 
     /**
-     * Singleton Pattern
+     * Sets the observer told by the mailbox when the game starts or stops waiting for players, or ends
      *
-     * @return the only one instance of the GameController class
+     * @param observer the observer
      */
-    public static synchronized GameController getInstance() {
-        if (instance == null) {
-            instance = new GameController();
+    void observe(StatusObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Publishes the players of the game and tells the observer if the last command changed the state of the game,
+     * called by the mailbox after each command
+     */
+    private void publishStatus() {
+        publishRoster();
+        StatusObserver o = observer;
+        if (o == null) {
+            return;
+        }
+        boolean nowEnded = model.getStatus().equals(GameStatus.ENDED);
+        boolean nowWaiting = !nowEnded && gameCreated && model.getStatus().equals(GameStatus.WAIT)
+                && model.getPlayers().size() < model.getNumPlayers();
+        if (nowWaiting != waiting || nowEnded != ended) {
+            waiting = nowWaiting;
+            ended = nowEnded;
+            o.statusChanged(this, nowWaiting, nowEnded);
+        }
+    }
+
+    /**
+     * Publishes the players of the game in the {@link #roster} if they changed, called by the mailbox
+     */
+    private void publishRoster() {
+        List<Player> players = model.getPlayers();
+        boolean changed = players.size() != roster.size();
+        for (int i = 0; i < players.size() && !changed; i++) {
+            changed = roster.get(players.get(i).getNickname()) != players.get(i);
+        }
+        if (changed) {
+            Map<String, Player> published = new HashMap<>();
+            for (Player p : players) {
+                published.put(p.getNickname(), p);
+            }
+            roster = Collections.unmodifiableMap(published);
         }
-        return instance;
+    }
+
+    /**
+     * Sends a command of the game to the mailbox without waiting for it
+     *
+     * @param command the command
+     */
+    private void tell(Runnable command) {
+        mailbox.tell(() -> {
+            command.run();
+            publishStatus();
+        });
+    }
+
+    /**
+     * Disconnects all the players of a game rebuilt from the {@link GameJournal} and starts the reconnection timer:
+     * the game goes on if at least two players reconnect in time, as after a disconnection.
+     *
+     * @param lis the listener used to rebuild the game
+     * @return the nicknames of the players of the game
+     */
+    public List<String> recovered(GameListenerInterface lis) {
+        return ask(() -> {
+            List<String> nicknames = new ArrayList<>();
+            model.removeListener(lis);
+            for (Player p : model.getPlayers()) {
+                p.removeListener(lis);
+                p.setConnected(false);
+                nicknames.add(p.getNickname());
+            }
+            if (reconnectionTimer == null) {
+                startReconnectionTimer();
+            }
+            return nicknames;
+        });
+    }
+
+    /**
+     * Takes a snapshot of the game between two of its commands, without waiting for it.
+     * The image is encoded by the mailbox, so the snapshot is consistent with the position of the
+     * {@link GameJournal} after the last command of the game.
+     *
+     * @return the future snapshot, completed with null if the game has not been created or is ended
+     */
+    public CompletableFuture<GameSnapshot> snapshot() {
+        return mailbox.submit(() -> {
+            if (!gameCreated || model.getStatus().equals(GameStatus.ENDED)) {
+                return null;
+            }
+            return GameSnapshot.of(model, GameJournal.getInstance().position());
+        });
+    }
+
+    /**
+     * Executes a command in the mailbox of the game and waits for its result.
+     * The {@link GamesManager} queues the set-up of a new game before publishing it, see {@link #queueSettingGame},
+     * so the commands of the other players are executed after the set-up without any lock.
+     *
+     * @param command the command
+     * @return the result of the command
+     * @param <T> the type of the result
+     */
+    private <T> T ask(Supplier<T> command) {
+        return GameMailbox.await(mailbox.submit(() -> {
+            T result = command.get();
+            publishStatus();
+            return result;
+        }));
+    }
+
+    /**
+     * Executes a command in the mailbox of the game and waits until it has been executed.
+     *
+     * @param command the command
+     */
+    private void execute(Runnable command) {
+        ask(() -> {
+            command.run();
+            return null;
+        });
     }
 
     /**
@@ -85,69 +293,69 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      *
      * @return true if the game is created, false otherwise
      */
-    public synchronized boolean isGameCreated(){
-        return gameCreated;
+    public boolean isGameCreated(){
+        return ask(() -> gameCreated);
     }
 
     /**
-     * Adds a Ping to the receivedPing map when a ClientMsgPing is sent and calls the method.
+     * Moves forward the deadline of the next ping of the client, when a ClientMsgPing is sent.
+     * If the deadline expires before the next ping, the player is disconnected, see {@link #pingExpired}.
      *
      * @param nickname the nickname of the player who sent the ping message
      * @param me the client who sends ping messages
      */
     @Override
     public void ping(String nickname, GameListenerInterface me) throws RemoteException {
-        synchronized (receivedPings) {
-            receivedPings.put(me, new Ping(System.currentTimeMillis(), nickname));
+        if (!monitoringPings) {
+            return;
         }
+        pingDeadlines.compute(me, (lis, deadline) -> {
+            if (deadline != null) {
+                deadline.cancel();
+            }
+            return HashedWheelTimer.getInstance().schedule(DefaultValue.timeout_for_detecting_disconnection,
+                    () -> tell(() -> pingExpired(nickname, lis)));
+        });
     }
 
     /**
-     * Monitors the ping messages to detect player disconnections.
-     * This method runs in a separate thread and continuously checks
-     * the status of the game and the received ping messages.
-     * If a player is detected as disconnected based on the ping timeout,
-     * the player is disconnected and removed from the ping map.
+     * Disconnects the player whose ping deadline expired.
+     * If no player is online anymore, the game ends and the pings are no more monitored.
+     *
+     * @param nickname the nickname of the player
+     * @param lis the client of the player
      */
-    @Override
-    public void run() {
-        while (!Thread.interrupted()) {
-            //checks all the ping messages to detect disconnections
-            if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE) || model.getStatus().equals(GameStatus.ENDED) || model.getStatus().equals(GameStatus.WAIT)) {
-                synchronized (receivedPings) {
-
-                    Iterator<Map.Entry<GameListenerInterface, Ping>> pingIter = receivedPings.entrySet().iterator();
-                    while (pingIter.hasNext()) {
-                        Map.Entry<GameListenerInterface, Ping> el = pingIter.next();
-                        if (System.currentTimeMillis() - el.getValue().getBeat() > DefaultValue.timeout_for_detecting_disconnection) {
-                            try {
-                                this.disconnectPlayer(el.getValue().getNick(), el.getKey());
-                                printAsync("Disconnection detected by Ping of player: " + el.getValue().getNick());
-
-                                if (model.getNumOfOnlinePlayers() == 0) {
-                                    stopReconnectionTimer();
-                                    if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE) || model.getStatus().equals(GameStatus.WAIT)) {
-                                        model.setStatus(GameStatus.ENDED);
-                                    }
-
-                                    return;
-                                }
-                            } catch (RemoteException e) {
-                                throw new RuntimeException(e);
-                            }
-                            pingIter.remove();
-                        }
-                    }
-                }
-            }
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+    private void pingExpired(String nickname, GameListenerInterface lis) {
+        HashedWheelTimer.Timeout deadline = pingDeadlines.get(lis);
+        if (!monitoringPings || deadline == null || deadline.isPending() || !pingDeadlines.remove(lis, deadline)) {
+            //a ping arrived after the deadline expired
+            return;
+        }
+        try {
+            this.disconnectPlayer(nickname, lis);
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        }
+        printAsync("Disconnection detected by Ping of player: " + nickname);
+
+        if (model.getNumOfOnlinePlayers() == 0) {
+            stopReconnectionTimer();
+            if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE) || model.getStatus().equals(GameStatus.WAIT)) {
+                model.setStatus(GameStatus.ENDED);
             }
+            stopPingDeadlines();
         }
     }
 
+    /**
+     * Stops monitoring the pings of the game and cancels their deadlines
+     */
+    private void stopPingDeadlines() {
+        monitoringPings = false;
+        pingDeadlines.values().forEach(HashedWheelTimer.Timeout::cancel);
+        pingDeadlines.clear();
+    }
+
 
 
     /**
@@ -159,39 +367,51 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @return true if the game starts, false otherwise
      */
     @Override
-    public synchronized boolean playerIsReadyToStart(GameListenerInterface lis, String player) { //tolto synchronized
-        if(model.getPlayerByNickname(player)!=null)
-            model.playerIsReadyToStart(model.getPlayerByNickname(player));
-
-        if (model.arePlayersReadyToStartAndEnough()){
-            ArrayList<Player> players= model.getPlayers();
-            for(int i=0; i<players.size(); i++){
-                if(!players.get(i).isInitialized())
-                    model.initializeCards( lis, players.get(i), i);
+    public boolean playerIsReadyToStart(GameListenerInterface lis, String player) { //tolto synchronized
+        return ask(() -> {
+            Player p = playerOf(player);
+            if (p == null) {
+                return false;
             }
-            return true;
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.READY, model.getGameId(), player));
+            model.playerIsReadyToStart(p);
 
-        }else {
-            return false;
-        }
+            if (model.arePlayersReadyToStartAndEnough()){
+                ArrayList<Player> players= model.getPlayers();
+                for(int i=0; i<players.size(); i++){
+                    if(!players.get(i).isInitialized())
+                        model.initializeCards( lis, players.get(i), i);
+                }
+                return true;
 
+            }else {
+                return false;
+            }
+        });
     }
 
-    public synchronized boolean makeGameStart( GameListenerInterface lis, String nickname) {
-        if (model.allPlayersHaveChosenGoals()) {
-            model.chooseOrderPlayers();
-            model.initializeBoard();
-            model.setInitialStatus();
-            return true;
-        }
-        else {
-            return false;
-        }
-
+    public boolean makeGameStart( GameListenerInterface lis, String nickname) {
+        return ask(() -> {
+            if (playerOf(nickname) == null) {
+                return false;
+            }
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.START, model.getGameId(), nickname));
+            if (model.allPlayersHaveChosenGoals()) {
+                model.chooseOrderPlayers();
+                model.initializeBoard();
+                model.setInitialStatus();
+                return true;
+            }
+            else {
+                return false;
+            }
+        });
     }
 
     /**
      * Places a card in the book.
+     * The command is ignored if it's not the turn of the player, and it is written in the journal only if the
+     * card has been placed: the commands refused are never executed again when the game is rebuilt.
      *
      * @param playerName the name of the player placing the card
      * @param chosenCard the chosen card to place
@@ -199,17 +419,23 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @param colCell    the column position to place the card
      */
     @Override
-    public synchronized void placeCardInBook(String playerName, int chosenCard, int rowCell, int colCell){
-        Player currentPlayer = model.getPlayerByNickname(playerName);
-        if(currentPlayer.equals(model.getCurrentPlayer())){
-            int points= model.placeCardTurn(model.getPlayerByNickname(playerName), chosenCard, rowCell, colCell);
-            if(points>=0)
-                model.addPoints(model.getPlayerByNickname(playerName), points);
-        }
+    public void placeCardInBook(String playerName, int chosenCard, int rowCell, int colCell){
+        execute(() -> {
+            Player currentPlayer = playerOf(playerName);
+            if (!isTurnOf(currentPlayer)) {
+                return;
+            }
+            int points= model.placeCardTurn(currentPlayer, chosenCard, rowCell, colCell);
+            if(points>=0) {
+                GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.PLACE_CARD, model.getGameId(), playerName, chosenCard, rowCell, colCell));
+                model.addPoints(currentPlayer, points);
+            }
+        });
     }
 
     /**
-     * Picks a card from the board.
+     * Picks a card from the board and passes the turn.
+     * The command is ignored, and not written in the journal, if it's not the turn of the player.
      *
      * @param nickname   the nickname of the player picking the card
      * @param cardType   the type of card to pick
@@ -217,47 +443,92 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @param pos        the position to pick the card from
      */
     @Override
-    public synchronized void PickCardFromBoard(String nickname, CardType cardType, boolean drawFromDeck, int pos){
-        Player p = model.getPlayerByNickname(nickname);
-        if(p.equals(model.getCurrentPlayer())){
-            model.pickCardTurn(p, cardType, drawFromDeck, pos);
-        }
-        if (model.getStatus().equals(GameStatus.RUNNING) ||model.getStatus().equals(GameStatus.LAST_CIRCLE)) {
-            int currentIndex = -1;
-            for (int i = 0; i < model.getOrderArray().length; i++) {
-                if (model.getPlayers().get(model.getOrderArray()[i]).equals(model.getCurrentPlayer())) {
-                    currentIndex = i;
-                    break;
-                }
+    public void PickCardFromBoard(String nickname, CardType cardType, boolean drawFromDeck, int pos){
+        execute(() -> {
+            Player p = playerOf(nickname);
+            if (cardType == null || !isTurnOf(p)) {
+                return;
             }
-            if (currentIndex == model.getNumPlayers() - 1) {
-                if (!(model.getStatus().equals(GameStatus.LAST_CIRCLE))) {
-                    try{
-                        model.nextTurn(currentIndex);
-                    }catch (GameEndedException e){
-                        model.setStatus(GameStatus.ENDED);
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.PICK_CARD, model.getGameId(), nickname,
+                    cardType.ordinal(), drawFromDeck ? 1 : 0, pos));
+            model.pickCardTurn(p, cardType, drawFromDeck, pos);
+            if (model.getStatus().equals(GameStatus.RUNNING) ||model.getStatus().equals(GameStatus.LAST_CIRCLE)) {
+                int currentIndex = -1;
+                for (int i = 0; i < model.getOrderArray().length; i++) {
+                    if (model.getPlayers().get(model.getOrderArray()[i]).equals(model.getCurrentPlayer())) {
+                        currentIndex = i;
+                        break;
                     }
-                    if (model.getScoretrack().checkTo20()) {
-                        model.setStatus(GameStatus.LAST_CIRCLE);
+                }
+                if (currentIndex == model.getNumPlayers() - 1) {
+                    if (!(model.getStatus().equals(GameStatus.LAST_CIRCLE))) {
+                        try{
+                            model.nextTurn(currentIndex);
+                        }catch (GameEndedException e){
+                            model.setStatus(GameStatus.ENDED);
+                        }
+                        if (model.getScoretrack().checkTo20()) {
+                            model.setStatus(GameStatus.LAST_CIRCLE);
+                        }
+                    }else {
+                        model.lastTurnGoalCheck();
+                        try{
+                            model.nextTurn(currentIndex);
+                        }catch (GameEndedException e){
+                            model.setStatus(GameStatus.ENDED);
+                        }
                     }
-                }else {
-                    model.lastTurnGoalCheck();
+                }else{
                     try{
                         model.nextTurn(currentIndex);
                     }catch (GameEndedException e){
                         model.setStatus(GameStatus.ENDED);
                     }
                 }
-            }else{
-                try{
-                    model.nextTurn(currentIndex);
-                }catch (GameEndedException e){
-                    model.setStatus(GameStatus.ENDED);
-                }
+
             }
+        });
+    }
+
+    /**
+     * Finds a player of the game, executed by the mailbox
+     *
+     * @param nick the nickname of the player
+     * @return the player, null if the nickname is not in the game
+     */
+    private Player playerOf(String nick) {
+        return nick != null && model.checkNickname(nick) ? model.getPlayerByNickname(nick) : null;
+    }
 
+    /**
+     * Checks that the player is in the game and that it's his turn, executed by the mailbox
+     *
+     * @param p the player, null if the nickname is not in the game
+     * @return true if the player can play
+     */
+    private boolean isTurnOf(Player p) {
+        if (p == null || !p.equals(model.getCurrentPlayer())) {
+            printAsync("Command refused: it's not the turn of " + (p == null ? "a player not in the game" : p.getNickname()));
+            return false;
         }
+        return true;
+    }
 
+    /**
+     * Checks that a card chosen by the player is one of the cards dealt to him, executed by the mailbox
+     *
+     * @param dealt  the cards dealt to each player, by index of the player
+     * @param player the player, null if the nickname is not in the game
+     * @param index  the index of the card chosen
+     * @return true if the card can be chosen
+     */
+    private boolean isDealt(List<? extends Object[]> dealt, Player player, int index) {
+        int i = player == null ? -1 : model.getIndexPlayer(player);
+        if (i < 0 || i >= dealt.size() || dealt.get(i) == null || index < 0 || index >= dealt.get(i).length) {
+            printAsync("Command refused: card " + index + " was not dealt to " + (player == null ? "a player not in the game" : player.getNickname()));
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -268,8 +539,8 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @throws RemoteException if there is a connection error (RMI)
      */
     @Override
-    public synchronized boolean isThisMyTurn(String nick) throws RemoteException {
-        return model.getCurrentPlayer().getNickname().equals(nick);
+    public boolean isThisMyTurn(String nick) throws RemoteException {
+        return ask(() -> model.getCurrentPlayer() != null && model.getCurrentPlayer().getNickname().equals(nick));
     }
 
     /**
@@ -281,31 +552,34 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      */
     @Override
     public void disconnectPlayer(String nick, GameListenerInterface listener) throws RemoteException { //TOLTO SYNCHRONIZED
-        Player p = model.getPlayerByNickname(nick);
-        if(p!=null) {
-            model.removeListener(listener);
-            p.removeListener(listener);
-
-            if (model.getStatus().equals(GameStatus.WAIT)) {
-                //The game is in Wait (game not started yet), the player disconnected, so I remove him from the game)
-                model.removePlayer(nick); //remove Player from the Game
-                 if (model.getStatus().equals(GameStatus.WAIT) && model.getNumPlayers()==0){
-                    setGameCreated(false);
-                 }
-            } else {
-                //Tha game is running, so I set him as disconnected (He can reconnect soon)
-                model.setAsDisconnected(p.getNickname());
-            }
+        execute(() -> {
+            Player p = playerOf(nick);
+            if(p!=null) {
+                GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.DISCONNECT, model.getGameId(), nick));
+                model.removeListener(listener);
+                p.removeListener(listener);
 
-            if ((model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)) && model.getNumOfOnlinePlayers() == 1) {
-                //Starting a th for waiting until reconnection at least of 1 client to keep playing
-                if (reconnectionTh == null) {
-                    startReconnectionTimer();
-                    printAsync("Starting timer for reconnection waiting: " + DefaultValue.secondsToWaitReconnection + " seconds");
+                if (model.getStatus().equals(GameStatus.WAIT)) {
+                    //The game is in Wait (game not started yet), the player disconnected, so I remove him from the game)
+                    model.removePlayer(nick); //remove Player from the Game
+                    chatLimiter.remove(nick);
+                     if (model.getStatus().equals(GameStatus.WAIT) && model.getNumPlayers()==0){
+                        setGameCreated(false);
+                     }
+                } else {
+                    //Tha game is running, so I set him as disconnected (He can reconnect soon)
+                    model.setAsDisconnected(p.getNickname());
                 }
-            }
-        }
 
+                if ((model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)) && model.getNumOfOnlinePlayers() == 1) {
+                    //Starting a th for waiting until reconnection at least of 1 client to keep playing
+                    if (reconnectionTimer == null) {
+                        startReconnectionTimer();
+                        printAsync("Starting timer for reconnection waiting: " + DefaultValue.secondsToWaitReconnection + " seconds");
+                    }
+                }
+            }
+        });
     }
 
     /**
@@ -315,15 +589,45 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @throws RemoteException
      */
     @Override
-    public synchronized void reconnect(GameListenerInterface lis, String nick) throws RemoteException {
+    public void reconnect(GameListenerInterface lis, String nick) throws RemoteException {
+        execute(() -> resume(lis, nick, -1));
+    }
+
+    /**
+     * Reconnect a player to the game with the specified ID
+     * @param lis the GameListener of the player {@link GameListenerInterface}
+     * @param nick the nickname of the player
+     * @param gameId the ID of the game the player was playing
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none
+     * @throws RemoteException
+     */
+    @Override
+    public void reconnect(GameListenerInterface lis, String nick, int gameId, long lastVersion) throws RemoteException {
+        execute(() -> {
+            if (model.getGameId() == gameId) {
+                resume(lis, nick, lastVersion);
+            } else {
+                printAsync("The game " + gameId + " is not the game of " + nick);
+            }
+        });
+    }
+
+    /**
+     * Adds the listener of a player who reconnects and reconnects the player
+     * @param lis the GameListener of the player {@link GameListenerInterface}
+     * @param nick the nickname of the player
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none
+     */
+    private void resume(GameListenerInterface lis, String nick, long lastVersion) {
         Player disconnectedPlayer;
 
          disconnectedPlayer = model.getPlayerByNickname(nick);
           //The game exists, check if nickname exists
          if(disconnectedPlayer!=null) {
+             GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.RECONNECT, model.getGameId(), nick));
              disconnectedPlayer.addListener(lis);
              model.addListener(lis);
-             this.reconnectPlayer(lis,disconnectedPlayer);
+             this.reconnectPlayer(lis, disconnectedPlayer, lastVersion);
          }
          else{
            //Game exists but the nick no
@@ -331,49 +635,46 @@ public class GameController implements GameControllerInterface, Serializable, Ru
          }
     }
 
-        /**
-         * Starts a timer for detecting the reconnection of a player, if no one reconnects in time, the game is over
-         */
-    @SuppressWarnings("BusyWait")
+    /**
+     * Starts a timer for detecting the reconnection of a player, if no one reconnects in time, the game is over
+     */
     private void startReconnectionTimer() {
-        reconnectionTh = new Thread(
-                () -> {
-                    long startingtimer = System.currentTimeMillis();
-
-                    while (reconnectionTh != null && !reconnectionTh.isInterrupted() && System.currentTimeMillis() - startingtimer < DefaultValue.secondsToWaitReconnection * 1000) {
-                        try {
-                            Thread.sleep(100);
-                        } catch (InterruptedException e) {
-                            //Someone called interrupt on this th (no need to keep waiting)
-                        }
-                    }
-                    printAsync("Timer for reconnection ended");
-
-                    if (model.getNumOfOnlinePlayers() == 0) {
-                        //No players online: I set GameStatus ENDED
-                        if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)|| model.getStatus().equals(GameStatus.WAIT) ) {
-                            model.setStatus(GameStatus.ENDED);
-                        }
-                    } else if (model.getNumOfOnlinePlayers() == 1) {
-                        printAsync("\tNo player reconnected on time, set game to ended!");
-                        model.setStatus(GameStatus.ENDED);
-                    } else {
-                        printAsync("\tA player reconnected on time");
-                        this.reconnectionTh = null;
-                    }
-                }
+        reconnectionTimer = HashedWheelTimer.getInstance().schedule(DefaultValue.secondsToWaitReconnection * 1000L, () -> {
+            printAsync("Timer for reconnection ended");
+            //the end of the timer is a command of the game, as the actions of the players
+            tell(this::reconnectionTimerEnded);
+        });
+    }
 
-        );
-        reconnectionTh.start();
+    /**
+     * Ends the game if no player reconnected before the end of the reconnection timer
+     */
+    private void reconnectionTimerEnded() {
+        if (reconnectionTimer == null || reconnectionTimer.isPending()) {
+            //the timer was stopped (and maybe started again) after it ended
+            return;
+        }
+        if (model.getNumOfOnlinePlayers() == 0) {
+            //No players online: I set GameStatus ENDED
+            if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)|| model.getStatus().equals(GameStatus.WAIT) ) {
+                model.setStatus(GameStatus.ENDED);
+            }
+        } else if (model.getNumOfOnlinePlayers() == 1) {
+            printAsync("\tNo player reconnected on time, set game to ended!");
+            model.setStatus(GameStatus.ENDED);
+        } else {
+            printAsync("\tA player reconnected on time");
+            this.reconnectionTimer = null;
+        }
     }
 
     /**
      * It stops the timer (if started) that checks for reconnections of players
      */
     private void stopReconnectionTimer() {
-        if (reconnectionTh != null) {
-            reconnectionTh.interrupt();
-            reconnectionTh = null;
+        if (reconnectionTimer != null) {
+            reconnectionTimer.cancel();
+            reconnectionTimer = null;
         }
         //else It means that a player reconnected but the timer was not started (ex 3 players and 1 disconnects)
     }
@@ -384,20 +685,34 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @param p Player that want to reconnect
      */
     public void reconnectPlayer(GameListenerInterface lis, Player p) {
-        model.checkPlayerStatus(p);
-        boolean outputres = model.reconnectPlayer(lis, p);
+        reconnectPlayer(lis, p, -1);
+    }
 
-        if (outputres && getNumOfOnlinePlayers() > 1) {
-            stopReconnectionTimer();
-        }
-        //else nobody was connected and now one player has reconnected before the timer expires
+    /**
+     * Reconnect the player with the nickname @param to the game,
+     * sending to the player only the changes after the version of its replica if they can be replayed
+     *
+     * @param p Player that want to reconnect
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none
+     */
+    public void reconnectPlayer(GameListenerInterface lis, Player p, long lastVersion) {
+        execute(() -> {
+            //if the deck or the board had to be fixed, all the replicas need a full copy of the game
+            boolean changed = model.checkPlayerStatus(p);
+            boolean outputres = model.reconnectPlayer(lis, p, changed ? -1 : lastVersion);
+
+            if (outputres && getNumOfOnlinePlayers() > 1) {
+                stopReconnectionTimer();
+            }
+            //else nobody was connected and now one player has reconnected before the timer expires
+        });
     }
 
     /**
      * @return the number of online players that are in the game
      */
     public int getNumOfOnlinePlayers() {
-        return model.getNumOfOnlinePlayers();
+        return ask(() -> model.getNumOfOnlinePlayers());
     }
 
 
@@ -412,20 +727,69 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      */
     @Override
     public void setInitialCard(String playerName, int index) throws RemoteException {
-        Player currentPlayer = model.getPlayerByNickname(playerName);
-        model.setInitialCard(currentPlayer, index);
+        execute(() -> {
+            Player currentPlayer = playerOf(playerName);
+            if (!isDealt(model.getTemporaryInitialCardsDeck(), currentPlayer, index)) {
+                return;
+            }
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.INITIAL_CARD, model.getGameId(), playerName, index));
+            model.setInitialCard(currentPlayer, index);
+        });
     }
 
 
+    /**
+     * @return the seed of the random choices of the game
+     */
+    public long getSeed() {
+        return ask(() -> model.getRandom().getSeed());
+    }
+
+    /**
+     * Gets th Game ID of the current Game.
+     *
+     * @return the ID of the game
+     */
+    public int getGameId() {
+        return ask(() -> model.getGameId());
+    }
+
     /**
      * Gets th Game ID of the current Game.
      *
+     * @param nick the nickname of the player
      * @return the ID of the game
      * @throws RemoteException if a remote communication error occurs
      */
     @Override
-    public int getGameId() throws RemoteException {
-        return model.getGameId();
+    public int getGameId(String nick) throws RemoteException {
+        return ask(() -> model.getGameId());
+    }
+
+    /**
+     * Checks if the player is part of the game.
+     *
+     * @param nick the nickname of the player
+     * @return true if the player is in the game, false otherwise
+     */
+    public boolean hasPlayer(String nick) {
+        return ask(() -> model.checkNickname(nick));
+    }
+
+    /**
+     * Checks if the game has been created and is still waiting for players to join.
+     *
+     * @return true if a player can join the game, false otherwise
+     */
+    public boolean isWaitingForPlayers() {
+        return ask(() -> gameCreated && model.getStatus().equals(GameStatus.WAIT) && model.getPlayers().size() < model.getNumPlayers());
+    }
+
+    /**
+     * @return true if the game is ended
+     */
+    public boolean isEnded() {
+        return ask(() -> model.getStatus().equals(GameStatus.ENDED));
     }
 
     /**
@@ -436,13 +800,21 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @param nick of the player to remove
      */
     @Override
-    public synchronized void leave(GameListenerInterface lis, String nick) throws RemoteException {
-        model.getPlayerByNickname(nick).removeListener(lis);
-        model.removeListener(lis);
-        model.removePlayer(nick);
-        if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)|| model.getStatus().equals(GameStatus.WAIT) ) {
-            model.setStatus(GameStatus.ENDED);
-        }
+    public void leave(GameListenerInterface lis, String nick) throws RemoteException {
+        execute(() -> {
+            Player p = playerOf(nick);
+            if (p == null) {
+                return;
+            }
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.LEAVE, model.getGameId(), nick));
+            p.removeListener(lis);
+            model.removeListener(lis);
+            model.removePlayer(nick);
+            chatLimiter.remove(nick);
+            if (model.getStatus().equals(GameStatus.RUNNING) || model.getStatus().equals(GameStatus.LAST_CIRCLE)|| model.getStatus().equals(GameStatus.WAIT) ) {
+                model.setStatus(GameStatus.ENDED);
+            }
+        });
     }
 
     /**
@@ -454,9 +826,14 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      */
     @Override
     public void setGoalCard(String playerName, int index) throws RemoteException {
-        Player player = model.getPlayerByNickname(playerName);
-        model.setPlayerGoal(player, index);
-
+        execute(() -> {
+            Player player = playerOf(playerName);
+            if (!isDealt(model.getTemporaryObjectiveCardsDeck(), player, index)) {
+                return;
+            }
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.GOAL_CARD, model.getGameId(), playerName, index));
+            model.setPlayerGoal(player, index);
+        });
     }
 
     /**
@@ -467,13 +844,16 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @throws RemoteException if a remote communication error occurs
      */
     @Override
-    public synchronized void joinGame(GameListenerInterface lis, String nick) throws RemoteException {
-        if(!isGameCreated()){
-            model.createGame(lis, nick);
-        }else{
-            Color randColor = Color.getRandomColor();
-            model.addPlayer(lis, nick, randColor);
-        }
+    public void joinGame(GameListenerInterface lis, String nick) throws RemoteException {
+        execute(() -> {
+            GameJournal.getInstance().append(new JournalRecord(JournalRecord.Command.JOIN, model.getGameId(), nick));
+            if(!isGameCreated()){
+                model.createGame(lis, nick);
+            }else{
+                Color randColor = model.nextColor();
+                model.addPlayer(lis, nick, randColor);
+            }
+        });
     }
 
     /**
@@ -482,7 +862,9 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @param toSet the status to set
      */
     public void setGameCreated(boolean toSet){
-        this.gameCreated= toSet;
+        execute(() -> {
+            this.gameCreated= toSet;
+        });
     }
 
     /**
@@ -495,22 +877,174 @@ public class GameController implements GameControllerInterface, Serializable, Ru
      * @throws RemoteException if a remote communication error occurs
      */
     public void settingGame(GameListenerInterface lis,int numPlayers, int GameID, String nick) throws RemoteException{
+        execute(() -> setUp(lis, numPlayers, GameID, nick));
+    }
+
+    /**
+     * Queues the set-up of a new game as its first command, without executing it:
+     * the commands sent to the game afterwards are executed after the set-up.
+     * Called by the {@link GamesManager} before the game can be found in the registry.
+     *
+     * @param lis the GameListener of the player
+     * @param numPlayers the number of players in the game
+     * @param GameID the ID of the game
+     * @param nick the nickname of the player
+     * @return the future completed once the game has been set up, see {@link #awaitSettingGame}
+     */
+    CompletableFuture<Void> queueSettingGame(GameListenerInterface lis, int numPlayers, int GameID, String nick) {
+        return mailbox.defer(() -> {
+            setUp(lis, numPlayers, GameID, nick);
+            publishStatus();
+            return null;
+        });
+    }
+
+    /**
+     * Executes the set-up queued by {@link #queueSettingGame}, if no other command did, and waits for it
+     *
+     * @param setUp the future returned by {@link #queueSettingGame}
+     */
+    void awaitSettingGame(CompletableFuture<Void> setUp) {
+        mailbox.flush();
+        GameMailbox.await(setUp);
+    }
+
+    /**
+     * Sets up the game, executed by the mailbox
+     *
+     * @param lis the GameListener of the player
+     * @param numPlayers the number of players in the game
+     * @param GameID the ID of the game
+     * @param nick the nickname of the player
+     */
+    private void setUp(GameListenerInterface lis, int numPlayers, int GameID, String nick) {
+        GameJournal.getInstance().append(JournalRecord.create(GameID, nick, numPlayers, model.getRandom().getSeed()));
         model.setGameId(GameID);
         model.setPlayersNumber(numPlayers);
         setGameCreated(true);
-        Color randColor = Color.getRandomColor();
+        Color randColor = model.nextColor();
         model.addPlayer(lis, nick, randColor);
     }
 
     /**
      * Adds a message to the chat list.
+     * The sender of the message must be the player the listener belongs to, so a client can't send messages
+     * in the name of another player nor take the tokens of his bucket; the message is dropped if the player
+     * sent more messages than the game allows, see {@link ChatRateLimiter}. Both checks are made by the calling
+     * thread on the {@link #roster}, then the message is queued in the mailbox without waiting for it, so a player
+     * who floods the chat doesn't hold the thread of his client nor fill the mailbox. <br>
+     * The message is delivered at the end of its batch: the first message received after a delivery opens a window
+     * of {@link DefaultValue#chatBatchWindow_millis} milliseconds, and the messages received in the window are
+     * delivered together when it closes, so a busy chat sends one notification to each player per window.
      *
+     * @param lis the listener of the client that sent the message
      * @param msg the message to add
      * @throws RemoteException if a remote communication error occurs
      */
     @Override
-    public synchronized void sentMessage(Message msg) throws RemoteException{
-        model.sentMessage(msg);
+    public void sentMessage(GameListenerInterface lis, Message msg) throws RemoteException{
+        Player sender = msg.getSender() == null ? null : roster.get(msg.getSender());
+        if (sender == null || !sender.getListeners().contains(lis)) {
+            printAsync("Message dropped: " + msg.getSender() + " is not the player of the client that sent it");
+            return;
+        }
+        if (acceptMessage(sender.getNickname())) {
+            tell(() -> receiveMessage(msg));
+        }
+    }
+
+    /**
+     * Adds a message read from the {@link GameJournal} to the chat, it was already checked when it was received
+     *
+     * @param msg the message to add
+     */
+    void replayMessage(Message msg) {
+        execute(() -> receiveMessage(msg));
+    }
+
+    /**
+     * Checks that the sender is in the game, writes the message in the journal and adds it to the batch,
+     * executed by the mailbox
+     *
+     * @param msg the message to add
+     */
+    private void receiveMessage(Message msg) {
+        if (msg.getSender() == null || !model.checkNickname(msg.getSender())) {
+            printAsync("Message dropped: " + msg.getSender() + " is not in the game");
+            return;
+        }
+        GameJournal.getInstance().append(new JournalRecord(model.getGameId(), msg));
+        model.receiveMessage(msg);
+        if (chatBatch.isEmpty()) {
+            chatBatchStart = System.nanoTime();
+            HashedWheelTimer.getInstance().schedule(DefaultValue.chatBatchWindow_millis, () -> mailbox.tell(this::deliverChatBatch));
+        }
+        chatBatch.add(msg);
+    }
+
+    /**
+     * Takes a token from the chat bucket of the player, once the sender of the message has been matched with
+     * the client that sent it
+     *
+     * @param nick the nickname of the player bound to the client
+     * @return true if the message can be sent, false if the player sent too many messages and the message is dropped
+     */
+    private boolean acceptMessage(String nick) {
+        if (chatLimiter.tryAcquire(nick)) {
+            return true;
+        }
+        ChatMetrics.getInstance().messageRejected();
+        return false;
+    }
+
+    /**
+     * Delivers the messages received in the window that just closed, executed by the mailbox
+     */
+    private void deliverChatBatch() {
+        if (chatBatch.isEmpty()) {
+            return;
+        }
+        List<Message> batch = List.copyOf(chatBatch);
+        chatBatch.clear();
+        ChatMetrics.getInstance().batchDelivered(batch.size(), System.nanoTime() - chatBatchStart);
+        model.deliverMessages(batch);
+    }
+
+    /**
+     * Sends a page of the history of the chat to the player who asked for it.
+     * The page is read by the mailbox of the game, it is not a command so it is not written in the journal.
+     *
+     * @param lis     the listener of the player
+     * @param nick    the nickname of the player
+     * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+     * @param limit   the max number of messages of the page
+     */
+    @Override
+    public void getChatHistory(GameListenerInterface lis, String nick, long fromSeq, int limit) {
+        execute(() -> {
+            if (model.checkNickname(nick)) {
+                model.sendChatHistory(lis, fromSeq, limit);
+            }
+        });
+    }
+
+    /**
+     * Sends to the player whose replica diverged the changes he missed, or a full copy of the game.
+     * The request is not a command so it is not written in the journal; it is queued without waiting,
+     * because it is sent by the client while it is receiving the changes of the game.
+     *
+     * @param lis         the listener of the player, it must be one of the listeners of the player
+     * @param nick        the nickname of the player
+     * @param lastVersion the version of the replica, -1 if a full copy is needed
+     */
+    @Override
+    public void resync(GameListenerInterface lis, String nick, long lastVersion) {
+        mailbox.tell(() -> {
+            Player p = playerOf(nick);
+            if (p != null && p.getListeners().contains(lis)) {
+                model.resync(lis, nick, lastVersion);
+            }
+        });
     }
 
     //FOR DISCONNECTION TEST:
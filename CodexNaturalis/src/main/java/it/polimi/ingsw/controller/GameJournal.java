@@ -0,0 +1,497 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.ServerThreads;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static it.polimi.ingsw.view.PrintAsync.printAsync;
+
+/**
+ * GameJournal Class<br>
+ * Append-only journal of the commands executed by all the games, used to rebuild the games after a crash
+ * of the server. <br>
+ * The records are written in segment files (of {@link DefaultValue#journalSegmentSize} bytes) mapped in memory:
+ * each record is its length, the CRC32C of its bytes and the {@link JournalRecord}, and a length of zero marks
+ * the end of a segment. Appending a record only copies it in the mapped segment, so it doesn't wait for the
+ * disk; a flusher thread forces the written part of the segment to the disk at most every
+ * {@link DefaultValue#journalFlush_millis} milliseconds, and it sleeps while nothing is written. <br>
+ * A checkpoint writes the {@link GameSnapshot} of every game in a snapshot file and deletes the segments written
+ * before it: a game is rebuilt from its snapshot and the records written after it, see {@link #checkpoint}. <br>
+ * The journal is enabled by starting the server with the system property
+ * {@link DefaultValue#journalDirectoryProperty} set to the directory of the segments (or with the argument
+ * "--journal"): without it, appending a record does nothing.
+ */
+public class GameJournal {
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static GameJournal instance = null;
+
+    /**
+     * Bytes before each record: its length and its CRC32C
+     */
+    private static final int HEADER = 8;
+
+    /**
+     * The directory of the segments, null if the journal is disabled
+     */
+    private final Path directory;
+
+    /**
+     * Size of a segment in bytes
+     */
+    private final int segmentSize;
+
+    /**
+     * The file of the segment being written
+     */
+    private FileChannel channel;
+
+    /**
+     * The segment being written, null until the journal has been opened
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * Index of the segment being written
+     */
+    private long segmentIndex;
+
+    /**
+     * Position of the segment up to which the records have been forced to the disk
+     */
+    private int flushed;
+
+    /**
+     * The thread that forces the records to the disk
+     */
+    private Thread flusher;
+
+    /**
+     * Index of the first segment written after the snapshot read by {@link #readSnapshot()},
+     * the segments before it are not read
+     */
+    private long firstSegment;
+
+    /**
+     * Creates a journal
+     *
+     * @param directory the directory of the segments, null to disable the journal
+     */
+    public GameJournal(Path directory) {
+        this(directory, DefaultValue.journalSegmentSize);
+    }
+
+    /**
+     * Creates a journal
+     *
+     * @param directory the directory of the segments, null to disable the journal
+     * @param segmentSize the size of a segment in bytes
+     */
+    public GameJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the GameJournal class
+     */
+    public static synchronized GameJournal getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty(DefaultValue.journalDirectoryProperty);
+            instance = new GameJournal(dir == null ? null : Path.of(dir));
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the journal is enabled
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Reads all the records of the journal, in the order they were written.
+     * A segment ends at the first record that is incomplete or corrupted, as the last one written before a crash.
+     *
+     * @return the records of the journal, empty if the journal is disabled
+     * @throws IOException if the segments can't be read
+     */
+    public synchronized List<JournalRecord> readAll() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        if (directory == null) {
+            return records;
+        }
+        Files.createDirectories(directory);
+        for (Path file : segments()) {
+            long index = indexOf(file);
+            segmentIndex = Math.max(segmentIndex, index + 1);
+            if (index < firstSegment) {
+                //left by a crash after the snapshot was written, its records are in the snapshot
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                read(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()), index, records);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the snapshots of the games written by the last checkpoint, the next {@link #readAll()} reads only
+     * the segments written after them. If the snapshot file is corrupted, the games in it are lost.
+     *
+     * @return the snapshots of the games, empty if there is no checkpoint or the journal is disabled
+     * @throws IOException if the snapshot file can't be read
+     */
+    public synchronized List<GameSnapshot> readSnapshot() throws IOException {
+        List<GameSnapshot> snapshots = new ArrayList<>();
+        if (directory == null) {
+            return snapshots;
+        }
+        Files.createDirectories(directory);
+        List<Path> files = files(DefaultValue.snapshotExtension);
+        if (files.isEmpty()) {
+            return snapshots;
+        }
+        Path file = files.getLast();
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32C crc = new CRC32C();
+        try {
+            long cut = buf.getLong();
+            int count = buf.getInt();
+            for (int i = 0; i < count; i++) {
+                int gameId = buf.getInt();
+                long position = buf.getLong();
+                int checksum = buf.getInt();
+                byte[] image = new byte[buf.getInt()];
+                buf.get(image);
+                crc.reset();
+                crc.update(image);
+                if ((int) crc.getValue() != checksum) {
+                    printAsync("Snapshot of game " + gameId + " corrupted, the game is lost");
+                    continue;
+                }
+                snapshots.add(new GameSnapshot(gameId, position, image));
+            }
+            firstSegment = cut;
+        } catch (RuntimeException e) {
+            printAsync("Snapshot file " + file.getFileName() + " corrupted, its games are lost: " + e);
+        }
+        return snapshots;
+    }
+
+    /**
+     * @return the position of the journal after the last record written, -1 if the journal is not open
+     */
+    public synchronized long position() {
+        if (segment == null) {
+            return -1;
+        }
+        return positionOf(segmentIndex - 1, segment.position());
+    }
+
+    /**
+     * Starts a new segment for the records written after a checkpoint, if the one being written is not empty.
+     *
+     * @return the index of the segment where the next records are written, all the records written before are in
+     * the segments before it; -1 if the journal is not open
+     * @throws IOException if the segment can't be created
+     */
+    public synchronized long mark() throws IOException {
+        if (segment == null) {
+            return -1;
+        }
+        if (segment.position() > 0) {
+            roll();
+        }
+        return segmentIndex - 1;
+    }
+
+    /**
+     * Writes the snapshots of the games and deletes the segments before the mark, the records in them are either
+     * in the snapshots or of games that have been removed. <br>
+     * The snapshot file is written and forced to the disk under a temporary name and then renamed, so a crash
+     * leaves either the previous snapshot or the new one; the segments are deleted only after the rename.
+     * The appends are not blocked while the file is written.
+     *
+     * @param cut the index returned by {@link #mark()} before the snapshots were taken
+     * @param snapshots the snapshots of all the games that have records before the mark
+     * @throws IOException if the snapshot file can't be written
+     */
+    public void checkpoint(long cut, List<GameSnapshot> snapshots) throws IOException {
+        if (directory == null || cut < 0) {
+            return;
+        }
+        int size = 12;
+        for (GameSnapshot snapshot : snapshots) {
+            size += 20 + snapshot.getImage().length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putLong(cut);
+        buf.putInt(snapshots.size());
+        CRC32C crc = new CRC32C();
+        for (GameSnapshot snapshot : snapshots) {
+            crc.reset();
+            crc.update(snapshot.getImage());
+            buf.putInt(snapshot.getGameId());
+            buf.putLong(snapshot.getPosition());
+            buf.putInt((int) crc.getValue());
+            buf.putInt(snapshot.getImage().length);
+            buf.put(snapshot.getImage());
+        }
+        buf.flip();
+
+        Path file = directory.resolve(String.format("%016d%s", cut, DefaultValue.snapshotExtension));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                out.write(buf);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path old : files(DefaultValue.snapshotExtension)) {
+            if (!old.equals(file)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        for (Path old : segments()) {
+            if (indexOf(old) < cut) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    /**
+     * Opens a new segment, after the ones already written, where the next records are written.
+     * The records appended before are not written, so the commands executed again while rebuilding
+     * the games are not written twice.
+     *
+     * @throws IOException if the segment can't be created
+     */
+    public synchronized void open() throws IOException {
+        if (directory == null || segment != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        for (Path file : segments()) {
+            segmentIndex = Math.max(segmentIndex, indexOf(file) + 1);
+        }
+        roll();
+    }
+
+    /**
+     * Appends a record to the journal, if it is enabled and open.
+     * The record is on the disk within {@link DefaultValue#journalFlush_millis} milliseconds.
+     *
+     * @param record the record
+     */
+    public void append(JournalRecord record) {
+        if (directory == null) {
+            return;
+        }
+        WireOutput out = new WireOutput();
+        out.skip(HEADER);
+        record.write(out);
+        ByteBuffer bytes = out.toByteBuffer();
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.slice(HEADER, bytes.remaining() - HEADER));
+        out.putInt(0, out.size() - HEADER);
+        out.putInt(4, (int) crc.getValue());
+
+        synchronized (this) {
+            if (segment == null) {
+                return;
+            }
+            try {
+                //the zero length at the end of a segment needs 4 bytes
+                if (segment.remaining() < out.size() + 4) {
+                    roll();
+                }
+                segment.put(out.toByteBuffer());
+            } catch (IOException e) {
+                printAsync("Journal disabled, the segment can't be created: " + e);
+                segment = null;
+                return;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Forces the records to the disk and closes the segment, the next records are not written
+     */
+    public synchronized void close() {
+        if (segment == null) {
+            return;
+        }
+        force();
+        segment = null;
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    /**
+     * @return the segment files of the journal, in the order they were written
+     * @throws IOException if the directory can't be read
+     */
+    private List<Path> segments() throws IOException {
+        return files(DefaultValue.journalSegmentExtension);
+    }
+
+    /**
+     * @param extension the extension of the files
+     * @return the files of the journal with the extension, in the order they were written
+     * @throws IOException if the directory can't be read
+     */
+    private List<Path> files(String extension) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(extension))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @param file a segment file
+     * @return the index of the segment
+     */
+    private static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - DefaultValue.journalSegmentExtension.length()));
+    }
+
+    /**
+     * @param segment the index of a segment
+     * @param offset an offset in the segment
+     * @return the position in the journal, ordered as the records
+     */
+    private static long positionOf(long segment, int offset) {
+        return segment << 32 | offset;
+    }
+
+    /**
+     * Reads the records of a segment
+     *
+     * @param buf the segment
+     * @param index the index of the segment
+     * @param records the list where the records are added
+     */
+    private static void read(ByteBuffer buf, long index, List<JournalRecord> records) {
+        CRC32C crc = new CRC32C();
+        while (buf.remaining() >= HEADER) {
+            long position = positionOf(index, buf.position());
+            int length = buf.getInt();
+            int checksum = buf.getInt();
+            if (length <= 0 || length > buf.remaining()) {
+                return;
+            }
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            crc.reset();
+            crc.update(bytes);
+            if ((int) crc.getValue() != checksum) {
+                printAsync("Journal record corrupted, the rest of the segment is skipped");
+                return;
+            }
+            try {
+                JournalRecord record = JournalRecord.read(new WireInput(ByteBuffer.wrap(bytes)));
+                record.setPosition(position);
+                records.add(record);
+            } catch (IOException e) {
+                printAsync("Journal record unreadable, the rest of the segment is skipped: " + e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes the segment being written and creates the next one, the caller holds the monitor of the journal
+     *
+     * @throws IOException if the segment can't be created
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            force();
+            channel.close();
+        }
+        Path file = directory.resolve(String.format("%016d%s", segmentIndex++, DefaultValue.journalSegmentExtension));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        flushed = 0;
+        if (flusher == null) {
+            flusher = ServerThreads.newDaemonThread("journal-flusher", this::flushLoop);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Forces the records written after the last flush to the disk, the caller holds the monitor of the journal
+     */
+    private void force() {
+        int position = segment.position();
+        if (position > flushed) {
+            segment.force(flushed, position - flushed);
+            flushed = position;
+        }
+    }
+
+    /**
+     * Waits for new records, then waits {@link DefaultValue#journalFlush_millis} milliseconds
+     * so that the records written meanwhile are forced together.
+     * The records are forced without holding the monitor, so the appends don't wait for the disk.
+     */
+    private void flushLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                synchronized (this) {
+                    while (segment != null && segment.position() == flushed) {
+                        wait();
+                    }
+                    if (segment == null) {
+                        return;
+                    }
+                }
+                Thread.sleep(DefaultValue.journalFlush_millis);
+                MappedByteBuffer toForce;
+                int from, to;
+                synchronized (this) {
+                    if (segment == null) {
+                        return;
+                    }
+                    toForce = segment;
+                    from = flushed;
+                    to = segment.position();
+                    flushed = to;
+                }
+                //a segment closed meanwhile has been forced by roll(), forcing it again is harmless
+                toForce.force(from, to - from);
+            }
+        } catch (InterruptedException ignored) {}
+    }
+}
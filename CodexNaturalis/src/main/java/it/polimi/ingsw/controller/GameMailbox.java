@@ -0,0 +1,171 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.network.ServerThreads;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static it.polimi.ingsw.view.PrintAsync.printAsync;
+
+/**
+ * GameMailbox Class<br>
+ * Queue of the commands of a game, executed one at a time and in the order they were sent. <br>
+ * The mailbox doesn't own a thread: when it has commands, it is scheduled on a pool of carrier threads shared by
+ * all the games, and it gives the carrier back after {@link #BATCH} commands so that a busy game doesn't starve
+ * the others. A caller that waits for its command and finds the mailbox idle executes the commands itself,
+ * saving the hand-off to a carrier. Since only one thread at a time executes the commands of a game, the state
+ * of the game is never accessed concurrently and it doesn't need any lock.
+ */
+public class GameMailbox {
+
+    /**
+     * Maximum number of commands executed before giving the carrier to another game
+     */
+    private static final int BATCH = 64;
+
+    /**
+     * Carrier threads shared by all the games
+     */
+    private static final ExecutorService carriers = ServerThreads.newGamePool();
+
+    /**
+     * Commands waiting to be executed
+     */
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True while a thread is executing the commands or the mailbox is scheduled on a carrier
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * The thread that is executing the commands, null if none
+     */
+    private volatile Thread owner;
+
+    /**
+     * Sends a command without waiting for it to be executed
+     *
+     * @param command the command
+     */
+    public void tell(Runnable command) {
+        commands.add(command);
+        if (scheduled.compareAndSet(false, true)) {
+            carriers.execute(this::drain);
+        }
+    }
+
+    /**
+     * Sends a command that computes a result.
+     * If called by a command of this mailbox, the command is executed immediately;
+     * if the mailbox is idle, the caller executes the waiting commands, its own included.
+     *
+     * @param command the command
+     * @return the future result of the command
+     * @param <T> the type of the result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = task(command, result);
+        if (Thread.currentThread() == owner) {
+            task.run();
+            return result;
+        }
+        commands.add(task);
+        flush();
+        return result;
+    }
+
+    /**
+     * Queues a command without executing it: the command is executed before the commands sent after it,
+     * when one of them or {@link #flush()} starts the mailbox.
+     * Used to queue the set-up of a game before the other threads can send commands to it.
+     *
+     * @param command the command
+     * @return the future result of the command
+     * @param <T> the type of the result
+     */
+    public <T> CompletableFuture<T> defer(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        commands.add(task(command, result));
+        return result;
+    }
+
+    /**
+     * Executes the waiting commands on the caller's thread, if the mailbox is idle
+     */
+    public void flush() {
+        if (!commands.isEmpty() && scheduled.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    /**
+     * @param command the command
+     * @param result  the future completed with the result of the command
+     * @return the task that executes the command
+     * @param <T> the type of the result
+     */
+    private static <T> Runnable task(Supplier<T> command, CompletableFuture<T> result) {
+        return () -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        };
+    }
+
+    /**
+     * Waits for the result of a command, rethrowing the exception thrown by the command if any
+     *
+     * @param result the future result of the command
+     * @return the result
+     * @param <T> the type of the result
+     */
+    public static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the waiting commands, at most {@link #BATCH} before scheduling the mailbox again on a carrier.
+     * Called by the thread that set {@link #scheduled}.
+     */
+    private void drain() {
+        owner = Thread.currentThread();
+        try {
+            for (int n = 0; n < BATCH; n++) {
+                Runnable command = commands.poll();
+                if (command == null) {
+                    break;
+                }
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    printAsync("Error while executing a command of the game: " + e);
+                }
+            }
+        } finally {
+            owner = null;
+            scheduled.set(false);
+        }
+        if (!commands.isEmpty() && scheduled.compareAndSet(false, true)) {
+            carriers.execute(this::drain);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Chat;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.model.Deck;
+import it.polimi.ingsw.model.GameRandom;
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * GameSnapshot Class<br>
+ * Compact binary image of a game, written by the {@link GameJournal} so that a game is rebuilt by reading its
+ * image and executing only the commands written after it, instead of all the commands of the game. <br>
+ * The image is the game as sent to the clients by the {@link ModelCodec} (the cards as references, the books as
+ * their placed cards with their coordinates, the decks as the IDs of their cards in order and the scores) followed by
+ * the state known only by the server: the history of the chat, with the numbers of its messages, and the seed of
+ * the game and the number of random choices already made, so the rebuilt game goes on making the same choices. <br>
+ * The image is encoded by the mailbox of the game, between two commands, so it is a consistent copy that the
+ * snapshot writer saves to the disk without touching the game.
+ */
+public class GameSnapshot {
+
+    /**
+     * The ID of the game
+     */
+    private final int gameId;
+
+    /**
+     * Position of the journal after the last command of the game included in the image
+     */
+    private final long position;
+
+    /**
+     * The encoded game
+     */
+    private final byte[] image;
+
+    /**
+     * Constructor
+     *
+     * @param gameId   the ID of the game
+     * @param position the position of the journal after the last command of the game included in the image
+     * @param image    the encoded game
+     */
+    public GameSnapshot(int gameId, long position, byte[] image) {
+        this.gameId = gameId;
+        this.position = position;
+        this.image = image;
+    }
+
+    /**
+     * Encodes a game, it must be called by the mailbox of the game
+     *
+     * @param model    the game
+     * @param position the position of the journal after the last command executed by the game
+     * @return the snapshot of the game
+     */
+    public static GameSnapshot of(Game model, long position) {
+        WireOutput out = new WireOutput();
+        ModelCodec.writeGame(out, new GameImmutable(model));
+        ModelCodec.writeChat(out, model.getChat());
+        ModelCodec.writeDeck(out, model.getInitialCardsDeck());
+        out.writeString(model.getDisconnectedPlayer());
+        int[] lastPlacement = model.getLastPlacement();
+        out.writeBoolean(lastPlacement != null);
+        if (lastPlacement != null) {
+            for (int i : lastPlacement) {
+                out.writeInt(i);
+            }
+        }
+        out.writeLong(model.getRandom().getSeed());
+        out.writeLong(model.getRandom().getDraws());
+        return new GameSnapshot(model.getGameId(), position, out.toByteArray());
+    }
+
+    /**
+     * Decodes the game of the image, without listeners
+     *
+     * @return the game
+     * @throws IOException if the image is malformed
+     */
+    public Game restore() throws IOException {
+        WireInput in = new WireInput(ByteBuffer.wrap(image));
+        GameImmutable game = ModelCodec.readGame(in);
+        if (game == null) {
+            throw new IOException("Snapshot of game " + gameId + " without the game");
+        }
+        Chat chat = ModelCodec.readChat(in, DefaultValue.chatHistorySize);
+        Deck initialCardsDeck = ModelCodec.readDeck(in);
+        String disconnectedPlayer = in.readString();
+        int[] lastPlacement = null;
+        if (in.readBoolean()) {
+            lastPlacement = new int[]{in.readInt(), in.readInt(), in.readInt()};
+        }
+        GameRandom random = new GameRandom(in.readLong(), in.readLong());
+        return new Game(game, chat, initialCardsDeck, disconnectedPlayer, lastPlacement, random);
+    }
+
+    /**
+     * @return the ID of the game
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * @return the position of the journal after the last command of the game included in the image,
+     * the commands of the game before this position must not be executed again
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the encoded game
+     */
+    public byte[] getImage() {
+        return image;
+    }
+}
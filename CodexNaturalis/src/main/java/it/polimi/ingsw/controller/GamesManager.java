@@ -0,0 +1,692 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.exceptions.NotPlayerTurnException;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.network.ServerThreads;
+import it.polimi.ingsw.network.rmi.GameControllerInterface;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static it.polimi.ingsw.view.PrintAsync.printAsync;
+
+/**
+ * GamesManager Class
+ * Registry of all the games hosted by the server, each one controlled by its own {@link GameController}. <br>
+ * Games are kept in a {@link ConcurrentHashMap} keyed by game ID, so lookups never take a global lock and
+ * concurrent creations only contend on the bin of their own ID. Every action is then routed to the
+ * controller of the right game, which serializes only the actions of that game. <br>
+ * <br>
+ * Actions that carry only a nickname are routed through an index nickname -> game, filled when a player
+ * joins, creates or reconnects to a game. <br>
+ * The games waiting for players are kept in a concurrent set, updated by the mailbox of each game when the game
+ * starts or stops waiting, so a player joins a game without asking every game for its status. <br>
+ * <br>
+ * When the server starts, the games are rebuilt from the {@link GameJournal}, see {@link #recover()};
+ * then a snapshot of all the games is written every {@link DefaultValue#snapshotInterval_millis} milliseconds
+ * so that the journal is truncated, see {@link #snapshot()}.
+ */
+public class GamesManager implements GameControllerInterface {
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static GamesManager instance = null;
+
+    /**
+     * All the games hosted by the server, keyed by game ID
+     */
+    private final Map<Integer, GameController> games;
+
+    /**
+     * Index nickname -> game of all the players that are in a game.
+     * A nickname is bound to one game at a time: a player who asks to join another game with a nickname already
+     * bound is sent to the game of that nickname, that asks him to reconnect or to choose another nickname
+     */
+    private final Map<String, GameController> playerGames;
+
+    /**
+     * Nicknames bound to each game in {@link #playerGames}, so that a game removed drops only its own players
+     */
+    private final Map<GameController, Set<String>> gameNicknames;
+
+    /**
+     * The games that have been created and are waiting for players
+     */
+    private final Set<GameController> waitingGames;
+
+    /**
+     * Listener of the commands executed again while rebuilding the games, it ignores the notifications
+     */
+    private static final GameListenerInterface recoveryListener = (GameListenerInterface) Proxy.newProxyInstance(
+            GameListenerInterface.class.getClassLoader(), new Class<?>[]{GameListenerInterface.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "recovery";
+                default -> null;
+            });
+
+    /**
+     * Model used only to ask the number of players and the game ID to a player
+     * when there isn't any game waiting for players
+     */
+    private final Game lobby;
+
+    /**
+     * GamesManager Constructor
+     */
+    public GamesManager() {
+        games = new ConcurrentHashMap<>();
+        playerGames = new ConcurrentHashMap<>();
+        gameNicknames = new ConcurrentHashMap<>();
+        waitingGames = ConcurrentHashMap.newKeySet();
+        lobby = new Game();
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the GamesManager class
+     */
+    public static synchronized GamesManager getInstance() {
+        if (instance == null) {
+            instance = new GamesManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuilds the games written in the {@link GameJournal}: each game is read from its last snapshot, if any,
+     * and then its commands written after the snapshot are executed again in order.
+     * Then the journal is opened for the next commands and the snapshots are started. <br>
+     * The games that were still waiting for players are dropped; the players of the other games are
+     * disconnected and have {@link it.polimi.ingsw.model.DefaultValue#secondsToWaitReconnection} seconds
+     * to reconnect, as after a disconnection.
+     *
+     * @throws IOException if the journal can't be read or opened
+     */
+    public void recover() throws IOException {
+        GameJournal journal = GameJournal.getInstance();
+        Map<Integer, Long> restoredUntil = new HashMap<>();
+        for (GameSnapshot snapshot : journal.readSnapshot()) {
+            try {
+                games.put(snapshot.getGameId(), new GameController(snapshot.restore()));
+                restoredUntil.put(snapshot.getGameId(), snapshot.getPosition());
+            } catch (IOException | RuntimeException e) {
+                printAsync("Snapshot of game " + snapshot.getGameId() + " not readable, the game is lost: " + e);
+            }
+        }
+        List<JournalRecord> records = journal.readAll();
+        for (JournalRecord record : records) {
+            if (record.getPosition() < restoredUntil.getOrDefault(record.getGameId(), -1L)) {
+                //already in the snapshot of the game
+                continue;
+            }
+            GameController game = games.get(record.getGameId());
+            if (record.getCommand() == JournalRecord.Command.CREATE && game == null) {
+                game = new GameController(record.getSeed());
+                games.put(record.getGameId(), game);
+            }
+            if (game == null) {
+                continue;
+            }
+            try {
+                record.replay(game, recoveryListener);
+            } catch (RemoteException | RuntimeException e) {
+                printAsync("Command " + record.getCommand() + " of game " + record.getGameId() + " not executed: " + e);
+            }
+            if (game.isEnded()) {
+                games.remove(record.getGameId(), game);
+                game.shutdown();
+            }
+        }
+
+        Iterator<GameController> it = games.values().iterator();
+        while (it.hasNext()) {
+            GameController game = it.next();
+            if (game.isEnded() || game.isWaitingForPlayers()) {
+                it.remove();
+                game.shutdown();
+            } else {
+                for (String nick : game.recovered(recoveryListener)) {
+                    bind(nick, game);
+                }
+                game.observe(this::statusChanged);
+            }
+        }
+        journal.open();
+        if (!records.isEmpty() || !restoredUntil.isEmpty()) {
+            printAsync("Journal replayed: " + restoredUntil.size() + " snapshots, " + records.size()
+                    + " commands, games running: " + games.size());
+        }
+        if (journal.isEnabled()) {
+            ServerThreads.newDaemonThread("snapshot-writer", this::snapshotLoop).start();
+        }
+    }
+
+    /**
+     * Writes a checkpoint of the {@link GameJournal}: the snapshot of every game and the truncation of the
+     * records before them. <br>
+     * Each game encodes its snapshot in its own mailbox, between two of its commands, so the games are not
+     * stopped together; the snapshot file is written by the caller, while the games go on.
+     *
+     * @throws IOException if the snapshot file can't be written
+     */
+    public synchronized void snapshot() throws IOException {
+        GameJournal journal = GameJournal.getInstance();
+        long cut = journal.mark();
+        if (cut < 0) {
+            return;
+        }
+        //the games created after the mark have all their records after it
+        List<CompletableFuture<GameSnapshot>> pending = new ArrayList<>();
+        for (GameController game : games.values()) {
+            pending.add(game.snapshot());
+        }
+        List<GameSnapshot> snapshots = new ArrayList<>(pending.size());
+        for (CompletableFuture<GameSnapshot> snapshot : pending) {
+            GameSnapshot taken = GameMailbox.await(snapshot);
+            if (taken != null) {
+                snapshots.add(taken);
+            }
+        }
+        journal.checkpoint(cut, snapshots);
+    }
+
+    /**
+     * Writes a checkpoint every {@link DefaultValue#snapshotInterval_millis} milliseconds,
+     * if some commands have been written in the journal since the last one
+     */
+    private void snapshotLoop() {
+        GameJournal journal = GameJournal.getInstance();
+        long last = journal.position();
+        try {
+            while (true) {
+                Thread.sleep(DefaultValue.snapshotInterval_millis);
+                long position = journal.position();
+                if (position == last) {
+                    continue;
+                }
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    printAsync("Snapshot of the games not written: " + e);
+                }
+                last = journal.position();
+            }
+        } catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Retrieves the controller of the game with the specified ID.
+     *
+     * @param gameId the ID of the game
+     * @return the controller of the game, null if there is no game with that ID
+     */
+    public GameController getGame(int gameId) {
+        return games.get(gameId);
+    }
+
+    /**
+     * Retrieves the controller of the game the player is in.
+     *
+     * @param nick the nickname of the player
+     * @return the controller of the game, null if the player isn't in any game
+     */
+    public GameController getGameOf(String nick) {
+        if (nick == null)
+            return null;
+        return playerGames.get(nick);
+    }
+
+    /**
+     * @return the number of games hosted by the server
+     */
+    public int getNumOfGames() {
+        return games.size();
+    }
+
+    /**
+     * Joins the first game that is still waiting for players.
+     * If the nickname is already used in a game, the request is sent to that game, so that the player is asked
+     * to reconnect or to choose another nickname.
+     * If no game is waiting for players, the player is asked to create a new one.
+     *
+     * @param lis GameListener of the player who is joining
+     * @param nick Nickname of the player who is joining
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void joinGame(GameListenerInterface lis, String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        if (game == null) {
+            game = findGameWaitingForPlayers();
+        }
+
+        if (game != null) {
+            join(game, lis, nick);
+        } else {
+            lobby.createGame(lis, nick);
+        }
+    }
+
+    /**
+     * Creates the game with the specified ID and joins it.
+     * If a game with the same ID already exists, the player joins it.
+     * If the nickname is already bound to a game, the request is sent to that game and no game is created.
+     *
+     * @param lis the GameListener of the player
+     * @param numPlayers the number of players in the game
+     * @param GameID the ID of the game
+     * @param nick the nickname of the player
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void settingGame(GameListenerInterface lis, int numPlayers, int GameID, String nick) throws RemoteException {
+        GameController created = new GameController();
+        //the nickname is bound before the game is published, so that two games can't take it together
+        GameController bound = bind(nick, created);
+        if (bound != created) {
+            bound.joinGame(lis, nick);
+            return;
+        }
+        created.observe(this::statusChanged);
+        //the set-up is the first command of the new game: the players that find it in the registry are queued after it
+        CompletableFuture<Void> setUp = created.queueSettingGame(lis, numPlayers, GameID, nick);
+        GameController game = games.putIfAbsent(GameID, created);
+
+        if (game == null) {
+            created.awaitSettingGame(setUp);
+            if (!created.hasPlayer(nick)) {
+                unbind(nick, created);
+            }
+            printAsync("Game " + GameID + " created with seed " + created.getSeed() + ", games running: " + games.size());
+        } else {
+            //the new controller was never published nor started, its set-up is dropped with it
+            unbind(nick, created);
+            join(game, lis, nick);
+        }
+    }
+
+    /**
+     * Reconnects a player to the game he was playing.
+     *
+     * @param lis the GameListener of the player {@link GameListenerInterface}
+     * @param nick the nickname of the player
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void reconnect(GameListenerInterface lis, String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        if (game != null) {
+            game.reconnect(lis, nick);
+        } else {
+            printAsync("The nickname used was not connected in a running game");
+        }
+    }
+
+    /**
+     * Reconnects a player to the game with the specified ID.
+     *
+     * @param lis the GameListener of the player {@link GameListenerInterface}
+     * @param nick the nickname of the player
+     * @param gameId the ID of the game the player was playing
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void reconnect(GameListenerInterface lis, String nick, int gameId, long lastVersion) throws RemoteException {
+        GameController game = games.get(gameId);
+        if (game != null) {
+            game.reconnect(lis, nick, gameId, lastVersion);
+            if (game.hasPlayer(nick)) {
+                bind(nick, game);
+            }
+        } else {
+            reconnect(lis, nick);
+        }
+    }
+
+    /**
+     * Removes a player from his game, the game is removed from the registry once ended.
+     *
+     * @param lis  The listener (related to the client) to remove
+     * @param nick of the player to remove
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void leave(GameListenerInterface lis, String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        if (game != null) {
+            game.leave(lis, nick);
+            unbind(nick, game);
+            removeIfEnded(game);
+        }
+    }
+
+    /**
+     * Disconnects a player from his game.
+     *
+     * @param nick     the nickname of the player to disconnect
+     * @param listener the listener associated with the player
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void disconnectPlayer(String nick, GameListenerInterface listener) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        if (game != null) {
+            game.disconnectPlayer(nick, listener);
+            if (!game.hasPlayer(nick)) {
+                unbind(nick, game);
+            }
+            removeIfEnded(game);
+        }
+    }
+
+    /**
+     * Routes the ping of a player to his game.
+     *
+     * @param nickname the nickname of the player who sent the ping message
+     * @param me the client who sends ping messages
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void ping(String nickname, GameListenerInterface me) throws RemoteException {
+        GameController game = getGameOf(nickname);
+        if (game != null) {
+            game.ping(nickname, me);
+        }
+    }
+
+    /**
+     * Retrieves the ID of the game the player is in.
+     *
+     * @param nick the nickname of the player
+     * @return the ID of the game, -1 if the player isn't in any game
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public int getGameId(String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        return game != null ? game.getGameId() : -1;
+    }
+
+    /**
+     * Sets the player ready to start in his game.
+     *
+     * @param lis the GameListenerInterface of the player
+     * @param p the nickname of the player
+     * @return true if the game starts, false otherwise
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public boolean playerIsReadyToStart(GameListenerInterface lis, String p) throws RemoteException {
+        GameController game = playerGames.get(p);
+        return game != null && game.playerIsReadyToStart(lis, p);
+    }
+
+    /**
+     * Starts the game of the player if all the players have chosen their goals.
+     *
+     * @param lis the GameListenerInterface of the player
+     * @param nick the nickname of the player
+     * @return true if the game starts, false otherwise
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public boolean makeGameStart(GameListenerInterface lis, String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        return game != null && game.makeGameStart(lis, nick);
+    }
+
+    /**
+     * Checks if it's the turn of the player in his game.
+     *
+     * @param nick the nickname of the player
+     * @return true if it's the turn of the player, false otherwise
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public boolean isThisMyTurn(String nick) throws RemoteException {
+        GameController game = playerGames.get(nick);
+        return game != null && game.isThisMyTurn(nick);
+    }
+
+    /**
+     * Sets the initial card of the player in his game.
+     *
+     * @param nickname the nickname of the player
+     * @param index the index of the initial card
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void setInitialCard(String nickname, int index) throws RemoteException {
+        GameController game = playerGames.get(nickname);
+        if (game != null)
+            game.setInitialCard(nickname, index);
+    }
+
+    /**
+     * Sets the goal card of the player in his game.
+     *
+     * @param nickname the nickname of the player
+     * @param index the index of the goal card
+     * @throws NotPlayerTurnException if it's not the turn of the player
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void setGoalCard(String nickname, int index) throws NotPlayerTurnException, RemoteException {
+        GameController game = playerGames.get(nickname);
+        if (game != null)
+            game.setGoalCard(nickname, index);
+    }
+
+    /**
+     * Places a card in the book of the player in his game.
+     *
+     * @param nickname the nickname of the player
+     * @param chosenCard the chosen card to place
+     * @param rowCell the row position to place the card
+     * @param columnCell the column position to place the card
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void placeCardInBook(String nickname, int chosenCard, int rowCell, int columnCell) throws RemoteException {
+        GameController game = playerGames.get(nickname);
+        if (game != null)
+            game.placeCardInBook(nickname, chosenCard, rowCell, columnCell);
+    }
+
+    /**
+     * Picks a card from the board of the game of the player.
+     *
+     * @param nickname the nickname of the player
+     * @param cardType the type of card to pick
+     * @param drawFromDeck indicates if the card should be drawn from the deck
+     * @param pos the position to pick the card from
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void PickCardFromBoard(String nickname, CardType cardType, boolean drawFromDeck, int pos) throws RemoteException {
+        GameController game = playerGames.get(nickname);
+        if (game != null) {
+            game.PickCardFromBoard(nickname, cardType, drawFromDeck, pos);
+            removeIfEnded(game);
+        }
+    }
+
+    /**
+     * Adds a message to the chat of the game of the sender.
+     * The game drops the message if its sender is not the player of the client that sent it, or if the player
+     * has sent more messages than the game allows, see {@link ChatRateLimiter}.
+     *
+     * @param lis the listener of the client that sent the message
+     * @param msg the message to add
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void sentMessage(GameListenerInterface lis, Message msg) throws RemoteException {
+        GameController game = getGameOf(msg.getSender());
+        if (game != null)
+            game.sentMessage(lis, msg);
+    }
+
+    /**
+     * Asks the game of the player for a page of the history of its chat, sent to the listener of the player.
+     *
+     * @param lis     the listener of the player
+     * @param nick    the nickname of the player
+     * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+     * @param limit   the max number of messages of the page
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void getChatHistory(GameListenerInterface lis, String nick, long fromSeq, int limit) throws RemoteException {
+        GameController game = getGameOf(nick);
+        if (game != null)
+            game.getChatHistory(lis, nick, fromSeq, limit);
+    }
+
+    /**
+     * Asks the game of the player for the changes missed by his replica, or for a full copy of the game.
+     *
+     * @param lis         the listener of the player
+     * @param nick        the nickname of the player
+     * @param lastVersion the version of the replica, -1 if a full copy is needed
+     * @throws RemoteException if a remote communication error occurs
+     */
+    @Override
+    public void resync(GameListenerInterface lis, String nick, long lastVersion) throws RemoteException {
+        GameController game = getGameOf(nick);
+        if (game != null)
+            game.resync(lis, nick, lastVersion);
+    }
+
+    /**
+     * Joins a game with a nickname that is free or already bound to that game.
+     * If the nickname is bound to another game, the request is sent to that game instead, that asks the player
+     * to reconnect or to choose another nickname; the nickname is released if the player couldn't join.
+     *
+     * @param game the game to join
+     * @param lis  the listener of the player
+     * @param nick the nickname of the player
+     * @throws RemoteException if a remote communication error occurs
+     */
+    private void join(GameController game, GameListenerInterface lis, String nick) throws RemoteException {
+        GameController bound = bind(nick, game);
+        bound.joinGame(lis, nick);
+        if (bound == game && !game.hasPlayer(nick)) {
+            unbind(nick, game);
+        }
+    }
+
+    /**
+     * Binds a nickname to a game in the nickname index, unless it is already bound to a game.
+     *
+     * @param nick the nickname of the player
+     * @param game the game of the player
+     * @return the game the nickname is bound to, the given one if it was free
+     */
+    private GameController bind(String nick, GameController game) {
+        GameController bound = playerGames.putIfAbsent(nick, game);
+        if (bound != null) {
+            return bound;
+        }
+        gameNicknames.computeIfAbsent(game, g -> ConcurrentHashMap.newKeySet()).add(nick);
+        return game;
+    }
+
+    /**
+     * Removes a nickname from the nickname index if it is bound to the game.
+     *
+     * @param nick the nickname of the player
+     * @param game the game of the player
+     */
+    private void unbind(String nick, GameController game) {
+        if (playerGames.remove(nick, game)) {
+            Set<String> nicks = gameNicknames.get(game);
+            if (nicks != null) {
+                nicks.remove(nick);
+            }
+        }
+    }
+
+    /**
+     * Finds a game that has been created and is still waiting for players.
+     *
+     * @return the controller of the game, null if there isn't any
+     */
+    private GameController findGameWaitingForPlayers() {
+        for (GameController game : waitingGames) {
+            return game;
+        }
+        return null;
+    }
+
+    /**
+     * Updates the registry when a game starts or stops waiting for players, or ends.
+     * Called by the mailbox of the game, so the changes of a game are seen in the order they happened.
+     *
+     * @param game    the controller of the game
+     * @param waiting true if the game is waiting for players
+     * @param ended   true if the game is ended
+     */
+    private void statusChanged(GameController game, boolean waiting, boolean ended) {
+        if (waiting) {
+            waitingGames.add(game);
+        } else {
+            waitingGames.remove(game);
+        }
+        if (ended) {
+            remove(game);
+        }
+    }
+
+    /**
+     * Removes the game from the registry if it is ended.
+     *
+     * @param game the game to check
+     */
+    private void removeIfEnded(GameController game) {
+        if (game.isEnded()) {
+            remove(game);
+        }
+    }
+
+    /**
+     * Removes all the games and their players from the registry and cancels their timers, used when the server is stopped.
+     */
+    public void removeAllGames() {
+        for (GameController game : games.values()) {
+            remove(game);
+        }
+    }
+
+    /**
+     * Removes the game and all its players from the registry.
+     *
+     * @param game the game to remove
+     */
+    private void remove(GameController game) {
+        waitingGames.remove(game);
+        if (games.remove(game.getGameId(), game)) {
+            Set<String> nicks = gameNicknames.remove(game);
+            if (nicks != null) {
+                for (String nick : nicks) {
+                    playerGames.remove(nick, game);
+                }
+            }
+            game.shutdown();
+            printAsync("Game " + game.getGameId() + " removed, games running: " + games.size());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * JournalRecord Class<br>
+ * A command executed by a game, as written in the {@link GameJournal}: the command, the ID of the game,
+ * the nickname of the player who sent it and its integer arguments, or the message for the chat. <br>
+ * Executing the records of a game again, in order, on a new {@link GameController} created with the seed of the
+ * {@link Command#CREATE} record rebuilds exactly the same game, random choices included.
+ */
+public class JournalRecord {
+
+    /**
+     * The commands written in the journal, their ordinal is written in the records so they must never be reordered
+     */
+    public enum Command {
+        CREATE, JOIN, READY, START, INITIAL_CARD, GOAL_CARD, PLACE_CARD, PICK_CARD, CHAT, LEAVE, DISCONNECT, RECONNECT
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    /**
+     * The command
+     */
+    private final Command command;
+
+    /**
+     * The ID of the game that executed the command
+     */
+    private final int gameId;
+
+    /**
+     * The nickname of the player who sent the command, null for the chat
+     */
+    private final String nickname;
+
+    /**
+     * The integer arguments of the command
+     */
+    private final int[] args;
+
+    /**
+     * The message sent in the chat, null for the other commands
+     */
+    private final Message message;
+
+    /**
+     * Position of the record in the journal, -1 for a record not read from the journal
+     */
+    private long position = -1;
+
+    /**
+     * Constructor of a command of a player
+     *
+     * @param command  the command
+     * @param gameId   the ID of the game
+     * @param nickname the nickname of the player who sent the command
+     * @param args     the integer arguments of the command
+     */
+    public JournalRecord(Command command, int gameId, String nickname, int... args) {
+        this.command = command;
+        this.gameId = gameId;
+        this.nickname = nickname;
+        this.args = args;
+        this.message = null;
+    }
+
+    /**
+     * Creates the record of the creation of a game
+     *
+     * @param gameId     the ID of the game
+     * @param nickname   the nickname of the player who created the game
+     * @param numPlayers the number of players of the game
+     * @param seed       the seed of the random choices of the game
+     * @return the record
+     */
+    public static JournalRecord create(int gameId, String nickname, int numPlayers, long seed) {
+        return new JournalRecord(Command.CREATE, gameId, nickname, numPlayers, (int) (seed >>> 32), (int) seed);
+    }
+
+    /**
+     * Constructor of a message sent in the chat
+     *
+     * @param gameId  the ID of the game
+     * @param message the message
+     */
+    public JournalRecord(int gameId, Message message) {
+        this.command = Command.CHAT;
+        this.gameId = gameId;
+        this.nickname = null;
+        this.args = new int[0];
+        this.message = message;
+    }
+
+    /**
+     * @return the command
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the ID of the game that executed the command
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * @return the nickname of the player who sent the command, null for the chat
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * @return the integer arguments of the command
+     */
+    public int[] getArgs() {
+        return args;
+    }
+
+    /**
+     * @return the seed of the game written by a {@link Command#CREATE} record
+     */
+    public long getSeed() {
+        return (long) args[1] << 32 | (args[2] & 0xffffffffL);
+    }
+
+    /**
+     * @return the message sent in the chat, null for the other commands
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the position of the record in the journal, -1 for a record not read from the journal
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Sets the position of a record read from the journal
+     *
+     * @param position the position of the record in the journal
+     */
+    void setPosition(long position) {
+        this.position = position;
+    }
+
+    /**
+     * Executes the command again on the controller of its game.
+     * The game must have been created by the {@link Command#CREATE} record of the same game.
+     *
+     * @param game the controller of the game
+     * @param lis  the listener that receives the notifications of the command
+     * @throws RemoteException if the command fails
+     */
+    public void replay(GameController game, GameListenerInterface lis) throws RemoteException {
+        switch (command) {
+            case CREATE -> game.settingGame(lis, args[0], gameId, nickname);
+            case JOIN -> game.joinGame(lis, nickname);
+            case READY -> game.playerIsReadyToStart(lis, nickname);
+            case START -> game.makeGameStart(lis, nickname);
+            case INITIAL_CARD -> game.setInitialCard(nickname, args[0]);
+            case GOAL_CARD -> game.setGoalCard(nickname, args[0]);
+            case PLACE_CARD -> game.placeCardInBook(nickname, args[0], args[1], args[2]);
+            case PICK_CARD -> game.PickCardFromBoard(nickname, CARD_TYPES[args[0]], args[1] != 0, args[2]);
+            case CHAT -> game.replayMessage(message);
+            case LEAVE -> game.leave(lis, nickname);
+            case DISCONNECT -> game.disconnectPlayer(nickname, lis);
+            case RECONNECT -> game.reconnect(lis, nickname);
+        }
+    }
+
+    /**
+     * Writes the record with the binary codec
+     *
+     * @param out the output to write on
+     */
+    public void write(WireOutput out) {
+        out.writeEnum(command);
+        out.writeInt(gameId);
+        if (command == Command.CHAT) {
+            ModelCodec.writeMessage(out, message);
+            return;
+        }
+        out.writeString(nickname);
+        out.writeByte(args.length);
+        for (int arg : args) {
+            out.writeInt(arg);
+        }
+    }
+
+    /**
+     * Reads a record written by {@link #write(WireOutput)}
+     *
+     * @param in the input to read from
+     * @return the record
+     * @throws IOException if the input is malformed
+     */
+    public static JournalRecord read(WireInput in) throws IOException {
+        Command command = in.readEnum(COMMANDS);
+        int gameId = in.readInt();
+        if (command == Command.CHAT) {
+            return new JournalRecord(gameId, ModelCodec.readMessage(in));
+        }
+        String nickname = in.readString();
+        int[] args = new int[in.readByte()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readInt();
+        }
+        return new JournalRecord(command, gameId, nickname, args);
+    }
+}
@@ -0,0 +1,16 @@
+package it.polimi.ingsw.exceptions;
+
+/**
+ * Exception thrown when a change of the game can't be applied to the local replica of a client,
+ * because the replica diverged from the game of the server.
+ */
+public class ReplicaNotAlignedException extends RuntimeException{
+    /**
+     * Constructs a new ReplicaNotAlignedException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ReplicaNotAlignedException(String message) {
+        super(message);
+    }
+}
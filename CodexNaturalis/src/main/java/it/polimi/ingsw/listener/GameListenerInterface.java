@@ -3,12 +3,14 @@ package it.polimi.ingsw.listener;
 import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.GameDelta;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
 
 import java.io.IOException;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * This interface is used to notify the client about the changes in the game
@@ -208,5 +210,40 @@ public interface GameListenerInterface extends Remote {
      */
     void sentMessage(GameImmutable model, Message msg) throws RemoteException;
 
+    /**
+     * This method is used to send to the client a change of the game, to be applied to his local replica
+     *
+     * @param delta the change of the game {@link GameDelta}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    void deltaReceived(GameDelta delta) throws RemoteException;
+
+    /**
+     * This method is used to send to the client a new message of the chat, to be added to the chat of his local replica. <br>
+     * The chat has its own channel: the message is sent alone, without the game, and doesn't change the version of the game
+     *
+     * @param msg the message {@link Message}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    void chatReceived(Message msg) throws RemoteException;
+
+    /**
+     * This method is used to send to the client a page of the history of the chat, that he asked for
+     * to show the messages sent before the ones he has
+     *
+     * @param page the messages of the page, from the oldest to the latest
+     * @throws RemoteException if the reference could not be accessed
+     */
+    void chatHistory(List<Message> page) throws RemoteException;
+
+    /**
+     * This method is used to send to the client a full copy of the game, that replaces his replica
+     * when it diverged from the game and the changes he missed are no longer available
+     *
+     * @param model the game model {@link GameImmutable}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    void resynced(GameImmutable model) throws RemoteException;
+
 
 }
@@ -2,30 +2,56 @@ package it.polimi.ingsw.listener;
 
 import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.model.Color;
-import it.polimi.ingsw.model.game.Game;
-import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.model.Deck;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.cards.PlayableCard;
+import it.polimi.ingsw.model.game.*;
 
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static it.polimi.ingsw.network.PrintAsync.printAsync;
 
 /**
  * ListenersHandler class is responsible for managing a List of GameListener objects
- * and for notifying the view when a change occurs in the GameModel
+ * and for notifying the view when a change occurs in the GameModel. <br>
+ * Notifications are queued in the {@link OutboundQueue} of each listener and delivered by its writer,
+ * so they never wait for the network while the game is locked. The games they carry are detached copies
+ * taken when the notification is sent, since the writer reads them after the model has moved on. <br>
+ * Every notification sent to all the listeners takes a new version of the game, its sequence number, and is
+ * recorded in the {@link ReplayBuffer} of the game, so that a player who reconnects receives only what it missed. <br>
+ * The listeners are kept in a copy-on-write list: a notification walks a snapshot of the listeners taken when it starts,
+ * so a player can join or leave while the others are being notified, and the listeners found closed are evicted
+ * without stopping the walk. Queuing a notification never waits for the delivery, so notifying many listeners
+ * takes as long as the slowest of them and not the sum of their latencies.
  */
 public class ListenersHandler {
-    private ArrayList<GameListenerInterface> listeners;
+    /**
+     * The listeners of the game, read without locks by the notifications
+     */
+    private final CopyOnWriteArrayList<GameListenerInterface> listeners;
+
+    /**
+     * The last events sent to all the listeners, replayed to the players who reconnect
+     */
+    private final ReplayBuffer replay = new ReplayBuffer(DefaultValue.replayBufferSize);
 
     /**
      * Constructor
      */
     public ListenersHandler() {
-        listeners = new ArrayList<>();
+        listeners = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -34,7 +60,8 @@ public class ListenersHandler {
      * @param listener the listener to add
      */
     public void addListener(GameListenerInterface listener){
-        listeners.add(listener);
+        OutboundQueue.release(listener);
+        listeners.addIfAbsent(listener);
     }
 
     /**
@@ -44,12 +71,8 @@ public class ListenersHandler {
      * @param model    the game model
      */
     public void notify_requireNumPlayersGameID(GameListenerInterface listener,Game model ){
-        try {
-            listener.requireNumPlayersGameID(new GameImmutable(model));
-        }catch (RemoteException e){
-            printAsync("During notification of notify_askCreateGame, a disconnection has been detected before ping");
-        }
-
+        GameImmutable snapshot = snapshot(model);
+        notify_One(listener, "notify_askCreateGame", OutboundQueue.Kind.EVENT, l -> l.requireNumPlayersGameID(snapshot));
     }
 
     /**
@@ -57,17 +80,27 @@ public class ListenersHandler {
      *
      * @param listener the listener to remove
      */
-    public synchronized void removeListener(GameListenerInterface listener){
+    public void removeListener(GameListenerInterface listener){
         listeners.remove(listener);
+        OutboundQueue.release(listener);
+    }
+
+    /**
+     * Removes a listener found closed while it was being notified, together with its queue.
+     *
+     * @param listener the closed listener
+     */
+    private void evict(GameListenerInterface listener) {
+        removeListener(listener);
     }
 
     /**
      * Gets the list of GameListeners.
      *
-     * @return the list of GameListeners
+     * @return a read-only view of the GameListeners, its iterators walk a snapshot of the list
      */
-    public synchronized List<GameListenerInterface> getListeners() {
-        return listeners;
+    public List<GameListenerInterface> getListeners() {
+        return Collections.unmodifiableList(listeners);
     }
 
     /**
@@ -78,16 +111,8 @@ public class ListenersHandler {
      * @param playerColor the color of the player who joined
      */
     public void notify_PlayerJoined(Game model, String nickname, Color playerColor) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.playerJoined(new GameImmutable(model), nickname, playerColor);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_playerJoined, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        GameImmutable snapshot = broadcastSnapshot(model);
+        notify_All("notify_playerJoined", OutboundQueue.Kind.SNAPSHOT, l -> l.playerJoined(snapshot, nickname, playerColor));
     }
 
     /**
@@ -97,16 +122,8 @@ public class ListenersHandler {
      * @param nickname the nickname of the player who left
      */
     public void notify_PlayerLeft(Game model, String nickname) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.playerLeft(new GameImmutable(model), nickname);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_PlayerLeft, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        GameImmutable snapshot = broadcastSnapshot(model);
+        notify_All("notify_PlayerLeft", OutboundQueue.Kind.SNAPSHOT, l -> l.playerLeft(snapshot, nickname));
     }
 
     /**
@@ -117,12 +134,9 @@ public class ListenersHandler {
      * @param model       the game model to pass as a new GameModelImmutable
      */
     public void notify_JoinUnableGameFull(GameListenerInterface lis, Player triedToJoin, Game model) {
-        try {
-            lis.joinUnableGameFull(triedToJoin, new GameImmutable(model));
-        } catch (RemoteException e) {
-            printAsync("During notification of notify_JoinUnableGameFull, a disconnection has been detected before ping");
-        }
-
+        Player detached = copyOf(triedToJoin);
+        GameImmutable snapshot = snapshot(model);
+        notify_One(lis, "notify_JoinUnableGameFull", OutboundQueue.Kind.EVENT, l -> l.joinUnableGameFull(detached, snapshot));
     }
 
     /**
@@ -132,11 +146,9 @@ public class ListenersHandler {
      * @param triedToJoin the player who wanted to join the game
      */
     public void notify_JoinUnableNicknameAlreadyIn(GameListenerInterface lis, Player triedToJoin, Game model ) {
-        try {
-            lis.joinUnableNicknameAlreadyIn(triedToJoin,new GameImmutable(model));
-        } catch (RemoteException e) {
-            printAsync("During notification of notify_JoinUnableGameFull, a disconnection has been detected before ping");
-        }
+        Player detached = copyOf(triedToJoin);
+        GameImmutable snapshot = snapshot(model);
+        notify_One(lis, "notify_JoinUnableGameFull", OutboundQueue.Kind.EVENT, l -> l.joinUnableNicknameAlreadyIn(detached,snapshot));
     }
 
     /**
@@ -145,17 +157,8 @@ public class ListenersHandler {
      * @param model the game model to pass as a new GameModelImmutable
      */
     public void notify_GameStarted(Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.gameStarted(new GameImmutable(model));
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_GameStarted, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        GameImmutable snapshot = broadcastSnapshot(model);
+        notify_All("notify_GameStarted", OutboundQueue.Kind.EVENT, l -> l.gameStarted(snapshot));
     }
 
     /**
@@ -164,133 +167,336 @@ public class ListenersHandler {
      * @param model the game model to pass as a new GameModelImmutable
      */
     public void notify_GameEnded(Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.gameEnded(new GameImmutable(model));
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_GameEnded, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        GameImmutable snapshot = broadcastSnapshot(model);
+        notify_All("notify_GameEnded", OutboundQueue.Kind.EVENT, l -> l.gameEnded(snapshot));
     }
 
     /**
      * Notifies that the next turn has started.
      *
-     * @param model the game model to pass as a new GameModelImmutable
+     * @param model the game model the change is taken from
      */
     public void notify_nextTurn(Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.nextTurn(new GameImmutable(model));
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_nextTurn, a disconnection has been detected before ping");
-                i.remove();
-            }
+        Map<String, Integer> scores = new HashMap<>();
+        for (Player p : model.getPlayers()) {
+            scores.put(p.getNickname(), model.getScoretrack().getPlayerScore(p));
         }
+        notify_Delta(new NextTurnDelta(model.nextVersion(), model.getCurrentPlayer().getNickname(), model.getStatus(), scores), "notify_nextTurn");
     }
 
     /**
      * Notifies that a player has disconnected.
      *
-     * @param gamemodel the game model to pass as a new GameModelImmutable
+     * @param gamemodel the game model the change is taken from
      * @param nick      the nickname of the player who disconnected
      */
     public void notify_playerDisconnected(Game gamemodel, String nick) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.playerDisconnected(new GameImmutable(gamemodel), nick);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_playerDisconnected, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        notify_Delta(new PlayerDisconnectedDelta(gamemodel.nextVersion(), nick), "notify_playerDisconnected");
     }
 
     /**
      * Notifies that the last circle has started.
      *
-     * @param model the game model to pass as a new GameModelImmutable
+     * @param model the game model the change is taken from
      */
     public void notify_LastCircle(Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.lastCircle(new GameImmutable(model));
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_LastCircle, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        notify_Delta(new LastCircleDelta(model.nextVersion()), "notify_LastCircle");
     }
 
     /**
      * Notifies that points have been added.
      *
      * @param currentPlayerLis the list of listeners for the current player
-     * @param model            the game model to pass as a new GameModelImmutable
-     */
-    public void notify_PointsAdded(ArrayList<GameListenerInterface> currentPlayerLis, Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                if (!currentPlayerLis.contains(l)) {
-                    l.pointsAdded(new GameImmutable(model));
-                }else{
-                    l.cardPlaced(new GameImmutable(model));
+     * @param model            the game model the change is taken from
+     */
+    public void notify_PointsAdded(List<GameListenerInterface> currentPlayerLis, Game model) {
+        Player p = model.getCurrentPlayer();
+        int[] placement = model.getLastPlacement();
+        long version = model.nextVersion();
+        int score = model.getScoretrack().getPlayerScore(p);
+
+        notify_Delta(currentPlayerLis, p.getNickname(),
+                new CardPlacedDelta(version, p.getNickname(), placement[0], placement[1], placement[2], model.getCurrentCardPoints(), score, true),
+                new CardPlacedDelta(version, p.getNickname(), placement[0], placement[1], placement[2], model.getCurrentCardPoints(), score, false),
+                "notify_PointsAdded");
+    }
+
+    /**
+     * Notifies that a player has drawn a card.
+     *
+     * @param currentPlayerLis the list of listeners for the player who drew the card
+     * @param model            the game model the change is taken from
+     * @param p                the player who drew the card
+     * @param cardType         the type of the drawn card
+     * @param drawFromDeck     true if the card has been drawn from the deck
+     * @param pos              the position on the board of the drawn card
+     * @param drawnCard        the drawn card
+     */
+    public void notify_CardDrawn(List<GameListenerInterface> currentPlayerLis, Game model, Player p, CardType cardType, boolean drawFromDeck, int pos, PlayableCard[] drawnCard) {
+        Deck deck;
+        ArrayList<PlayableCard[]> cardsOnBoard;
+        if (cardType == CardType.GoldCard) {
+            deck = model.getBoard().getGoldCardsDeck();
+            cardsOnBoard = model.getBoard().getGoldCards();
+        } else {
+            deck = model.getBoard().getResourcesCardsDeck();
+            cardsOnBoard = model.getBoard().getResourceCards();
+        }
+        PlayableCard[] replacement = drawFromDeck ? null : cardsOnBoard.getLast();
+        int removedFromDeck = drawFromDeck ? drawnCard[0].getCardID() : replacement[0].getCardID();
+        long version = model.nextVersion();
+
+        notify_Delta(currentPlayerLis, p.getNickname(),
+                new CardDrawnDelta(version, p.getNickname(), cardType, drawFromDeck, pos, drawnCard, replacement, removedFromDeck, deck.getRandomIndex(), true),
+                new CardDrawnDelta(version, p.getNickname(), cardType, drawFromDeck, pos, drawnCard, replacement, removedFromDeck, deck.getRandomIndex(), false),
+                "notify_CardDrawn");
+    }
+
+    /**
+     * Notifies that a player is ready to start the game.
+     *
+     * @param currentPlayerLis the list of listeners for the player who is ready
+     * @param model            the game model the change is taken from
+     * @param p                the player who is ready
+     */
+    public void notify_playerReady(List<GameListenerInterface> currentPlayerLis, Game model, Player p) {
+        long version = model.nextVersion();
+        notify_Delta(currentPlayerLis, p.getNickname(),
+                new PlayerReadyDelta(version, p.getNickname(), true),
+                new PlayerReadyDelta(version, p.getNickname(), false),
+                "notify_playerReady");
+    }
 
+    /**
+     * Notifies listeners of a batch of new messages sent in the game chat.
+     * The messages are sent alone on the chat channel, so they take no version of the game and are not replayed. <br>
+     * The public messages are broadcast to all the listeners, the ones sent one after the other with a single notification;
+     * a private message is sent only to the listeners of the sender and of the receiver, taken from their players,
+     * the other listeners never receive it. Every listener receives the messages in the order they were sent.
+     *
+     * @param gameModel the game model the messages have been sent in
+     * @param batch     the messages that were sent
+     */
+    public void notify_SentMessages(Game gameModel, List<Message> batch) {
+        List<Message> broadcast = new ArrayList<>(batch.size());
+        for (Message msg : batch) {
+            if (msg.whoIsReceiver().equals("*")) {
+                broadcast.add(msg);
+                continue;
+            }
+            //the public messages sent before are queued first
+            notify_Messages(listeners, broadcast);
+            broadcast = new ArrayList<>();
+            Player sender = playerOf(gameModel, msg.getSender());
+            Player receiver = playerOf(gameModel, msg.whoIsReceiver());
+            if (sender != null) {
+                notify_Messages(sender.getListeners(), List.of(msg));
+            }
+            if (receiver != null && receiver != sender) {
+                notify_Messages(receiver.getListeners(), List.of(msg));
+            }
+        }
+        notify_Messages(listeners, broadcast);
+    }
+
+    /**
+     * Finds the sender or the receiver of a private message among the players of the game.
+     * The receiver is typed by the sender, so the nickname is matched ignoring the case as the flow of the clients does.
+     *
+     * @param gameModel the game model
+     * @param nickname  the nickname of the player
+     * @return the player, null if he left the game before the message was delivered
+     */
+    private static Player playerOf(Game gameModel, String nickname) {
+        for (Player p : gameModel.getPlayers()) {
+            if (p.getNickname().equalsIgnoreCase(nickname)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues the chat messages for the listeners, each listener receives them with a single notification.
+     *
+     * @param to       the listeners to notify
+     * @param messages the messages, from the oldest to the latest
+     */
+    private void notify_Messages(List<GameListenerInterface> to, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (GameListenerInterface l : to) {
+            if (!OutboundQueue.send(l, "notify_SentMessages", OutboundQueue.Kind.EVENT, lis -> {
+                for (Message msg : messages) {
+                    lis.chatReceived(msg);
                 }
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_PointsAdded, a disconnection has been detected before ping");
-                i.remove();
+            })) {
+                printAsync("During notification of notify_SentMessages, a disconnection has been detected before ping");
+                evict(l);
             }
         }
     }
 
     /**
-     * Notifies listeners of a new message sent in the game chat.
+     * Sends a page of the history of the chat to the listener that asked for it.
+     *
+     * @param lis  the listener of the player
+     * @param page the messages of the page, from the oldest to the latest
+     */
+    public void notify_ChatHistory(GameListenerInterface lis, List<Message> page) {
+        List<Message> copy = List.copyOf(page);
+        notify_One(lis, "notify_ChatHistory", OutboundQueue.Kind.EVENT, l -> l.chatHistory(copy));
+    }
+
+    /**
+     * Sends the same change of the game to all the listeners.
+     *
+     * @param delta the change of the game
+     * @param event the name of the notification, for logging
+     */
+    private void notify_Delta(GameDelta delta, String event) {
+        replay.record(delta);
+        notify_All(event, OutboundQueue.Kind.EVENT, l -> l.deltaReceived(delta));
+    }
+
+    /**
+     * Sends a change of the game to all the listeners, with a different version for the listeners of the player who made it.
      *
-     * @param gameModel the game model to pass as a new GameModelImmutable
-     * @param msg       the message that was sent
+     * @param currentPlayerLis the list of listeners of the player who made the change
+     * @param maker            the nickname of the player who made the change
+     * @param own              the change sent to the player who made it
+     * @param others           the change sent to the other players
+     * @param event            the name of the notification, for logging
      */
-    public synchronized void notify_SentMessage(Game gameModel, Message msg) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.sentMessage(new GameImmutable(gameModel), msg);
-                System.out.println("Listener notified: " + l.toString());
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_SentMessage, a disconnection has been detected before ping");
-                i.remove();
+    private void notify_Delta(List<GameListenerInterface> currentPlayerLis, String maker, GameDelta own, GameDelta others, String event) {
+        replay.record(maker, own, others);
+        for (GameListenerInterface l : listeners) {
+            GameDelta delta = currentPlayerLis.contains(l) ? own : others;
+            if (!OutboundQueue.send(l, event, OutboundQueue.Kind.EVENT, lis -> lis.deltaReceived(delta))) {
+                printAsync("During notification of " + event + ", a disconnection has been detected before ping");
+                evict(l);
             }
         }
     }
 
     /**
-     * The notify_playerReconnected method notifies the view that a player has reconnected to the game
+     * Queues the same notification for all the listeners, removing the ones that have been closed.
+     *
+     * @param event the name of the notification, for logging
+     * @param kind  the kind of the notification
+     * @param call  the call that delivers the notification
+     */
+    private void notify_All(String event, OutboundQueue.Kind kind, OutboundQueue.Call call) {
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, event, kind, call)) {
+                printAsync("During notification of " + event + ", a disconnection has been detected before ping");
+                evict(l);
+            }
+        }
+    }
+
+    /**
+     * Queues a notification for a single listener.
+     *
+     * @param lis   the listener to notify
+     * @param event the name of the notification, for logging
+     * @param kind  the kind of the notification
+     * @param call  the call that delivers the notification
+     */
+    private static void notify_One(GameListenerInterface lis, String event, OutboundQueue.Kind kind, OutboundQueue.Call call) {
+        if (!OutboundQueue.send(lis, event, kind, call)) {
+            printAsync("During notification of " + event + ", a disconnection has been detected before ping");
+        }
+    }
+
+    /**
+     * Takes a copy of the game for a notification sent to all the listeners: the copy takes a new version,
+     * recorded in the {@link ReplayBuffer} as an event that can't be replayed.
+     *
+     * @param model the game model
+     * @return the detached {@link GameImmutable}
+     */
+    private GameImmutable broadcastSnapshot(Game model) {
+        replay.recordSnapshot(model.nextVersion());
+        return snapshot(model);
+    }
+
+    /**
+     * Takes a copy of the game that doesn't share any mutable object with the model,
+     * so that it can be delivered after the model has changed.
+     *
+     * @param model the game model
+     * @return the detached {@link GameImmutable}
+     */
+    public static GameImmutable snapshot(Game model) {
+        WireOutput out = new WireOutput();
+        ModelCodec.writeGame(out, new GameImmutable(model));
+        try {
+            return ModelCodec.readGame(new WireInput(out.toByteBuffer()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Game can't be copied: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Takes a copy of a player that doesn't share any mutable object with the model.
+     *
+     * @param p the player, possibly null
+     * @return the detached player
+     */
+    public static Player copyOf(Player p) {
+        WireOutput out = new WireOutput();
+        ModelCodec.writePlayer(out, p);
+        try {
+            return ModelCodec.readPlayer(new WireInput(out.toByteBuffer()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Player can't be copied: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The notify_playerReconnected method notifies the view that a player has reconnected to the game. <br>
+     * If the changes after the version of the replica of the reconnected player are still in the {@link ReplayBuffer},
+     * the player receives only them and all the listeners receive a {@link PlayerReconnectedDelta};
+     * otherwise all the listeners receive a full copy of the game.
      *
      * @param model is the GameModel {@link Game} to pass as a new GameModelImmutable {@link GameImmutable}
      * @param nickPlayerReconnected is the nickname of the player that has left the game and now is reconnected
+     * @param lis the listener of the reconnected player
+     * @param lastVersion the version of the replica of the reconnected player, -1 if it has none
      */
-    public void notify_playerReconnected(Game model, String nickPlayerReconnected) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.playerReconnected(new GameImmutable(model), nickPlayerReconnected);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_playerReconnected, a disconnection has been detected before ping");
-                i.remove();
-            }
+    public void notify_playerReconnected(Game model, String nickPlayerReconnected, GameListenerInterface lis, long lastVersion) {
+        List<GameDelta> missed = replay.since(lastVersion, nickPlayerReconnected);
+        if (missed == null) {
+            GameImmutable snapshot = broadcastSnapshot(model);
+            notify_All("notify_playerReconnected", OutboundQueue.Kind.SNAPSHOT, l -> l.playerReconnected(snapshot, nickPlayerReconnected));
+            return;
+        }
+        for (GameDelta delta : missed) {
+            notify_One(lis, "notify_replay", OutboundQueue.Kind.EVENT, l -> l.deltaReceived(delta));
+        }
+        notify_Delta(new PlayerReconnectedDelta(model.nextVersion(), nickPlayerReconnected), "notify_playerReconnected");
+    }
+
+    /**
+     * Sends to the player whose replica diverged the changes after its version, if they are still in the {@link ReplayBuffer},
+     * otherwise a full copy of the game. The other players are not notified.
+     *
+     * @param model       the game model
+     * @param lis         the listener of the player
+     * @param nick        the nickname of the player
+     * @param lastVersion the version of the replica, -1 if a full copy is needed
+     */
+    public void notify_Resync(Game model, GameListenerInterface lis, String nick, long lastVersion) {
+        List<GameDelta> missed = replay.since(lastVersion, nick);
+        if (missed == null) {
+            GameImmutable snapshot = snapshot(model);
+            notify_One(lis, "notify_Resync", OutboundQueue.Kind.SNAPSHOT, l -> l.resynced(snapshot));
+            return;
+        }
+        for (GameDelta delta : missed) {
+            notify_One(lis, "notify_replay", OutboundQueue.Kind.EVENT, l -> l.deltaReceived(delta));
         }
     }
 
@@ -300,16 +506,7 @@ public class ListenersHandler {
      * @param msg is the GameModel {@link Game} to pass as a new GameModelImmutable {@link GameImmutable}
      */
     public void notify_ReconnectionFailed(String msg) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.errorReconnecting(msg);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_ReconnectionFailed, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+        notify_All("notify_ReconnectionFailed", OutboundQueue.Kind.EVENT, l -> l.errorReconnecting(msg));
     }
 
     /**
@@ -320,11 +517,9 @@ public class ListenersHandler {
      * @param model the current game model to pass as a new GameModelImmutable {@link GameImmutable}
      */
     public void notify_AskForReconnection(GameListenerInterface lis, Player triedToJoin, Game model ){
-        try {
-            lis.AskForReconnection(triedToJoin,new GameImmutable(model));
-        } catch (RemoteException e) {
-            printAsync("During notification of notify_JoinUnableGameFull, a disconnection has been detected before ping");
-        }
+        Player detached = copyOf(triedToJoin);
+        GameImmutable snapshot = snapshot(model);
+        notify_One(lis, "notify_JoinUnableGameFull", OutboundQueue.Kind.EVENT, l -> l.AskForReconnection(detached,snapshot));
     }
 
     /**
@@ -332,16 +527,8 @@ public class ListenersHandler {
      * @param model is the GameModel {@link Game} to pass as a new GameModelImmutable {@link GameImmutable} <br>
      * @param secondsToWaitUntillGameEnded is the number of seconds to wait untill the game ends
      */
-    public synchronized void notify_onlyOnePlayerConnected(Game model, int secondsToWaitUntillGameEnded) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.onlyOnePlayerConnected(new GameImmutable(model), secondsToWaitUntillGameEnded);
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_onlyOnePlayerConnected, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
+    public void notify_onlyOnePlayerConnected(Game model, int secondsToWaitUntillGameEnded) {
+        GameImmutable snapshot = broadcastSnapshot(model);
+        notify_All("notify_onlyOnePlayerConnected", OutboundQueue.Kind.SNAPSHOT, l -> l.onlyOnePlayerConnected(snapshot, secondsToWaitUntillGameEnded));
     }
 }
@@ -0,0 +1,254 @@
+package it.polimi.ingsw.listener;
+
+import it.polimi.ingsw.exceptions.FileReadException;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.ServerThreads;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import static it.polimi.ingsw.network.PrintAsync.printAsync;
+
+/**
+ * OutboundQueue Class<br>
+ * Bounded queue of the notifications waiting to be delivered to a listener, drained by its own writer. <br>
+ * The model only appends the notifications to the queue, so a client on a slow link (a blocking RMI callback
+ * or a socket that doesn't read) never holds the lock of the game: it only makes its own queue grow. <br>
+ * When the queue is full the notifications are handled with these policies, in order:
+ * <ul>
+ *     <li>coalesce: a new {@link Kind#SNAPSHOT} replaces all the snapshots still waiting, since it carries a newer state</li>
+ *     <li>drop stale snapshots: a snapshot followed by another snapshot is never delivered</li>
+ *     <li>disconnect: if the queue is still full the listener is closed and won't receive anything else</li>
+ * </ul>
+ * Notifications of a listener are always delivered in the order they were sent.
+ */
+public class OutboundQueue {
+
+    /**
+     * Kind of a notification, that tells if it can be discarded when the listener is too slow
+     */
+    public enum Kind {
+        /**
+         * A notification that has to be delivered: a change of the game or a request to the player
+         */
+        EVENT,
+        /**
+         * A notification that only refreshes the whole game, superseded by any newer snapshot
+         */
+        SNAPSHOT
+    }
+
+    /**
+     * The call of a method of the listener
+     */
+    @FunctionalInterface
+    public interface Call {
+        /**
+         * Delivers the notification to the listener
+         *
+         * @param lis the listener
+         * @throws IOException if the listener could not be reached
+         * @throws FileReadException if the listener fails to read the cards
+         */
+        void deliver(GameListenerInterface lis) throws IOException, FileReadException;
+    }
+
+    /**
+     * A notification waiting to be delivered
+     *
+     * @param event the name of the notification, for logging
+     * @param kind the kind of the notification
+     * @param call the call that delivers it
+     */
+    private record Notification(String event, Kind kind, Call call) {
+    }
+
+    /**
+     * Queues of the listeners that have notifications waiting or that have been closed
+     */
+    private static final ConcurrentHashMap<GameListenerInterface, OutboundQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Writers that deliver the notifications, at most one at a time for each listener
+     */
+    private static final ExecutorService writers = ServerThreads.newWriterPool();
+
+    /**
+     * The listener to notify
+     */
+    private final GameListenerInterface listener;
+
+    /**
+     * Notifications waiting to be delivered, guarded by this
+     */
+    private final ArrayDeque<Notification> pending = new ArrayDeque<>();
+
+    /**
+     * True while a writer is delivering the notifications of this queue, guarded by this
+     */
+    private boolean scheduled = false;
+
+    /**
+     * True once the listener has failed or has been too slow, guarded by this
+     */
+    private boolean closed = false;
+
+    /**
+     * Constructor
+     *
+     * @param listener the listener to notify
+     */
+    private OutboundQueue(GameListenerInterface listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Queues a notification for a listener, it will be delivered by the writer of the listener.
+     * Never blocks on the network.
+     *
+     * @param lis the listener to notify
+     * @param event the name of the notification, for logging
+     * @param kind the kind of the notification
+     * @param call the call that delivers the notification
+     * @return false if the listener has been closed because it failed or was too slow
+     */
+    public static boolean send(GameListenerInterface lis, String event, Kind kind, Call call) {
+        boolean[] accepted = {false};
+        queues.compute(lis, (key, queue) -> {
+            if (queue == null) {
+                queue = new OutboundQueue(key);
+            }
+            accepted[0] = queue.offer(new Notification(event, kind, call));
+            return queue;
+        });
+        return accepted[0];
+    }
+
+    /**
+     * Forgets a listener, called when it is removed from the game.
+     * Notifications already queued are still delivered, a closed listener can be used again.
+     *
+     * @param lis the listener
+     */
+    public static void release(GameListenerInterface lis) {
+        queues.computeIfPresent(lis, (key, queue) -> queue.isClosed() ? null : queue);
+    }
+
+    /**
+     * Checks if a listener has been closed because it failed or was too slow
+     *
+     * @param lis the listener
+     * @return true if the listener won't receive other notifications
+     */
+    public static boolean isClosed(GameListenerInterface lis) {
+        OutboundQueue queue = queues.get(lis);
+        return queue != null && queue.isClosed();
+    }
+
+    /**
+     * Appends a notification, applying the overflow policies if the queue is full
+     *
+     * @param n the notification
+     * @return false if the queue is closed
+     */
+    private synchronized boolean offer(Notification n) {
+        if (closed) {
+            return false;
+        }
+        if (pending.size() >= DefaultValue.maxPendingNotificationsPerListener) {
+            dropStaleSnapshots(n.kind() == Kind.SNAPSHOT);
+        }
+        if (pending.size() >= DefaultValue.maxPendingNotificationsPerListener) {
+            printAsync("Listener too slow, " + n.event() + " not delivered: disconnecting it");
+            close();
+            return false;
+        }
+        pending.add(n);
+        if (!scheduled) {
+            scheduled = true;
+            writers.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the snapshots that are followed by a newer one
+     *
+     * @param newSnapshot true if a snapshot is going to be appended
+     */
+    private void dropStaleSnapshots(boolean newSnapshot) {
+        boolean newer = newSnapshot;
+        Iterator<Notification> i = pending.descendingIterator();
+        while (i.hasNext()) {
+            if (i.next().kind() == Kind.SNAPSHOT) {
+                if (newer) {
+                    i.remove();
+                }
+                newer = true;
+            }
+        }
+    }
+
+    /**
+     * Delivers the queued notifications one at a time, in order.
+     * Runs on a writer, outside any lock of the game.
+     */
+    private void drain() {
+        while (true) {
+            Notification n;
+            synchronized (this) {
+                n = pending.poll();
+                if (n == null) {
+                    scheduled = false;
+                    break;
+                }
+            }
+            try {
+                n.call().deliver(listener);
+            } catch (IOException | FileReadException | RuntimeException e) {
+                printAsync("During notification of " + n.event() + ", a disconnection has been detected before ping");
+                synchronized (this) {
+                    close();
+                }
+            }
+        }
+        queues.computeIfPresent(listener, (key, queue) -> queue == this && isIdle() ? null : queue);
+    }
+
+    /**
+     * Closes the queue: the waiting notifications are discarded and the connection of the listener, if the
+     * server owns it, is closed. Called holding the lock of the queue.
+     */
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        if (listener instanceof Closeable connection) {
+            writers.execute(() -> {
+                try {
+                    connection.close();
+                } catch (IOException ignored) {}
+            });
+        }
+    }
+
+    /**
+     * @return true if the listener has been closed
+     */
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return true if there is nothing to deliver and the queue can be forgotten
+     */
+    private synchronized boolean isIdle() {
+        return !closed && !scheduled && pending.isEmpty();
+    }
+}
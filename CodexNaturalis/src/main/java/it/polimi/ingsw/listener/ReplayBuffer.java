@@ -0,0 +1,133 @@
+package it.polimi.ingsw.listener;
+
+import it.polimi.ingsw.model.game.GameDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplayBuffer Class<br>
+ * Ring buffer of the last events sent to all the listeners of a game, in the order of their version. <br>
+ * A client that reconnects after a short disconnection sends the version of its replica of the game and
+ * receives only the changes it missed, instead of a full copy of the game. The changes sent with a full
+ * copy of the game are recorded as a gap: a client that missed one of them, or that missed more changes
+ * than the buffer holds, receives a full copy.
+ */
+public class ReplayBuffer {
+
+    /**
+     * Versions of the recorded events
+     */
+    private final long[] versions;
+
+    /**
+     * The change sent to the player who made it, null for an event sent with a full copy of the game
+     */
+    private final GameDelta[] own;
+
+    /**
+     * The change sent to the other players, null for an event sent with a full copy of the game
+     */
+    private final GameDelta[] others;
+
+    /**
+     * The player who made the change, null if the same change was sent to all the players
+     */
+    private final String[] makers;
+
+    /**
+     * Index of the next slot to write
+     */
+    private int next;
+
+    /**
+     * Number of recorded events, at most the capacity of the buffer
+     */
+    private int size;
+
+    /**
+     * Creates an empty buffer
+     *
+     * @param capacity the number of events kept
+     */
+    public ReplayBuffer(int capacity) {
+        versions = new long[capacity];
+        own = new GameDelta[capacity];
+        others = new GameDelta[capacity];
+        makers = new String[capacity];
+    }
+
+    /**
+     * Records a change sent to all the players
+     *
+     * @param delta the change
+     */
+    public synchronized void record(GameDelta delta) {
+        add(delta.getVersion(), null, delta, delta);
+    }
+
+    /**
+     * Records a change sent with a different version to the player who made it
+     *
+     * @param maker the nickname of the player who made the change
+     * @param own the change sent to the player who made it
+     * @param others the change sent to the other players
+     */
+    public synchronized void record(String maker, GameDelta own, GameDelta others) {
+        add(others.getVersion(), maker, own, others);
+    }
+
+    /**
+     * Records an event sent with a full copy of the game, that can't be replayed
+     *
+     * @param version the version of the game sent with the event
+     */
+    public synchronized void recordSnapshot(long version) {
+        add(version, null, null, null);
+    }
+
+    /**
+     * Returns the changes after a version, as they were sent to a player
+     *
+     * @param version the version of the replica of the player
+     * @param nickname the nickname of the player
+     * @return the changes in order of version, empty if the replica is up-to-date,
+     * null if the changes can't be replayed and the player needs a full copy of the game
+     */
+    public synchronized List<GameDelta> since(long version, String nickname) {
+        if (version < 0 || size == 0) {
+            return null;
+        }
+        int first = (next - size + versions.length) % versions.length;
+        if (version < versions[first] - 1 || version > versions[(next - 1 + versions.length) % versions.length]) {
+            //some changes are no more in the buffer, or the replica is not of this game
+            return null;
+        }
+        List<GameDelta> missed = new ArrayList<>();
+        for (int n = 0; n < size; n++) {
+            int i = (first + n) % versions.length;
+            if (versions[i] <= version) {
+                continue;
+            }
+            if (others[i] == null) {
+                return null;
+            }
+            missed.add(nickname.equals(makers[i]) ? own[i] : others[i]);
+        }
+        return missed;
+    }
+
+    /**
+     * Writes an event in the next slot, overwriting the oldest one if the buffer is full
+     */
+    private void add(long version, String maker, GameDelta ownDelta, GameDelta othersDelta) {
+        versions[next] = version;
+        makers[next] = maker;
+        own[next] = ownDelta;
+        others[next] = othersDelta;
+        next = (next + 1) % versions.length;
+        if (size < versions.length) {
+            size++;
+        }
+    }
+}
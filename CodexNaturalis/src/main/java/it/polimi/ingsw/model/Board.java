@@ -20,21 +20,61 @@ public class Board implements Serializable {
 
 
     /**
-     * Constructor for the Board class.
+     * Constructor for the Board class, with its own random choices.
      * Initializes the board with empty lists for gold cards, resource cards, and objective cards.
      * Also initializes the respective decks for gold cards, resource cards, and objective cards.
      */
     public Board()  {
+        this(new GameRandom());
+    }
+
+    /**
+     * Constructor for the Board class, whose decks draw with the random choices of its game.
+     *
+     * @param random the random choices of the game
+     */
+    public Board(GameRandom random)  {
         this.goldCards = new ArrayList<>();
         this.resourceCards = new ArrayList<>();
         this.objectiveCards = new ObjectiveCard[2];
-        this.goldCardsDeck = new Deck(CardType.GoldCard);
-        this.resourcesCardsDeck = new Deck(CardType.ResourceCard);
-        this.objectiveCardsDeck = new ObjectiveDeck();
+        this.goldCardsDeck = new Deck(CardType.GoldCard, random);
+        this.resourcesCardsDeck = new Deck(CardType.ResourceCard, random);
+        this.objectiveCardsDeck = new ObjectiveDeck(random);
 
         initializeBoard();
     }
 
+    /**
+     * Constructor for the Board class, used to rebuild a board received from the network.
+     *
+     * @param goldCards the gold cards placed on the board
+     * @param resourceCards the resource cards placed on the board
+     * @param objectiveCards the common objective cards
+     * @param goldCardsDeck the deck of gold cards
+     * @param resourcesCardsDeck the deck of resource cards
+     * @param objectiveCardsDeck the deck of objective cards
+     */
+    public Board(ArrayList<PlayableCard[]> goldCards, ArrayList<PlayableCard[]> resourceCards, ObjectiveCard[] objectiveCards,
+                 Deck goldCardsDeck, Deck resourcesCardsDeck, ObjectiveDeck objectiveCardsDeck) {
+        this.goldCards = goldCards;
+        this.resourceCards = resourceCards;
+        this.objectiveCards = objectiveCards;
+        this.goldCardsDeck = goldCardsDeck;
+        this.resourcesCardsDeck = resourcesCardsDeck;
+        this.objectiveCardsDeck = objectiveCardsDeck;
+    }
+
+    /**
+     * Sets the random choices of the game to the decks of the board, used when the board has been rebuilt.
+     *
+     * @param random the random choices of the game
+     */
+    public void setRandom(GameRandom random) {
+        goldCardsDeck.setRandom(random);
+        resourcesCardsDeck.setRandom(random);
+        objectiveCardsDeck.setRandom(random);
+    }
+
     /**
      * Initializes the board by placing cards on it.
      * Sets the common Goals
@@ -99,6 +139,14 @@ public class Board implements Serializable {
         return resourcesCardsDeck;
     }
 
+    /**
+     * Retrieves the deck of objective cards used on the board.
+     * @return The ObjectiveDeck object representing the deck of objective cards.
+     */
+    public ObjectiveDeck getObjectiveCardsDeck() {
+        return objectiveCardsDeck;
+    }
+
     /**
      * Retrieves an objective card from the objective cards deck.
      * @return An ObjectiveCard object picked from the objective cards deck.
@@ -6,35 +6,66 @@ import it.polimi.ingsw.model.cards.*;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
- * Book Class: contains the disposition of the cards of the player
+ * Book Class: contains the disposition of the cards of the player. <br>
+ * Only the cells that have been touched (cards, walls, available cells) are stored, in a map keyed by
+ * their packed coordinates, and the available cells are kept in a separate frontier; a real game uses
+ * a few dozen cells out of the whole book. {@link #getBookMatrix()} still offers the full matrix as a view.
  */
 public class Book implements Serializable {
     private static final long serialVersionUID = 2959887351940112342L;
 
     /**
-     * matrix of cells
+     * Number of rows of the book
      */
-    private final Cell[][] bookMatrix;
+    private final int rows;
 
     /**
-     * Map that contains the number of resources in the book, for each possible ResourceType
+     * Number of columns of the book
      */
-    private Map<ResourceType, Integer> resourceMap;
+    private final int columns;
 
     /**
-     * Map that contains the number of symbols in the book, for each possible SymbolType
+     * Cells that have been touched, keyed by {@code row * columns + column}
      */
-    private Map<SymbolType, Integer> symbolMap;
-    private String[][] matrix;
+    private final Map<Integer, Cell> cells;
+
+    /**
+     * Available cells, keyed by {@code row * columns + column}
+     */
+    private final Map<Integer, Cell> availableCells;
+
+    /**
+     * Full matrix of cells, built only when it is requested with {@link #getBookMatrix()}
+     */
+    private transient Cell[][] bookMatrix;
+
+    /**
+     * Matches of the diagonal and L placement objectives, updated at every placement
+     */
+    private final PatternTracker patterns;
+
+    /**
+     * Number of resources in the book, indexed by ResourceType.ordinal()
+     */
+    private final int[] resourceCounts = new int[RESOURCES.length];
+
+    /**
+     * Number of symbols in the book, indexed by SymbolType.ordinal()
+     */
+    private final int[] symbolCounts = new int[SYMBOLS.length];
+
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+    private static final SymbolType[] SYMBOLS = SymbolType.values();
     private int placementOrderBook;
 
 
     /**
      * Constructs a Book object with the specified number of rows, columns, and a PlayableCard.
-     * Initializes the resource and symbol maps and sets up the book matrix with Cell objects.
-     * Each Cell object is initialized with its row and column indices and is marked as unavailable.
+     * Initializes the resource and symbol maps; every cell starts empty and unavailable,
+     * and it is created only when it is touched.
      *
      * @param rows    The number of rows in the book.
      * @param columns The number of columns in the book.
@@ -42,79 +73,195 @@ public class Book implements Serializable {
     public Book(int rows, int columns){
         initializeMaps();
 
-        this.bookMatrix = new Cell[rows][columns];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                bookMatrix[i][j] = new Cell(i, j);
-            }
-        }
-        initializePrintMatrix();
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new HashMap<>();
+        this.availableCells = new HashMap<>();
+        this.patterns = new PatternTracker(rows, columns);
         placementOrderBook = -1;
     }
 
     /**
-     * Initializes the matrix used for printing.
-     * <p>
-     * This method sets up a two-dimensional array of strings with dimensions
-     * specified by the constant {@code DefaultValue.BookSizeMax}. Each element
-     * of the array is initialized to a single space character (" ").
-     * </p>
-     * <p>
-     * The matrix is a square array with both rows and columns equal to
-     * {@code DefaultValue.BookSizeMax}.
-     * </p>
+     * @return the number of rows of the book
      */
-    public void initializePrintMatrix(){
-        this.matrix = new String[DefaultValue.BookSizeMax][DefaultValue.BookSizeMax];
-        for (int i = 0; i < DefaultValue.BookSizeMax; i++) {
-            for (int j = 0; j < DefaultValue.BookSizeMax; j++) {
-                matrix[i][j] = " ";
-            }
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of columns of the book
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Packs the coordinates of a cell in the key used by the maps of the book.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the key of the cell
+     */
+    private int key(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * Retrieves the cell at the specified position, creating it if it has never been touched.
+     * Changes made to the cell are written through to the book.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the cell
+     * @throws IndexOutOfBoundsException if the position is outside the book
+     */
+    public Cell getCell(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell " + row + "," + column + " is outside the book");
+        }
+        int key = key(row, column);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = bookMatrix != null ? bookMatrix[row][column] : new Cell(row, column, this);
+            cells.put(key, cell);
         }
+        return cell;
     }
 
+    /**
+     * Retrieves the cell at the specified position without creating it.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the cell, null if it has never been touched or it is outside the book
+     */
+    private Cell peekCell(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return null;
+        }
+        return cells.get(key(row, column));
+    }
 
     /**
-     * Initializes the maps used for tracking resources and symbols.
-     * This method sets up two HashMaps: {@code resourceMap} and {@code symbolMap}.
-     * The {@code resourceMap} is initialized with keys from the {@code ResourceType}
-     * enum (Animal, Fungi, Insect, Plant) and their corresponding values are set to 0.
-     * The {@code symbolMap} is initialized with keys from the {@code SymbolType}
-     * enum (Ink, Quill, Manuscript) and their corresponding values are set to 0.
-     * </p>
+     * Reads the card of a cell without creating the cell.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the card placed in the cell, null if the cell is empty or outside the book
+     */
+    public PlayableCard cardAt(int row, int column) {
+        Cell cell = peekCell(row, column);
+        return cell == null ? null : cell.getCard();
+    }
+
+    /**
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return true if the cell has a wall
+     */
+    private boolean isWallAt(int row, int column) {
+        Cell cell = peekCell(row, column);
+        return cell != null && cell.isWall();
+    }
+
+    /**
+     * Checks whether a card can be placed in a cell, without scanning the book:
+     * the available cells are kept up to date at every placement.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return true if a card can be placed in the cell, false if it can't or the cell is out of the book
+     */
+    public boolean isAvailable(int row, int column) {
+        return getAvailableCell(row, column) != null;
+    }
+
+    /**
+     * Retrieves an available cell by its position.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the cell if a card can be placed in it, null if it can't or the cell is out of the book
+     */
+    public Cell getAvailableCell(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return null;
+        }
+        return availableCells.get(key(row, column));
+    }
+
+    /**
+     * @return the number of cells where a card can be placed
+     */
+    public int getAvailableCount() {
+        return availableCells.size();
+    }
+
+    /**
+     * @return a read-only view of the cells where a card can be placed, in no particular order
+     */
+    public Collection<Cell> getAvailableCells() {
+        return Collections.unmodifiableCollection(availableCells.values());
+    }
+
+    /**
+     * Performs the action for each available cell, in no particular order,
+     * without copying the available cells.
+     *
+     * @param action the action to perform on each available cell
+     */
+    public void forEachAvailableCell(Consumer<? super Cell> action) {
+        availableCells.values().forEach(action);
+    }
+
+    /**
+     * Called by a cell of the book when it changes: the cell is stored and the frontier of the
+     * available cells is updated.
+     *
+     * @param cell the cell that has changed
+     */
+    void cellChanged(Cell cell) {
+        int key = key(cell.getRow(), cell.getColumn());
+        cells.putIfAbsent(key, cell);
+        patterns.cardChanged(cell.getRow(), cell.getColumn(), cell.getCard());
+        if (cell.isAvailable()) {
+            availableCells.put(key, cell);
+        } else {
+            availableCells.remove(key);
+        }
+    }
+
+    /**
+     * @return the cells that have been touched, in no particular order
+     */
+    public Collection<Cell> getCells() {
+        return Collections.unmodifiableCollection(cells.values());
+    }
+
+    /**
+     * Initializes the counters used for tracking resources and symbols.
+     * Every resource (Animal, Fungi, Insect, Plant) and every symbol (Ink, Quill, Manuscript) is set to 0.
      */
     public void initializeMaps(){
-        this.resourceMap = new HashMap<>();
-        resourceMap.put(ResourceType.Animal,0);
-        resourceMap.put(ResourceType.Fungi,0);
-        resourceMap.put(ResourceType.Insect,0);
-        resourceMap.put(ResourceType.Plant,0);
-
-        this.symbolMap = new HashMap<>();
-        symbolMap.put(SymbolType.Ink,0);
-        symbolMap.put(SymbolType.Quill,0);
-        symbolMap.put(SymbolType.Manuscript,0);
+        Arrays.fill(resourceCounts, 0);
+        Arrays.fill(symbolCounts, 0);
     }
 
 
     /**
      * Retrieves a cell from the matrix that matches the specified cell.
-     * This method searches through the {@code bookMatrix} for a cell that is
-     * equal to the specified {@code findCell}. If a matching cell is found, it
-     * is returned. If no matching cell is found, {@code null} is returned.
+     * The cell is looked up by its position, and it is returned only if it is
+     * the same cell of the book; otherwise {@code null} is returned.
      * @param findCell the cell to find in the matrix
      * @return the matching cell if found, otherwise {@code null}
      */
     public Cell getCellinMatrix(Cell findCell) {
-        for (int row = 0; row < bookMatrix.length; row++) {
-            for (int col = 0; col < bookMatrix[row].length; col++) {
-                Cell currentCell = bookMatrix[row][col];
-                if (currentCell.equals(findCell)) {
-                    return currentCell;
-                }
-            }
+        Cell currentCell = peekCell(findCell.getRow(), findCell.getColumn());
+        if (currentCell == null && bookMatrix != null && findCell.getRow() >= 0 && findCell.getRow() < rows
+                && findCell.getColumn() >= 0 && findCell.getColumn() < columns) {
+            currentCell = bookMatrix[findCell.getRow()][findCell.getColumn()];
         }
-        return null;
+        return currentCell != null && currentCell.equals(findCell) ? currentCell : null;
     }
 
     /**
@@ -132,6 +279,31 @@ public class Book implements Serializable {
         return this.initialCard;
     }
 
+    /**
+     * Sets the initial card without placing it, used to rebuild a book received from the network.
+     *
+     * @param initialCard the initial card of the book
+     */
+    public void setInitialCard(PlayableCard initialCard){
+        this.initialCard = initialCard;
+    }
+
+    /**
+     * @return the placement order of the last card placed, -1 if no card has been placed
+     */
+    public int getPlacementOrderBook(){
+        return placementOrderBook;
+    }
+
+    /**
+     * Sets the placement order of the last card placed, used to rebuild a book received from the network.
+     *
+     * @param placementOrderBook the placement order of the last card placed
+     */
+    public void setPlacementOrderBook(int placementOrderBook){
+        this.placementOrderBook = placementOrderBook;
+    }
+
     /**
      * Adds the initial playable card to a specific cell in the matrix.
      * <p>
@@ -144,7 +316,7 @@ public class Book implements Serializable {
      */
     public void addInitial(PlayableCard initialCard){
         this.initialCard=initialCard;
-        Cell initialCell = bookMatrix[35][35];
+        Cell initialCell = getCell(35, 35);
         initialCell.setAvailable(true);
         initialCell.setCardPointer(initialCard);
         initialCell.setAvailable(false);
@@ -246,23 +418,13 @@ public class Book implements Serializable {
      * @return True if the placement condition is satisfied, false otherwise.
      */
     public boolean checkPlacementCondition(PlayableCard goldCard){
-        Map<ResourceType, Integer> conditionsMap = new HashMap<>();
-        conditionsMap.put(ResourceType.Animal,0);
-        conditionsMap.put(ResourceType.Fungi,0);
-        conditionsMap.put(ResourceType.Insect,0);
-        conditionsMap.put(ResourceType.Plant,0);
-        boolean check = true;
-        for (ResourceType resource : goldCard.getPlacementCondition()) {
-            conditionsMap.put(resource, conditionsMap.get(resource) + 1);
-        }
-        for (ResourceType resourceType : conditionsMap.keySet()) {
-            int conditionValue = conditionsMap.get(resourceType);
-            int resourceValue = resourceMap.getOrDefault(resourceType, 0);
-            if (conditionValue > resourceValue) {
-                check = false;
+        int condition = goldCard.getPlacementCounts();
+        for (int r = 0; r < resourceCounts.length; r++) {
+            if (PlayableCard.placementCount(condition, r) > resourceCounts[r]) {
+                return false;
             }
         }
-        return check;
+        return true;
     }
 
     /**
@@ -296,16 +458,16 @@ public class Book implements Serializable {
         int i = cell.getRow();
         int j = cell.getColumn();
 
-        if(bookMatrix[i-1][j-1].getCard() != null){
+        if(cardAt(i-1, j-1) != null){
             cornerCovered++;
         }
-        if(bookMatrix[i-1][j+1].getCard() != null ){
+        if(cardAt(i-1, j+1) != null ){
             cornerCovered++;
         }
-        if(bookMatrix[i+1][j+1].getCard() != null){
+        if(cardAt(i+1, j+1) != null){
             cornerCovered++;
         }
-        if(bookMatrix[i+1][j-1].getCard() != null){
+        if(cardAt(i+1, j-1) != null){
             cornerCovered++;
         }
         return cornerCovered * 2;
@@ -318,7 +480,8 @@ public class Book implements Serializable {
      * @return The number of occurrences of the gold card's symbol condition in a symbol map.
      */
     public int checkGoldSymbolCondition(PlayableCard goldCard){
-        return symbolMap.getOrDefault(goldCard.getSymbolCondition(), 0);
+        SymbolType symbolCondition = goldCard.getSymbolCondition();
+        return symbolCondition == null ? 0 : symbolCounts[symbolCondition.ordinal()];
     }
 
     /**
@@ -362,25 +525,25 @@ public class Book implements Serializable {
                 skip0 = true;
                 skip3 = true;
             }
-            if(i==bookMatrix.length-1){
+            if(i==rows-1){
                 skip2 = true;
                 skip3 = true;
             }
-            if(j==bookMatrix.length-1){
+            if(j==rows-1){
                 skip1 = true;
                 skip2 = true;
             }
-            if(!skip0 && bookMatrix[i-1][j-1].getCard() != null && !(bookMatrix[i-1][j-1].getCard().getCornerContent(2).equals("Empty"))){
-                coverCorner(bookMatrix[i-1][j-1].getCard(),2);
+            if(!skip0 && cardAt(i-1, j-1) != null && cardAt(i-1, j-1).getCornerCode(2) != CornerCode.EMPTY){
+                coverCorner(cardAt(i-1, j-1),2);
             }
-            if(!skip1 && bookMatrix[i-1][j+1].getCard() != null && !(bookMatrix[i-1][j+1].getCard().getCornerContent(3).equals("Empty"))){
-                coverCorner(bookMatrix[i-1][j+1].getCard(), 3);
+            if(!skip1 && cardAt(i-1, j+1) != null && cardAt(i-1, j+1).getCornerCode(3) != CornerCode.EMPTY){
+                coverCorner(cardAt(i-1, j+1), 3);
             }
-            if(!skip2 && bookMatrix[i+1][j+1].getCard() != null && !(bookMatrix[i+1][j+1].getCard().getCornerContent(0).equals("Empty"))){
-                coverCorner(bookMatrix[i+1][j+1].getCard(), 0);
+            if(!skip2 && cardAt(i+1, j+1) != null && cardAt(i+1, j+1).getCornerCode(0) != CornerCode.EMPTY){
+                coverCorner(cardAt(i+1, j+1), 0);
             }
-            if(!skip3 && bookMatrix[i+1][j-1].getCard() != null && !(bookMatrix[i+1][j-1].getCard().getCornerContent(1).equals("Empty"))){
-                coverCorner(bookMatrix[i+1][j-1].getCard(), 1);
+            if(!skip3 && cardAt(i+1, j-1) != null && cardAt(i+1, j-1).getCornerCode(1) != CornerCode.EMPTY){
+                coverCorner(cardAt(i+1, j-1), 1);
             }
         }
         return cornerCovered;
@@ -394,44 +557,11 @@ public class Book implements Serializable {
      * @param corner  The type of corner to cover (0: TLCorner, 1: TRCorner, 2: BRCorner, 3: BLCorner).
      */
     public void coverCorner(PlayableCard card, int corner){ //funzione che "copre" la risorsa o il simbolo di una carta passata la carta e l'angolo coperto. decrementa il valore della risorsa/simbolo nella mappa dei simboli risorse del book
-        if((card.getCornerContent(corner).equals("Fungi")) || (card.getCornerContent(corner).equals("Animal")) || (card.getCornerContent(corner).equals("Insect")) || (card.getCornerContent(corner).equals("Plant"))){
-            String content = card.getCornerContent(corner);
-            switch (content){
-                case("Fungi"): {
-                    decreaseResource(ResourceType.Fungi);
-                    break;
-                }
-                case("Animal"):{
-                    decreaseResource(ResourceType.Animal);
-                    break;
-                }
-                case("Insect"):{
-                    decreaseResource(ResourceType.Insect);
-                    break;
-                }
-                case("Plant"):{
-                    decreaseResource(ResourceType.Plant);
-                    break;
-                }
-                default: break;
-            }
-        }else if((card.getCornerContent(corner).equals("Ink")) || (card.getCornerContent(corner).equals("Quill") || (card.getCornerContent(corner).equals("Manuscript")))){
-            String content = card.getCornerContent(corner);
-            switch (content) {
-                case ("Ink"): {
-                    decreaseSymbol(SymbolType.Ink);
-                    break;
-                }
-                case ("Quill"): {
-                    decreaseSymbol(SymbolType.Quill);
-                    break;
-                }
-                case ("Manuscript"): {
-                    decreaseSymbol(SymbolType.Manuscript);
-                    break;
-                }
-                default: break;
-            }
+        int code = card.getCornerCode(corner);
+        if (CornerCode.isResource(code)) {
+            decreaseResource(CornerCode.resource(code));
+        } else if (CornerCode.isSymbol(code)) {
+            decreaseSymbol(CornerCode.symbol(code));
         }
     }
 
@@ -441,9 +571,10 @@ public class Book implements Serializable {
      * @param resourceType The type of resource to decrease.
      */
     public void decreaseResource(ResourceType resourceType){ //funzione che decrementa la risorsa passata per parametro
-        int numResources = resourceMap.get(resourceType);
-        numResources = (numResources == 0) ? 0 : numResources - 1;
-        resourceMap.put(resourceType, numResources);
+        int r = resourceType.ordinal();
+        if (resourceCounts[r] > 0) {
+            resourceCounts[r]--;
+        }
     }
 
     /**
@@ -452,9 +583,10 @@ public class Book implements Serializable {
      * @param symbolType The type of symbol to decrease.
      */
     public void decreaseSymbol(SymbolType symbolType){ //funzione che decrementa la risorsa passata per parametro
-        int numSymbols = symbolMap.get(symbolType);
-        numSymbols = (numSymbols == 0) ? 0 : numSymbols - 1;
-        symbolMap.put(symbolType, numSymbols);
+        int s = symbolType.ordinal();
+        if (symbolCounts[s] > 0) {
+            symbolCounts[s]--;
+        }
     }
 
     /**
@@ -463,9 +595,7 @@ public class Book implements Serializable {
      * @param resourceType The type of resource to increase.
      */
     public void increaseResource(ResourceType resourceType){ //funzione che incrementa la risorsa passata per parametro
-        int numResources = resourceMap.get(resourceType);
-        numResources++;
-        resourceMap.put(resourceType, numResources);
+        resourceCounts[resourceType.ordinal()]++;
     }
 
     /**
@@ -474,9 +604,7 @@ public class Book implements Serializable {
      * @param symbolType The type of symbol to increase.
      */
     public void increaseSymbol(SymbolType symbolType){ //funzione che incrementa il simbolo passato per parametro
-        int numSymbols = symbolMap.get(symbolType);
-        numSymbols++;
-        symbolMap.put(symbolType, numSymbols);
+        symbolCounts[symbolType.ordinal()]++;
     }
 
     /**
@@ -502,49 +630,38 @@ public class Book implements Serializable {
      */
     public void updateNewCardCorners(PlayableCard card) {
         for (int i = 0; i < 4; i++) {
-            String content = card.getCornerContent(i);
-            switch (content) {
-                case "Fungi":
-                    increaseResource(ResourceType.Fungi);
-                    break;
-                case "Animal":
-                    increaseResource(ResourceType.Animal);
-                    break;
-                case "Insect":
-                    increaseResource(ResourceType.Insect);
-                    break;
-                case "Plant":
-                    increaseResource(ResourceType.Plant);
-                    break;
-                case "Ink":
-                    increaseSymbol(SymbolType.Ink);
-                    break;
-                case "Quill":
-                    increaseSymbol(SymbolType.Quill);
-                    break;
-                case "Manuscript":
-                    increaseSymbol(SymbolType.Manuscript);
-                    break;
-                default:
-                    // Handle the case when the content is not recognized or empty
-                    break;
+            int code = card.getCornerCode(i);
+            if (CornerCode.isResource(code)) {
+                increaseResource(CornerCode.resource(code));
+            } else if (CornerCode.isSymbol(code)) {
+                increaseSymbol(CornerCode.symbol(code));
             }
+            //an empty or missing corner doesn't change the maps
         }
     }
 
 
+    /**
+     * Keeps the matches of an objective of the player up to date from now on, see {@link PatternTracker#track}
+     *
+     * @param objectiveCard the personal or common objective
+     */
+    public void trackGoal(ObjectiveCard objectiveCard) {
+        patterns.track(objectiveCard);
+    }
+
     /**
      * Removes all cards from the book.
-     * This method clears the book of all cards, leaving it empty.
+     * This method clears the book of all cards, leaving it empty; only the cells
+     * that have been touched are visited.
      */
     public void clear(){
-        for (int i = 0; i < bookMatrix.length; i++) {
-            for (int j = 0; j < bookMatrix[i].length; j++) {
-                bookMatrix[i][j].setCardPointer(null);
-                bookMatrix[i][j].setAvailable(false);
-                bookMatrix[i][j].setWall(false);
-            }
+        for (Cell cell : cells.values()) {
+            cell.reset();
         }
+        cells.clear();
+        availableCells.clear();
+        patterns.clear();
         initializeMaps();
     }
 
@@ -576,76 +693,131 @@ public class Book implements Serializable {
             skip0 = true;
             skip3 = true;
         }
-        if(i==bookMatrix.length-1){
+        if(i==rows-1){
             skip2 = true;
             skip3 = true;
         }
-        if(j==bookMatrix.length-1){
+        if(j==rows-1){
             skip1 = true;
             skip2 = true;
         }
         if(!skip0 && newCard.getTLCorner() == CornerLabel.NoCorner){
-            bookMatrix[i-1][j-1].setWall(true);
-        }else if(!skip0 && !(newCard.getTLCorner() == CornerLabel.NoCorner) && !(bookMatrix[i-1][j-1].isWall())){
-            bookMatrix[i-1][j-1].setAvailable(true);
+            getCell(i-1, j-1).setWall(true);
+        }else if(!skip0 && !(newCard.getTLCorner() == CornerLabel.NoCorner) && !isWallAt(i-1, j-1)){
+            getCell(i-1, j-1).setAvailable(true);
         }
 
         if(!skip1 && newCard.getTRCorner() == CornerLabel.NoCorner){
-            bookMatrix[i-1][j+1].setWall(true);
-        }else if(!skip1 && !(newCard.getTRCorner() == CornerLabel.NoCorner) && !(bookMatrix[i-1][j+1].isWall())){
-            bookMatrix[i-1][j+1].setAvailable(true);
+            getCell(i-1, j+1).setWall(true);
+        }else if(!skip1 && !(newCard.getTRCorner() == CornerLabel.NoCorner) && !isWallAt(i-1, j+1)){
+            getCell(i-1, j+1).setAvailable(true);
         }
 
         if(!skip2 && newCard.getBRCorner() == CornerLabel.NoCorner){
-            bookMatrix[i+1][j+1].setWall(true);
-        }else if(!skip2 && !(newCard.getBRCorner() == CornerLabel.NoCorner) && !(bookMatrix[i+1][j+1].isWall())){
-            bookMatrix[i+1][j+1].setAvailable(true);
+            getCell(i+1, j+1).setWall(true);
+        }else if(!skip2 && !(newCard.getBRCorner() == CornerLabel.NoCorner) && !isWallAt(i+1, j+1)){
+            getCell(i+1, j+1).setAvailable(true);
         }
 
         if(!skip3 && newCard.getBLCorner() == CornerLabel.NoCorner){
-            bookMatrix[i+1][j-1].setWall(true);
-        }else if(!skip3 && !(newCard.getBLCorner() == CornerLabel.NoCorner) && !(bookMatrix[i+1][j-1]).isWall()){
-            bookMatrix[i+1][j-1].setAvailable(true);
+            getCell(i+1, j-1).setWall(true);
+        }else if(!skip3 && !(newCard.getBLCorner() == CornerLabel.NoCorner) && !isWallAt(i+1, j-1)){
+            getCell(i+1, j-1).setAvailable(true);
         }
     }
 
     /**
      * Returns an array of available cells in the book matrix.
      * A cell is considered available if its 'isAvailable' attribute is set to true.
+     * The cells are read from the frontier of the book, ordered by row and then by column:
+     * the list is a sorted copy, callers that don't need the order use {@link #getAvailableCells()}
+     * or {@link #forEachAvailableCell(Consumer)}.
      *
      * @return An array of Cell objects representing the available cells in the book matrix.
      */
     public ArrayList<Cell> showAvailableCells() {
-        ArrayList<Cell> availableCellsList = new ArrayList<>();
-        for (int i = 0; i < bookMatrix.length; i++) {
-            for (int j = 0; j < bookMatrix.length; j++) {
-                if (bookMatrix[i][j].isAvailable()){
-                    availableCellsList.add(bookMatrix[i][j]);
-                }
-            }
-        }
+        ArrayList<Cell> availableCellsList = new ArrayList<>(availableCells.values());
+        availableCellsList.sort(Comparator.comparingInt(Cell::getRow).thenComparingInt(Cell::getColumn));
         return availableCellsList;
     }
 
+    /**
+     * @return a read-only view of the number of resources in the book, for each ResourceType
+     */
     public Map<ResourceType, Integer> getResourceMap() {
-        return resourceMap;
+        return new CountsView<>(RESOURCES, resourceCounts);
     }
 
+    /**
+     * Copies the number of resources from a map, the resources missing from the map are set to 0.
+     *
+     * @param resourceMap the number of resources, for each ResourceType
+     */
     public void setResourceMap(Map<ResourceType, Integer> resourceMap) {
-        this.resourceMap = resourceMap;
+        for (ResourceType r : RESOURCES) {
+            resourceCounts[r.ordinal()] = resourceMap.getOrDefault(r, 0);
+        }
     }
 
+    /**
+     * @return a read-only view of the number of symbols in the book, for each SymbolType
+     */
     public Map<SymbolType, Integer> getSymbolMap() {
-        return symbolMap;
+        return new CountsView<>(SYMBOLS, symbolCounts);
     }
 
+    /**
+     * Copies the number of symbols from a map, the symbols missing from the map are set to 0.
+     *
+     * @param symbolMap the number of symbols, for each SymbolType
+     */
     public void setSymbolMap(Map<SymbolType, Integer> symbolMap) {
-        this.symbolMap = symbolMap;
+        for (SymbolType s : SYMBOLS) {
+            symbolCounts[s.ordinal()] = symbolMap.getOrDefault(s, 0);
+        }
+    }
+
+    /**
+     * @param resourceType the type of resource
+     * @return the number of resources of that type in the book
+     */
+    public int getResourceCount(ResourceType resourceType) {
+        return resourceCounts[resourceType.ordinal()];
+    }
+
+    /**
+     * Sets the number of resources of a type in the book.
+     *
+     * @param resourceType the type of resource
+     * @param count        the number of resources
+     */
+    public void setResourceCount(ResourceType resourceType, int count) {
+        resourceCounts[resourceType.ordinal()] = count;
+    }
+
+    /**
+     * @param symbolType the type of symbol
+     * @return the number of symbols of that type in the book
+     */
+    public int getSymbolCount(SymbolType symbolType) {
+        return symbolCounts[symbolType.ordinal()];
+    }
+
+    /**
+     * Sets the number of symbols of a type in the book.
+     *
+     * @param symbolType the type of symbol
+     * @param count      the number of symbols
+     */
+    public void setSymbolCount(SymbolType symbolType, int count) {
+        symbolCounts[symbolType.ordinal()] = count;
     }
 
     /**
      * This method checks on the player's Book how many times he achieved his own Goal.
      * It also calculates how many points the player obtained achieving his Goal.
+     * Diagonal and L placements are read from the matches kept up to date at every placement by the
+     * {@link PatternTracker}, without scanning the book.
      *
      * @param objectiveCard Is the player's own ObjectiveCard.
      * @throws IllegalArgumentException If an invalid GoalType label is set on the objectiveCard attribute.
@@ -655,8 +827,7 @@ public class Book implements Serializable {
         return switch (objectiveCard.getGoalType()) {
             case ResourceCondition -> checkResourceCondition(objectiveCard);
             case SymbolCondition -> checkSymbolCondition(objectiveCard);
-            case DiagonalPlacement -> checkDiagonalPlacement(objectiveCard);
-            case LPlacement -> checkLPlacement(objectiveCard);
+            case DiagonalPlacement, LPlacement -> patterns.score(objectiveCard);
         };
     }
 
@@ -668,7 +839,7 @@ public class Book implements Serializable {
     public int checkResourceCondition(ObjectiveCard objectiveCard) {
 
         ResourceType mainResourceType = objectiveCard.getMainResource(); //ResourceType required by the card
-        int numMainResources = resourceMap.getOrDefault(mainResourceType, 0);
+        int numMainResources = resourceCounts[mainResourceType.ordinal()];
         int numTriplets = numMainResources / 3; //Groups of 3 required Resource on the player's Book
         return numTriplets * objectiveCard.getVictoryPoints();
 
@@ -683,13 +854,13 @@ public class Book implements Serializable {
         switch (objectiveCard.getVictoryPoints()) {
             case 2:
                 SymbolType symbolToCheck = objectiveCard.getSymbols().get(0);
-                int numSymbol = symbolMap.getOrDefault(symbolToCheck, 0);
+                int numSymbol = symbolCounts[symbolToCheck.ordinal()];
                 int numPairs = numSymbol / 2;
                 return numPairs * 2;
             case 3:
-                int numQuill = symbolMap.getOrDefault(SymbolType.Quill, 0);
-                int numInk = symbolMap.getOrDefault(SymbolType.Ink, 0);
-                int numManuscript = symbolMap.getOrDefault(SymbolType.Manuscript, 0);
+                int numQuill = symbolCounts[SymbolType.Quill.ordinal()];
+                int numInk = symbolCounts[SymbolType.Ink.ordinal()];
+                int numManuscript = symbolCounts[SymbolType.Manuscript.ordinal()];
                 int minSymbolCount = Math.min(numQuill, Math.min(numInk, numManuscript)); //gets the MINIMUM of the 3 symbols quantities
                 return minSymbolCount * 3;
 
@@ -698,6 +869,7 @@ public class Book implements Serializable {
     }
 
         /**
+         * Scans the whole book; the game reads the score kept by the {@link PatternTracker}, see {@link #checkGoal}.
          * @return Victory Points obtained by the player reaching the diagonalPlacement condition required by his Objective card.
          * @param objectiveCard The player's own ObjectiveCard.
          */
@@ -713,18 +885,15 @@ public class Book implements Serializable {
             ResourceType mainResource = objectiveCard.getMainResource();
             CornerType direction = objectiveCard.getDirection();
 
-            int rows = bookMatrix.length;
-            int columns = bookMatrix[0].length;
-
             if (direction == CornerType.BRCorner) {
                 for (int i = 0; i < rows - 2; i++) {
                     for (int j = 0; j < columns - 2; j++) {
-                        if (!skipIndexes(indexes,i,j) && bookMatrix[i][j].getCard() != null &&
-                                bookMatrix[i + 1][j + 1].getCard() != null &&
-                                bookMatrix[i + 2][j + 2].getCard() != null &&
-                                bookMatrix[i][j].getCard().getMainResource() == mainResource &&
-                                bookMatrix[i + 1][j + 1].getCard().getMainResource() == mainResource &&
-                                bookMatrix[i + 2][j + 2].getCard().getMainResource() == mainResource) {
+                        if (!skipIndexes(indexes,i,j) && cardAt(i, j) != null &&
+                                cardAt(i + 1, j + 1) != null &&
+                                cardAt(i + 2, j + 2) != null &&
+                                cardAt(i, j).getMainResource() == mainResource &&
+                                cardAt(i + 1, j + 1).getMainResource() == mainResource &&
+                                cardAt(i + 2, j + 2).getMainResource() == mainResource) {
                             count++;
                             indexes[i][j] = 1;
                             indexes[i+1][j+1] = 1;
@@ -735,12 +904,12 @@ public class Book implements Serializable {
             } else if (direction == CornerType.BLCorner) {
                 for (int i = 0; i < rows - 2; i++) {
                     for (int j = 2; j < columns; j++) {
-                        if (!skipIndexes(indexes,i,j) && bookMatrix[i][j].getCard() != null &&
-                                bookMatrix[i + 1][j - 1].getCard() != null &&
-                                bookMatrix[i + 2][j - 2].getCard() != null &&
-                                bookMatrix[i][j].getCard().getMainResource() == mainResource &&
-                                bookMatrix[i + 1][j - 1].getCard().getMainResource() == mainResource &&
-                                bookMatrix[i + 2][j - 2].getCard().getMainResource() == mainResource) {
+                        if (!skipIndexes(indexes,i,j) && cardAt(i, j) != null &&
+                                cardAt(i + 1, j - 1) != null &&
+                                cardAt(i + 2, j - 2) != null &&
+                                cardAt(i, j).getMainResource() == mainResource &&
+                                cardAt(i + 1, j - 1).getMainResource() == mainResource &&
+                                cardAt(i + 2, j - 2).getMainResource() == mainResource) {
                             count++;
                             indexes[i][j] = 1;
                             indexes[i+1][j-1] = 1;
@@ -781,6 +950,7 @@ public class Book implements Serializable {
 
 
         /**
+         * Scans the whole book; the game reads the score kept by the {@link PatternTracker}, see {@link #checkGoal}.
          * @return Victory Points obtained by the player reaching the LPlacement condition required by his Objective card.
          * @param objectiveCard The player's own ObjectiveCard.
          */
@@ -797,30 +967,28 @@ public class Book implements Serializable {
 
             switch (objectiveCard.getDirection()) {
                 case TLCorner:
-                    for (int i = 2; i < bookMatrix.length; i++) {
-                        for (int j = 1; j < bookMatrix[i].length - 1; j++) {
-                            if (!skipIndexes(indexes, i, j) && bookMatrix[i][j].getCard() != null && bookMatrix[i][j].getCard().getMainResource() == secondResource) {
-                                System.out.println("entrato fase 0 TLCorner");
-                                if (bookMatrix[i - 1][j - 1].getCard() != null && bookMatrix[i - 3][j - 1].getCard() != null &&
-                                        bookMatrix[i - 1][j - 1].getCard().getMainResource() == mainResource &&
-                                        bookMatrix[i - 3][j - 1].getCard().getMainResource() == mainResource) {
+                    for (int i = 2; i < rows; i++) {
+                        for (int j = 1; j < columns - 1; j++) {
+                            if (!skipIndexes(indexes, i, j) && cardAt(i, j) != null && cardAt(i, j).getMainResource() == secondResource) {
+                                if (cardAt(i - 1, j - 1) != null && cardAt(i - 3, j - 1) != null &&
+                                        cardAt(i - 1, j - 1).getMainResource() == mainResource &&
+                                        cardAt(i - 3, j - 1).getMainResource() == mainResource) {
                                     count++;
                                     indexes[i][j] = 1;
                                     indexes[i-1][j-1] = 1;
                                     indexes[i-3][j-1] = 1;
-                                    System.out.println("entratoTLCorner");
                                 }
                             }
                         }
                     }
                     break;
                 case TRCorner:
-                    for (int i = 3; i < bookMatrix.length; i++) {
-                        for (int j = 0; j < bookMatrix[i].length - 2; j++) {
-                            if (!skipIndexes(indexes, i, j) && bookMatrix[i][j].getCard() != null && bookMatrix[i][j].getCard().getMainResource() == secondResource) {
-                                if (bookMatrix[i - 1][j + 1].getCard() != null && bookMatrix[i - 3][j + 1].getCard() != null &&
-                                        bookMatrix[i - 1][j + 1].getCard().getMainResource() == mainResource &&
-                                        bookMatrix[i - 3][j + 1].getCard().getMainResource() == mainResource) {
+                    for (int i = 3; i < rows; i++) {
+                        for (int j = 0; j < columns - 2; j++) {
+                            if (!skipIndexes(indexes, i, j) && cardAt(i, j) != null && cardAt(i, j).getMainResource() == secondResource) {
+                                if (cardAt(i - 1, j + 1) != null && cardAt(i - 3, j + 1) != null &&
+                                        cardAt(i - 1, j + 1).getMainResource() == mainResource &&
+                                        cardAt(i - 3, j + 1).getMainResource() == mainResource) {
                                     count++;
                                     indexes[i][j] = 1;
                                     indexes[i-1][j+1] = 1;
@@ -831,12 +999,12 @@ public class Book implements Serializable {
                     }
                     break;
                 case BLCorner:
-                    for (int i = 0; i < bookMatrix.length - 2; i++) {
-                        for (int j = 1; j < bookMatrix[i].length - 1; j++) {
-                            if (!skipIndexes(indexes, i, j) && bookMatrix[i][j].getCard() != null && bookMatrix[i][j].getCard().getMainResource() == secondResource) {
-                                if (bookMatrix[i + 1][j - 1].getCard() != null && bookMatrix[i + 3][j - 1].getCard() != null &&
-                                        bookMatrix[i + 1][j - 1].getCard().getMainResource() == mainResource &&
-                                        bookMatrix[i + 3][j - 1].getCard().getMainResource() == mainResource) {
+                    for (int i = 0; i < rows - 2; i++) {
+                        for (int j = 1; j < columns - 1; j++) {
+                            if (!skipIndexes(indexes, i, j) && cardAt(i, j) != null && cardAt(i, j).getMainResource() == secondResource) {
+                                if (cardAt(i + 1, j - 1) != null && cardAt(i + 3, j - 1) != null &&
+                                        cardAt(i + 1, j - 1).getMainResource() == mainResource &&
+                                        cardAt(i + 3, j - 1).getMainResource() == mainResource) {
                                     count++;
                                     indexes[i][j] = 1;
                                     indexes[i+1][j-1] = 1;
@@ -847,12 +1015,12 @@ public class Book implements Serializable {
                     }
                     break;
                 case BRCorner:
-                    for (int i = 0; i < bookMatrix.length - 2; i++) {
-                        for (int j = 0; j < bookMatrix[i].length - 2; j++) {
-                            if (!skipIndexes(indexes, i, j) && bookMatrix[i][j].getCard() != null && bookMatrix[i][j].getCard().getMainResource() == secondResource) {
-                                if (bookMatrix[i + 1][j + 1].getCard() != null && bookMatrix[i + 3][j + 1].getCard() != null &&
-                                        bookMatrix[i + 1][j + 1].getCard().getMainResource() == mainResource &&
-                                        bookMatrix[i + 3][j + 1].getCard().getMainResource() == mainResource) {
+                    for (int i = 0; i < rows - 2; i++) {
+                        for (int j = 0; j < columns - 2; j++) {
+                            if (!skipIndexes(indexes, i, j) && cardAt(i, j) != null && cardAt(i, j).getMainResource() == secondResource) {
+                                if (cardAt(i + 1, j + 1) != null && cardAt(i + 3, j + 1) != null &&
+                                        cardAt(i + 1, j + 1).getMainResource() == mainResource &&
+                                        cardAt(i + 3, j + 1).getMainResource() == mainResource) {
                                     count++;
                                     indexes[i][j] = 1;
                                     indexes[i+1][j+1] = 1;
@@ -869,14 +1037,32 @@ public class Book implements Serializable {
             return count*3;
         }
 
+    /**
+     * Returns the whole book as a matrix of cells.
+     * The matrix is built on the first call and then kept: the cells that have not been touched are
+     * added to the book only when they change, and every change made through the matrix is written
+     * through to the book.
+     *
+     * @return the matrix of the cells of the book
+     */
     public Cell[][] getBookMatrix() {
+        if (bookMatrix == null) {
+            Cell[][] matrix = new Cell[rows][columns];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    Cell cell = cells.get(key(i, j));
+                    matrix[i][j] = cell != null ? cell : new Cell(i, j, this);
+                }
+            }
+            bookMatrix = matrix;
+        }
         return bookMatrix;
     }
 
     /**
      * Displays the current state of the resource and symbol maps.
      * <p>
-     * This method iterates through the {@code resourceMap} and {@code symbolMap},
+     * This method iterates through the resource and symbol counters,
      * building a string representation of each map. The resulting string shows
      * the names and quantities of each resource and symbol present in the game.
      * </p>
@@ -886,17 +1072,13 @@ public class Book implements Serializable {
     public String showMaps(){
         StringBuilder result = new StringBuilder();
         result.append("*******RESOURCEMAP*******: \n");
-        for (Map.Entry<ResourceType, Integer> entry : resourceMap.entrySet()) {
-            ResourceType resource = entry.getKey();
-            int num = entry.getValue();
-            result.append(resource.toString()).append(": ").append(num).append("\n");
+        for (ResourceType resource : RESOURCES) {
+            result.append(resource.toString()).append(": ").append(resourceCounts[resource.ordinal()]).append("\n");
         }
 
         result.append("*******SYMBOLMAP*******: \n");
-        for (Map.Entry<SymbolType, Integer> entry : symbolMap.entrySet()) {
-            SymbolType symbol = entry.getKey();
-            int num = entry.getValue();
-            result.append(symbol.toString()).append(": ").append(num).append("\n");
+        for (SymbolType symbol : SYMBOLS) {
+            result.append(symbol.toString()).append(": ").append(symbolCounts[symbol.ordinal()]).append("\n");
         }
         return result.toString();
     }
@@ -954,9 +1136,9 @@ public class Book implements Serializable {
 
           for (int j = minJ; j <= maxJ; j++) {
               String[] lines;
-              if (bookMatrix[i][j].getCard() != null) {
-                  lines = bookMatrix[i][j].getCard().toString().split("\n");
-              } else if (bookMatrix[i][j].isAvailable()) {
+              if (cardAt(i, j) != null) {
+                  lines = cardAt(i, j).toString().split("\n");
+              } else if (isAvailable(i, j)) {
                   lines = nullCardPrint().split("\n");
               } else {
                   lines = new String[DefaultValue.printHeight + 2];
@@ -964,7 +1146,7 @@ public class Book implements Serializable {
               }
 
 
-              boolean isAvailable = bookMatrix[i][j].isAvailable();
+              boolean isAvailable = isAvailable(i, j);
               String colorCode = isAvailable ? GREEN : RESET;
 
               for (int k = 0; k < lines.length; k++) {
@@ -1041,26 +1223,26 @@ public class Book implements Serializable {
      */
     public int[] findSubMatrix() {
         int[] limits = new int[4];
-        int minI = bookMatrix.length;
-        int minJ = bookMatrix[0].length;
+        int minI = rows;
+        int minJ = columns;
         int maxI = -1;
         int maxJ = -1;
 
-        for (int i = 0; i < bookMatrix.length; i++) {
-            for (int j = 0; j < bookMatrix[i].length; j++) {
-                if (bookMatrix[i][j].getCard() != null) {
-                    if (i < minI) minI = i;
-                    if (j < minJ) minJ = j;
-                    if (i > maxI) maxI = i;
-                    if (j > maxJ) maxJ = j;
-                }
+        for (Cell cell : cells.values()) {
+            if (cell.getCard() != null) {
+                int i = cell.getRow();
+                int j = cell.getColumn();
+                if (i < minI) minI = i;
+                if (j < minJ) minJ = j;
+                if (i > maxI) maxI = i;
+                if (j > maxJ) maxJ = j;
             }
         }
 
         if (minI > 0) minI--;
         if (minJ > 0) minJ--;
-        if (maxI < bookMatrix.length - 1) maxI++;
-        if (maxJ < bookMatrix[0].length - 1) maxJ++;
+        if (maxI < rows - 1) maxI++;
+        if (maxJ < columns - 1) maxJ++;
 
         limits[0] = minI;
         limits[1] = minJ;
@@ -1069,4 +1251,65 @@ public class Book implements Serializable {
 
         return limits;
     }
+
+    /**
+     * Read-only map of counters indexed by the ordinal of an enum, it reads the counters of the book when it is used.
+     *
+     * @param <K> the enum of the keys
+     */
+    private static final class CountsView<K extends Enum<K>> extends AbstractMap<K, Integer> {
+        private final K[] keys;
+        private final int[] counts;
+
+        private CountsView(K[] keys, int[] counts) {
+            this.keys = keys;
+            this.counts = counts;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            return containsKey(key) ? counts[((Enum<?>) key).ordinal()] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && key.getClass() == keys[0].getDeclaringClass();
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<K, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<K, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            K key = keys[next];
+                            return new SimpleImmutableEntry<>(key, counts[next++]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
 }
@@ -17,6 +17,11 @@ public class Cell implements Serializable {
     private int placementOrder;
     private PlayableCard cardPointer;
 
+    /**
+     * The book that owns the cell, notified of every change; null for a cell outside a book
+     */
+    private final Book book;
+
 
     /**
      * Constructs a Cell object with specified row and column indices.
@@ -26,12 +31,50 @@ public class Cell implements Serializable {
      * @param column The column index of the cell in the grid.
      */
     public Cell(int row, int column) {
+        this(row, column, null);
+    }
+
+    /**
+     * Constructs an empty cell of a book, that notifies the book of every change.
+     *
+     * @param row    The row index of the cell in the book.
+     * @param column The column index of the cell in the book.
+     * @param book   The book that owns the cell.
+     */
+    Cell(int row, int column, Book book) {
         this.row = row;
         this.column = column;
         this.available = false;
         this.wall = false;
         this.cardPointer = null;
         this.placementOrder = -1;
+        this.book = book;
+    }
+
+    /**
+     * Notifies the book that owns the cell that the cell has changed.
+     */
+    private void changed() {
+        if (book != null) {
+            book.cellChanged(this);
+        }
+    }
+
+    /**
+     * Brings the cell back to its initial empty state, without notifying the book.
+     */
+    void reset() {
+        this.available = false;
+        this.wall = false;
+        this.cardPointer = null;
+        this.placementOrder = -1;
+    }
+
+    /**
+     * @return true if the cell is still in its initial empty state
+     */
+    boolean isEmpty() {
+        return !available && !wall && cardPointer == null && placementOrder == -1;
     }
 
 
@@ -43,6 +86,7 @@ public class Cell implements Serializable {
     public void updateCell(PlayableCard newCard){
         this.available = false;
         this.cardPointer = newCard;
+        changed();
     }
 
     /**
@@ -52,6 +96,7 @@ public class Cell implements Serializable {
      */
     public void setPlacementOrder(int placementOrder) {
         this.placementOrder = placementOrder;
+        changed();
     }
 
     /**
@@ -115,6 +160,7 @@ public class Cell implements Serializable {
      */
     public void setAvailable(boolean available) {
         this.available = available;
+        changed();
     }
 
     /**
@@ -133,6 +179,7 @@ public class Cell implements Serializable {
      */
     public void setCardPointer(PlayableCard cardPointer) {
         this.cardPointer = cardPointer;
+        changed();
     }
 
     /**
@@ -151,6 +198,7 @@ public class Cell implements Serializable {
      */
     public void setWall(boolean wall) {
         this.wall = wall;
+        changed();
     }
 
     /**
@@ -12,8 +12,7 @@ public enum Color {
     GREEN("/img/green.png");
 
     private final String path;
-    private static final ArrayList<Color> availableColors = new ArrayList<>();
-    private static final Random RANDOM = new Random();
+    private static final Color[] COLORS = values();
 
     /**
      * Constructor to initialize a color with its corresponding image path.
@@ -34,30 +33,22 @@ public enum Color {
     }
 
     /**
-     * Retrieves a random color from the available set of colors.
+     * Retrieves a random color among the ones not taken by the other players of a game.
      *
-     * @return A randomly selected color.
+     * @param random The random choices of the game.
+     * @param taken  The colors of the players already in the game.
+     * @return A randomly selected color, any color if all of them are taken.
      */
-    public static synchronized Color getRandomColor() {
-        if (availableColors.isEmpty()) {
-            resetAvailableColors();
+    public static Color getRandomColor(GameRandom random, Collection<Color> taken) {
+        List<Color> available = new ArrayList<>(COLORS.length);
+        for (Color c : COLORS) {
+            if (!taken.contains(c)) {
+                available.add(c);
+            }
         }
-        return availableColors.remove(RANDOM.nextInt(availableColors.size()));
-    }
-
-    /**
-     * Adds a color to the available colors list.
-     *
-     * @param color The color to add.
-     */
-    public static void addColor(Color color){
-        availableColors.add(color);
-    }
-
-    /**
-     * Resets the list of available colors to include all enum values.
-     */
-    private static void resetAvailableColors() {
-        Collections.addAll(availableColors, values());
+        if (available.isEmpty()) {
+            return COLORS[random.nextInt(COLORS.length)];
+        }
+        return available.get(random.nextInt(available.size()));
     }
 }
@@ -1,60 +1,83 @@
 
 package it.polimi.ingsw.model;
-import com.google.gson.Gson;
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.exceptions.DeckEmptyException;
-import it.polimi.ingsw.exceptions.FileCastException;
-import it.polimi.ingsw.exceptions.FileReadException;
-import it.polimi.ingsw.exceptions.JSONParsingException;
 import it.polimi.ingsw.model.cards.*;
 
 
 import java.io.*;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-
-import java.util.Objects;
-import java.util.Random;
+import java.util.Arrays;
 
 
 /**
- * The `Deck` class represents a deck of playable cards. It initializes and manages
- * cards based on different types (GoldCard, ResourceCard, InitialCard) read from
- * JSON files.
+ * The `Deck` class represents a deck of playable cards of a type (GoldCard, ResourceCard, InitialCard).
+ * The deck only keeps the IDs of the cards left, the cards are read once from the JSON files
+ * and shared by every deck through the {@link CardCatalog}. <br>
+ * The deck is shuffled one card at a time: the next card to be drawn is chosen in advance, and drawing it
+ * moves the last card of the deck in its place, so a draw neither shifts the other cards nor allocates.
  */
 public class Deck implements Serializable {
     private int numCards;
     private final CardType cardType;
-    private final ArrayList<PlayableCard> frontCards;
-    private final ArrayList<PlayableCard> backCards;
+
+    /**
+     * IDs of the cards left in the deck, only the first numCards are valid
+     */
+    private int[] cardIDs;
+
+    /**
+     * Position of the next card that will be drawn, -1 if the deck is empty
+     */
     private int randomIndex;
 
     /**
-     * Constructs a `Deck` object of a specified card type.
+     * The random choices of the game of the deck, never sent to the clients
+     */
+    private transient GameRandom random;
+
+    /**
+     * Constructs a `Deck` object of a specified card type, with its own random choices.
      *
      * @param cardType The type of cards in the deck (GoldCard, ResourceCard, InitialCard).
      */
     public Deck(CardType cardType) {
-        this.cardType = cardType;
-        this.frontCards = new ArrayList<>();
-        this.backCards = new ArrayList<>();
+        this(cardType, new GameRandom());
+    }
 
-        switch (cardType) {
-                case GoldCard, ResourceCard -> this.numCards = DefaultValue.NumOfGoldCards;
-                case InitialCard -> this.numCards = DefaultValue.NumOfInitialCards;
-        }
-        try {
-            initializeDeck(cardType);
-        } catch (FileNotFoundException e) {
-            System.err.println("Error JSON file not found - " + e.getMessage());
-        } catch (FileReadException e) {
-            System.err.println("Error during JSON file reading - " + e.getMessage());
-        }
+    /**
+     * Constructs a `Deck` object of a specified card type, drawing with the random choices of its game.
+     *
+     * @param cardType The type of cards in the deck (GoldCard, ResourceCard, InitialCard).
+     * @param random   The random choices of the game.
+     */
+    public Deck(CardType cardType, GameRandom random) {
+        this.cardType = cardType;
+        this.random = random;
+        initializeDeck(cardType);
         generateRandomIndex();
+    }
 
+    /**
+     * Constructs a `Deck` object with the specified cards, used to rebuild a deck received from the network.
+     *
+     * @param cardType    The type of cards in the deck.
+     * @param cardIDs     The IDs of the cards left in the deck.
+     * @param randomIndex The index of the next card that will be drawn.
+     */
+    public Deck(CardType cardType, int[] cardIDs, int randomIndex) {
+        this.cardType = cardType;
+        this.cardIDs = cardIDs.clone();
+        this.numCards = cardIDs.length;
+        this.randomIndex = randomIndex;
+    }
+
+    /**
+     * Sets the random choices of the game of the deck, used when the deck has been rebuilt.
+     *
+     * @param random The random choices of the game.
+     */
+    public void setRandom(GameRandom random) {
+        this.random = random;
     }
 
     /**
@@ -66,6 +89,19 @@ public class Deck implements Serializable {
         return this.randomIndex;
     }
 
+    /**
+     * Retrieves one side of the next card that will be drawn, without drawing it.
+     *
+     * @param isFront true for the front side, false for the back side
+     * @return the card on the top of the deck, null if the deck is empty
+     */
+    public PlayableCard peekTop(boolean isFront) {
+        if (randomIndex < 0 || randomIndex >= numCards) {
+            return null;
+        }
+        return CardCatalog.getInstance().getCard(cardType, cardIDs[randomIndex], isFront);
+    }
+
     /**
      * Retrieves the number of cards remaining in the deck.
      *
@@ -75,13 +111,22 @@ public class Deck implements Serializable {
         return numCards;
     }
 
+    /**
+     * Retrieves the IDs of the cards left in the deck.
+     *
+     * @return a new array with the IDs, in the order of the deck
+     */
+    public int[] getCardIDs() {
+        return Arrays.copyOf(cardIDs, numCards);
+    }
+
     /**
      * Retrieves the list of front cards in the deck.
      *
      * @return The list of front cards.
      */
     public ArrayList<PlayableCard> getFrontCards() {
-        return frontCards;
+        return getCards(true);
     }
 
     /**
@@ -90,7 +135,22 @@ public class Deck implements Serializable {
      * @return The list of back cards.
      */
     public ArrayList<PlayableCard> getBackCards() {
-        return backCards;
+        return getCards(false);
+    }
+
+    /**
+     * Retrieves one side of the cards left in the deck.
+     *
+     * @param isFront true for the front sides, false for the back sides
+     * @return a new list with the cards, in the order of the deck
+     */
+    private ArrayList<PlayableCard> getCards(boolean isFront) {
+        CardCatalog catalog = CardCatalog.getInstance();
+        ArrayList<PlayableCard> cards = new ArrayList<>(numCards);
+        for (int i = 0; i < numCards; i++) {
+            cards.add(catalog.getCard(cardType, cardIDs[i], isFront));
+        }
+        return cards;
     }
 
     /**
@@ -103,85 +163,46 @@ public class Deck implements Serializable {
     }
 
     /**
-     * Initializes the deck of cards (arrayList of PlayableCards) of the specified type.
-     * Reads the JSON files of the specified Card Type containing the front and back cards,
-     * and populates the frontCards and backCards lists with the read cards.
-     *
+     * Initializes the deck with all the cards of the specified type.
+     * The cards are taken from the {@link CardCatalog}, so the JSON files are read only once.
      *
      * @param cardType the type of cards to initialize the deck
-     * @throws FileNotFoundException if any of the JSON files are not found.
-     * @throws FileReadException if there is an error while reading the files.
-     */
-    public void initializeDeck(CardType cardType) throws FileReadException, FileNotFoundException {
-        Reader frontReader ;
-        Reader backReader ;
-
-        Gson gson = new Gson();
-
-        try {
-            ArrayList<InitialCard> frontCardList;
-            ArrayList<InitialCard> backCardList ;
-            switch (cardType) {
-                case InitialCard:
-                    frontReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/InitialCardsFront.json")), StandardCharsets.UTF_8);
-                    backReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/InitialCardsBack.json")), StandardCharsets.UTF_8);
-                    Type initialCardType = new TypeToken<ArrayList<InitialCard>>() {
-                    }.getType();
-                    frontCardList = gson.fromJson(frontReader, initialCardType);
-                    frontCards.addAll(frontCardList);
-                    frontReader.close();
-
-                    backCardList = gson.fromJson(backReader, initialCardType);
-                    backCards.addAll(backCardList);
-                    backReader.close();
-                    break;
-
-                case ResourceCard:
-                    frontReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/ResourceCardsFront.json")), StandardCharsets.UTF_8);
-                    backReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/ResourceCardsBack.json")), StandardCharsets.UTF_8);
-                    Type resourceCardType = new TypeToken<ArrayList<ResourceCard>>() {
-                    }.getType();
-                    frontCardList = gson.fromJson(frontReader, resourceCardType);
-                    frontCards.addAll(frontCardList);
-                    frontReader.close();
-
-                    backCardList = gson.fromJson(backReader, resourceCardType);
-                    backCards.addAll(backCardList);
-                    backReader.close();
-                    break;
+     */
+    public void initializeDeck(CardType cardType) {
+        this.cardIDs = CardCatalog.getInstance().getCardIDs(cardType);
+        this.numCards = cardIDs.length;
+    }
 
-                case GoldCard:
-                    frontReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/GoldCardsFront.json")), StandardCharsets.UTF_8);
-                    backReader = new InputStreamReader(Objects.requireNonNull(Deck.class.getResourceAsStream("/json/GoldCardsBack.json")), StandardCharsets.UTF_8);
-                    Type goldCardType = new TypeToken<ArrayList<GoldCard>>() {
-                    }.getType();
-                    frontCardList = gson.fromJson(frontReader, goldCardType);
-                    frontCards.addAll(frontCardList);
-                    frontReader.close();
-
-                    backCardList = gson.fromJson(backReader, goldCardType);
-                    backCards.addAll(backCardList);
-                    backReader.close();
+    /**
+     * Removes from a replica of the deck the card drawn by the server, as the server removed it,
+     * so that the positions of the replica stay the same as the ones of the server.
+     *
+     * @param cardID      the ID of the drawn card
+     * @param randomIndex the index of the next card chosen by the server
+     */
+    public void removeDrawnCard(int cardID, int randomIndex) {
+        if (this.randomIndex >= 0 && this.randomIndex < numCards && cardIDs[this.randomIndex] == cardID) {
+            //the card drawn is the one on the top of the replica
+            remove(this.randomIndex);
+        } else {
+            for (int i = 0; i < numCards; i++) {
+                if (cardIDs[i] == cardID) {
+                    remove(i);
                     break;
+                }
             }
-        } catch (FileNotFoundException e) {
-            throw new FileNotFoundException("File not found: " + e.getMessage());
-
-        } catch (IOException e) {
-            throw new FileReadException("Error reading file: " + e.getMessage());
-
-        } catch (JsonSyntaxException | JsonIOException e) {
-            throw new JSONParsingException("JSON file parsing error: " + e.getMessage());
-
-        } catch (ClassCastException e) {
-            throw new FileCastException("CASTING error accessing JSON file data: " + e.getMessage());
-
-        } catch (NullPointerException e) {
-            throw new NullPointerException("Error null values not handled correctly: " + e.getMessage());
-
-        } catch (Exception e) {
-            throw new FileReadException("Generic exception: " + e.getMessage());
         }
+        this.randomIndex = randomIndex;
+    }
+
+    /**
+     * Removes a card moving the last card of the deck in its place.
+     *
+     * @param index the position of the card
+     */
+    private void remove(int index) {
+        cardIDs[index] = cardIDs[numCards - 1];
+        numCards--;
     }
 
     /**
@@ -198,17 +219,20 @@ public class Deck implements Serializable {
      * This index is used for GUI purposes to determine which card's back to display next.
      */
     private void generateRandomIndex() {
+        if (random == null) {
+            //a deck rebuilt without its game
+            random = new GameRandom();
+        }
         if (numCards > 0) {
-            randomIndex = new Random().nextInt(numCards);
+            randomIndex = random.nextInt(numCards);
         } else {
             randomIndex = -1;
         }
     }
 
     /**
-     * Returns two cards from the deck at a random position (position = CardID).
-     * Decreases the numCards attribute of the deck.
-     * Removes the cards from the arrays
+     * Returns the two sides of the next card of the deck, chosen at random when the previous card was drawn.
+     * Decreases the numCards attribute of the deck and chooses the next card.
      *
      * @return an array containing two cards (one front and one back) drawn from the deck
      */
@@ -216,12 +240,12 @@ public class Deck implements Serializable {
         if (numCards == 0) {
             throw new DeckEmptyException("The deck is empty. No more cards to draw.");
         }
-        PlayableCard frontCard = frontCards.get(randomIndex);
-        PlayableCard backCard = backCards.get(randomIndex);
+        CardCatalog catalog = CardCatalog.getInstance();
+        int cardID = cardIDs[randomIndex];
+        PlayableCard frontCard = catalog.getCard(cardType, cardID, true);
+        PlayableCard backCard = catalog.getCard(cardType, cardID, false);
 
-        numCards--;
-        frontCards.remove(randomIndex);
-        backCards.remove(randomIndex);
+        remove(randomIndex);
         if (numCards > 0) {
             generateRandomIndex();
         } else {
@@ -234,4 +258,3 @@ public class Deck implements Serializable {
 
 
 
-
@@ -11,6 +11,11 @@ public class DefaultValue implements Serializable {
     public final static int printHeight = 5;
     public final static int printLenght = 20;
     public static int max_messagesShow = 5;
+    public final static int chatHistorySize = 200;
+    public final static int chatHistoryPage = 20;
+    public final static double chatMessagesPerSecond = 2;
+    public final static int chatBurst = 5;
+    public final static int chatBatchWindow_millis = 50;
     public final static int BookSizeMax = 70;
     public final static int BookSizeMin = 0;
     public final static int   MaxNumOfPlayer = 4;
@@ -37,5 +42,26 @@ public class DefaultValue implements Serializable {
     public final static int maxAttemptsBeforeGiveUp= 5;
     public final static int secondsToReconnection = 5;
     public static final int secondToWaitToSend_ping = 500;
+    public final static int maxFrameSize = 8 * 1024 * 1024;
+    public final static int socketWorkerThreads = Runtime.getRuntime().availableProcessors();
+    public final static int socketWorkerQueueSize = 1024;
+    public final static int socketDispatchRetry_millis = 10;
+    public final static int maxPendingMessagesPerClient = 256;
+    public final static int maxPendingNotificationsPerListener = 256;
+    public final static int maxOutboundBytesPerClient = 4 * 1024 * 1024;
+    public final static int outboundWriteTimeout_millis = 5000;
+    public final static int gameCarrierThreads = Runtime.getRuntime().availableProcessors();
+    public final static int socketBacklog = 1024;
+    public final static int timerTick_millis = 50;
+    public final static int timerWheelSize = 512;
+    public final static int replayBufferSize = 256;
+    public final static String journalDirectoryProperty = "codex.journal";
+    public final static String journalDirectory = "journal";
+    public final static String journalSegmentExtension = ".segment";
+    public final static int journalSegmentSize = 16 * 1024 * 1024;
+    public final static int journalFlush_millis = 20;
+    public final static String snapshotExtension = ".snapshot";
+    public final static int snapshotInterval_millis = 60 * 1000;
+    public final static String virtualThreadsProperty = "codex.virtualThreads";
 
 }
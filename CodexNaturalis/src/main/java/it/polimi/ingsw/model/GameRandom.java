@@ -0,0 +1,97 @@
+package it.polimi.ingsw.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GameRandom Class<br>
+ * The random choices of a game (the cards drawn from the decks, the colors of the players and the first player),
+ * all taken from one {@link SplittableRandom} created from the seed of the game. <br>
+ * A game created with the same seed and receiving the same commands makes the same choices, so it can be replayed
+ * exactly. The generator is used only by the commands of its game, so the games never share a generator. <br>
+ * The state of the generator is its seed and the number of values drawn, so it can be saved and restored.
+ */
+public class GameRandom {
+
+    /**
+     * The seed of the game
+     */
+    private final long seed;
+
+    /**
+     * The generator
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Number of values drawn from the generator
+     */
+    private long draws;
+
+    /**
+     * Creates a generator with a new seed
+     */
+    public GameRandom() {
+        this(newSeed());
+    }
+
+    /**
+     * Creates a generator
+     *
+     * @param seed the seed of the game
+     */
+    public GameRandom(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * Restores a generator after the values already drawn
+     *
+     * @param seed the seed of the game
+     * @param draws the number of values already drawn
+     */
+    public GameRandom(long seed, long draws) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        for (long i = 0; i < draws; i++) {
+            random.nextLong();
+        }
+        this.draws = draws;
+    }
+
+    /**
+     * @return a new seed, different for every game
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Draws a random index.
+     * Every call draws exactly one value from the generator, so the state only depends on the number of calls.
+     *
+     * @param bound the number of choices, positive
+     * @return an index between 0 (included) and bound (excluded)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        draws++;
+        return (int) (((random.nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * @return the seed of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the number of values drawn from the generator
+     */
+    public long getDraws() {
+        return draws;
+    }
+}
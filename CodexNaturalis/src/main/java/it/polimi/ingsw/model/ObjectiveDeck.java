@@ -1,82 +1,98 @@
 package it.polimi.ingsw.model;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonSyntaxException;
 
 import it.polimi.ingsw.exceptions.DeckEmptyException;
+import it.polimi.ingsw.model.cards.CardCatalog;
 import it.polimi.ingsw.model.cards.ObjectiveCard;
 
 import java.io.*;
 
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Objects;
-import java.util.Random;
+import java.util.Arrays;
 
 /**
- * ObjectiveDeck class
+ * ObjectiveDeck class <br>
+ * The deck only keeps the IDs of the objective cards left, the cards are shared through the {@link CardCatalog}.
  */
 public class ObjectiveDeck implements Serializable {
     private int numCards;
-    private final ArrayList<ObjectiveCard> frontCards;
 
     /**
-     * Constructs an ObjectiveDeck initializing it with the default number of objective cards.
-     * It also initializes the deck by reading JSON files containing card data.
+     * IDs of the objective cards left in the deck, only the first numCards are valid
+     */
+    private int[] cardIDs;
+
+    /**
+     * The random choices of the game of the deck, never sent to the clients
+     */
+    private transient GameRandom random;
+
+    /**
+     * Constructs an ObjectiveDeck initializing it with all the objective cards, with its own random choices.
      */
     public ObjectiveDeck()  {
-        this.frontCards = new ArrayList<>();
-        this.numCards = DefaultValue.NumOfObjectiveCards;
+        this(new GameRandom());
+    }
+
+    /**
+     * Constructs an ObjectiveDeck initializing it with all the objective cards,
+     * drawing with the random choices of its game.
+     *
+     * @param random the random choices of the game
+     */
+    public ObjectiveDeck(GameRandom random) {
+        this.random = random;
         initializeDeck();
     }
 
+    /**
+     * Constructs an ObjectiveDeck with the specified cards, used to rebuild a deck received from the network.
+     *
+     * @param cardIDs the IDs of the objective cards left in the deck
+     */
+    public ObjectiveDeck(int[] cardIDs) {
+        this.cardIDs = cardIDs.clone();
+        this.numCards = cardIDs.length;
+    }
+
+    /**
+     * Sets the random choices of the game of the deck, used when the deck has been rebuilt.
+     *
+     * @param random the random choices of the game
+     */
+    public void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
     /**
      * Retrieves the list of objective cards currently in the front of the deck.
      * @return ArrayList of ObjectiveCard objects representing the front cards.
      */
     public ArrayList<ObjectiveCard> getFrontCards() {
+        CardCatalog catalog = CardCatalog.getInstance();
+        ArrayList<ObjectiveCard> frontCards = new ArrayList<>(numCards);
+        for (int i = 0; i < numCards; i++) {
+            frontCards.add(catalog.getObjectiveCard(cardIDs[i]));
+        }
         return frontCards;
     }
 
-
     /**
-     * Initializes the deck of objective cards by reading from JSON files.
-     * Reads the front cards from a JSON file and populates the frontCards list.
-     * Handles various exceptions that may occur during file reading or JSON parsing.
+     * Retrieves the IDs of the objective cards left in the deck.
+     *
+     * @return a new array with the IDs, in the order of the deck
      */
-    public void initializeDeck() {
-        Reader frontReader = null;
-        Gson gson = new Gson();
-
-        try {
-            ArrayList<ObjectiveCard> frontCardList = null;
-
-                    frontReader = new InputStreamReader(Objects.requireNonNull(ObjectiveDeck.class.getResourceAsStream("/json/ObjectiveCardsFront.json")), StandardCharsets.UTF_8);
-                    Type objectiveCardType = new TypeToken<ArrayList<ObjectiveCard>>() {
-                    }.getType();
-                    frontCardList = gson.fromJson(frontReader, objectiveCardType);
-                    frontCards.addAll(frontCardList);
-                    frontReader.close();
-
-        } catch (FileNotFoundException e) {
-            System.err.println("File not found exception");
-
-        } catch (IOException e) {
-            System.err.println("error during reading file");
-
-        } catch (JsonSyntaxException | JsonIOException e) {
-            System.err.println("JSON file parsing error");
+    public int[] getCardIDs() {
+        return Arrays.copyOf(cardIDs, numCards);
+    }
 
-        } catch (ClassCastException e) {
-            System.err.println("CASTING error accessing JSON file data: ");
 
-        } catch (NullPointerException e) {
-            System.err.println("Error null values not handled correctly ");
-        } catch (Exception e) {
-            System.err.println("Generic error exception during JSON file reading ");
-        }
+    /**
+     * Initializes the deck with all the objective cards.
+     * The cards are taken from the {@link CardCatalog}, so the JSON file is read only once.
+     */
+    public void initializeDeck() {
+        this.cardIDs = CardCatalog.getInstance().getObjectiveIDs();
+        this.numCards = cardIDs.length;
     }
 
     /**
@@ -100,13 +116,16 @@ public class ObjectiveDeck implements Serializable {
         if (checkEndDeck()) {
             throw new DeckEmptyException("The deck is empty. No more cards to draw.");
         }
-        Random rand = new Random();
-        int randomIndex = rand.nextInt(frontCards.size());
+        if (random == null) {
+            //a deck rebuilt without its game
+            random = new GameRandom();
+        }
+        int randomIndex = random.nextInt(numCards);
 
-        ObjectiveCard frontCard = frontCards.get(randomIndex);
+        ObjectiveCard frontCard = CardCatalog.getInstance().getObjectiveCard(cardIDs[randomIndex]);
+        //the last card takes the place of the drawn one
+        cardIDs[randomIndex] = cardIDs[numCards - 1];
         numCards--;
-
-        frontCards.remove(randomIndex);
         return frontCard;
     }
 
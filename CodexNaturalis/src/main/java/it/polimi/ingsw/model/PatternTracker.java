@@ -0,0 +1,426 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.cards.CornerType;
+import it.polimi.ingsw.model.cards.GoalType;
+import it.polimi.ingsw.model.cards.ObjectiveCard;
+import it.polimi.ingsw.model.cards.PlayableCard;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * PatternTracker Class<br>
+ * Keeps the number of diagonal and L placements of a book up to date while the cards are placed, so the
+ * score of a placement objective is read without scanning the book. <br>
+ * The objectives of the player are registered with {@link #track} when they are chosen, and counted from the
+ * cards already in the book; after that, every new card only looks at the cells around it. Counting follows
+ * {@link Book#checkDiagonalPlacement} and {@link Book#checkLPlacement}: on a diagonal, every run of cards of the same
+ * resource gives one match every three cards; an L placement is counted once for each card of the second resource
+ * that completes it. An objective not registered is counted the first time its score is requested.
+ * An L placement whose main and second resource are the same is not tracked: a card already used as a main card
+ * can't complete another placement, so its matches depend on the order the book is read in and a new card can
+ * change them anywhere; it is counted from the book when its score is requested.
+ * If a card is removed or replaced (which never happens during a game) the counts are rebuilt on the next request.
+ */
+public class PatternTracker implements Serializable {
+    private static final long serialVersionUID = 6208934752231956723L;
+
+    /**
+     * Rows of the main cards of an L placement with respect to the card of the second resource,
+     * for TLCorner, TRCorner, BLCorner, BRCorner
+     */
+    private static final int[][] L_ROWS = {{-1, -3}, {-1, -3}, {1, 3}, {1, 3}};
+
+    /**
+     * Column of the main cards of an L placement with respect to the card of the second resource,
+     * for TLCorner, TRCorner, BLCorner, BRCorner
+     */
+    private static final int[] L_COLUMN = {-1, 1, -1, 1};
+
+    /**
+     * Number of rows of the book
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the book
+     */
+    private final int columns;
+
+    /**
+     * Main resource of the card in each cell that holds a card, keyed by {@code row * columns + column}
+     */
+    private final Map<Integer, ResourceType> placed;
+
+    /**
+     * Number of matches of each pattern tracked, keyed by {@link #patternKey(ObjectiveCard)}
+     */
+    private final Map<Integer, Integer> matches;
+
+    /**
+     * True if a card has been removed or replaced and the matches have to be counted again
+     */
+    private boolean stale;
+
+    /**
+     * Creates the tracker of an empty book
+     *
+     * @param rows    the number of rows of the book
+     * @param columns the number of columns of the book
+     */
+    public PatternTracker(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.placed = new HashMap<>();
+        this.matches = new HashMap<>();
+        this.stale = false;
+    }
+
+    /**
+     * Updates the matches after the card of a cell has changed.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @param card   the card now in the cell, possibly null
+     */
+    public void cardChanged(int row, int column, PlayableCard card) {
+        int key = row * columns + column;
+        boolean hadCard = placed.containsKey(key);
+        if (card == null) {
+            if (hadCard) {
+                placed.remove(key);
+                stale = true;
+            }
+            return;
+        }
+        ResourceType resource = card.getMainResource();
+        if (hadCard) {
+            if (placed.get(key) != resource) {
+                placed.put(key, resource);
+                stale = true;
+            }
+            return;
+        }
+        placed.put(key, resource);
+        if (!stale && resource != null) {
+            for (Map.Entry<Integer, Integer> e : matches.entrySet()) {
+                e.setValue(e.getValue() + newMatches(e.getKey(), row, column, resource));
+            }
+        }
+    }
+
+    /**
+     * Starts keeping the matches of a placement objective up to date, counting the cards already in the book.
+     * Other objectives, and L placements whose main and second resource are the same, are ignored.
+     *
+     * @param objectiveCard the objective
+     */
+    public void track(ObjectiveCard objectiveCard) {
+        GoalType goalType = objectiveCard.getGoalType();
+        if (goalType != GoalType.DiagonalPlacement && goalType != GoalType.LPlacement) {
+            return;
+        }
+        int pattern = patternKey(objectiveCard);
+        if (!isSingleResourceL(pattern)) {
+            matches.computeIfAbsent(pattern, this::countMatches);
+        }
+    }
+
+    /**
+     * Forgets all the cards, as when the book is cleared; the patterns tracked are kept, with no matches
+     */
+    public void clear() {
+        placed.clear();
+        matches.replaceAll((pattern, count) -> 0);
+        stale = false;
+    }
+
+    /**
+     * Returns the points given by a placement objective, as {@link Book#checkDiagonalPlacement} and
+     * {@link Book#checkLPlacement} would compute them.
+     *
+     * @param objectiveCard a DiagonalPlacement or LPlacement objective
+     * @return the points given by the objective
+     */
+    public int score(ObjectiveCard objectiveCard) {
+        if (stale) {
+            matches.replaceAll((pattern, count) -> countMatches(pattern));
+            stale = false;
+        }
+        int pattern = patternKey(objectiveCard);
+        Integer count = isSingleResourceL(pattern) ? Integer.valueOf(countMatches(pattern)) : matches.get(pattern);
+        if (count == null) {
+            count = countMatches(pattern);
+            matches.put(pattern, count);
+        }
+        return count * (objectiveCard.getGoalType() == GoalType.DiagonalPlacement ? 2 : 3);
+    }
+
+    /**
+     * Packs the goal type, the resources and the direction of an objective in a single key
+     *
+     * @param objectiveCard the objective
+     * @return the key of the pattern of the objective
+     */
+    private static int patternKey(ObjectiveCard objectiveCard) {
+        return ((objectiveCard.getGoalType().ordinal() * 8 + ordinal(objectiveCard.getMainResource())) * 8
+                + ordinal(objectiveCard.getSecondResource())) * 8 + ordinal(objectiveCard.getDirection());
+    }
+
+    /**
+     * @param value an enum constant, possibly null
+     * @return the ordinal of the constant plus one, 0 for null
+     */
+    private static int ordinal(Enum<?> value) {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+
+    /**
+     * @param pattern the key of a pattern
+     * @return the goal type of the pattern
+     */
+    private static GoalType goalType(int pattern) {
+        return GoalType.values()[pattern / 512];
+    }
+
+    /**
+     * @param pattern the key of a pattern
+     * @return the main resource of the pattern
+     */
+    private static ResourceType mainResource(int pattern) {
+        int v = pattern / 64 % 8;
+        return v == 0 ? null : ResourceType.values()[v - 1];
+    }
+
+    /**
+     * @param pattern the key of a pattern
+     * @return the second resource of the pattern
+     */
+    private static ResourceType secondResource(int pattern) {
+        int v = pattern / 8 % 8;
+        return v == 0 ? null : ResourceType.values()[v - 1];
+    }
+
+    /**
+     * @param pattern the key of a pattern
+     * @return the direction of the pattern
+     */
+    private static CornerType direction(int pattern) {
+        int v = pattern % 8;
+        return v == 0 ? null : CornerType.values()[v - 1];
+    }
+
+    /**
+     * @param pattern the key of a pattern
+     * @return true if the pattern is an L placement whose main and second resource are the same
+     */
+    private static boolean isSingleResourceL(int pattern) {
+        return goalType(pattern) == GoalType.LPlacement && mainResource(pattern) == secondResource(pattern);
+    }
+
+    /**
+     * @param row    the row of a cell
+     * @param column the column of a cell
+     * @return the main resource of the card in the cell, null if there is no card or the cell is out of the book
+     */
+    private ResourceType resourceAt(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return null;
+        }
+        return placed.get(row * columns + column);
+    }
+
+    /**
+     * Counts the matches of a pattern among all the cards of the book
+     *
+     * @param pattern the key of the pattern
+     * @return the number of matches
+     */
+    private int countMatches(int pattern) {
+        ResourceType main = mainResource(pattern);
+        int count = 0;
+        if (goalType(pattern) == GoalType.DiagonalPlacement) {
+            int step = diagonalStep(direction(pattern));
+            if (step == 0 || main == null) {
+                return 0;
+            }
+            for (Map.Entry<Integer, ResourceType> e : placed.entrySet()) {
+                int row = e.getKey() / columns;
+                int column = e.getKey() % columns;
+                if (e.getValue() == main && resourceAt(row - 1, column - step) != main) {
+                    count += runLength(main, row, column, 1, step) / 3;
+                }
+            }
+        } else {
+            ResourceType second = secondResource(pattern);
+            int d = lIndex(direction(pattern));
+            if (main == second) {
+                return countSingleResourceL(main, d);
+            }
+            for (Map.Entry<Integer, ResourceType> e : placed.entrySet()) {
+                if (e.getValue() == second && isLMatch(main, d, e.getKey() / columns, e.getKey() % columns)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the L placements made of cards of a single resource as {@link Book#checkLPlacement} does:
+     * the cards are read row by row, and a card used as a main card of a placement can't complete another one.
+     *
+     * @param resource  the resource of the cards
+     * @param direction the index of the direction of the placement
+     * @return the number of matches
+     */
+    private int countSingleResourceL(ResourceType resource, int direction) {
+        if (direction < 0 || resource == null) {
+            return 0;
+        }
+        Set<Integer> used = new HashSet<>();
+        int count = 0;
+        //the keys of the cells grow row by row, as the scan of the book
+        for (int key : new TreeSet<>(placed.keySet())) {
+            int row = key / columns;
+            int column = key % columns;
+            if (placed.get(key) == resource && !used.contains(key) && isLMatch(resource, direction, row, column)) {
+                count++;
+                used.add((row + L_ROWS[direction][0]) * columns + column + L_COLUMN[direction]);
+                used.add((row + L_ROWS[direction][1]) * columns + column + L_COLUMN[direction]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the matches of a pattern completed by a new card
+     *
+     * @param pattern  the key of the pattern
+     * @param row      the row of the new card
+     * @param column   the column of the new card
+     * @param resource the main resource of the new card
+     * @return the number of new matches
+     */
+    private int newMatches(int pattern, int row, int column, ResourceType resource) {
+        ResourceType main = mainResource(pattern);
+        if (goalType(pattern) == GoalType.DiagonalPlacement) {
+            int step = diagonalStep(direction(pattern));
+            if (step == 0 || resource != main) {
+                return 0;
+            }
+            int before = runLength(main, row - 1, column - step, -1, -step);
+            int after = runLength(main, row + 1, column + step, 1, step);
+            return (before + after + 1) / 3 - before / 3 - after / 3;
+        }
+
+        int d = lIndex(direction(pattern));
+        if (d < 0) {
+            return 0;
+        }
+        int count = 0;
+        if (resource == secondResource(pattern) && isLMatch(main, d, row, column)) {
+            count++;
+        }
+        if (resource == main) {
+            for (int k = 0; k < 2; k++) {
+                int anchorRow = row - L_ROWS[d][k];
+                int anchorColumn = column - L_COLUMN[d];
+                if (resourceAt(anchorRow, anchorColumn) == secondResource(pattern)
+                        && resourceAt(anchorRow + L_ROWS[d][1 - k], column) == main
+                        && isLAnchor(d, anchorRow, anchorColumn)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param direction the direction of a diagonal placement
+     * @return the column step of the diagonal going down, 0 if the direction is not a diagonal one
+     */
+    private static int diagonalStep(CornerType direction) {
+        if (direction == CornerType.BRCorner) {
+            return 1;
+        }
+        if (direction == CornerType.BLCorner) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * @param direction the direction of an L placement
+     * @return the index of the direction in {@link #L_ROWS} and {@link #L_COLUMN}, -1 if it is null
+     */
+    private static int lIndex(CornerType direction) {
+        if (direction == null) {
+            return -1;
+        }
+        return switch (direction) {
+            case TLCorner -> 0;
+            case TRCorner -> 1;
+            case BLCorner -> 2;
+            case BRCorner -> 3;
+        };
+    }
+
+    /**
+     * Counts the consecutive cards of a resource starting from a cell
+     *
+     * @param resource   the resource of the cards
+     * @param row        the row of the first cell
+     * @param column     the column of the first cell
+     * @param rowStep    the row step
+     * @param columnStep the column step
+     * @return the number of consecutive cards of the resource
+     */
+    private int runLength(ResourceType resource, int row, int column, int rowStep, int columnStep) {
+        int length = 0;
+        while (resourceAt(row, column) == resource) {
+            length++;
+            row += rowStep;
+            column += columnStep;
+        }
+        return length;
+    }
+
+    /**
+     * Checks whether the card of the second resource in a cell completes an L placement
+     *
+     * @param main      the main resource of the placement
+     * @param direction the index of the direction of the placement
+     * @param row       the row of the card of the second resource
+     * @param column    the column of the card of the second resource
+     * @return true if both main cards are in place
+     */
+    private boolean isLMatch(ResourceType main, int direction, int row, int column) {
+        if (direction < 0 || !isLAnchor(direction, row, column)) {
+            return false;
+        }
+        return resourceAt(row + L_ROWS[direction][0], column + L_COLUMN[direction]) == main
+                && resourceAt(row + L_ROWS[direction][1], column + L_COLUMN[direction]) == main;
+    }
+
+    /**
+     * Checks the cells where {@link Book#checkLPlacement} looks for the card of the second resource
+     *
+     * @param direction the index of the direction of the placement
+     * @param row       the row of the card
+     * @param column    the column of the card
+     * @return true if the card is inside the scanned area
+     */
+    private boolean isLAnchor(int direction, int row, int column) {
+        return switch (direction) {
+            case 0 -> row >= 2 && row < rows && column >= 1 && column < columns - 1;
+            case 1 -> row >= 3 && row < rows && column >= 0 && column < columns - 2;
+            case 2 -> row >= 0 && row < rows - 2 && column >= 1 && column < columns - 1;
+            default -> row >= 0 && row < rows - 2 && column >= 0 && column < columns - 2;
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package it.polimi.ingsw.model.cards;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import it.polimi.ingsw.exceptions.FileReadException;
+import it.polimi.ingsw.exceptions.JSONParsingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CardCatalog Class<br>
+ * All the cards of the game, read once from the JSON files and looked up by type, ID and side. <br>
+ * Cards are never modified after being read, so the same instances are shared by every deck of every game;
+ * a deck only keeps the IDs of its cards. This also lets the network send a card as a reference
+ * (type, ID, side) instead of the whole object.
+ */
+public final class CardCatalog {
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static volatile CardCatalog instance = null;
+
+    /**
+     * Front sides of the playable cards, indexed by [cardType.ordinal()][cardID]
+     */
+    private final PlayableCard[][] frontCards;
+
+    /**
+     * Back sides of the playable cards, indexed by [cardType.ordinal()][cardID]
+     */
+    private final PlayableCard[][] backCards;
+
+    /**
+     * IDs of the playable cards of each type, in the order of the JSON files, indexed by cardType.ordinal()
+     */
+    private final int[][] cardIDs;
+
+    /**
+     * Objective cards, indexed by cardID
+     */
+    private final ObjectiveCard[] objectiveCards;
+
+    /**
+     * IDs of the objective cards, in the order of the JSON file
+     */
+    private final int[] objectiveIDs;
+
+    /**
+     * Reads all the cards from the JSON files
+     *
+     * @throws IllegalStateException if a file can't be read, the cards are part of the application
+     */
+    private CardCatalog() {
+        Gson gson = new Gson();
+        CardType[] types = CardType.values();
+        frontCards = new PlayableCard[types.length][];
+        backCards = new PlayableCard[types.length][];
+        cardIDs = new int[types.length][];
+        try {
+            for (CardType type : types) {
+                Type listType = switch (type) {
+                    case InitialCard -> new TypeToken<ArrayList<InitialCard>>() {}.getType();
+                    case ResourceCard -> new TypeToken<ArrayList<ResourceCard>>() {}.getType();
+                    case GoldCard -> new TypeToken<ArrayList<GoldCard>>() {}.getType();
+                };
+                List<PlayableCard> front = read(gson, "/json/" + type + "sFront.json", listType);
+                List<PlayableCard> back = read(gson, "/json/" + type + "sBack.json", listType);
+                frontCards[type.ordinal()] = index(front);
+                backCards[type.ordinal()] = index(back);
+                cardIDs[type.ordinal()] = front.stream().mapToInt(PlayableCard::getCardID).toArray();
+            }
+
+            List<ObjectiveCard> objectives = read(gson, "/json/ObjectiveCardsFront.json",
+                    new TypeToken<ArrayList<ObjectiveCard>>() {}.getType());
+            int max = -1;
+            for (ObjectiveCard card : objectives) {
+                max = Math.max(max, card.getCardID());
+            }
+            objectiveCards = new ObjectiveCard[max + 1];
+            for (ObjectiveCard card : objectives) {
+                objectiveCards[card.getCardID()] = card;
+            }
+            objectiveIDs = objectives.stream().mapToInt(ObjectiveCard::getCardID).toArray();
+        } catch (FileReadException e) {
+            throw new IllegalStateException("Cards can't be loaded: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the CardCatalog class
+     */
+    public static CardCatalog getInstance() {
+        if (instance == null) {
+            synchronized (CardCatalog.class) {
+                if (instance == null) {
+                    instance = new CardCatalog();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Reads a list of cards from a JSON resource.
+     *
+     * @param gson     the parser
+     * @param path     the path of the resource
+     * @param listType the type of the list of cards
+     * @return the cards, in the order of the file
+     * @param <T> the type of the cards
+     * @throws FileReadException if the resource is missing, can't be read or is malformed
+     */
+    private static <T> List<T> read(Gson gson, String path, Type listType) throws FileReadException {
+        InputStream stream = CardCatalog.class.getResourceAsStream(path);
+        if (stream == null) {
+            throw new FileReadException("File not found: " + path);
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            List<T> cards = gson.fromJson(reader, listType);
+            if (cards == null) {
+                throw new JSONParsingException("Empty JSON file: " + path);
+            }
+            return cards;
+        } catch (JsonSyntaxException | JsonIOException e) {
+            throw new JSONParsingException("JSON file parsing error in " + path + ": " + e.getMessage());
+        } catch (IOException e) {
+            throw new FileReadException("Error reading file " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a side of a playable card.
+     *
+     * @param cardType the type of the card
+     * @param cardID the ID of the card
+     * @param isFront true for the front side, false for the back side
+     * @return the card, null if there isn't a card with that ID
+     */
+    public PlayableCard getCard(CardType cardType, int cardID, boolean isFront) {
+        PlayableCard[] cards = (isFront ? frontCards : backCards)[cardType.ordinal()];
+        return cardID >= 0 && cardID < cards.length ? cards[cardID] : null;
+    }
+
+    /**
+     * Retrieves the IDs of all the playable cards of a type, in the order of the JSON files.
+     *
+     * @param cardType the type of the cards
+     * @return a new array with the IDs
+     */
+    public int[] getCardIDs(CardType cardType) {
+        return cardIDs[cardType.ordinal()].clone();
+    }
+
+    /**
+     * Retrieves an objective card.
+     *
+     * @param cardID the ID of the card
+     * @return the card, null if there isn't a card with that ID
+     */
+    public ObjectiveCard getObjectiveCard(int cardID) {
+        return cardID >= 0 && cardID < objectiveCards.length ? objectiveCards[cardID] : null;
+    }
+
+    /**
+     * Retrieves the IDs of all the objective cards, in the order of the JSON file.
+     *
+     * @return a new array with the IDs
+     */
+    public int[] getObjectiveIDs() {
+        return objectiveIDs.clone();
+    }
+
+    /**
+     * Builds an array of cards where each card is at the position of its ID, packing the corners and the placement condition of each card.
+     *
+     * @param cards the cards to index
+     * @return the indexed cards
+     */
+    private static PlayableCard[] index(List<PlayableCard> cards) {
+        int max = -1;
+        for (PlayableCard card : cards) {
+            max = Math.max(max, card.getCardID());
+        }
+        PlayableCard[] indexed = new PlayableCard[max + 1];
+        for (PlayableCard card : cards) {
+            card.pack();
+            indexed[card.getCardID()] = card;
+        }
+        return indexed;
+    }
+}
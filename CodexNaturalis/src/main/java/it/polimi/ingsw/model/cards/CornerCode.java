@@ -0,0 +1,99 @@
+package it.polimi.ingsw.model.cards;
+
+import it.polimi.ingsw.model.ResourceType;
+import it.polimi.ingsw.model.SymbolType;
+
+/**
+ * CornerCode Class<br>
+ * The content of a corner as a small number, so that the {@link it.polimi.ingsw.model.Book} updates its
+ * resources and symbols with a switch on an int instead of comparing the strings of {@link PlayableCard#getCornerContent(int)}. <br>
+ * The four corners of a card are packed in one int, four bits each, in the order TLCorner, TRCorner, BRCorner, BLCorner.
+ */
+public final class CornerCode {
+
+    /**
+     * The corner is missing, it can't be covered
+     */
+    public static final int NO_CORNER = 0;
+
+    /**
+     * The corner is visible and empty
+     */
+    public static final int EMPTY = 1;
+
+    /**
+     * Code of the first resource, the resource r has code RESOURCE + r.ordinal()
+     */
+    public static final int RESOURCE = 2;
+
+    /**
+     * Code of the first symbol, the symbol s has code SYMBOL + s.ordinal()
+     */
+    public static final int SYMBOL = RESOURCE + 4;
+
+    /**
+     * Bits used by each corner
+     */
+    static final int BITS = 4;
+
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+    private static final SymbolType[] SYMBOLS = SymbolType.values();
+
+    private CornerCode() {
+    }
+
+    /**
+     * Encodes the content of a corner.
+     *
+     * @param content the content as returned by {@link PlayableCard#getCornerContent(int)}
+     * @return the code of the content, NO_CORNER if the content is not known
+     */
+    public static int of(String content) {
+        if (content == null) {
+            return NO_CORNER;
+        }
+        for (ResourceType r : RESOURCES) {
+            if (r.name().equals(content)) {
+                return RESOURCE + r.ordinal();
+            }
+        }
+        for (SymbolType s : SYMBOLS) {
+            if (s.name().equals(content)) {
+                return SYMBOL + s.ordinal();
+            }
+        }
+        return content.equals("Empty") ? EMPTY : NO_CORNER;
+    }
+
+    /**
+     * @param code the code of a corner
+     * @return true if the corner has a resource
+     */
+    public static boolean isResource(int code) {
+        return code >= RESOURCE && code < SYMBOL;
+    }
+
+    /**
+     * @param code the code of a corner
+     * @return true if the corner has a symbol
+     */
+    public static boolean isSymbol(int code) {
+        return code >= SYMBOL && code < SYMBOL + SYMBOLS.length;
+    }
+
+    /**
+     * @param code the code of a corner with a resource
+     * @return the resource of the corner
+     */
+    public static ResourceType resource(int code) {
+        return RESOURCES[code - RESOURCE];
+    }
+
+    /**
+     * @param code the code of a corner with a symbol
+     * @return the symbol of the corner
+     */
+    public static SymbolType symbol(int code) {
+        return SYMBOLS[code - SYMBOL];
+    }
+}
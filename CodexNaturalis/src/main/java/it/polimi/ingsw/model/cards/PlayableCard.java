@@ -20,6 +20,21 @@ public abstract class PlayableCard implements Serializable {
     private final CornerLabel BRCorner;
     private final CornerLabel BLCorner;
 
+    /**
+     * The {@link CornerCode} of the four corners, packed when the card is loaded, 0 if not packed yet
+     */
+    private int cornerCodes;
+
+    /**
+     * Set in {@link #cornerCodes} once the corners have been packed
+     */
+    private static final int CORNERS_PACKED = 1 << (4 * CornerCode.BITS);
+
+    /**
+     * The placement condition as the number of resources required of each type, packed when the card is loaded,
+     * eight bits for each ResourceType in the order of their ordinal
+     */
+    private int placementCounts;
 
 
     /**
@@ -171,6 +186,71 @@ public abstract class PlayableCard implements Serializable {
         return content;
     }
 
+    /**
+     * Retrieves the content of the specified corner of a PlayableCard as a {@link CornerCode}, without allocating.
+     *
+     * @param corner position of the corner: 0 TLCorner, 1 TRCorner, 2 BRCorner, 3 BLCorner
+     * @return The code of the content of the specified corner.
+     */
+    public int getCornerCode(int corner) {
+        int codes = cornerCodes;
+        if (codes == 0) {
+            //a card that doesn't come from the CardCatalog
+            codes = pack();
+        }
+        return (codes >>> (corner * CornerCode.BITS)) & ((1 << CornerCode.BITS) - 1);
+    }
+
+    /**
+     * Retrieves the placement condition packed as the number of resources required of each type,
+     * to be read with {@link #placementCount(int, int)}.
+     *
+     * @return the packed placement condition, 0 if the card has no placement condition
+     */
+    public int getPlacementCounts() {
+        if (cornerCodes == 0) {
+            //a card that doesn't come from the CardCatalog
+            pack();
+        }
+        return placementCounts;
+    }
+
+    /**
+     * Reads the number of resources of a type required by a packed placement condition.
+     *
+     * @param placementCounts the placement condition packed by {@link #getPlacementCounts()}
+     * @param resource        the ordinal of the ResourceType
+     * @return the number of resources required
+     */
+    public static int placementCount(int placementCounts, int resource) {
+        return (placementCounts >>> (resource * 8)) & 0xFF;
+    }
+
+    /**
+     * Packs the codes of the four corners and the placement condition,
+     * it is called by the {@link CardCatalog} when the card is loaded.
+     *
+     * @return the packed codes of the corners
+     */
+    int pack() {
+        int counts = 0;
+        List<ResourceType> condition = getPlacementCondition();
+        if (condition != null) {
+            for (ResourceType resource : condition) {
+                counts += 1 << (resource.ordinal() * 8);
+            }
+        }
+        placementCounts = counts;
+
+        List<String> content = getCornerContent();
+        int codes = CORNERS_PACKED;
+        for (int i = 0; i < 4; i++) {
+            codes |= CornerCode.of(content.get(i)) << (i * CornerCode.BITS);
+        }
+        cornerCodes = codes;
+        return codes;
+    }
+
     /**
      * Retrieves the content of the corners of the card as a list of strings.
      * This method is intended to be overridden in subclasses such as GoldCard to provide specific behavior.
@@ -0,0 +1,200 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.exceptions.DeckFullException;
+import it.polimi.ingsw.exceptions.ReplicaNotAlignedException;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.Deck;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.cards.PlayableCard;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+
+
+/**
+ * CardDrawnDelta Class
+ * A player drew a card from the board or from a deck. <br>
+ * It carries only the cards that moved: the drawn card and, if it was taken from the board,
+ * the card of the deck that replaced it.
+ */
+public class CardDrawnDelta extends GameDelta {
+
+    /**
+     * Nickname of the player who drew the card
+     */
+    private final String nickname;
+
+    /**
+     * Type of the drawn card
+     */
+    private final CardType cardType;
+
+    /**
+     * True if the card has been drawn from the deck
+     */
+    private final boolean drawFromDeck;
+
+    /**
+     * Position on the board of the drawn card
+     */
+    private final int pos;
+
+    /**
+     * Front and back of the drawn card
+     */
+    private final PlayableCard[] drawnCard;
+
+    /**
+     * Front and back of the card that replaced the drawn one on the board, null if drawn from the deck
+     */
+    private final PlayableCard[] replacement;
+
+    /**
+     * ID of the card removed from the deck
+     */
+    private final int removedFromDeck;
+
+    /**
+     * Index of the next card of the deck
+     */
+    private final int deckRandomIndex;
+
+    /**
+     * True if the delta is sent to the player who drew the card
+     */
+    private final boolean own;
+
+    /**
+     * Constructor
+     *
+     * @param version         the version of the game after this change
+     * @param nickname        the nickname of the player who drew the card
+     * @param cardType        the type of the drawn card
+     * @param drawFromDeck    true if the card has been drawn from the deck
+     * @param pos             the position on the board of the drawn card
+     * @param drawnCard       the front and back of the drawn card
+     * @param replacement     the card that replaced the drawn one on the board, null if drawn from the deck
+     * @param removedFromDeck the ID of the card removed from the deck
+     * @param deckRandomIndex the index of the next card of the deck
+     * @param own             true if the delta is sent to the player who drew the card
+     */
+    public CardDrawnDelta(long version, String nickname, CardType cardType, boolean drawFromDeck, int pos, PlayableCard[] drawnCard,
+                          PlayableCard[] replacement, int removedFromDeck, int deckRandomIndex, boolean own) {
+        super(version);
+        this.nickname = nickname;
+        this.cardType = cardType;
+        this.drawFromDeck = drawFromDeck;
+        this.pos = pos;
+        this.drawnCard = drawnCard;
+        this.replacement = replacement;
+        this.removedFromDeck = removedFromDeck;
+        this.deckRandomIndex = deckRandomIndex;
+        this.own = own;
+    }
+
+    /**
+     * @return nickname of the player who drew the card
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * @return type of the drawn card
+     */
+    public CardType getCardType() {
+        return cardType;
+    }
+
+    /**
+     * @return true if the card has been drawn from the deck
+     */
+    public boolean isDrawFromDeck() {
+        return drawFromDeck;
+    }
+
+    /**
+     * @return position on the board of the drawn card
+     */
+    public int getPos() {
+        return pos;
+    }
+
+    /**
+     * @return front and back of the drawn card
+     */
+    public PlayableCard[] getDrawnCard() {
+        return drawnCard;
+    }
+
+    /**
+     * @return front and back of the card that replaced the drawn one on the board, null if drawn from the deck
+     */
+    public PlayableCard[] getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @return iD of the card removed from the deck
+     */
+    public int getRemovedFromDeck() {
+        return removedFromDeck;
+    }
+
+    /**
+     * @return index of the next card of the deck
+     */
+    public int getDeckRandomIndex() {
+        return deckRandomIndex;
+    }
+
+    /**
+     * @return true if the delta is sent to the player who drew the card
+     */
+    public boolean isOwn() {
+        return own;
+    }
+
+    /**
+     * Moves the drawn card in the deck of the player and updates the board.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        try {
+            replica.getPlayerByNickname(nickname).getPlayerDeck().addCard(drawnCard);
+        } catch (DeckFullException e) {
+            throw new ReplicaNotAlignedException("Replica not aligned, the deck of " + nickname + " is full");
+        }
+
+        ArrayList<PlayableCard[]> cardsOnBoard;
+        Deck deck;
+        if (cardType == CardType.GoldCard) {
+            cardsOnBoard = replica.getBoard().getGoldCards();
+            deck = replica.getBoard().getGoldCardsDeck();
+        } else {
+            cardsOnBoard = replica.getBoard().getResourceCards();
+            deck = replica.getBoard().getResourcesCardsDeck();
+        }
+        if (!drawFromDeck) {
+            cardsOnBoard.remove(pos);
+            cardsOnBoard.add(replacement);
+        }
+        deck.removeDrawnCard(removedFromDeck, deckRandomIndex);
+    }
+
+    /**
+     * Notifies only the player who drew the card.
+     *
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        if (own) {
+            lis.cardDrawn(replica);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.exceptions.CellNotAvailableException;
+import it.polimi.ingsw.exceptions.PlacementConditionViolated;
+import it.polimi.ingsw.exceptions.ReplicaNotAlignedException;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.player.Player;
+
+import java.rmi.RemoteException;
+
+
+/**
+ * CardPlacedDelta Class
+ * A player placed a card of his deck in his book and gained some points. <br>
+ * The placement is replayed on the replica, so the book isn't sent at all.
+ */
+public class CardPlacedDelta extends GameDelta {
+
+    /**
+     * Nickname of the player who placed the card
+     */
+    private final String nickname;
+
+    /**
+     * Position of the card in the deck of the player
+     */
+    private final int chosenCard;
+
+    /**
+     * Row of the cell where the card has been placed
+     */
+    private final int rowCell;
+
+    /**
+     * Column of the cell where the card has been placed
+     */
+    private final int colCell;
+
+    /**
+     * Points gained by the placement
+     */
+    private final int points;
+
+    /**
+     * Score of the player after the placement
+     */
+    private final int score;
+
+    /**
+     * True if the delta is sent to the player who placed the card
+     */
+    private final boolean own;
+
+    /**
+     * Constructor
+     *
+     * @param version    the version of the game after this change
+     * @param nickname   the nickname of the player who placed the card
+     * @param chosenCard the position of the card in the deck of the player
+     * @param rowCell    the row of the cell where the card has been placed
+     * @param colCell    the column of the cell where the card has been placed
+     * @param points     the points gained by the placement
+     * @param score      the score of the player after the placement
+     * @param own        true if the delta is sent to the player who placed the card
+     */
+    public CardPlacedDelta(long version, String nickname, int chosenCard, int rowCell, int colCell, int points, int score, boolean own) {
+        super(version);
+        this.nickname = nickname;
+        this.chosenCard = chosenCard;
+        this.rowCell = rowCell;
+        this.colCell = colCell;
+        this.points = points;
+        this.score = score;
+        this.own = own;
+    }
+
+    /**
+     * @return nickname of the player who placed the card
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * @return position of the card in the deck of the player
+     */
+    public int getChosenCard() {
+        return chosenCard;
+    }
+
+    /**
+     * @return row of the cell where the card has been placed
+     */
+    public int getRowCell() {
+        return rowCell;
+    }
+
+    /**
+     * @return column of the cell where the card has been placed
+     */
+    public int getColCell() {
+        return colCell;
+    }
+
+    /**
+     * @return points gained by the placement
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * @return score of the player after the placement
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return true if the delta is sent to the player who placed the card
+     */
+    public boolean isOwn() {
+        return own;
+    }
+
+    /**
+     * Replays the placement in the book of the player and updates his score.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        Player p = replica.getPlayerByNickname(nickname);
+        try {
+            p.placeCard(chosenCard, rowCell, colCell);
+        } catch (PlacementConditionViolated | CellNotAvailableException | IndexOutOfBoundsException e) {
+            throw new ReplicaNotAlignedException("Replica not aligned, cannot place the card of " + nickname + ": " + e.getMessage());
+        }
+        replica.getScoretrack().setPlayerScore(p, score);
+        replica.setCurrentCardPoints(points);
+    }
+
+    /**
+     * Notifies the player who placed the card with cardPlaced, the others with pointsAdded.
+     *
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        if (own) {
+            lis.cardPlaced(replica);
+        } else {
+            lis.pointsAdded(replica);
+        }
+    }
+}
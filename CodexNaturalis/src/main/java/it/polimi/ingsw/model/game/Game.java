@@ -17,7 +17,6 @@ import it.polimi.ingsw.listener.ListenersHandler;
 
 import java.lang.IllegalStateException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static it.polimi.ingsw.view.PrintAsync.printAsync;
 
@@ -50,6 +49,14 @@ public class Game {
 
 	private String disconnectedPlayer= " ";
 
+	private long version;
+	private int[] lastPlacement;
+
+	/**
+	 * The random choices of the game, made only by its commands
+	 */
+	private final GameRandom random;
+
 
 
 	/**
@@ -59,32 +66,80 @@ public class Game {
 	 */
 	public Game(int playersNumber) {
 		this.playersNumber = playersNumber;
-		this.initialCardsDeck = new Deck(CardType.InitialCard);
+		this.random = new GameRandom();
+		this.initialCardsDeck = new Deck(CardType.InitialCard, random);
 		this.players = new ArrayList<>();
 		this.scoretrack = new ScoreTrack();
 		this.currentPlayer = null;
-		this.board = new Board();
+		this.board = new Board(random);
 		this.orderArray = new int[playersNumber];
 		this.status = GameStatus.WAIT;
 		this.temporaryInitialCard=new ArrayList<>();
 		this.temporaryObjectiveCards= new ArrayList<>();
+		this.chat = new Chat(DefaultValue.chatHistorySize);
 		this.listenersHandler = new ListenersHandler();
 
 	}
 	public Game() {
+		this(new GameRandom());
+	}
+
+	/**
+	 * Constructs a new Game instance whose random choices are taken from a seeded generator,
+	 * so that the game can be replayed with the same seed.
+	 *
+	 * @param random The random choices of the game.
+	 */
+	public Game(GameRandom random) {
 		this.playersNumber = 0;
-		this.initialCardsDeck = new Deck(CardType.InitialCard);
+		this.random = random;
+		this.initialCardsDeck = new Deck(CardType.InitialCard, random);
 		this.players = new ArrayList<>();
 		this.scoretrack = new ScoreTrack();
 		this.currentPlayer = null;
-		this.board = new Board();
+		this.board = new Board(random);
 		this.orderArray = new int[playersNumber];
 		this.status = GameStatus.WAIT;
-		chat = new Chat();
+		chat = new Chat(DefaultValue.chatHistorySize);
 		this.listenersHandler = new ListenersHandler();
 		this.temporaryInitialCard=new ArrayList<>();
 		this.temporaryObjectiveCards= new ArrayList<>();
 	}
+
+	/**
+	 * Constructs a game from its image, used to rebuild a game from a {@link it.polimi.ingsw.controller.GameSnapshot}.
+	 * The game has no listeners, the players reconnect to it.
+	 *
+	 * @param image the game as sent to the clients
+	 * @param chat the history of the chat
+	 * @param initialCardsDeck the deck of the initial cards
+	 * @param disconnectedPlayer the nickname of the last player disconnected
+	 * @param lastPlacement the last card placed, null if none
+	 * @param random the random choices of the game, after the ones already made
+	 */
+	public Game(GameImmutable image, Chat chat, Deck initialCardsDeck, String disconnectedPlayer, int[] lastPlacement, GameRandom random) {
+		this.gameID = image.getGameId();
+		this.playersNumber = image.getPlayersNumber();
+		this.players = new ArrayList<>(image.getPlayers());
+		this.scoretrack = image.getScoretrack();
+		this.currentPlayer = image.getCurrentPlayer();
+		this.initialCardsDeck = initialCardsDeck;
+		this.board = image.getBoard();
+		this.status = image.getStatus();
+		this.orderArray = image.getOrderArray();
+		this.temporaryInitialCard = image.getInitialCard();
+		this.temporaryObjectiveCards = image.getObjectiveCard();
+		this.currentCardPoints = image.getCurrentCardPoints();
+		this.chat = chat;
+		this.version = image.getVersion();
+		this.disconnectedPlayer = disconnectedPlayer;
+		this.lastPlacement = lastPlacement;
+		this.random = random;
+		this.initialCardsDeck.setRandom(random);
+		this.board.setRandom(random);
+		this.listenersHandler = new ListenersHandler();
+	}
+
 	/**
 	 * Singleton class
 	 * @param playersNumber The number of players in the game
@@ -109,6 +164,24 @@ public class Game {
 	public boolean isEnded(){
 		return gameEnded;
 	}
+
+	/**
+	 * Retrieves the random choices of the game, whose seed is written with the game.
+	 *
+	 * @return the generator of the game
+	 */
+	public GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Chooses the color of a new player among the colors not taken by the other players.
+	 *
+	 * @return a random color
+	 */
+	public Color nextColor() {
+		return Color.getRandomColor(random, players.stream().map(Player::getPlayerColor).toList());
+	}
 	/**
 	 * Retrieves the score track of the game.
 	 *
@@ -193,7 +266,7 @@ public class Game {
 	 */
 	public void playerIsReadyToStart(Player player) {
 		player.setReadyToStart();
-		player.notify_playerReady(this);
+		listenersHandler.notify_playerReady(player.getListeners(), this, player);
 	}
 
 	/**
@@ -278,7 +351,6 @@ public class Game {
 	 */
 	public void chooseOrderPlayers() {
 
-		Random random = new Random();
 		int randomIndex = random.nextInt(players.size());
 		this.currentPlayer = players.get(randomIndex);
 
@@ -556,6 +628,13 @@ public class Game {
 		int indexPlayer=getIndexPlayer(player);
 		ObjectiveCard chosenObjectiveCard = temporaryObjectiveCards.get(indexPlayer)[index];
 		player.setGoal(chosenObjectiveCard);
+		//the placement objectives of the player are counted at every card from now on
+		player.getPlayerBook().trackGoal(chosenObjectiveCard);
+		for (ObjectiveCard commonGoal : board.getObjectiveCards()) {
+			if (commonGoal != null) {
+				player.getPlayerBook().trackGoal(commonGoal);
+			}
+		}
 		player.notify_cardsReady(this);
 	}
 
@@ -575,6 +654,7 @@ public class Game {
 	public int placeCardTurn( Player p, int chosenCard, int rowCell, int colCell)  {
 		try {
 			currentCardPoints=  p.placeCard(chosenCard, rowCell, colCell);
+			lastPlacement = new int[]{chosenCard, rowCell, colCell};
 			return currentCardPoints;
 		}catch(PlacementConditionViolated | CellNotAvailableException | IndexOutOfBoundsException e   ){
 			String msg = e.getMessage();
@@ -584,6 +664,15 @@ public class Game {
 
 	}
 
+	/**
+	 * Retrieves the last card placed in the game.
+	 *
+	 * @return the position in the deck of the card, the row and the column of the cell where it has been placed
+	 */
+	public int[] getLastPlacement(){
+		return this.lastPlacement;
+	}
+
 	/**
 	 * Retrieves the current points associated with the current card in the game.
 	 *
@@ -621,8 +710,8 @@ public class Game {
 			PlayableCard[] newCard = board.takeCardfromBoard(cardType, drawFromDeck, pos);
 			if (newCard != null) {
 				p.getPlayerDeck().addCard(newCard);
+				listenersHandler.notify_CardDrawn(p.getListeners(), this, p, cardType, drawFromDeck, pos, newCard);
 			}
-			p.notify_CardDrawn(this);
 
 		}catch (DeckEmptyException e){
 			listenersHandler.notify_GameEnded(this);
@@ -663,6 +752,15 @@ public class Game {
 	 */
 	public ArrayList<ObjectiveCard[]> getTemporaryObjectiveCardsDeck() {return temporaryObjectiveCards;}
 
+	/**
+	 * Retrieves the deck of the initial cards.
+	 *
+	 * @return the {@code Deck} of the initial cards not yet given to the players.
+	 */
+	public Deck getInitialCardsDeck() {
+		return initialCardsDeck;
+	}
+
 
 	/**
 	 * @param playerNickname the nickname of the player to find in the list
@@ -716,6 +814,13 @@ public class Game {
 		this.disconnectedPlayer = disconnectedPlayer;
 	}
 
+	/**
+	 * @return the nickname of the last player disconnected, " " if he reconnected
+	 */
+	public String getDisconnectedPlayer() {
+		return disconnectedPlayer;
+	}
+
 	/**
 	 * Attempts to reconnect a player who was previously disconnected.
 	 * Notifies listeners about the reconnection status and handles game progression if necessary.
@@ -725,6 +830,20 @@ public class Game {
 	 * @return true if the reconnection is successful, false otherwise
 	 */
 	public boolean reconnectPlayer(GameListenerInterface lis, Player p) {
+		return reconnectPlayer(lis, p, -1);
+	}
+
+	/**
+	 * Attempts to reconnect a player who was previously disconnected.
+	 * The player receives only the changes after the version of its replica of the game, if they can be replayed,
+	 * otherwise the listeners receive a full copy of the game.
+	 *
+	 * @param lis         the listener interface for the reconnected player
+	 * @param p           the player to reconnect
+	 * @param lastVersion the version of the replica of the game of the player, -1 if it has none
+	 * @return true if the reconnection is successful, false otherwise
+	 */
+	public boolean reconnectPlayer(GameListenerInterface lis, Player p, long lastVersion) {
 		setDisconnectedPlayer(" ");
 		if(!p.getConnected()){
 			if (!isTheCurrentPlayerOnline()) {
@@ -747,7 +866,7 @@ public class Game {
 			}
 			p.setConnected(true);
 			setDisconnectedPlayer(" ");
-			listenersHandler.notify_playerReconnected(this, p.getNickname());
+			listenersHandler.notify_playerReconnected(this, p.getNickname(), lis, lastVersion);
 
 			return true;
 		}else {
@@ -765,9 +884,12 @@ public class Game {
 	 *  ensures that their deck and the board have the correct number of cards
 	 *  in case they were lost during the disconnection
 	 *  * @param p The player whose status is being checked.
+	 * @return true if the deck of the player or the board has been changed
 	 */
-	public void checkPlayerStatus(Player p){
+	public boolean checkPlayerStatus(Player p){
+		boolean changed = false;
 		if(p.getPlayerDeck().getMiniDeck().size()!=3) {
+			changed = true;
             PlayableCard[] newCard ;
             try {
                 newCard = board.takeCardfromBoard(CardType.ResourceCard, true, 0);
@@ -778,6 +900,7 @@ public class Game {
         }
 
 		if(!board.verifyGoldCardsNumber()){
+			changed = true;
             try {
                 board.updateArray(board.getGoldCards(), CardType.GoldCard);
             } catch (DeckEmptyException e) {
@@ -785,12 +908,14 @@ public class Game {
             }
         }
 		if(!board.verifyResourceCardsNumber()){
+			changed = true;
 			try {
 				board.updateArray(board.getResourceCards(), CardType.ResourceCard);
 			} catch (DeckEmptyException e) {
 				p.notify_ReconnectionFailed("ERROR: Trying to reconnect but no more Cards!");
 			}
 		}
+		return changed;
     }
 
 
@@ -802,7 +927,26 @@ public class Game {
 	}
 
 	/**
-	 * Retrieves the current chat instance.
+	 * Retrieves the version of the game, increased by every change sent to the listeners as a {@link GameDelta}.
+	 *
+	 * @return the version of the game
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Increases the version of the game for a new change.
+	 *
+	 * @return the new version of the game
+	 */
+	public synchronized long nextVersion() {
+		return ++version;
+	}
+
+	/**
+	 * Retrieves the current chat instance, which keeps the latest {@link DefaultValue#chatHistorySize} public messages.
+	 * The chat is not part of the {@link GameImmutable} sent to the clients, they read it with {@link #getChatHistory(long, int)}.
 	 *
 	 * @return the {@code Chat} object representing the current chat instance.
 	 */
@@ -810,26 +954,77 @@ public class Game {
 		return this.chat;
 	}
 
+	/**
+	 * Returns a page of the history of the chat, at most {@link DefaultValue#chatHistoryPage} messages.
+	 *
+	 * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+	 * @param limit   the max number of messages of the page
+	 * @return the public messages numbered from fromSeq on, from the oldest to the latest
+	 */
+	public List<Message> getChatHistory(long fromSeq, int limit) {
+		return chat.getPage(fromSeq, Math.min(limit, DefaultValue.chatHistoryPage));
+	}
+
+	/**
+	 * Sends a page of the history of the chat to the player who asked for it.
+	 *
+	 * @param lis     the listener of the player
+	 * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+	 * @param limit   the max number of messages of the page
+	 */
+	public void sendChatHistory(GameListenerInterface lis, long fromSeq, int limit) {
+		listenersHandler.notify_ChatHistory(lis, getChatHistory(fromSeq, limit));
+	}
+
+	/**
+	 * Sends to the player whose replica diverged the changes he missed, or a full copy of the game.
+	 *
+	 * @param lis         the listener of the player
+	 * @param nick        the nickname of the player
+	 * @param lastVersion the version of the replica, -1 if a full copy is needed
+	 */
+	public void resync(GameListenerInterface lis, String nick, long lastVersion) {
+		listenersHandler.notify_Resync(this, lis, nick, lastVersion);
+	}
+
 
 	/**
 	 * Receives a message from a player, adds it to the chat, and notifies listeners about the message.
+	 * A private message is not added to the chat shared by all the players, it is only delivered to the sender and the receiver.
 	 *
 	 * @param msg the message object containing sender and text
 	 * @throws ActionByAPlayerNotInTheGameException if the sender of the message is not a participant in the game
 	 */
 	public void sentMessage(Message msg){
-		Player sender = msg.getSender();
-		System.out.println("Current players in the game: " + players.stream().map(Player::getNickname).collect(Collectors.joining(", ")));
-
+		receiveMessage(msg);
+		deliverMessages(List.of(msg));
+	}
 
-		long count = players.stream().filter(x -> x.equals(sender)).count();
-		if (count == 1) {
-			chat.addMsg(msg);
-			System.out.println("Message added to chat: " + msg.getText());
-			listenersHandler.notify_SentMessage(this, chat.getLastMessage());
-		} else {
-			System.err.println("Player " + sender.getNickname() + " is not in the game.");
+	/**
+	 * Receives a message from a player and adds it to the chat, without notifying the listeners:
+	 * the message is delivered later with {@link #deliverMessages(List)}, together with the ones received after it.
+	 * A private message is not added to the chat shared by all the players.
+	 *
+	 * @param msg the message object containing sender and text
+	 * @throws ActionByAPlayerNotInTheGameException if the sender of the message is not a participant in the game
+	 */
+	public void receiveMessage(Message msg){
+		String sender = msg.getSender();
+		if (sender == null || !checkNickname(sender)) {
+			printAsync("Player " + sender + " is not in the game.");
 			throw new ActionByAPlayerNotInTheGameException();
 		}
+		if (msg.whoIsReceiver().equals("*")) {
+			chat.addMsg(msg);
+		}
+	}
+
+	/**
+	 * Notifies the listeners about a batch of messages received, in the order they were received.
+	 *
+	 * @param batch the messages received
+	 */
+	public void deliverMessages(List<Message> batch){
+		listenersHandler.notify_SentMessages(this, batch);
 	}
 }
\ No newline at end of file
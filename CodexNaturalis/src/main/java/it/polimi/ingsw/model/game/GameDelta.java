@@ -0,0 +1,94 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.exceptions.ReplicaNotAlignedException;
+import it.polimi.ingsw.listener.GameListenerInterface;
+
+import java.io.Serializable;
+import java.rmi.RemoteException;
+
+/**
+ * GameDelta Class
+ * Describes a single change of a {@link Game}. <br>
+ * Instead of a whole {@link GameImmutable}, listeners receive only what changed and apply it to their
+ * local replica of the game, that is the last full snapshot received (on join or reconnection). <br>
+ * Every delta carries the version of the game it produces: deltas older than the replica are discarded,
+ * and a delta is applied only to the version right before it. When a version is missing, or a delta can't be
+ * applied, the replica has diverged and the client asks the server for the changes it missed or for a full copy.
+ */
+public abstract class GameDelta implements Serializable {
+
+    /**
+     * Version of the game after this change
+     */
+    private final long version;
+
+    /**
+     * Constructor
+     *
+     * @param version the version of the game after this change
+     */
+    protected GameDelta(long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return the version of the game after this change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the delta is newer than the replica, so that it has to be applied.
+     *
+     * @param replica the local replica of the game
+     * @return true if the delta has to be applied to the replica
+     */
+    public boolean isNewerThan(GameImmutable replica) {
+        return replica != null && version > replica.getVersion();
+    }
+
+    /**
+     * Checks if the delta is the change right after the replica, so that no change has been lost in between.
+     *
+     * @param replica the local replica of the game
+     * @return true if the version of the delta is the one after the version of the replica
+     */
+    public boolean follows(GameImmutable replica) {
+        return replica != null && version == replica.getVersion() + 1;
+    }
+
+    /**
+     * Applies the change to the replica and updates its version.
+     *
+     * @param replica the local replica of the game
+     * @throws ReplicaNotAlignedException if the change can't be applied, the replica keeps its version
+     */
+    public final void applyTo(GameImmutable replica) {
+        try {
+            apply(replica);
+        } catch (ReplicaNotAlignedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ReplicaNotAlignedException(getClass().getSimpleName() + " " + version + " not applicable: " + e);
+        }
+        replica.setVersion(version);
+    }
+
+    /**
+     * Applies the change to the replica.
+     *
+     * @param replica the local replica of the game
+     * @throws ReplicaNotAlignedException if the replica is not in the state the change was made from
+     */
+    protected abstract void apply(GameImmutable replica);
+
+    /**
+     * Notifies the listener with the event the change corresponds to, passing the updated replica.
+     *
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    public abstract void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException;
+}
@@ -33,14 +33,20 @@ public class GameImmutable implements Serializable {
     private final List<Player> players;
     private final Integer playersNumber;
     private final ScoreTrack scoreTrack;
-    private final Player currentPlayer;
+    private Player currentPlayer;
     private final ArrayList<PlayableCard[]> temporaryInitialCard;
     private final ArrayList<ObjectiveCard[]> temporaryObjectiveCards;
     private final Board board;
-    private final GameStatus status;
+    private GameStatus status;
     private final int[] orderArray;
     private int currentCardPoints;
-    private final Chat chat;
+
+    /**
+     * The chat of the client, attached to the replica by the client: the chat has its own channel
+     * and is not part of the game sent to the clients
+     */
+    private transient Chat chat;
+    private long version;
 
     /**
      * Constructor
@@ -53,12 +59,47 @@ public class GameImmutable implements Serializable {
         scoreTrack = modelToCopy.getScoretrack();
         currentPlayer = modelToCopy.getCurrentPlayer();
         board = modelToCopy.getBoard();
-        chat = modelToCopy.getChat();
+        chat = null;
         status = modelToCopy.getStatus();
         temporaryInitialCard = modelToCopy.getTemporaryInitialCardsDeck();
         temporaryObjectiveCards = modelToCopy.getTemporaryObjectiveCardsDeck();
         this.orderArray = modelToCopy.getOrderArray();
         this.currentCardPoints= modelToCopy.getCurrentCardPoints();
+        this.version = modelToCopy.getVersion();
+    }
+
+    /**
+     * Constructor used to rebuild a model received from the network
+     *
+     * @param gameID the ID of the game
+     * @param players the players in game
+     * @param playersNumber the number of players of the game
+     * @param scoreTrack the scoreTrack
+     * @param currentPlayer the current playing player
+     * @param temporaryInitialCard the initial cards to choose from
+     * @param temporaryObjectiveCards the objective cards to choose from
+     * @param board the board
+     * @param status the status of the game
+     * @param orderArray the order of the players
+     * @param currentCardPoints the points of the last card placed
+     * @param version the version of the game
+     */
+    public GameImmutable(Integer gameID, List<Player> players, Integer playersNumber, ScoreTrack scoreTrack, Player currentPlayer,
+                         ArrayList<PlayableCard[]> temporaryInitialCard, ArrayList<ObjectiveCard[]> temporaryObjectiveCards,
+                         Board board, GameStatus status, int[] orderArray, int currentCardPoints, long version) {
+        this.gameID = gameID;
+        this.players = players;
+        this.playersNumber = playersNumber;
+        this.scoreTrack = scoreTrack;
+        this.currentPlayer = currentPlayer;
+        this.temporaryInitialCard = temporaryInitialCard;
+        this.temporaryObjectiveCards = temporaryObjectiveCards;
+        this.board = board;
+        this.status = status;
+        this.orderArray = orderArray;
+        this.currentCardPoints = currentCardPoints;
+        this.chat = null;
+        this.version = version;
     }
 
     /**
@@ -104,6 +145,13 @@ public class GameImmutable implements Serializable {
         return gameID;
     }
 
+    /**
+     * @return the number of players of the game
+     */
+    public Integer getPlayersNumber() {
+        return playersNumber;
+    }
+
     /**
      * @return the game's scoreTrack
      */
@@ -265,12 +313,41 @@ public class GameImmutable implements Serializable {
      *
      * This method returns the {@code Chat} object representing the current chat instance.
      *
-     * @return the {@code Chat} object representing the current chat instance.
+     * @return the {@code Chat} object representing the current chat instance, null until the client attaches its chat.
      */
     public Chat getChat(){
         return chat;
     }
 
+    /**
+     * Attaches the chat of the client to the replica of the game.
+     *
+     * @param chat the chat of the client
+     */
+    public void setChat(Chat chat){
+        this.chat = chat;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    void setCurrentPlayer(String nickname) {
+        this.currentPlayer = getPlayerByNickname(nickname);
+    }
+
+    void setStatus(GameStatus status) {
+        this.status = status;
+    }
+
+    void setCurrentCardPoints(int currentCardPoints) {
+        this.currentCardPoints = currentCardPoints;
+    }
+
     /**
      * Checks if the game board is updated.
      *
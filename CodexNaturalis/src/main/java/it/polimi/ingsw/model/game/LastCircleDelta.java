@@ -0,0 +1,41 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+
+import java.rmi.RemoteException;
+
+/**
+ * LastCircleDelta Class
+ * A player reached 20 points, the game entered the last circle.
+ */
+public class LastCircleDelta extends GameDelta {
+
+    /**
+     * Constructor
+     *
+     * @param version the version of the game after this change
+     */
+    public LastCircleDelta(long version) {
+        super(version);
+    }
+
+    /**
+     * Sets the status of the replica to {@link GameStatus#LAST_CIRCLE}.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        replica.setStatus(GameStatus.LAST_CIRCLE);
+    }
+
+    /**
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        lis.lastCircle(replica);
+    }
+}
@@ -0,0 +1,92 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.player.Player;
+
+import java.rmi.RemoteException;
+import java.util.Map;
+
+/**
+ * NextTurnDelta Class
+ * The turn passed to another player. <br>
+ * It carries the scores too, because the goals are checked silently before the last turns.
+ */
+public class NextTurnDelta extends GameDelta {
+
+    /**
+     * Nickname of the player who has to play
+     */
+    private final String currentPlayer;
+
+    /**
+     * Status of the game
+     */
+    private final GameStatus status;
+
+    /**
+     * Scores of the players by nickname
+     */
+    private final Map<String, Integer> scores;
+
+    /**
+     * Constructor
+     *
+     * @param version       the version of the game after this change
+     * @param currentPlayer the nickname of the player who has to play
+     * @param status        the status of the game
+     * @param scores        the scores of the players by nickname
+     */
+    public NextTurnDelta(long version, String currentPlayer, GameStatus status, Map<String, Integer> scores) {
+        super(version);
+        this.currentPlayer = currentPlayer;
+        this.status = status;
+        this.scores = scores;
+    }
+
+    /**
+     * @return nickname of the player who has to play
+     */
+    public String getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * @return status of the game
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return scores of the players by nickname
+     */
+    public Map<String, Integer> getScores() {
+        return scores;
+    }
+
+    /**
+     * Sets the current player, the status and the scores of the replica.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        replica.setCurrentPlayer(currentPlayer);
+        replica.setStatus(status);
+        for (Player p : replica.getPlayers()) {
+            if (scores.containsKey(p.getNickname())) {
+                replica.getScoretrack().setPlayerScore(p, scores.get(p.getNickname()));
+            }
+        }
+    }
+
+    /**
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        lis.nextTurn(replica);
+    }
+}
@@ -0,0 +1,73 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+
+import java.rmi.RemoteException;
+
+/**
+ * PlayerReadyDelta Class
+ * A player is ready to start the game.
+ */
+public class PlayerReadyDelta extends GameDelta {
+
+    /**
+     * Nickname of the player who is ready
+     */
+    private final String nickname;
+
+    /**
+     * True if the delta is sent to the player who is ready
+     */
+    private final boolean own;
+
+    /**
+     * Constructor
+     *
+     * @param version  the version of the game after this change
+     * @param nickname the nickname of the player who is ready
+     * @param own      true if the delta is sent to the player who is ready
+     */
+    public PlayerReadyDelta(long version, String nickname, boolean own) {
+        super(version);
+        this.nickname = nickname;
+        this.own = own;
+    }
+
+    /**
+     * @return nickname of the player who is ready
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * @return true if the delta is sent to the player who is ready
+     */
+    public boolean isOwn() {
+        return own;
+    }
+
+    /**
+     * Sets the player ready to start in the replica.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        replica.getPlayerByNickname(nickname).setReadyToStart();
+    }
+
+    /**
+     * Notifies only the player who is ready.
+     *
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        if (own) {
+            lis.playerReady(replica, nickname);
+        }
+    }
+}
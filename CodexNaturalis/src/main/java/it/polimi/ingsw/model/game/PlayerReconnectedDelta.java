@@ -0,0 +1,57 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.player.Player;
+
+import java.rmi.RemoteException;
+
+/**
+ * PlayerReconnectedDelta Class
+ * A player reconnected to the game within the reconnection window.
+ */
+public class PlayerReconnectedDelta extends GameDelta {
+
+    /**
+     * Nickname of the player who reconnected
+     */
+    private final String nickname;
+
+    /**
+     * Constructor
+     *
+     * @param version  the version of the game after this change
+     * @param nickname the nickname of the player who reconnected
+     */
+    public PlayerReconnectedDelta(long version, String nickname) {
+        super(version);
+        this.nickname = nickname;
+    }
+
+    /**
+     * @return nickname of the player who reconnected
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Sets the player as connected in the replica.
+     *
+     * @param replica the local replica of the game
+     */
+    @Override
+    protected void apply(GameImmutable replica) {
+        Player p = replica.getPlayerByNickname(nickname);
+        p.setConnected(true);
+    }
+
+    /**
+     * @param lis the listener to notify
+     * @param replica the updated replica of the game
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void notify(GameListenerInterface lis, GameImmutable replica) throws RemoteException {
+        lis.playerReconnected(replica, nickname);
+    }
+}
@@ -1,11 +1,10 @@
 package it.polimi.ingsw.model.player;
 
-import java.io.IOException;
-import java.lang.IllegalStateException;
-import java.rmi.RemoteException;
 import java.util.*;
 import it.polimi.ingsw.exceptions.*;
 import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.listener.ListenersHandler;
+import it.polimi.ingsw.listener.OutboundQueue;
 import it.polimi.ingsw.model.Book;
 import it.polimi.ingsw.model.Cell;
 import it.polimi.ingsw.model.Color;
@@ -14,6 +13,7 @@ import it.polimi.ingsw.model.cards.PlayableCard;
 import it.polimi.ingsw.model.game.Game;
 import it.polimi.ingsw.model.game.GameImmutable;
 import java.io.Serializable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 import static it.polimi.ingsw.network.PrintAsync.printAsync;
@@ -31,7 +31,7 @@ public class Player implements Serializable {
     private ObjectiveCard playerGoal;
     private boolean connected;
     private boolean readyToStart = false;
-    private final transient ArrayList<GameListenerInterface>listeners;
+    private final transient CopyOnWriteArrayList<GameListenerInterface> listeners;
     private final Color playerColor;
     private boolean initialized=false;
 
@@ -47,18 +47,19 @@ public class Player implements Serializable {
         this.playerBook = new Book(40, 40);
         this.playerDeck = new PlayerDeck();
         this.connected = false;
-        this.listeners= new ArrayList<>();
+        this.listeners= new CopyOnWriteArrayList<>();
         this.playerColor=color;
 
     }
 
     /**
      * Retrieves the list of listeners registered for this player.
+     * The listeners are kept in a copy-on-write list, so they can be walked while the player reconnects.
      *
-     * @return the list of listeners
+     * @return a read-only view of the listeners
      */
-    public ArrayList<GameListenerInterface> getListeners(){
-        return this.listeners;
+    public List<GameListenerInterface> getListeners(){
+        return Collections.unmodifiableList(this.listeners);
     }
 
     /**
@@ -66,7 +67,7 @@ public class Player implements Serializable {
      * @param lis listener to add
      */
     public void addListener(GameListenerInterface lis) {
-        listeners.add(lis);
+        listeners.addIfAbsent(lis);
     }
 
     /**
@@ -179,19 +180,10 @@ public class Player implements Serializable {
      * @throws CellNotAvailableException  if the specified cell is not available for placing the card
      */
     public int placeCard(int posCard, int rowCell, int rowCol) throws PlacementConditionViolated, CellNotAvailableException,IndexOutOfBoundsException {
-        ArrayList<Cell> availableCells = this.playerBook.showAvailableCells();
-        Cell chosenCell = null;
+        Cell chosenCell = this.playerBook.getAvailableCell(rowCell, rowCol);
         PlayableCard chosenCard;
-        boolean found = false;
 
-
-        for (Cell availableCell : availableCells) {
-            if (availableCell.getRow() == rowCell && availableCell.getColumn() == rowCol) {
-                chosenCell = availableCell;
-                found = true;
-            }
-        }
-        if (!found)
+        if (chosenCell == null)
             throw new IndexOutOfBoundsException("Invalid Cell Position! Choose an Available CELL");
 
         int points =-1;
@@ -218,24 +210,6 @@ public class Player implements Serializable {
         return points;
     }
 
-    /**
-     * Notifies listeners that a card has been drawn.
-     *
-     * @param model the game model to pass as a new immutable game model
-     */
-    public void notify_CardDrawn(Game model) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.cardDrawn(new GameImmutable(model));
-            } catch (RemoteException e) {
-                printAsync("During notification of notify_CardDrawn, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
-    }
-
     /**
      * Notifies listeners that initial setup is required.
      *
@@ -243,33 +217,11 @@ public class Player implements Serializable {
      * @param index the index indicating the specific requirement
      */
     public void notify_requireInitial( Game model, int index){
-
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.requireInitialReady(new GameImmutable(model), index);
-            } catch (FileReadException | IOException e) {
+        GameImmutable snapshot = ListenersHandler.snapshot(model);
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, "notify_requireInitial", OutboundQueue.Kind.EVENT, lis -> lis.requireInitialReady(snapshot, index))) {
                 printAsync("During notification of notify_requireInitial, a disconnection has been detected before ping");
-                i.remove();
-            }
-        }
-    }
-
-    /**
-     * Notifies listeners that the player is ready to start the game.
-     *
-     * @param model the game model to pass as a new immutable game model
-     */
-  public void notify_playerReady( Game model){
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.playerReady(new GameImmutable(model), nickname);
-            } catch ( IOException e) {
-                printAsync("During notification of notify_playerReady, a disconnection has been detected before ping");
-                i.remove();
+                listeners.remove(l);
             }
         }
     }
@@ -281,14 +233,11 @@ public class Player implements Serializable {
      * @param index the index indicating the specific requirement
      */
     public void notify_requireGoals( Game model, int index){
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.requireGoalsReady(new GameImmutable(model), index);
-            } catch (RemoteException | IllegalStateException e) {
+        GameImmutable snapshot = ListenersHandler.snapshot(model);
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, "notify_requireGoals", OutboundQueue.Kind.EVENT, lis -> lis.requireGoalsReady(snapshot, index))) {
                 printAsync("During notification of notify_requireGoals, a disconnection has been detected before ping");
-
+                listeners.remove(l);
             }
         }
     }
@@ -299,14 +248,11 @@ public class Player implements Serializable {
      * @param model the game model to pass as a new immutable game model
      */
     public void notify_cardsReady( Game model){
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.cardsReady(new GameImmutable(model));
-            } catch (RemoteException | IllegalStateException e) {
-                printAsync("During notification of notify_requireGoals, a disconnection has been detected before ping");
-
+        GameImmutable snapshot = ListenersHandler.snapshot(model);
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, "notify_cardsReady", OutboundQueue.Kind.EVENT, lis -> lis.cardsReady(snapshot))) {
+                printAsync("During notification of notify_cardsReady, a disconnection has been detected before ping");
+                listeners.remove(l);
             }
         }
     }
@@ -316,14 +262,11 @@ public class Player implements Serializable {
      * @param model is the Game to pass as a new GameModelImmutable
      */
     public void notify_NotCorrectChosenCard(Game model, String msg){
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.wrongChooseCard( new GameImmutable(model), msg);
-            } catch (RemoteException e) {
+        GameImmutable snapshot = ListenersHandler.snapshot(model);
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, "notify_NotCorrectChosenCard", OutboundQueue.Kind.EVENT, lis -> lis.wrongChooseCard( snapshot, msg))) {
                 printAsync("During notification of notify_NotCorrectChosenCard, a disconnection has been detected before ping");
-                i.remove();
+                listeners.remove(l);
             }
         }
     }
@@ -366,14 +309,10 @@ public class Player implements Serializable {
      * @param msg the message to show in the view
      */
     public void notify_ReconnectionFailed(String msg) {
-        Iterator<GameListenerInterface> i = listeners.iterator();
-        while (i.hasNext()) {
-            GameListenerInterface l = i.next();
-            try {
-                l.errorReconnecting(msg);
-            } catch (RemoteException e) {
+        for (GameListenerInterface l : listeners) {
+            if (!OutboundQueue.send(l, "notify_ReconnectionFailed", OutboundQueue.Kind.EVENT, lis -> lis.errorReconnecting(msg))) {
                 printAsync("During notification of notify_ReconnectionFailed, a disconnection has been detected before ping");
-                i.remove();
+                listeners.remove(l);
             }
         }
     }
@@ -103,6 +103,24 @@ public interface ClientInterface  {
      */
     void sendMessage(Message msg) throws RemoteException, IOException;
 
+    /**
+     * Asks the server for a page of the history of the chat, sent back to the listener of the client.
+     *
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    void getChatHistory(long fromSeq, int limit) throws IOException;
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the client,
+     * or for a full copy of the game if they are no longer available, sent back to the listener of the client.
+     *
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    void resync(long lastVersion) throws IOException;
+
     /**
      * Notifies the server to start the game with the specified nickname.
      *
@@ -0,0 +1,255 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.model.DefaultValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static it.polimi.ingsw.network.PrintAsync.printAsync;
+
+/**
+ * HashedWheelTimer Class<br>
+ * Timer shared by all the games of the server (and by the ping sender of the client) for the ping deadlines,
+ * the reconnection windows and the windows of the chat batches. <br>
+ * The pending timeouts are kept in a wheel of buckets, one for each tick: scheduling and cancelling a timeout
+ * only link it in or out of its bucket, so they take constant time, and at every tick only the bucket of
+ * that tick is checked. A single thread moves the wheel, and only while there are pending timeouts:
+ * when none is pending it waits without waking up, so the idle games cost no threads and no wake-ups. <br>
+ * The tasks are executed by the thread of the timer, so they must be short: the tasks of the games only
+ * send a command to the mailbox of the game.
+ */
+public final class HashedWheelTimer {
+
+    /**
+     * The timer shared by the server and by the client
+     */
+    private static HashedWheelTimer instance = null;
+
+    /**
+     * Length of a tick in nanoseconds
+     */
+    private final long tickNanos;
+
+    /**
+     * The buckets of the wheel, the bucket of a tick is the tick modulo the length of the wheel
+     */
+    private final Timeout[] wheel;
+
+    /**
+     * Mask of the index of the bucket, the length of the wheel is a power of two
+     */
+    private final int mask;
+
+    /**
+     * Time when the timer was created, the ticks are counted from here
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Last tick processed by the thread of the timer
+     */
+    private long currentTick;
+
+    /**
+     * Number of timeouts not expired nor cancelled
+     */
+    private int pending;
+
+    /**
+     * The thread moving the wheel, started with the first timeout
+     */
+    private Thread ticker;
+
+    /**
+     * Creates a timer
+     *
+     * @param tick_millis the length of a tick in milliseconds, the precision of the timer
+     * @param wheelSize the number of buckets of the wheel, rounded up to a power of two
+     */
+    public HashedWheelTimer(long tick_millis, int wheelSize) {
+        if (tick_millis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("The tick and the size of the wheel must be positive");
+        }
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tick_millis);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        wheel = new Timeout[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the timer shared by the server and by the client
+     */
+    public static synchronized HashedWheelTimer getInstance() {
+        if (instance == null) {
+            instance = new HashedWheelTimer(DefaultValue.timerTick_millis, DefaultValue.timerWheelSize);
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a task, executed once after the delay unless the timeout is cancelled before
+     *
+     * @param delay_millis the delay in milliseconds, rounded up to the next tick
+     * @param task the task
+     * @return the timeout of the task, to cancel it
+     */
+    public Timeout schedule(long delay_millis, Runnable task) {
+        long ticks = Math.max(1, (TimeUnit.MILLISECONDS.toNanos(delay_millis) + tickNanos - 1) / tickNanos);
+        synchronized (this) {
+            if (ticker == null) {
+                ticker = ServerThreads.newDaemonThread("wheel-timer", this::run);
+                ticker.start();
+            }
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            if (pending == 0) {
+                //the wheel is empty: it restarts from the current time instead of catching up the idle ticks
+                currentTick = Math.max(currentTick, nowTick);
+            }
+            Timeout timeout = new Timeout(task, Math.max(currentTick, nowTick) + ticks);
+            timeout.link();
+            if (++pending == 1) {
+                notifyAll();
+            }
+            return timeout;
+        }
+    }
+
+    /**
+     * @return the number of timeouts not expired nor cancelled
+     */
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * Moves the wheel one tick at a time while there are pending timeouts, executing the expired tasks
+     */
+    private void run() {
+        List<Runnable> expired = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            synchronized (this) {
+                try {
+                    while (pending == 0) {
+                        wait();
+                    }
+                    long wait = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, wait);
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                currentTick++;
+                Timeout timeout = wheel[(int) (currentTick & mask)];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.deadlineTick <= currentTick) {
+                        timeout.unlink();
+                        pending--;
+                        expired.add(timeout.task);
+                    }
+                    timeout = next;
+                }
+            }
+            for (Runnable task : expired) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    printAsync("Error while executing a timeout: " + e);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * Timeout Class<br>
+     * A task scheduled on the timer, linked in the bucket of its deadline until it expires or it is cancelled
+     */
+    public final class Timeout {
+
+        /**
+         * The task executed when the timeout expires
+         */
+        private final Runnable task;
+
+        /**
+         * The tick when the timeout expires
+         */
+        private final long deadlineTick;
+
+        /**
+         * The timeouts before and after this one in the same bucket
+         */
+        private Timeout prev, next;
+
+        /**
+         * True while the timeout is in the wheel
+         */
+        private boolean linked;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the timeout, its task is not executed
+         *
+         * @return true if the timeout was cancelled, false if it had already expired or been cancelled
+         */
+        public boolean cancel() {
+            synchronized (HashedWheelTimer.this) {
+                if (!linked) {
+                    return false;
+                }
+                unlink();
+                pending--;
+                return true;
+            }
+        }
+
+        /**
+         * @return true if the timeout is still waiting to expire
+         */
+        public boolean isPending() {
+            synchronized (HashedWheelTimer.this) {
+                return linked;
+            }
+        }
+
+        /**
+         * Links the timeout at the head of its bucket, the caller holds the monitor of the timer
+         */
+        private void link() {
+            int index = (int) (deadlineTick & mask);
+            next = wheel[index];
+            if (next != null) {
+                next.prev = this;
+            }
+            wheel[index] = this;
+            linked = true;
+        }
+
+        /**
+         * Unlinks the timeout from its bucket, the caller holds the monitor of the timer
+         */
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                wheel[(int) (deadlineTick & mask)] = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = next = null;
+            linked = false;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package it.polimi.ingsw.network.Main;
 
+import it.polimi.ingsw.controller.GamesManager;
 import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.ServerThreads;
 import it.polimi.ingsw.network.rmi.ServerRMI;
 import it.polimi.ingsw.network.socket.server.ServerTCP;
 
@@ -24,10 +26,19 @@ public class ServerMain {
      * It prompts the user to input the server IP address, configures the RMI server,
      * and starts the TCP server.
      *
-     * @param args the command-line arguments (not used)
+     * @param args the command-line arguments, "--virtual-threads" runs the server threads on virtual threads,
+     *             "--journal" writes the commands of the games in the journal and rebuilds the games from it
      * @throws IOException if an I/O error occurs
      */
     public static void main(String[] args) throws IOException {
+        if (Arrays.asList(args).contains("--virtual-threads")) {
+            ServerThreads.setVirtual(true);
+        }
+        if (Arrays.asList(args).contains("--journal") && System.getProperty(DefaultValue.journalDirectoryProperty) == null) {
+            System.setProperty(DefaultValue.journalDirectoryProperty, DefaultValue.journalDirectory);
+        }
+        //the games of the journal are rebuilt before the clients can connect
+        GamesManager.getInstance().recover();
 
         String input;
 
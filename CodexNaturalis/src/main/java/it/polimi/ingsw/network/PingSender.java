@@ -1,8 +1,6 @@
 package it.polimi.ingsw.network;
 import it.polimi.ingsw.view.flow.Flow;
 import java.rmi.RemoteException;
-import java.util.Timer;
-import java.util.TimerTask;
 import it.polimi.ingsw.model.DefaultValue;
 import static it.polimi.ingsw.network.PrintAsync.printAsync;
 
@@ -31,9 +29,8 @@ public class PingSender extends Thread{
     @Override
     public void run() {
         while (!Thread.interrupted()) {
-            Timer timer = new Timer();
-            TimerTask task = new TaskOnNetworkDisconnection(flow);
-            timer.schedule(task, DefaultValue.timeoutConnection_millis);
+            //the deadline is scheduled on the timer shared by the client, no thread is created for each ping
+            HashedWheelTimer.Timeout timeout = HashedWheelTimer.getInstance().schedule(DefaultValue.timeoutConnection_millis, new TaskOnNetworkDisconnection(flow));
             //send ping every 20s so the server knows I am still online
             try {
                 clientSender.ping();
@@ -41,7 +38,7 @@ public class PingSender extends Thread{
                 printAsync("Connection to server lost! Impossible to send ping ...");
                 interrupt();
             }
-            timer.cancel();
+            timeout.cancel();
             try {
                 Thread.sleep(DefaultValue.secondToWaitToSend_ping); //thread dorme per 500 ms
             } catch (InterruptedException ignored) {}
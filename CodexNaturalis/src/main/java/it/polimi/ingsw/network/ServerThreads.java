@@ -0,0 +1,115 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.model.DefaultValue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ServerThreads Class<br>
+ * Creates the threads used by the server, either as platform threads (default) or as virtual threads. <br>
+ * The virtual-thread mode is enabled by starting the server with the system property
+ * {@link DefaultValue#virtualThreadsProperty} set to true (or with the argument "--virtual-threads"),
+ * so that the socket workers and the mailboxes of the games don't hold a platform thread each.
+ */
+public final class ServerThreads {
+
+    /**
+     * True if the server threads are virtual threads
+     */
+    private static volatile boolean virtual = Boolean.getBoolean(DefaultValue.virtualThreadsProperty);
+
+    private ServerThreads() {
+    }
+
+    /**
+     * @return true if the server threads are virtual threads
+     */
+    public static boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Sets the kind of the threads created from now on
+     *
+     * @param virtual true to create virtual threads, false to create platform threads
+     */
+    public static void setVirtual(boolean virtual) {
+        ServerThreads.virtual = virtual;
+    }
+
+    /**
+     * Creates a new thread, not started
+     *
+     * @param name the name of the thread
+     * @param task the task executed by the thread
+     * @return the thread
+     */
+    public static Thread newThread(String name, Runnable task) {
+        Thread.Builder builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+        return builder.name(name).unstarted(task);
+    }
+
+    /**
+     * Creates a new daemon thread, not started, that doesn't keep the server or the client alive
+     *
+     * @param name the name of the thread
+     * @param task the task executed by the thread
+     * @return the thread
+     */
+    public static Thread newDaemonThread(String name, Runnable task) {
+        Thread.Builder builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        return builder.name(name).unstarted(task);
+    }
+
+    /**
+     * Creates the executor used to run the messages received by the socket server.
+     * With platform threads it is a fixed pool with a bounded queue, that rejects the tasks when the queue
+     * is full, so that the selector thread never runs the game logic; with virtual threads every task gets
+     * its own virtual thread.
+     *
+     * @return the executor
+     */
+    public static ExecutorService newWorkerPool() {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("socket-worker-", 0).factory());
+        }
+        return new ThreadPoolExecutor(DefaultValue.socketWorkerThreads, DefaultValue.socketWorkerThreads,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(DefaultValue.socketWorkerQueueSize),
+                Thread.ofPlatform().name("socket-worker-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Creates the executor shared by the mailboxes of all the games.
+     * With platform threads it is a fixed pool of {@link DefaultValue#gameCarrierThreads} threads;
+     * with virtual threads every task gets its own virtual thread, carried by the scheduler of the JVM.
+     *
+     * @return the executor
+     */
+    public static ExecutorService newGamePool() {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(DefaultValue.gameCarrierThreads,
+                Thread.ofPlatform().name("game-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Creates the executor used to deliver the notifications to the listeners.
+     * A writer can block on a slow client, so with platform threads the pool grows with the number of
+     * listeners being notified at the same time and shrinks when they are idle; with virtual threads
+     * every task gets its own virtual thread.
+     *
+     * @return the executor
+     */
+    public static ExecutorService newWriterPool() {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbound-writer-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name("outbound-writer-", 0).daemon(true).factory());
+    }
+}
@@ -1,15 +1,12 @@
 package it.polimi.ingsw.network;
 
-import java.util.TimerTask;
-
-
 import it.polimi.ingsw.view.flow.*;
 
 /**
- * Task scheduled to run when a network disconnection timeout occurs.
+ * Task scheduled on the {@link HashedWheelTimer} to run when a network disconnection timeout occurs.
  * It invokes the {@code noConnectionError()} method on the provided {@link Flow} instance.
  */
-public class TaskOnNetworkDisconnection extends TimerTask {
+public class TaskOnNetworkDisconnection implements Runnable {
     private Flow flow;
 
     /**
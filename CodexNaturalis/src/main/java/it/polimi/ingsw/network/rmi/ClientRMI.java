@@ -269,7 +269,8 @@ public class ClientRMI implements ClientInterface {
     public void reconnect(String nick, int idGame) throws IOException, NotBoundException {
         registry = LocateRegistry.getRegistry(DefaultValue.serverIp, DefaultValue.Default_port_RMI);
         gameController = (GameControllerInterface) registry.lookup(DefaultValue.Default_servername_RMI);
-        gameController.reconnect(modelInvokedEvents, nick);
+        //the server sends only the changes after the version of the replica, if it still has them
+        gameController.reconnect(modelInvokedEvents, nick, idGame, gameListenersHandler.getReplicaVersion());
 
         nickname = nick;
         if(!pingSender.isAlive()) {
@@ -357,8 +358,31 @@ public class ClientRMI implements ClientInterface {
      */
     @Override
     public void sendMessage(Message msg) throws RemoteException {
-        System.out.println("ClientRMI sending message from player: " + msg.getSender().getNickname());
-        gameController.sentMessage(msg);
+        System.out.println("ClientRMI sending message from player: " + msg.getSender());
+        gameController.sentMessage(modelInvokedEvents, msg);
+    }
+
+    /**
+     * Asks the server for a page of the history of the chat.
+     *
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws RemoteException If there is an error in remote communication.
+     */
+    @Override
+    public void getChatHistory(long fromSeq, int limit) throws RemoteException {
+        gameController.getChatHistory(modelInvokedEvents, nickname, fromSeq, limit);
+    }
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the client, or for a full copy of the game.
+     *
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws RemoteException If there is an error in remote communication.
+     */
+    @Override
+    public void resync(long lastVersion) throws RemoteException {
+        gameController.resync(modelInvokedEvents, nickname, lastVersion);
     }
 
 
@@ -50,14 +50,26 @@ public interface GameControllerInterface extends Remote {
      */
     void reconnect(GameListenerInterface lis, String nick) throws RemoteException;
 
+    /**
+     * This method reconnects a player to the game with the specified ID
+     * @param lis the GameListener of the player {@link GameListenerInterface}
+     * @param nick the nickname of the player
+     * @param gameId the ID of the game the player was playing
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none:
+     *                    the player receives only the changes it missed, if the game still has them
+     * @throws RemoteException if the connection fails
+     */
+    void reconnect(GameListenerInterface lis, String nick, int gameId, long lastVersion) throws RemoteException;
+
 
     /**
-     * This method return the id of the game
+     * This method return the id of the game of a player
      *
+     * @param nick the nickname of the player
      * @return the id of the game
      * @throws RemoteException if the connection fails
      */
-    int getGameId() throws RemoteException;
+    int getGameId(String nick) throws RemoteException;
 
 
     /**
@@ -143,11 +155,36 @@ public interface GameControllerInterface extends Remote {
 
     /**
      * Sends a message to the server to be distributed to other players or processed as required.
+     * The sender of the message must be the player the listener belongs to.
      *
+     * @param lis The listener interface of the client sending the message.
      * @param msg The message object containing the details of the message to be sent.
      * @throws RemoteException If there is a communication-related issue during the remote method invocation.
      */
-    void sentMessage(Message msg) throws RemoteException;
+    void sentMessage(GameListenerInterface lis, Message msg) throws RemoteException;
+
+    /**
+     * Asks the server for a page of the history of the chat of the game of the player,
+     * the page is sent to the listener of the player.
+     *
+     * @param lis     The listener interface for receiving the page.
+     * @param nick    The nickname of the player asking for the page.
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws RemoteException If there is a communication-related issue during the remote method invocation.
+     */
+    void getChatHistory(GameListenerInterface lis, String nick, long fromSeq, int limit) throws RemoteException;
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the player,
+     * or for a full copy of the game if they are no longer available; they are sent to the listener of the player.
+     *
+     * @param lis         The listener interface of the player.
+     * @param nick        The nickname of the player whose replica diverged.
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws RemoteException If there is a communication-related issue during the remote method invocation.
+     */
+    void resync(GameListenerInterface lis, String nick, long lastVersion) throws RemoteException;
 
     /**
      * Informs the server to start the game for the specified player.
@@ -3,7 +3,7 @@ package it.polimi.ingsw.network.rmi;
 import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.NotPlayerTurnException;
 import it.polimi.ingsw.listener.GameListenerInterface;
-import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.controller.GamesManager;
 import it.polimi.ingsw.model.DefaultValue;
 import it.polimi.ingsw.model.cards.CardType;
 
@@ -28,7 +28,7 @@ public class ServerRMI extends UnicastRemoteObject implements GameControllerInte
      private static ServerRMI serverObject = null;
 
     /**
-     * Controller of out Game
+     * Registry of the games, routes each request to the controller of the right game
      */
     private final GameControllerInterface gameController;
 
@@ -95,7 +95,7 @@ public class ServerRMI extends UnicastRemoteObject implements GameControllerInte
      */
     public ServerRMI() throws RemoteException {
         super();
-        gameController= GameController.getInstance();
+        gameController= GamesManager.getInstance();
     }
 
 
@@ -160,6 +160,20 @@ public class ServerRMI extends UnicastRemoteObject implements GameControllerInte
         serverObject.gameController.reconnect(lis,nick);
     }
 
+    /**
+     * Requests to reconnect the player with the specified listener and nickname to the game with the specified ID.
+     *
+     * @param lis    The listener interface for receiving game events.
+     * @param nick   The nickname of the player reconnecting to the game.
+     * @param gameId The ID of the game the player was playing.
+     * @param lastVersion The version of the replica of the game of the player, -1 if it has none.
+     * @throws RemoteException If there is a communication-related issue during the remote method invocation.
+     */
+    @Override
+    public void reconnect(GameListenerInterface lis, String nick, int gameId, long lastVersion) throws RemoteException{
+        serverObject.gameController.reconnect(lis, nick, gameId, lastVersion);
+    }
+
 
     /**
      * Checks if the player associated with the provided listener and nickname is ready to start the game.
@@ -201,14 +215,15 @@ public class ServerRMI extends UnicastRemoteObject implements GameControllerInte
 
 
     /**
-     * Retrieves the ID of the current game session.
+     * Retrieves the ID of the game session of a player.
      *
+     * @param nick The nickname of the player.
      * @return The ID of the game session.
      * @throws RemoteException If there is a communication-related issue during the remote method invocation.
      */
     @Override
-    public int getGameId() throws RemoteException {
-        return serverObject.gameController.getGameId();
+    public int getGameId(String nick) throws RemoteException {
+        return serverObject.gameController.getGameId(nick);
     }
 
 
@@ -311,12 +326,40 @@ public class ServerRMI extends UnicastRemoteObject implements GameControllerInte
     /**
      * Sends a message to the server to be distributed to other players or processed as required.
      *
+     * @param lis The listener interface of the client sending the message.
      * @param msg The message object containing the details of the message to be sent.
      * @throws RemoteException If there is a communication-related issue during the remote method invocation.
      */
     @Override
-    public void sentMessage(Message msg) throws RemoteException {
-        serverObject.gameController.sentMessage(msg);
+    public void sentMessage(GameListenerInterface lis, Message msg) throws RemoteException {
+        serverObject.gameController.sentMessage(lis, msg);
+    }
+
+    /**
+     * Asks the server for a page of the history of the chat of the game of the player.
+     *
+     * @param lis     The listener interface for receiving the page.
+     * @param nick    The nickname of the player asking for the page.
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws RemoteException If there is a communication-related issue during the remote method invocation.
+     */
+    @Override
+    public void getChatHistory(GameListenerInterface lis, String nick, long fromSeq, int limit) throws RemoteException {
+        serverObject.gameController.getChatHistory(lis, nick, fromSeq, limit);
+    }
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the player, or for a full copy of the game.
+     *
+     * @param lis         The listener interface of the player.
+     * @param nick        The nickname of the player whose replica diverged.
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws RemoteException If there is a communication-related issue during the remote method invocation.
+     */
+    @Override
+    public void resync(GameListenerInterface lis, String nick, long lastVersion) throws RemoteException {
+        serverObject.gameController.resync(lis, nick, lastVersion);
     }
 
 
@@ -0,0 +1,103 @@
+package it.polimi.ingsw.network.socket;
+
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.socket.codec.MessageCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireMessage;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * MessageFrame Class<br>
+ * Framing used by the Socket Network protocol: every message is sent as a 4 bytes length
+ * followed by the message written with the {@link MessageCodec}. <br>
+ * Frames can be read without blocking on a channel, since the reader always knows how many bytes
+ * are still missing, and they can be written by any thread as a single buffer.
+ */
+public final class MessageFrame {
+
+    /**
+     * Number of bytes of the length that precedes every message
+     */
+    public static final int HEADER_SIZE = Integer.BYTES;
+
+    private MessageFrame() {
+    }
+
+    /**
+     * Encodes a message in a frame ready to be written on a channel.
+     *
+     * @param msg the message to encode
+     * @return the frame, positioned at its beginning
+     * @throws IOException if the message cannot be encoded or it is too big
+     */
+    public static ByteBuffer encode(WireMessage msg) throws IOException {
+        WireOutput out = new WireOutput();
+        out.skip(HEADER_SIZE);
+        MessageCodec.write(out, msg);
+        int length = out.size() - HEADER_SIZE;
+        checkLength(length);
+        out.putInt(0, length);
+        return out.toByteBuffer();
+    }
+
+    /**
+     * Decodes the message contained in the payload of a frame.
+     *
+     * @param payload the payload of the frame, without the length
+     * @return the message
+     * @throws IOException if the payload is corrupted or the message is unknown
+     */
+    public static WireMessage decode(ByteBuffer payload) throws IOException {
+        WireInput in = new WireInput(payload);
+        WireMessage msg = MessageCodec.read(in);
+        if (!in.isFinished()) {
+            throw new IOException("Trailing bytes after " + msg.getClass().getSimpleName());
+        }
+        return msg;
+    }
+
+    /**
+     * Writes a message as a single frame on a blocking stream.
+     *
+     * @param out the stream to write on
+     * @param msg the message to write
+     * @throws IOException if the stream is closed or the message cannot be encoded
+     */
+    public static void write(DataOutputStream out, WireMessage msg) throws IOException {
+        ByteBuffer frame = encode(msg);
+        synchronized (out) {
+            out.write(frame.array(), 0, frame.limit());
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads the next frame from a blocking stream and decodes its message.
+     *
+     * @param in the stream to read from
+     * @return the message
+     * @throws IOException if the stream is closed or the frame is corrupted
+     */
+    public static WireMessage read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return decode(ByteBuffer.wrap(payload));
+    }
+
+    /**
+     * Checks that the length of a frame is valid.
+     *
+     * @param length the length of the payload
+     * @throws IOException if the length is not positive or bigger than {@link DefaultValue#maxFrameSize}
+     */
+    public static void checkLength(int length) throws IOException {
+        if (length <= 0 || length > DefaultValue.maxFrameSize) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+    }
+}
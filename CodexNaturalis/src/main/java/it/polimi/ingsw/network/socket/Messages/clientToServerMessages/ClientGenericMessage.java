@@ -1,18 +1,17 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
 import it.polimi.ingsw.exceptions.GameEndedException;
+import it.polimi.ingsw.network.socket.codec.WireMessage;
 
-import java.io.Serializable;
 import java.rmi.RemoteException;
 
 /**
  * SocketClientGenericMessage class.
  * An abstract class that represents a generic message to be sent from the client to the server.
  */
-public abstract class ClientGenericMessage implements Serializable{
+public abstract class ClientGenericMessage implements WireMessage {
 
     protected String nickname; //nickname associated to the message
     protected boolean isPing =false;
@@ -24,7 +23,7 @@ public abstract class ClientGenericMessage implements Serializable{
      * @param gameController the controller interface
      * @throws RemoteException if there is a remote exception
      */
-    public abstract void execute(GameListenerInterface lis, GameController gameController) throws RemoteException;
+    public abstract void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException;
 
     /**
      * Executes the corresponding action for the message.
@@ -0,0 +1,78 @@
+package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * ClientMsgChatHistory class.
+ * Extends SocketClientGenericMessage and is used to ask the server for a page of the history of the chat,
+ * that is sent back to the listener of the client.
+ */
+public class ClientMsgChatHistory extends ClientGenericMessage {
+
+    /**
+     * Number of the first message of the page, if negative the page holds the latest messages
+     */
+    long fromSeq;
+
+    /**
+     * Max number of messages of the page
+     */
+    int limit;
+
+    /**
+     * Constructor of the class.
+     * @param nick the player's nickname
+     * @param fromSeq the number of the first message of the page, if negative the page holds the latest messages
+     * @param limit the max number of messages of the page
+     */
+    public ClientMsgChatHistory(String nick, long fromSeq, int limit) {
+        this.nickname = nick;
+        this.fromSeq = fromSeq;
+        this.limit = limit;
+        //executed with the listener of the client, that receives the page
+        this.isJoinGame = true;
+    }
+
+    /**
+     * Method to execute the corresponding action for the message.
+     * @param lis the game listener
+     * @param gameController the main controller interface
+     * @throws RemoteException if there is an error in remote communication
+     */
+    @Override
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
+        gameController.getChatHistory(lis, nickname, fromSeq, limit);
+    }
+
+    @Override
+    public void execute(GameControllerInterface gameController) throws RemoteException {
+
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeLong(fromSeq);
+        out.writeInt(limit);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgChatHistory read(WireInput in) throws IOException {
+        return new ClientMsgChatHistory(in.readString(), in.readLong(), in.readInt());
+    }
+}
@@ -1,10 +1,12 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.GameEndedException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgCreateGame extends ClientGenericMessage {
@@ -29,7 +31,7 @@ public class ClientMsgCreateGame extends ClientGenericMessage {
      * @throws RemoteException if there is a remote exception
      */
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
         gameController.settingGame(lis,numPlayers, GameID, this.nickname);
     }
 
@@ -44,7 +46,24 @@ public class ClientMsgCreateGame extends ClientGenericMessage {
 
     }
 
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeInt(numPlayers);
+        out.writeInt(GameID);
+        out.writeString(nickname);
+    }
 
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgCreateGame read(WireInput in) throws IOException {
+        return new ClientMsgCreateGame(in.readInt(), in.readInt(), in.readString());
+    }
 }
-
-
@@ -1,11 +1,14 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
 import it.polimi.ingsw.Chat.Message;
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.GameEndedException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgNewChatMessage extends ClientGenericMessage{
@@ -17,17 +20,37 @@ public class ClientMsgNewChatMessage extends ClientGenericMessage{
      */
     public ClientMsgNewChatMessage(Message msg){
         this.msg = msg;
-        this.nickname = msg.getSender().getNickname();
+        this.nickname = msg.getSender();
+        //executed with the listener of the client, that the server matches with the sender
+        this.isJoinGame = true;
+    }
 
+    @Override
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException{
+        gameController.sentMessage(lis, msg);
     }
 
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException{
+    public void execute(GameControllerInterface gameController) throws RemoteException, GameEndedException {
 
     }
 
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
     @Override
-    public void execute(GameControllerInterface gameController) throws RemoteException, GameEndedException {
-        gameController.sentMessage(msg);
+    public void write(WireOutput out) {
+        ModelCodec.writeMessage(out, msg);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgNewChatMessage read(WireInput in) throws IOException {
+        return new ClientMsgNewChatMessage(ModelCodec.readMessage(in));
     }
 }
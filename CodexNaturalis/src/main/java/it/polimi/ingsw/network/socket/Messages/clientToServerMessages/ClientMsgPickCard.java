@@ -1,11 +1,13 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.NotPlayerTurnException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.cards.CardType;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgPickCard extends ClientGenericMessage {
@@ -23,7 +25,7 @@ public class ClientMsgPickCard extends ClientGenericMessage {
 
 
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
 
     }
 
@@ -36,4 +38,26 @@ public class ClientMsgPickCard extends ClientGenericMessage {
     public void execute(GameControllerInterface gameController) throws RemoteException {
         gameController.PickCardFromBoard(nickname, cardType, drawFromDeck, pos);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeEnum(cardType);
+        out.writeBoolean(drawFromDeck);
+        out.writeInt(pos);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgPickCard read(WireInput in) throws IOException {
+        return new ClientMsgPickCard(in.readString(), in.readEnum(CardType.values()), in.readBoolean(), in.readInt());
+    }
 }
@@ -1,9 +1,11 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgPing extends ClientGenericMessage{
@@ -14,7 +16,7 @@ public class ClientMsgPing extends ClientGenericMessage{
     }
 
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
 
     }
 
@@ -23,4 +25,23 @@ public class ClientMsgPing extends ClientGenericMessage{
     public void execute(GameControllerInterface gameController) throws RemoteException {
 
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgPing read(WireInput in) throws IOException {
+        return new ClientMsgPing(in.readString());
+    }
 }
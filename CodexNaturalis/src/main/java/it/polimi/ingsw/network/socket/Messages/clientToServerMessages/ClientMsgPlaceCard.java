@@ -1,10 +1,12 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.NotPlayerTurnException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgPlaceCard extends ClientGenericMessage {
@@ -37,7 +39,7 @@ public class ClientMsgPlaceCard extends ClientGenericMessage {
      * @throws RemoteException If there is an error in remote communication.
      */
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
 
     }
 
@@ -50,4 +52,26 @@ public class ClientMsgPlaceCard extends ClientGenericMessage {
     public void execute(GameControllerInterface gameController) throws RemoteException {
         gameController.placeCardInBook(nickname,chosenCard,rowCell,columnCell);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeInt(chosenCard);
+        out.writeInt(rowCell);
+        out.writeInt(columnCell);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgPlaceCard read(WireInput in) throws IOException {
+        return new ClientMsgPlaceCard(in.readString(), in.readInt(), in.readInt(), in.readInt());
+    }
 }
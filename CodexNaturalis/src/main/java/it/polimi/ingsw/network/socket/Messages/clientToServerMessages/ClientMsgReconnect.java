@@ -1,9 +1,10 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.GameEndedException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
@@ -15,13 +16,23 @@ import java.rmi.RemoteException;
  */
 public class ClientMsgReconnect extends ClientGenericMessage {
 
+    int gameId;
+
+    /**
+     * Version of the replica of the game of the player, -1 if it has none
+     */
+    long lastVersion;
 
     /**
      * Constructor of the class.
      * @param nick the player's nickname
+     * @param gameId the ID of the game the player was playing
+     * @param lastVersion the version of the replica of the game of the player, -1 if it has none
      */
-    public ClientMsgReconnect(String nick) {
+    public ClientMsgReconnect(String nick, int gameId, long lastVersion) {
         this.nickname = nick;
+        this.gameId = gameId;
+        this.lastVersion = lastVersion;
         this.isJoinGame= true;
     }
 
@@ -33,8 +44,8 @@ public class ClientMsgReconnect extends ClientGenericMessage {
      * @throws RemoteException if there is an error in remote communication
      */
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
-        gameController.reconnect(lis, this.nickname);
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
+        gameController.reconnect(lis, this.nickname, gameId, lastVersion);
     }
 
 
@@ -42,4 +53,25 @@ public class ClientMsgReconnect extends ClientGenericMessage {
     public void execute(GameControllerInterface gameController) throws RemoteException {
 
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeInt(gameId);
+        out.writeLong(lastVersion);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgReconnect read(WireInput in) throws IOException {
+        return new ClientMsgReconnect(in.readString(), in.readInt(), in.readLong());
+    }
 }
@@ -0,0 +1,70 @@
+package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * ClientMsgResync class.
+ * Extends SocketClientGenericMessage and is used to ask the server for the changes of the game
+ * missed by the replica of the client, or for a full copy of the game if they are no longer available.
+ */
+public class ClientMsgResync extends ClientGenericMessage {
+
+    /**
+     * Version of the replica of the client, -1 if it can't be updated and a full copy is needed
+     */
+    long lastVersion;
+
+    /**
+     * Constructor of the class.
+     * @param nick the player's nickname
+     * @param lastVersion the version of the replica of the client, -1 if a full copy is needed
+     */
+    public ClientMsgResync(String nick, long lastVersion) {
+        this.nickname = nick;
+        this.lastVersion = lastVersion;
+        //executed with the listener of the client, that receives the changes
+        this.isJoinGame = true;
+    }
+
+    /**
+     * Method to execute the corresponding action for the message.
+     * @param lis the game listener
+     * @param gameController the main controller interface
+     * @throws RemoteException if there is an error in remote communication
+     */
+    @Override
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
+        gameController.resync(lis, nickname, lastVersion);
+    }
+
+    @Override
+    public void execute(GameControllerInterface gameController) throws RemoteException {
+
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeLong(lastVersion);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgResync read(WireInput in) throws IOException {
+        return new ClientMsgResync(in.readString(), in.readLong());
+    }
+}
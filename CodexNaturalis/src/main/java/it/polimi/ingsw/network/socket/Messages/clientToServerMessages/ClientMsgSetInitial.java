@@ -1,10 +1,12 @@
 package it.polimi.ingsw.network.socket.Messages.clientToServerMessages;
 
-import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.NotPlayerTurnException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.network.rmi.GameControllerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class ClientMsgSetInitial extends ClientGenericMessage {
@@ -16,7 +18,7 @@ public class ClientMsgSetInitial extends ClientGenericMessage {
     }
 
     @Override
-    public void execute(GameListenerInterface lis, GameController gameController) throws RemoteException {
+    public void execute(GameListenerInterface lis, GameControllerInterface gameController) throws RemoteException {
     }
 
     /**
@@ -28,4 +30,24 @@ public class ClientMsgSetInitial extends ClientGenericMessage {
     public void execute(GameControllerInterface gameController) throws RemoteException {
         gameController.setInitialCard(nickname, index);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(nickname);
+        out.writeInt(index);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static ClientMsgSetInitial read(WireInput in) throws IOException {
+        return new ClientMsgSetInitial(in.readString(), in.readInt());
+    }
 }
@@ -1,17 +1,17 @@
 package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 
 import java.io.IOException;
-import java.io.Serializable;
 
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.network.socket.codec.WireMessage;
 
 
 /**
  * SocketServerGenericMessage class.
  * An abstract class that represents a generic message to be sent from the server to the client.
  */
-public abstract class ServerGenericMessage implements Serializable {
+public abstract class ServerGenericMessage implements WireMessage {
 
     /**
      * Executes the corresponding action for the message.
@@ -3,7 +3,11 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 /**
@@ -33,4 +37,24 @@ public class msgAskForReconnection extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws RemoteException {
         lis.AskForReconnection(triedToJoin, model);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writePlayer(out, triedToJoin);
+        ModelCodec.writeGame(out, model);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgAskForReconnection read(WireInput in) throws IOException {
+        return new msgAskForReconnection(ModelCodec.readPlayer(in), ModelCodec.readGame(in));
+    }
 }
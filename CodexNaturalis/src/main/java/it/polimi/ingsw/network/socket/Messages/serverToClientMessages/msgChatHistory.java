@@ -0,0 +1,67 @@
+package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * msgChatHistory class.
+ * Extends SocketServerGenericMessage and is used to send to the client
+ * the page of the history of the chat he asked for.
+ */
+public class msgChatHistory extends ServerGenericMessage {
+
+    private List<Message> page;
+
+    /**
+     * Constructor of the class.
+     * @param page the messages of the page, from the oldest to the latest
+     */
+    public msgChatHistory(List<Message> page){
+        this.page = page;
+    }
+
+    /**
+     * Executes the corresponding action for the message.
+     * @param lis the game listener
+     * @throws RemoteException if there is an error in remote communication
+     */
+    @Override
+    public void execute(GameListenerInterface lis) throws RemoteException {
+        lis.chatHistory(page);
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeInt(page.size());
+        for (Message m : page) {
+            ModelCodec.writeMessage(out, m);
+        }
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgChatHistory read(WireInput in) throws IOException {
+        int size = in.readLength();
+        List<Message> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            page.add(ModelCodec.readMessage(in));
+        }
+        return new msgChatHistory(page);
+    }
+}
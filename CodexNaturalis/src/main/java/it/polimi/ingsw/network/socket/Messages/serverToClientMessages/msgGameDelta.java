@@ -0,0 +1,57 @@
+package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.game.GameDelta;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * msgGameDelta class.
+ * Extends SocketServerGenericMessage and is used to send to the client
+ * a change of the game, to be applied to his local replica.
+ */
+public class msgGameDelta extends ServerGenericMessage {
+    private GameDelta delta;
+
+    /**
+     * Constructor of the class.
+     * @param delta the change of the game
+     */
+    public msgGameDelta(GameDelta delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Method to execute the corresponding action for the message.
+     * @param lis the game listener
+     * @throws RemoteException if there is an error in remote communication
+     */
+    @Override
+    public void execute(GameListenerInterface lis) throws RemoteException {
+        lis.deltaReceived(delta);
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     * @throws IOException if the change can't be encoded
+     */
+    @Override
+    public void write(WireOutput out) throws IOException {
+        ModelCodec.writeDelta(out, delta);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgGameDelta read(WireInput in) throws IOException {
+        return new msgGameDelta(ModelCodec.readDelta(in));
+    }
+}
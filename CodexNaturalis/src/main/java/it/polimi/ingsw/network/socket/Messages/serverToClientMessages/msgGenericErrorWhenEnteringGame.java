@@ -1,7 +1,10 @@
 package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 
 import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 /**
@@ -29,4 +32,23 @@ public class msgGenericErrorWhenEnteringGame extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws RemoteException {
         lis.errorReconnecting(why);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        out.writeString(why);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgGenericErrorWhenEnteringGame read(WireInput in) throws IOException {
+        return new msgGenericErrorWhenEnteringGame(in.readString());
+    }
 }
@@ -3,7 +3,11 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 /**
@@ -34,4 +38,24 @@ public class msgJoinUnableGameFull extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws RemoteException {
 
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writePlayer(out, player);
+        ModelCodec.writeGame(out, model);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgJoinUnableGameFull read(WireInput in) throws IOException {
+        return new msgJoinUnableGameFull(ModelCodec.readPlayer(in), ModelCodec.readGame(in));
+    }
 }
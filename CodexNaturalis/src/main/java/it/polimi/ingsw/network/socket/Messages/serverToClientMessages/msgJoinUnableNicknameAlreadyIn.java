@@ -3,7 +3,11 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 /**
@@ -33,4 +37,24 @@ public class msgJoinUnableNicknameAlreadyIn extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws RemoteException {
         lis.joinUnableNicknameAlreadyIn(triedToJoin, model);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writePlayer(out, triedToJoin);
+        ModelCodec.writeGame(out, model);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgJoinUnableNicknameAlreadyIn read(WireInput in) throws IOException {
+        return new msgJoinUnableNicknameAlreadyIn(ModelCodec.readPlayer(in), ModelCodec.readGame(in));
+    }
 }
@@ -4,6 +4,9 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.Color;
 import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
 import java.io.IOException;
 
@@ -37,4 +40,25 @@ public class msgPlayerJoined extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws IOException, InterruptedException {
         lis.playerJoined(model, nickname, playerColor);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeGame(out, model);
+        out.writeString(nickname);
+        out.writeEnum(playerColor);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgPlayerJoined read(WireInput in) throws IOException {
+        return new msgPlayerJoined(ModelCodec.readGame(in), in.readString(), in.readEnum(Color.values()));
+    }
 }
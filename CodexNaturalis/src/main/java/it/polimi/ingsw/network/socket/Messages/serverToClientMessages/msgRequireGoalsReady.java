@@ -2,7 +2,11 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 
 public class msgRequireGoalsReady extends ServerGenericMessage {
@@ -28,4 +32,24 @@ public class msgRequireGoalsReady extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws RemoteException {
         lis.requireGoalsReady(model, index);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeGame(out, model);
+        out.writeInt(index);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgRequireGoalsReady read(WireInput in) throws IOException {
+        return new msgRequireGoalsReady(ModelCodec.readGame(in), in.readInt());
+    }
 }
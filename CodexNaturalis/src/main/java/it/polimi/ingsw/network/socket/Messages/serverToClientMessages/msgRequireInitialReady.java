@@ -3,6 +3,9 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
@@ -30,4 +33,24 @@ public class msgRequireInitialReady extends ServerGenericMessage {
     public void execute(GameListenerInterface lis) throws IOException, FileReadException {
         lis.requireInitialReady(model, index);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeGame(out, model);
+        out.writeInt(index);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgRequireInitialReady read(WireInput in) throws IOException {
+        return new msgRequireInitialReady(ModelCodec.readGame(in), in.readInt());
+    }
 }
@@ -0,0 +1,56 @@
+package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
+
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+
+/**
+ * msgResynced class.
+ * Extends SocketServerGenericMessage and is used to send to the client a full copy of the game,
+ * that replaces his replica when it diverged and the changes he missed are no longer available.
+ */
+public class msgResynced extends ServerGenericMessage {
+    private GameImmutable model;
+
+    /**
+     * Constructor of the class.
+     * @param model the immutable game model
+     */
+    public msgResynced(GameImmutable model) {
+        this.model = model;
+    }
+
+    /**
+     * Method to execute the corresponding action for the message.
+     * @param lis the game listener
+     * @throws RemoteException if there is an error in remote communication
+     */
+    @Override
+    public void execute(GameListenerInterface lis) throws RemoteException {
+        lis.resynced(model);
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeGame(out, model);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgResynced read(WireInput in) throws IOException {
+        return new msgResynced(ModelCodec.readGame(in));
+    }
+}
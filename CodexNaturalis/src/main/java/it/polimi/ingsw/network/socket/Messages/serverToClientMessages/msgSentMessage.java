@@ -1,35 +1,57 @@
 package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 
 import it.polimi.ingsw.Chat.Message;
-import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.listener.GameListenerInterface;
-import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
 import java.io.IOException;
+import java.rmi.RemoteException;
 
+/**
+ * msgSentMessage class.
+ * Extends SocketServerGenericMessage and is used to send to the client
+ * a message of the chat, alone in its frame, to be added to the chat of his local replica.
+ */
 public class msgSentMessage extends ServerGenericMessage {
 
     private Message msg;
-    private GameImmutable model;
 
     /**
      * Constructor of the class.
-     * @param model the immutable game model
      * @param msg message to send
      */
-    public msgSentMessage(GameImmutable model, Message msg){
-        this.model = model;
+    public msgSentMessage(Message msg){
         this.msg = msg;
     }
 
     /**
      * Executes the corresponding action for the message.
      * @param lis the game listener
-     * @throws IOException if there is an IO exception
-     * @throws InterruptedException if the execution is interrupted
+     * @throws RemoteException if there is an error in remote communication
      */
     @Override
-    public void execute(GameListenerInterface lis) throws IOException, InterruptedException, FileReadException {
-        lis.sentMessage(model, msg);
+    public void execute(GameListenerInterface lis) throws RemoteException {
+        lis.chatReceived(msg);
+    }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeMessage(out, msg);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgSentMessage read(WireInput in) throws IOException {
+        return new msgSentMessage(ModelCodec.readMessage(in));
     }
 }
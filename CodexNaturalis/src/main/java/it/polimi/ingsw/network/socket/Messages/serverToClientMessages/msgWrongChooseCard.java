@@ -2,6 +2,9 @@ package it.polimi.ingsw.network.socket.Messages.serverToClientMessages;
 
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.game.GameImmutable;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
 
 import java.io.IOException;
 
@@ -28,4 +31,24 @@ public class msgWrongChooseCard extends ServerGenericMessage{
     public void execute(GameListenerInterface lis) throws IOException, InterruptedException {
         lis.wrongChooseCard(model, msg);
     }
+
+    /**
+     * Writes the message with the binary codec
+     * @param out the output to write on
+     */
+    @Override
+    public void write(WireOutput out) {
+        ModelCodec.writeGame(out, model);
+        out.writeString(msg);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput)}
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the input is malformed
+     */
+    public static msgWrongChooseCard read(WireInput in) throws IOException {
+        return new msgWrongChooseCard(ModelCodec.readGame(in), in.readString());
+    }
 }
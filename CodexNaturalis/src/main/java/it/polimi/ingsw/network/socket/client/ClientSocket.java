@@ -5,6 +5,7 @@ import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.model.cards.CardType;
 import it.polimi.ingsw.network.ClientInterface;
 import it.polimi.ingsw.network.PingSender;
+import it.polimi.ingsw.network.socket.MessageFrame;
 import it.polimi.ingsw.network.socket.Messages.clientToServerMessages.*;
 import it.polimi.ingsw.network.socket.Messages.serverToClientMessages.ServerGenericMessage;
 import it.polimi.ingsw.model.DefaultValue;
@@ -31,14 +32,14 @@ public class ClientSocket extends Thread implements ClientInterface {
     private Socket clientSocket;
 
     /**
-     * ObjectOutputStream out
+     * DataOutputStream out, where the messages are written as frames {@link MessageFrame}
      */
-    private ObjectOutputStream out;
+    private DataOutputStream out;
 
     /**
-     * ObjectInputStream in
+     * DataInputStream in, where the messages are read as frames {@link MessageFrame}
      */
-    private ObjectInputStream in;
+    private DataInputStream in;
 
     /**
      * GameListener on which to perform all actions requested by the Socket Server
@@ -77,9 +78,9 @@ public class ClientSocket extends Thread implements ClientInterface {
     public void run() {
         while (true) {
             try {
-                ServerGenericMessage msg = (ServerGenericMessage) in.readObject();
+                ServerGenericMessage msg = (ServerGenericMessage) MessageFrame.read(in);
                 msg.execute(modelInvokedEvents);
-            } catch (IOException | ClassNotFoundException | InterruptedException | FileReadException e) {
+            } catch (IOException | InterruptedException | FileReadException e) {
                 printAsync("[ERROR] Connection to server lost! " + e);
                 try {
                     System.in.read();
@@ -105,8 +106,9 @@ public class ClientSocket extends Thread implements ClientInterface {
         do {
             try {
                 clientSocket = new Socket(ip, port);
-                out = new ObjectOutputStream(clientSocket.getOutputStream());
-                in = new ObjectInputStream(clientSocket.getInputStream());
+                clientSocket.setTcpNoDelay(true);
+                out = new DataOutputStream(new BufferedOutputStream(clientSocket.getOutputStream()));
+                in = new DataInputStream(new BufferedInputStream(clientSocket.getInputStream()));
                 connectionEstablished = true;
 
             } catch (IOException e) {
@@ -171,8 +173,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void settingGame(int numPlayers, int GameID, String nick) throws IOException {
-        out.writeObject(new ClientMsgCreateGame( numPlayers, GameID, nickname));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgCreateGame( numPlayers, GameID, nickname));
     }
 
     /**
@@ -184,8 +185,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void setInitialCard(int index, String nickname) throws IOException {
-        out.writeObject(new ClientMsgSetInitial(nickname, index));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgSetInitial(nickname, index));
     }
 
     /**
@@ -197,8 +197,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void setGoalCard(int index, String nickname) throws IOException {
-        out.writeObject(new ClientMsgSetObjective(nickname, index));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgSetObjective(nickname, index));
     }
 
     /**
@@ -211,8 +210,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void placeCardInBook(int chosenCard, int rowCell, int columnCell) throws IOException {
-        out.writeObject(new ClientMsgPlaceCard(nickname, chosenCard, rowCell, columnCell));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgPlaceCard(nickname, chosenCard, rowCell, columnCell));
     }
 
     /**
@@ -225,8 +223,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void PickCardFromBoard(CardType cardType, boolean drawFromDeck, int pos) throws IOException {
-        out.writeObject(new ClientMsgPickCard(nickname, cardType, drawFromDeck, pos));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgPickCard(nickname, cardType, drawFromDeck, pos));
     }
 
     /**
@@ -238,8 +235,7 @@ public class ClientSocket extends Thread implements ClientInterface {
     @Override
     public void joinGame(String nick) throws IOException {
         nickname = nick;
-        out.writeObject(new ClientMsgJoinGame(nick));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgJoinGame(nick));
        if(!pingSender.isAlive()) {
             pingSender.start();
        }
@@ -253,8 +249,8 @@ public class ClientSocket extends Thread implements ClientInterface {
     @Override
     public void reconnect(String nick, int idGame) throws IOException {
         nickname = nick;
-        out.writeObject(new ClientMsgReconnect(this.nickname));
-        finishSending();
+        //the server sends only the changes after the version of the replica, if it still has them
+        MessageFrame.write(out, new ClientMsgReconnect(this.nickname, idGame, modelInvokedEvents.getReplicaVersion()));
         if(!pingSender.isAlive()) {
             pingSender.start();
         }
@@ -266,8 +262,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      * */
     @Override
     public void setAsReady(String nickname) throws IOException {
-        out.writeObject(new ClientMsgSetReady(nickname));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgSetReady(nickname));
     }
 
     /**
@@ -277,8 +272,7 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void leave(String nick) throws IOException {
-        out.writeObject(new ClientMessageLeave(nick));
-        finishSending();
+        MessageFrame.write(out, new ClientMessageLeave(nick));
         nickname=null;
         if(pingSender.isAlive()) {
             pingSender.interrupt();
@@ -295,8 +289,7 @@ public class ClientSocket extends Thread implements ClientInterface {
     public void ping()  {
         if (out != null) {
             try {
-               out.writeObject(new ClientMsgPing(nickname));
-                finishSending();
+               MessageFrame.write(out, new ClientMsgPing(nickname));
             } catch (IOException e) {
                 flow.noConnectionError();
                 printAsync("Connection lost to the server! Impossible to send ping()...");
@@ -317,17 +310,7 @@ public class ClientSocket extends Thread implements ClientInterface {
    @Override
     public void makeGameStart(String nick) throws IOException {
         this.nickname=nick;
-        out.writeObject(new ClientMsgStartGame(nickname));
-        finishSending();
-    }
-
-    /**
-     * Makes sure the message has been sent
-     * @throws IOException
-     */
-    private void finishSending() throws IOException {
-        out.flush();
-        out.reset();
+        MessageFrame.write(out, new ClientMsgStartGame(nickname));
     }
 
     /**
@@ -338,8 +321,30 @@ public class ClientSocket extends Thread implements ClientInterface {
      */
     @Override
     public void sendMessage(Message msg)throws IOException  {
-        out.writeObject(new ClientMsgNewChatMessage(msg));
-        finishSending();
+        MessageFrame.write(out, new ClientMsgNewChatMessage(msg));
+    }
+
+    /**
+     * Asks the server for a page of the history of the chat.
+     *
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    @Override
+    public void getChatHistory(long fromSeq, int limit) throws IOException {
+        MessageFrame.write(out, new ClientMsgChatHistory(nickname, fromSeq, limit));
+    }
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the client, or for a full copy of the game.
+     *
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    @Override
+    public void resync(long lastVersion) throws IOException {
+        MessageFrame.write(out, new ClientMsgResync(nickname, lastVersion));
     }
 
 
@@ -1,9 +1,12 @@
 package it.polimi.ingsw.network.socket.client;
 
+import it.polimi.ingsw.Chat.Chat;
 import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.FileReadException;
+import it.polimi.ingsw.exceptions.ReplicaNotAlignedException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.GameDelta;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.view.flow.Flow;
@@ -11,6 +14,7 @@ import it.polimi.ingsw.view.flow.Flow;
 import java.io.IOException;
 import java.io.Serializable;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * This class implements the {@link GameListenerInterface} and acts as a client-side listener for game events from the server.
@@ -32,113 +36,260 @@ public class GameListenersClient implements GameListenerInterface, Serializable
 
     private Flow flow;
 
+    /**
+     * Local replica of the game: the last full snapshot received, updated with the {@link GameDelta} sent by the server
+     */
+    private volatile GameImmutable replica;
+
+    /**
+     * Latest messages of the chat received by the client, attached to every replica of the game
+     */
+    private final Chat chat = new Chat();
+
+    /**
+     * True if the replica has been asked to be realigned and the answer of the server has not arrived yet
+     */
+    private volatile boolean resyncRequested;
+
+    /**
+     * True if a change could not be applied, so the replica can only be replaced by a full copy of the game
+     */
+    private volatile boolean diverged;
+
     public GameListenersClient(Flow gui) {
         this.flow = gui;
     }
 
+    /**
+     * Takes a full copy of the game received from the server as the new replica:
+     * it is aligned with the server, and the chat of the client is attached to it, the chat is not part of it
+     *
+     * @param model the game received
+     * @return the game, with the chat of the client
+     */
+    private GameImmutable fullCopy(GameImmutable model) {
+        if (model != null) {
+            model.setChat(chat);
+            resyncRequested = false;
+            diverged = false;
+        }
+        return model;
+    }
+
+    /**
+     * Applies the change to the local replica of the game, then notifies the flow with the updated replica.
+     * Changes older than the replica are discarded. If a change is missing before this one, or this one can't be applied,
+     * the replica is not updated and the server is asked for the missed changes or for a full copy of the game.
+     *
+     * @param delta the change of the game {@link GameDelta}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public synchronized void deltaReceived(GameDelta delta) throws RemoteException {
+        GameImmutable current = replica;
+        if (!delta.isNewerThan(current) || diverged) {
+            return;
+        }
+        if (!delta.follows(current)) {
+            requestResync(current.getVersion());
+            return;
+        }
+        try {
+            delta.applyTo(current);
+        } catch (ReplicaNotAlignedException e) {
+            //the change may have been applied in part, the replica can't be trusted anymore
+            diverged = true;
+            requestResync(-1);
+            return;
+        }
+        resyncRequested = false;
+        delta.notify(this, current);
+    }
+
+    /**
+     * Asks the flow to realign the replica, once until the server answers
+     *
+     * @param lastVersion the version of the replica, -1 if a full copy of the game is needed
+     */
+    private void requestResync(long lastVersion) {
+        if (!resyncRequested) {
+            resyncRequested = true;
+            flow.replicaDiverged(lastVersion);
+        }
+    }
+
+    /**
+     * Replaces the local replica with the full copy of the game sent after a divergence,
+     * the flow is notified by the next changes.
+     *
+     * @param model the game model {@link GameImmutable}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public synchronized void resynced(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
+    }
+
+
+    /**
+     * Adds the message to the chat of the client, then notifies the flow with the local replica.
+     * Messages received before the first game are discarded.
+     *
+     * @param msg the message of the chat {@link Message}
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public synchronized void chatReceived(Message msg) throws RemoteException {
+        GameImmutable current = replica;
+        if (current != null) {
+            chat.addReceivedMsg(msg);
+            flow.sentMessage(current, msg);
+        }
+    }
+
+    /**
+     * Passes to the flow the page of the history of the chat asked by the client,
+     * the page is shown without changing the latest messages of the chat.
+     *
+     * @param page the messages of the page, from the oldest to the latest
+     * @throws RemoteException if the reference could not be accessed
+     */
+    @Override
+    public void chatHistory(List<Message> page) throws RemoteException {
+        flow.chatHistory(page);
+    }
+
+    /**
+     * @return the version of the local replica of the game, -1 if no game has been received yet
+     */
+    public long getReplicaVersion() {
+        GameImmutable current = replica;
+        return current == null ? -1 : current.getVersion();
+    }
 
     @Override
     public void playerJoined(GameImmutable model, String nickname, Color playerColor) throws RemoteException {
+        replica = fullCopy(model);
         flow.playerJoined(model, nickname, playerColor);
     }
 
     @Override
     public void requireNumPlayersGameID(GameImmutable model)throws RemoteException{
+        replica = fullCopy(model);
             flow.requireNumPlayersGameID(model);
     }
 
     @Override
     public void wrongChooseCard(GameImmutable model, String msg) throws RemoteException{
+        replica = fullCopy(model);
         flow.wrongChooseCard(model, msg);
     }
 
     @Override
     public void playerLeft(GameImmutable model, String nickname) throws RemoteException {
+        replica = fullCopy(model);
         flow.playerLeft(model,nickname);
     }
 
     @Override
     public void joinUnableGameFull(Player triedToJoin, GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.joinUnableGameFull(triedToJoin, model);
     }
 
 
     @Override
     public void joinUnableNicknameAlreadyIn(Player triedToJoin, GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.joinUnableNicknameAlreadyIn(triedToJoin, model);
     }
 
     @Override
     public void AskForReconnection (Player triedToJoin, GameImmutable gameModel) throws RemoteException {
+        replica = fullCopy(gameModel);
         flow. AskForReconnection(triedToJoin, gameModel);
     }
 
 
     @Override
     public void gameStarted(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.gameStarted(model);
     }
 
     @Override
     public void gameEnded(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.gameEnded(model);
     }
 
     @Override
     public void requireInitialReady(GameImmutable model, int index) throws IOException, FileReadException {
+        replica = fullCopy(model);
         flow.requireInitialReady(model, index);
     }
 
     @Override
     public void requireGoalsReady(GameImmutable model, int index) throws RemoteException {
+        replica = fullCopy(model);
         flow.requireGoalsReady(model, index);
     }
     @Override
     public void cardsReady(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.cardsReady(model);
     }
     @Override
     public void cardPlaced(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.cardPlaced(model );
     }
     @Override
     public void pointsAdded(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.pointsAdded(model );
     }
 
 
     @Override
     public void cardDrawn(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.cardDrawn(model);
     }
 
     @Override
     public void nextTurn(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.nextTurn(model);
     }
 
     @Override
     public void playerDisconnected(GameImmutable model, String nickname) throws RemoteException {
+        replica = fullCopy(model);
         flow.playerDisconnected(model, nickname);
     }
 
     @Override
     public void lastCircle(GameImmutable model) throws RemoteException {
+        replica = fullCopy(model);
         flow.lastCircle(model);
     }
 
   @Override
     public void playerReady(GameImmutable model, String nickname) throws RemoteException {
+        replica = fullCopy(model);
         flow.playerReady(model, nickname);
     }
 
     @Override
     public void playerReconnected(GameImmutable model,  String nickPlayerReconnected) throws RemoteException{
+        replica = fullCopy(model);
         flow.playerReconnected(model, nickPlayerReconnected);
     }
 
     @Override
     public void onlyOnePlayerConnected(GameImmutable gameModel, int secondsToWaitUntilGameEnded) throws RemoteException {
+        replica = fullCopy(gameModel);
         flow.onlyOnePlayerConnected(gameModel,secondsToWaitUntilGameEnded);
     }
 
@@ -149,6 +300,7 @@ public class GameListenersClient implements GameListenerInterface, Serializable
 
     @Override
     public void sentMessage(GameImmutable model, Message msg) throws RemoteException  {
+        replica = fullCopy(model);
         flow.sentMessage(model, msg);
     }
 
@@ -0,0 +1,149 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import it.polimi.ingsw.network.socket.Messages.clientToServerMessages.*;
+import it.polimi.ingsw.network.socket.Messages.serverToClientMessages.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MessageCodec Class<br>
+ * Table of the numeric IDs of the socket messages. <br>
+ * A message is written as its ID followed by its fields; the IDs are part of the protocol, so an ID
+ * must never be reused or changed: new messages take a new ID. Client to server messages use the IDs
+ * from 1 to 31, server to client messages the IDs from 32 to 63.
+ */
+public final class MessageCodec {
+
+    /**
+     * Reads the fields of a message
+     */
+    @FunctionalInterface
+    private interface Reader {
+        /**
+         * @param in the input to read from
+         * @return the message
+         * @throws IOException if the input is malformed
+         */
+        WireMessage read(WireInput in) throws IOException;
+    }
+
+    /**
+     * Max ID of a message (excluded)
+     */
+    private static final int MAX_ID = 64;
+
+    /**
+     * Readers of the messages, indexed by ID
+     */
+    private static final Reader[] readers = new Reader[MAX_ID];
+
+    /**
+     * IDs of the messages, by class
+     */
+    private static final Map<Class<? extends WireMessage>, Integer> ids = new HashMap<>();
+
+    static {
+        //client to server
+        register(1, ClientMsgCreateGame.class, ClientMsgCreateGame::read);
+        register(2, ClientMsgJoinGame.class, ClientMsgJoinGame::read);
+        register(3, ClientMsgReconnect.class, ClientMsgReconnect::read);
+        register(4, ClientMessageLeave.class, ClientMessageLeave::read);
+        register(5, ClientMsgSetReady.class, ClientMsgSetReady::read);
+        register(6, ClientMsgStartGame.class, ClientMsgStartGame::read);
+        register(7, ClientMsgSetInitial.class, ClientMsgSetInitial::read);
+        register(8, ClientMsgSetObjective.class, ClientMsgSetObjective::read);
+        register(9, ClientMsgPlaceCard.class, ClientMsgPlaceCard::read);
+        register(10, ClientMsgPickCard.class, ClientMsgPickCard::read);
+        register(11, ClientMsgNewChatMessage.class, ClientMsgNewChatMessage::read);
+        register(12, ClientMsgPing.class, ClientMsgPing::read);
+        register(13, ClientMsgChatHistory.class, ClientMsgChatHistory::read);
+        register(14, ClientMsgResync.class, ClientMsgResync::read);
+
+        //server to client
+        register(32, MsgNumPlayersGameID.class, MsgNumPlayersGameID::read);
+        register(33, msgPlayerJoined.class, msgPlayerJoined::read);
+        register(34, msgAskForReconnection.class, msgAskForReconnection::read);
+        register(35, msgJoinUnableGameFull.class, msgJoinUnableGameFull::read);
+        register(36, msgJoinUnableNicknameAlreadyIn.class, msgJoinUnableNicknameAlreadyIn::read);
+        register(37, msgGenericErrorWhenEnteringGame.class, msgGenericErrorWhenEnteringGame::read);
+        register(38, msgPlayerReady.class, msgPlayerReady::read);
+        register(39, msgGameStarted.class, msgGameStarted::read);
+        register(40, msgCardsReady.class, msgCardsReady::read);
+        register(41, msgRequireInitialReady.class, msgRequireInitialReady::read);
+        register(42, msgRequireGoalsReady.class, msgRequireGoalsReady::read);
+        register(43, msgCardPlaced.class, msgCardPlaced::read);
+        register(44, msgWrongChooseCard.class, msgWrongChooseCard::read);
+        register(45, msgPointsAdded.class, msgPointsAdded::read);
+        register(46, msgCardDrawn.class, msgCardDrawn::read);
+        register(47, msgNextTurn.class, msgNextTurn::read);
+        register(48, msgLastCircle.class, msgLastCircle::read);
+        register(49, msgGameEnded.class, msgGameEnded::read);
+        register(50, msgSentMessage.class, msgSentMessage::read);
+        register(51, msgPlayerDisconnected.class, msgPlayerDisconnected::read);
+        register(52, msgPlayerReconnected.class, msgPlayerReconnected::read);
+        register(53, msgPlayerLeft.class, msgPlayerLeft::read);
+        register(54, msgOnlyOnePlayerConnected.class, msgOnlyOnePlayerConnected::read);
+        register(55, msgGameDelta.class, msgGameDelta::read);
+        register(56, msgChatHistory.class, msgChatHistory::read);
+        register(57, msgResynced.class, msgResynced::read);
+    }
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Registers a message
+     *
+     * @param id the numeric ID of the message
+     * @param type the class of the message
+     * @param reader the method that reads the message
+     */
+    private static void register(int id, Class<? extends WireMessage> type, Reader reader) {
+        if (readers[id] != null || ids.putIfAbsent(type, id) != null) {
+            throw new IllegalStateException("Message ID " + id + " registered twice");
+        }
+        readers[id] = reader;
+    }
+
+    /**
+     * @param type the class of a message
+     * @return the numeric ID of the message, -1 if it is not registered
+     */
+    public static int idOf(Class<? extends WireMessage> type) {
+        return ids.getOrDefault(type, -1);
+    }
+
+    /**
+     * Writes a message as its ID followed by its fields
+     *
+     * @param out the output to write on
+     * @param msg the message
+     * @throws IOException if the message is not registered or can't be encoded
+     */
+    public static void write(WireOutput out, WireMessage msg) throws IOException {
+        Integer id = ids.get(msg.getClass());
+        if (id == null) {
+            throw new IOException("Message " + msg.getClass().getSimpleName() + " has no ID");
+        }
+        out.writeByte(id);
+        msg.write(out);
+    }
+
+    /**
+     * Reads a message written by {@link #write(WireOutput, WireMessage)}
+     *
+     * @param in the input to read from
+     * @return the message
+     * @throws IOException if the ID is unknown or the input is malformed
+     */
+    public static WireMessage read(WireInput in) throws IOException {
+        int id = in.readByte();
+        Reader reader = id >= 0 && id < MAX_ID ? readers[id] : null;
+        if (reader == null) {
+            throw new IOException("Unknown message ID " + id);
+        }
+        return reader.read(in);
+    }
+}
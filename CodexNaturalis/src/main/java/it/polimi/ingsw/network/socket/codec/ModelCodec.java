@@ -0,0 +1,833 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import it.polimi.ingsw.Chat.Chat;
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.Chat.MessagePrivate;
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.model.cards.CardCatalog;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.cards.ObjectiveCard;
+import it.polimi.ingsw.model.cards.PlayableCard;
+import it.polimi.ingsw.model.game.*;
+import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.model.player.PlayerDeck;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * ModelCodec Class<br>
+ * Binary encoding of the model objects carried by the socket messages. <br>
+ * Cards are written as references (type, ID, side) and resolved with the {@link CardCatalog} when read;
+ * players inside a game are written once and then referenced by nickname (score track, current player,
+ * chat); a book is written as the list of its cells that differ from an empty cell.
+ */
+public final class ModelCodec {
+
+    /**
+     * Tags of the deltas, they must never change; 7 was the chat, which is now sent in its own frame
+     */
+    private static final int CARD_PLACED = 1, CARD_DRAWN = 2, NEXT_TURN = 3, LAST_CIRCLE = 4,
+            PLAYER_READY = 5, PLAYER_DISCONNECTED = 6, PLAYER_RECONNECTED = 8;
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+    private static final Color[] COLORS = Color.values();
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+    private static final SymbolType[] SYMBOLS = SymbolType.values();
+
+    private ModelCodec() {
+    }
+
+    /**
+     * Writes a reference to a playable card
+     *
+     * @param out the output to write on
+     * @param card the card, possibly null
+     */
+    public static void writeCard(WireOutput out, PlayableCard card) {
+        if (card == null) {
+            out.writeEnum(null);
+            return;
+        }
+        out.writeEnum(card.getCardType());
+        out.writeInt(card.getCardID() << 1 | (card.isFront() ? 1 : 0));
+    }
+
+    /**
+     * Reads a reference to a playable card
+     *
+     * @param in the input to read from
+     * @return the card of the catalog, possibly null
+     * @throws IOException if the input is malformed or the card doesn't exist
+     */
+    public static PlayableCard readCard(WireInput in) throws IOException {
+        CardType type = in.readEnum(CARD_TYPES);
+        if (type == null) {
+            return null;
+        }
+        int ref = in.readInt();
+        PlayableCard card = CardCatalog.getInstance().getCard(type, ref >> 1, (ref & 1) == 1);
+        if (card == null) {
+            throw new IOException("Unknown card " + type + " " + (ref >> 1));
+        }
+        return card;
+    }
+
+    /**
+     * Writes an array of playable cards (usually the front and the back of a card)
+     *
+     * @param out the output to write on
+     * @param cards the cards, possibly null
+     */
+    public static void writeCards(WireOutput out, PlayableCard[] cards) {
+        if (cards == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(cards.length);
+        for (PlayableCard card : cards) {
+            writeCard(out, card);
+        }
+    }
+
+    /**
+     * Reads an array of playable cards
+     *
+     * @param in the input to read from
+     * @return the cards, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static PlayableCard[] readCards(WireInput in) throws IOException {
+        if (readNull(in)) {
+            return null;
+        }
+        PlayableCard[] cards = new PlayableCard[in.readLength()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = readCard(in);
+        }
+        return cards;
+    }
+
+    /**
+     * Writes a list of arrays of playable cards
+     *
+     * @param out the output to write on
+     * @param list the list, possibly null
+     */
+    public static void writeCardsList(WireOutput out, List<PlayableCard[]> list) {
+        if (list == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(list.size());
+        for (PlayableCard[] cards : list) {
+            writeCards(out, cards);
+        }
+    }
+
+    /**
+     * Reads a list of arrays of playable cards
+     *
+     * @param in the input to read from
+     * @return the list, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static ArrayList<PlayableCard[]> readCardsList(WireInput in) throws IOException {
+        if (readNull(in)) {
+            return null;
+        }
+        int size = in.readLength();
+        ArrayList<PlayableCard[]> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readCards(in));
+        }
+        return list;
+    }
+
+    /**
+     * Writes a reference to an objective card
+     *
+     * @param out the output to write on
+     * @param card the card, possibly null
+     */
+    public static void writeObjective(WireOutput out, ObjectiveCard card) {
+        out.writeInt(card == null ? -1 : card.getCardID());
+    }
+
+    /**
+     * Reads a reference to an objective card
+     *
+     * @param in the input to read from
+     * @return the card of the catalog, possibly null
+     * @throws IOException if the input is malformed or the card doesn't exist
+     */
+    public static ObjectiveCard readObjective(WireInput in) throws IOException {
+        int id = in.readInt();
+        if (id == -1) {
+            return null;
+        }
+        ObjectiveCard card = CardCatalog.getInstance().getObjectiveCard(id);
+        if (card == null) {
+            throw new IOException("Unknown objective card " + id);
+        }
+        return card;
+    }
+
+    /**
+     * Writes an array of objective cards
+     *
+     * @param out the output to write on
+     * @param cards the cards, possibly null
+     */
+    public static void writeObjectives(WireOutput out, ObjectiveCard[] cards) {
+        if (cards == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(cards.length);
+        for (ObjectiveCard card : cards) {
+            writeObjective(out, card);
+        }
+    }
+
+    /**
+     * Reads an array of objective cards
+     *
+     * @param in the input to read from
+     * @return the cards, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static ObjectiveCard[] readObjectives(WireInput in) throws IOException {
+        if (readNull(in)) {
+            return null;
+        }
+        ObjectiveCard[] cards = new ObjectiveCard[in.readLength()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = readObjective(in);
+        }
+        return cards;
+    }
+
+    /**
+     * Writes the immutable model of a game
+     *
+     * @param out the output to write on
+     * @param model the model, possibly null
+     */
+    public static void writeGame(WireOutput out, GameImmutable model) {
+        out.writeBoolean(model != null);
+        if (model == null) {
+            return;
+        }
+        writeInteger(out, model.getGameId());
+        writeInteger(out, model.getPlayersNumber());
+
+        List<Player> players = model.getPlayers();
+        out.writeInt(players.size());
+        for (Player p : players) {
+            writePlayer(out, p);
+        }
+
+        ScoreTrack scoreTrack = model.getScoretrack();
+        out.writeBoolean(scoreTrack != null);
+        if (scoreTrack != null) {
+            List<Player> scored = scoreTrack.getPlayersByScore();
+            out.writeInt(scored.size());
+            for (Player p : scored) {
+                writePlayerRef(out, p);
+                out.writeInt(scoreTrack.getPlayerScore(p));
+            }
+        }
+
+        writePlayerRef(out, model.getCurrentPlayer());
+        writeCardsList(out, model.getInitialCard());
+
+        List<ObjectiveCard[]> objectives = model.getObjectiveCard();
+        out.writeInt(objectives == null ? -1 : objectives.size());
+        if (objectives != null) {
+            for (ObjectiveCard[] cards : objectives) {
+                writeObjectives(out, cards);
+            }
+        }
+
+        writeBoard(out, model.getBoard());
+        out.writeEnum(model.getStatus());
+
+        int[] order = model.getOrderArray();
+        out.writeInt(order == null ? -1 : order.length);
+        if (order != null) {
+            for (int i : order) {
+                out.writeInt(i);
+            }
+        }
+
+        out.writeInt(model.getCurrentCardPoints());
+        out.writeLong(model.getVersion());
+    }
+
+    /**
+     * Reads the immutable model of a game
+     *
+     * @param in the input to read from
+     * @return the model, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static GameImmutable readGame(WireInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Integer gameId = readInteger(in);
+        Integer playersNumber = readInteger(in);
+
+        int numPlayers = in.readLength();
+        List<Player> players = new ArrayList<>(numPlayers);
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(readPlayer(in));
+        }
+
+        ScoreTrack scoreTrack = null;
+        if (in.readBoolean()) {
+            scoreTrack = new ScoreTrack();
+            int size = in.readLength();
+            for (int i = 0; i < size; i++) {
+                scoreTrack.setPlayerScore(readPlayerRef(in, players), in.readInt());
+            }
+        }
+
+        Player currentPlayer = readPlayerRef(in, players);
+        ArrayList<PlayableCard[]> initialCards = readCardsList(in);
+
+        ArrayList<ObjectiveCard[]> objectiveCards = null;
+        if (!readNull(in)) {
+            int size = in.readLength();
+            objectiveCards = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                objectiveCards.add(readObjectives(in));
+            }
+        }
+
+        Board board = readBoard(in);
+        GameStatus status = in.readEnum(STATUSES);
+
+        int[] order = null;
+        if (!readNull(in)) {
+            order = new int[in.readLength()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = in.readInt();
+            }
+        }
+
+        int currentCardPoints = in.readInt();
+        long version = in.readLong();
+        return new GameImmutable(gameId, players, playersNumber, scoreTrack, currentPlayer, initialCards, objectiveCards,
+                board, status, order, currentCardPoints, version);
+    }
+
+    /**
+     * Writes a player with his deck and his book
+     *
+     * @param out the output to write on
+     * @param p the player, possibly null
+     */
+    public static void writePlayer(WireOutput out, Player p) {
+        writePlayerRef(out, p);
+        if (p == null) {
+            return;
+        }
+        out.writeBoolean(p.getConnected());
+        out.writeBoolean(p.getReadyToStart());
+        out.writeBoolean(p.isInitialized());
+        writeObjective(out, p.getGoal());
+
+        PlayerDeck deck = p.getPlayerDeck();
+        writeCardsList(out, deck.getMiniDeck());
+        out.writeInt(deck.getNumCards());
+
+        writeBook(out, p.getPlayerBook());
+    }
+
+    /**
+     * Reads a player with his deck and his book
+     *
+     * @param in the input to read from
+     * @return the player, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static Player readPlayer(WireInput in) throws IOException {
+        Player p = readPlayerRef(in, null);
+        if (p == null) {
+            return null;
+        }
+        p.setConnected(in.readBoolean());
+        if (in.readBoolean()) {
+            p.setReadyToStart();
+        }
+        boolean initialized = in.readBoolean();
+        ObjectiveCard goal = readObjective(in);
+        if (initialized) {
+            p.setGoal(goal);
+        }
+
+        PlayerDeck deck = p.getPlayerDeck();
+        ArrayList<PlayableCard[]> miniDeck = readCardsList(in);
+        if (miniDeck != null) {
+            deck.miniDeck.addAll(miniDeck);
+        }
+        deck.actualNumCards = in.readInt();
+
+        readBook(in, p.getPlayerBook());
+        return p;
+    }
+
+    /**
+     * Writes the nickname and the color of a player
+     *
+     * @param out the output to write on
+     * @param p the player, possibly null
+     */
+    public static void writePlayerRef(WireOutput out, Player p) {
+        out.writeString(p == null ? null : p.getNickname());
+        if (p != null) {
+            out.writeEnum(p.getPlayerColor());
+        }
+    }
+
+    /**
+     * Reads a player written by {@link #writePlayerRef(WireOutput, Player)}
+     *
+     * @param in the input to read from
+     * @param players the players already read, the player with the same nickname is returned if present
+     * @return the player, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static Player readPlayerRef(WireInput in, List<Player> players) throws IOException {
+        String nickname = in.readString();
+        if (nickname == null) {
+            return null;
+        }
+        Color color = in.readEnum(COLORS);
+        if (players != null) {
+            for (Player p : players) {
+                if (p != null && nickname.equals(p.getNickname())) {
+                    return p;
+                }
+            }
+        }
+        return new Player(nickname, color);
+    }
+
+    /**
+     * Writes the cells of a book that differ from an empty cell, with the resources and the symbols
+     *
+     * @param out the output to write on
+     * @param book the book
+     */
+    public static void writeBook(WireOutput out, Book book) {
+        out.writeInt(book.getRows());
+        out.writeInt(book.getColumns());
+        out.writeInt(book.getPlacementOrderBook());
+        writeCard(out, book.getInitialCard());
+        for (ResourceType r : RESOURCES) {
+            out.writeInt(book.getResourceCount(r));
+        }
+        for (SymbolType s : SYMBOLS) {
+            out.writeInt(book.getSymbolCount(s));
+        }
+
+        int used = 0;
+        for (Cell c : book.getCells()) {
+            if (isUsed(c)) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (Cell c : book.getCells()) {
+            if (isUsed(c)) {
+                out.writeInt(c.getRow());
+                out.writeInt(c.getColumn());
+                out.writeByte((c.isWall() ? 1 : 0) | (c.isAvailable() ? 2 : 0));
+                out.writeInt(c.getPlacementOrder());
+                writeCard(out, c.getCardPointer());
+            }
+        }
+    }
+
+    /**
+     * Reads a book written by {@link #writeBook(WireOutput, Book)} into an empty book of the same size
+     *
+     * @param in the input to read from
+     * @param book the empty book to fill
+     * @throws IOException if the input is malformed or the book has a different size
+     */
+    public static void readBook(WireInput in, Book book) throws IOException {
+        int rows = in.readInt();
+        int columns = in.readInt();
+        if (rows != book.getRows() || columns != book.getColumns()) {
+            throw new IOException("Book of " + rows + "x" + columns + " received");
+        }
+        book.setPlacementOrderBook(in.readInt());
+        book.setInitialCard(readCard(in));
+        for (ResourceType r : RESOURCES) {
+            book.setResourceCount(r, in.readInt());
+        }
+        for (SymbolType s : SYMBOLS) {
+            book.setSymbolCount(s, in.readInt());
+        }
+
+        int used = in.readLength();
+        for (int i = 0; i < used; i++) {
+            int row = in.readInt();
+            int column = in.readInt();
+            if (row < 0 || row >= rows || column < 0 || column >= columns) {
+                throw new IOException("Cell " + row + "," + column + " out of the book");
+            }
+            Cell c = book.getCell(row, column);
+            int flags = in.readByte();
+            c.setWall((flags & 1) != 0);
+            c.setAvailable((flags & 2) != 0);
+            c.setPlacementOrder(in.readInt());
+            c.setCardPointer(readCard(in));
+        }
+    }
+
+    /**
+     * @param c the cell
+     * @return true if the cell differs from an empty cell
+     */
+    private static boolean isUsed(Cell c) {
+        return c.isWall() || c.isAvailable() || c.getCardPointer() != null || c.getPlacementOrder() != -1;
+    }
+
+    /**
+     * Writes the board with its decks
+     *
+     * @param out the output to write on
+     * @param board the board, possibly null
+     */
+    public static void writeBoard(WireOutput out, Board board) {
+        out.writeBoolean(board != null);
+        if (board == null) {
+            return;
+        }
+        writeCardsList(out, board.getGoldCards());
+        writeCardsList(out, board.getResourceCards());
+        writeObjectives(out, board.getObjectiveCards());
+        writeDeck(out, board.getGoldCardsDeck());
+        writeDeck(out, board.getResourcesCardsDeck());
+
+        int[] objectiveDeck = board.getObjectiveCardsDeck().getCardIDs();
+        out.writeInt(objectiveDeck.length);
+        for (int id : objectiveDeck) {
+            out.writeInt(id);
+        }
+    }
+
+    /**
+     * Reads the board with its decks
+     *
+     * @param in the input to read from
+     * @return the board, possibly null
+     * @throws IOException if the input is malformed
+     */
+    public static Board readBoard(WireInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        ArrayList<PlayableCard[]> goldCards = readCardsList(in);
+        ArrayList<PlayableCard[]> resourceCards = readCardsList(in);
+        ObjectiveCard[] objectiveCards = readObjectives(in);
+        Deck goldDeck = readDeck(in);
+        Deck resourceDeck = readDeck(in);
+
+        int size = in.readLength();
+        int[] objectiveDeck = new int[size];
+        for (int i = 0; i < size; i++) {
+            objectiveDeck[i] = in.readInt();
+            if (CardCatalog.getInstance().getObjectiveCard(objectiveDeck[i]) == null) {
+                throw new IOException("Unknown objective card " + objectiveDeck[i]);
+            }
+        }
+        return new Board(goldCards, resourceCards, objectiveCards, goldDeck, resourceDeck, new ObjectiveDeck(objectiveDeck));
+    }
+
+    /**
+     * Writes a deck as the IDs of its cards, front and back of a card share the same ID
+     *
+     * @param out the output to write on
+     * @param deck the deck
+     */
+    public static void writeDeck(WireOutput out, Deck deck) {
+        out.writeEnum(deck.getCardType());
+        out.writeInt(deck.getRandomIndex());
+        int[] cardIDs = deck.getCardIDs();
+        out.writeInt(cardIDs.length);
+        for (int id : cardIDs) {
+            out.writeInt(id);
+        }
+    }
+
+    /**
+     * Reads a deck written by {@link #writeDeck(WireOutput, Deck)}
+     *
+     * @param in the input to read from
+     * @return the deck
+     * @throws IOException if the input is malformed or a card doesn't exist
+     */
+    public static Deck readDeck(WireInput in) throws IOException {
+        CardType type = in.readEnum(CARD_TYPES);
+        if (type == null) {
+            throw new IOException("Deck without type");
+        }
+        int randomIndex = in.readInt();
+        int size = in.readLength();
+        int[] cardIDs = new int[size];
+        CardCatalog catalog = CardCatalog.getInstance();
+        for (int i = 0; i < size; i++) {
+            cardIDs[i] = in.readInt();
+            if (catalog.getCard(type, cardIDs[i], true) == null) {
+                throw new IOException("Unknown card " + type + " " + cardIDs[i]);
+            }
+        }
+        return new Deck(type, cardIDs, randomIndex);
+    }
+
+    /**
+     * Writes a chat message, the sender is written by nickname
+     *
+     * @param out the output to write on
+     * @param m the message
+     */
+    public static void writeMessage(WireOutput out, Message m) {
+        out.writeString(m.getText());
+        out.writeString(m.getSender());
+        out.writeString(m.whoIsReceiver());
+        writeTime(out, m.getTime());
+        out.writeLong(m.getSeq());
+    }
+
+    /**
+     * Reads a chat message
+     *
+     * @param in the input to read from
+     * @return the message, a {@link MessagePrivate} if the message has a receiver
+     * @throws IOException if the input is malformed
+     */
+    public static Message readMessage(WireInput in) throws IOException {
+        String text = in.readString();
+        String sender = in.readString();
+        String receiver = in.readString();
+        LocalTime time = readTime(in);
+        Message m = receiver == null || receiver.equals("*") ? new Message(text, sender, time)
+                : new MessagePrivate(text, sender, receiver, time);
+        m.setSeq(in.readLong());
+        return m;
+    }
+
+    /**
+     * Writes the history of a chat, with its messages and their numbers
+     *
+     * @param out the output to write on
+     * @param chat the chat
+     */
+    public static void writeChat(WireOutput out, Chat chat) {
+        out.writeLong(chat.getNextSeq());
+        List<Message> msgs = chat.getMsgs();
+        out.writeInt(msgs.size());
+        for (Message m : msgs) {
+            writeMessage(out, m);
+        }
+    }
+
+    /**
+     * Reads the history of a chat written by {@link #writeChat(WireOutput, Chat)}
+     *
+     * @param in the input to read from
+     * @param capacity the max number of messages kept by the chat
+     * @return the chat, the next message added to it takes the number it would have taken in the chat written
+     * @throws IOException if the input is malformed
+     */
+    public static Chat readChat(WireInput in, int capacity) throws IOException {
+        long nextSeq = in.readLong();
+        Chat chat = new Chat(capacity);
+        int size = in.readLength();
+        for (int i = 0; i < size; i++) {
+            chat.addReceivedMsg(readMessage(in));
+        }
+        if (chat.getNextSeq() != nextSeq) {
+            throw new IOException("Chat numbered up to " + nextSeq + " with its last message numbered " + (chat.getNextSeq() - 1));
+        }
+        return chat;
+    }
+
+    /**
+     * Writes a change of the game
+     *
+     * @param out the output to write on
+     * @param delta the change
+     * @throws IOException if the delta is of an unknown type
+     */
+    public static void writeDelta(WireOutput out, GameDelta delta) throws IOException {
+        switch (delta) {
+            case CardPlacedDelta d -> {
+                out.writeByte(CARD_PLACED);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getNickname());
+                out.writeInt(d.getChosenCard());
+                out.writeInt(d.getRowCell());
+                out.writeInt(d.getColCell());
+                out.writeInt(d.getPoints());
+                out.writeInt(d.getScore());
+                out.writeBoolean(d.isOwn());
+            }
+            case CardDrawnDelta d -> {
+                out.writeByte(CARD_DRAWN);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getNickname());
+                out.writeEnum(d.getCardType());
+                out.writeBoolean(d.isDrawFromDeck());
+                out.writeInt(d.getPos());
+                writeCards(out, d.getDrawnCard());
+                writeCards(out, d.getReplacement());
+                out.writeInt(d.getRemovedFromDeck());
+                out.writeInt(d.getDeckRandomIndex());
+                out.writeBoolean(d.isOwn());
+            }
+            case NextTurnDelta d -> {
+                out.writeByte(NEXT_TURN);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getCurrentPlayer());
+                out.writeEnum(d.getStatus());
+                out.writeInt(d.getScores().size());
+                for (Map.Entry<String, Integer> e : d.getScores().entrySet()) {
+                    out.writeString(e.getKey());
+                    out.writeInt(e.getValue());
+                }
+            }
+            case LastCircleDelta d -> {
+                out.writeByte(LAST_CIRCLE);
+                out.writeLong(d.getVersion());
+            }
+            case PlayerReadyDelta d -> {
+                out.writeByte(PLAYER_READY);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getNickname());
+                out.writeBoolean(d.isOwn());
+            }
+            case PlayerDisconnectedDelta d -> {
+                out.writeByte(PLAYER_DISCONNECTED);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getNickname());
+            }
+            case PlayerReconnectedDelta d -> {
+                out.writeByte(PLAYER_RECONNECTED);
+                out.writeLong(d.getVersion());
+                out.writeString(d.getNickname());
+            }
+            default -> throw new IOException("Unknown delta " + delta.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Reads a change of the game
+     *
+     * @param in the input to read from
+     * @return the change
+     * @throws IOException if the input is malformed or the delta is of an unknown type
+     */
+    public static GameDelta readDelta(WireInput in) throws IOException {
+        int tag = in.readByte();
+        long version = in.readLong();
+        return switch (tag) {
+            case CARD_PLACED -> new CardPlacedDelta(version, in.readString(), in.readInt(), in.readInt(), in.readInt(),
+                    in.readInt(), in.readInt(), in.readBoolean());
+            case CARD_DRAWN -> new CardDrawnDelta(version, in.readString(), in.readEnum(CARD_TYPES), in.readBoolean(),
+                    in.readInt(), readCards(in), readCards(in), in.readInt(), in.readInt(), in.readBoolean());
+            case NEXT_TURN -> {
+                String currentPlayer = in.readString();
+                GameStatus status = in.readEnum(STATUSES);
+                int size = in.readLength();
+                Map<String, Integer> scores = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    scores.put(in.readString(), in.readInt());
+                }
+                yield new NextTurnDelta(version, currentPlayer, status, scores);
+            }
+            case LAST_CIRCLE -> new LastCircleDelta(version);
+            case PLAYER_READY -> new PlayerReadyDelta(version, in.readString(), in.readBoolean());
+            case PLAYER_DISCONNECTED -> new PlayerDisconnectedDelta(version, in.readString());
+            case PLAYER_RECONNECTED -> new PlayerReconnectedDelta(version, in.readString());
+            default -> throw new IOException("Unknown delta " + tag);
+        };
+    }
+
+    /**
+     * Writes a time as nanoseconds of the day, -1 for null
+     *
+     * @param out the output to write on
+     * @param time the time, possibly null
+     */
+    private static void writeTime(WireOutput out, LocalTime time) {
+        out.writeLong(time == null ? -1 : time.toNanoOfDay());
+    }
+
+    /**
+     * Reads a time written by {@link #writeTime(WireOutput, LocalTime)}
+     *
+     * @param in the input to read from
+     * @return the time, possibly null
+     * @throws IOException if the input is malformed or the time is invalid
+     */
+    private static LocalTime readTime(WireInput in) throws IOException {
+        long nanos = in.readLong();
+        if (nanos == -1) {
+            return null;
+        }
+        try {
+            return LocalTime.ofNanoOfDay(nanos);
+        } catch (java.time.DateTimeException e) {
+            throw new IOException("Invalid time " + nanos, e);
+        }
+    }
+
+    /**
+     * Writes an Integer, possibly null
+     *
+     * @param out the output to write on
+     * @param value the value
+     */
+    private static void writeInteger(WireOutput out, Integer value) {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads an Integer written by {@link #writeInteger(WireOutput, Integer)}
+     *
+     * @param in the input to read from
+     * @return the value, possibly null
+     * @throws IOException if the input is malformed
+     */
+    private static Integer readInteger(WireInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * Reads the length -1 used for null arrays and lists, leaving any other length to be read
+     *
+     * @param in the input to read from
+     * @return true if the value is null
+     * @throws IOException if the input is malformed
+     */
+    private static boolean readNull(WireInput in) throws IOException {
+        in.mark();
+        if (in.readInt() == -1) {
+            return true;
+        }
+        in.reset();
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WireInput Class<br>
+ * Reads the values written by a {@link WireOutput} from a buffer. <br>
+ * Every malformed input (truncated buffer, unknown enum constant, negative length) is reported as an
+ * {@link IOException}, so a corrupted frame closes the connection like any other network error.
+ */
+public class WireInput {
+
+    /**
+     * The buffer to read from
+     */
+    private final ByteBuffer buf;
+
+    /**
+     * Creates an input that reads from the specified buffer
+     *
+     * @param buf the buffer to read from
+     */
+    public WireInput(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * @return the next byte
+     * @throws IOException if the buffer has ended
+     */
+    public int readByte() throws IOException {
+        try {
+            return buf.get();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated message", e);
+        }
+    }
+
+    /**
+     * @return the next boolean
+     * @throws IOException if the buffer has ended
+     */
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    /**
+     * @return the next int
+     * @throws IOException if the buffer has ended or the value is malformed
+     */
+    public int readInt() throws IOException {
+        int v = readUnsigned();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * @return the next long
+     * @throws IOException if the buffer has ended or the value is malformed
+     */
+    public long readLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IOException("Malformed long");
+    }
+
+    /**
+     * @return the next non negative variable-length int
+     * @throws IOException if the buffer has ended or the value is malformed
+     */
+    private int readUnsigned() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed int");
+    }
+
+    /**
+     * @return the next string, possibly null
+     * @throws IOException if the buffer has ended or the length is invalid
+     */
+    public String readString() throws IOException {
+        int length = readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buf.remaining()) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+        return s;
+    }
+
+    /**
+     * Reads an enum constant
+     *
+     * @param values the constants of the enum
+     * @return the constant, possibly null
+     * @param <E> the type of the enum
+     * @throws IOException if the buffer has ended or the ordinal is unknown
+     */
+    public <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+        int v = readUnsigned();
+        if (v == 0) {
+            return null;
+        }
+        if (v > values.length) {
+            throw new IOException("Unknown constant " + (v - 1) + " of " + values.getClass().getComponentType().getSimpleName());
+        }
+        return values[v - 1];
+    }
+
+    /**
+     * Reads a length, checking that it is not negative and not bigger than the bytes left
+     *
+     * @return the length
+     * @throws IOException if the buffer has ended or the length is invalid
+     */
+    public int readLength() throws IOException {
+        int length = readInt();
+        if (length < 0 || length > buf.remaining()) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Marks the current position, to go back to it with {@link #reset()}
+     */
+    public void mark() {
+        buf.mark();
+    }
+
+    /**
+     * Goes back to the position marked with {@link #mark()}
+     */
+    public void reset() {
+        buf.reset();
+    }
+
+    /**
+     * @return true if all the bytes have been read
+     */
+    public boolean isFinished() {
+        return !buf.hasRemaining();
+    }
+}
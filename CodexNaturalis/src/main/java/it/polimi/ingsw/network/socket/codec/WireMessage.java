@@ -0,0 +1,21 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * WireMessage interface<br>
+ * A socket message that can be written with the binary codec. <br>
+ * Each implementation also provides a static {@code read(WireInput)} method, registered in the
+ * {@link MessageCodec} with the numeric ID of the message.
+ */
+public interface WireMessage extends Serializable {
+
+    /**
+     * Writes the fields of the message
+     *
+     * @param out the output to write on
+     * @throws IOException if a field can't be encoded
+     */
+    void write(WireOutput out) throws IOException;
+}
@@ -0,0 +1,179 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * WireOutput Class<br>
+ * Growable buffer where the binary codec writes a message. <br>
+ * Integers are written as variable-length zig-zag values, so the small numbers used by the game
+ * (card IDs, rows, columns, points) take one byte; strings are written as length + UTF-8 bytes
+ * and enums as ordinal + 1, where 0 stands for null.
+ */
+public class WireOutput {
+
+    /**
+     * The bytes written so far
+     */
+    private byte[] buf;
+
+    /**
+     * Number of bytes written
+     */
+    private int size;
+
+    /**
+     * Creates an empty buffer
+     */
+    public WireOutput() {
+        this(128);
+    }
+
+    /**
+     * Creates an empty buffer with the specified initial capacity
+     *
+     * @param capacity the initial capacity
+     */
+    public WireOutput(int capacity) {
+        buf = new byte[capacity];
+    }
+
+    /**
+     * Skips the specified number of bytes, that can be filled later with {@link #putInt(int, int)}
+     *
+     * @param n the number of bytes to skip
+     */
+    public void skip(int n) {
+        ensure(n);
+        size += n;
+    }
+
+    /**
+     * Writes a big-endian int at the specified position, without moving the end of the buffer
+     *
+     * @param pos the position to write at
+     * @param value the value to write
+     */
+    public void putInt(int pos, int value) {
+        buf[pos] = (byte) (value >>> 24);
+        buf[pos + 1] = (byte) (value >>> 16);
+        buf[pos + 2] = (byte) (value >>> 8);
+        buf[pos + 3] = (byte) value;
+    }
+
+    /**
+     * Writes a single byte
+     *
+     * @param value the byte to write
+     */
+    public void writeByte(int value) {
+        ensure(1);
+        buf[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a boolean as a single byte
+     *
+     * @param value the boolean to write
+     */
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes an int as a variable-length zig-zag value
+     *
+     * @param value the int to write
+     */
+    public void writeInt(int value) {
+        writeUnsigned((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a long as a variable-length zig-zag value
+     *
+     * @param value the long to write
+     */
+    public void writeLong(long value) {
+        long v = (value << 1) ^ (value >> 63);
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[size++] = (byte) v;
+    }
+
+    /**
+     * Writes a non negative int as a variable-length value
+     *
+     * @param value the value to write
+     */
+    private void writeUnsigned(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a string, null is allowed
+     *
+     * @param value the string to write
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Writes an enum constant, null is allowed
+     *
+     * @param value the constant to write
+     */
+    public void writeEnum(Enum<?> value) {
+        writeUnsigned(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a buffer that wraps the bytes written, positioned at its beginning
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, size);
+    }
+
+    /**
+     * @return a copy of the bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    /**
+     * Grows the buffer so that it can hold other n bytes
+     *
+     * @param n the number of bytes to add
+     */
+    private void ensure(int n) {
+        if (size + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+        }
+    }
+}
@@ -1,123 +1,337 @@
 package it.polimi.ingsw.network.socket.server;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
 import java.rmi.RemoteException;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import it.polimi.ingsw.exceptions.GameEndedException;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.socket.MessageFrame;
 import it.polimi.ingsw.network.socket.Messages.clientToServerMessages.ClientGenericMessage;
+import it.polimi.ingsw.network.socket.codec.WireMessage;
 
 import static it.polimi.ingsw.network.PrintAsync.printAsync;
-import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.controller.GamesManager;
 
 /**
  * ClientHandler Class<br>
  * Handle all the incoming network requests that clients can require to create,join,leave or reconnect to a game<br>
- * by the Socket Network protocol
+ * by the Socket Network protocol. <br>
+ * The handler doesn't own any thread: the {@link ServerTCP} selector thread calls {@link #read()} and
+ * {@link #write()} when the channel is ready, while the decoded messages are executed one at a time,
+ * in the order they were received, by the workers of the server. If the workers can't accept them,
+ * the channel isn't read until they do.
  */
-public class ClientHandler extends Thread{
+public class ClientHandler {
 
     /**
-     * Socket associated with the Client
+     * Channel associated with the Client
      */
-    private final Socket clientSocket;
+    private final SocketChannel channel;
 
     /**
-     * ObjectInputStream in
+     * The server that owns the selector and the workers
      */
-    private final ObjectInputStream in;
+    private final ServerTCP server;
 
     /**
-     * ObjectOutputStream out
+     * Key of the channel in the selector
      */
-    private final ObjectOutputStream out;
+    private SelectionKey key;
+
+    /**
+     * Buffer for the length of the frame being read
+     */
+    private final ByteBuffer header = ByteBuffer.allocate(MessageFrame.HEADER_SIZE);
+
+    /**
+     * Buffer for the payload of the frame being read, null between two frames
+     */
+    private ByteBuffer payload;
+
+    /**
+     * Frames waiting to be written on the channel
+     */
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Bytes of the frames waiting to be written, guarded by itself
+     */
+    private final long[] queuedBytes = {0};
+
+    /**
+     * True while a write has been requested to the selector thread and not yet registered
+     */
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
 
     /**
      * The GameListener of the ClientSocket for notifications
      */
-    private GameListenersServer gameListenersServer;
+    private final GameListenersServer gameListenersServer;
+
+    /**
+     * Queue of the messages received from the client and not yet executed
+     */
+    private final Queue<ClientGenericMessage> processingQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of messages in the processing queue
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * True while a worker is executing the messages of this client
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * True while the channel isn't read because the workers rejected the messages, used only by the selector thread
+     */
+    private boolean readPaused = false;
 
     /**
-     * Blocking queue to elaborate messages from the client
+     * True once the connection has been closed
      */
-    private final BlockingQueue<ClientGenericMessage> processingQueue = new LinkedBlockingQueue<>();
+    private volatile boolean closed = false;
 
     /**
      * Handle all the network requests performed by a specific ClientSocket
-     * Initialize the INPUT Stream and the OUTPUT Stream with the specific Client
-     * @param soc the socket to the client
-     * @throws IOException error with Input/Output operations
+     *
+     * @param channel the channel to the client
+     * @param server the server that accepted the connection
+     */
+    public ClientHandler(SocketChannel channel, ServerTCP server) {
+        this.channel = channel;
+        this.server = server;
+        this.gameListenersServer = new GameListenersServer(this);
+    }
+
+    /**
+     * Sets the key of the channel in the selector
+     *
+     * @param key the key returned by the registration
+     */
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Reads all the bytes available on the channel, decoding every frame completed.
+     * Ping messages are handled immediately as "special messages",
+     * all other messages are added to the processing queue. <br>
+     * Called only by the selector thread.
+     *
+     * @throws IOException if the channel is closed or a frame is corrupted
      */
-    public ClientHandler(Socket soc) throws IOException {
-        this.clientSocket = soc;
-        this.in = new ObjectInputStream(soc.getInputStream());
-        this.out = new ObjectOutputStream(soc.getOutputStream());
-        this.gameListenersServer = new GameListenersServer(out);
+    void read() throws IOException {
+        while (!readPaused) {
+            if (payload == null) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("End of stream");
+                }
+                if (header.hasRemaining()) {
+                    return;
+                }
+                int length = header.getInt(0);
+                MessageFrame.checkLength(length);
+                payload = ByteBuffer.allocate(length);
+                header.clear();
+            }
 
+            if (channel.read(payload) < 0) {
+                throw new IOException("End of stream");
+            }
+            if (payload.hasRemaining()) {
+                return;
+            }
+
+            payload.flip();
+            ClientGenericMessage msg;
+            try {
+                msg = (ClientGenericMessage) MessageFrame.decode(payload);
+            } catch (ClassCastException e) {
+                throw new IOException("Unknown message received", e);
+            }
+            payload = null;
+            received(msg);
+        }
     }
 
     /**
-     * Stop the thread
+     * Handles a message decoded from the channel
+     *
+     * @param msg the message received
+     * @throws IOException if the client sent too many messages that are still waiting to be executed
      */
-    public void interruptThread() {
-        this.interrupt();
+    private void received(ClientGenericMessage msg) throws IOException {
+        //if it's a ping message I handle it as a "special message"
+        if (msg.isPing()) {
+            GamesManager.getInstance().ping(msg.getNickname(), gameListenersServer);
+            return;
+        }
+
+        if (pending.incrementAndGet() > DefaultValue.maxPendingMessagesPerClient) {
+            throw new IOException("Too many messages waiting to be executed");
+        }
+        processingQueue.add(msg);
+        if (scheduled.compareAndSet(false, true) && !server.dispatch(this::runGameLogic)) {
+            //the messages stay queued and the selector stops reading until the workers accept them
+            readPaused = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            server.pauseRead(this);
+        }
     }
 
+    /**
+     * Dispatches again the queued messages of a paused connection and, if the workers accept them,
+     * resumes reading the channel.
+     * Called only by the selector thread.
+     *
+     * @return true if the connection isn't paused anymore
+     */
+    boolean resumeRead() {
+        if (closed) {
+            return true;
+        }
+        if (!server.dispatch(this::runGameLogic)) {
+            return false;
+        }
+        readPaused = false;
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        }
+        return true;
+    }
 
     /**
-     * This method runs in a separate thread and handles incoming messages,
-     * including ping messages, which are treated as special cases.
-     * If a ping message is received, it is handled by the game controller.
-     * All other messages are added to a processing queue for further handling.
+     * Executes the messages in the processing queue, in the order they were received.
+     * Only one worker at a time executes the messages of a client.
      */
-    @Override
-    public void run() {
-        var th = new Thread(this::runGameLogic);
-        th.start();
+    private void runGameLogic() {
+        do {
+            ClientGenericMessage temp;
+            while ((temp = processingQueue.poll()) != null) {
+                pending.decrementAndGet();
+                if (closed) {
+                    continue;
+                }
+                try {
+                    if (temp.isJoinGame()) {
+                        temp.execute(gameListenersServer, GamesManager.getInstance());
+                    } else temp.execute(GamesManager.getInstance());
+                } catch (RemoteException | GameEndedException | RuntimeException e) {
+                    printAsync("Error while executing a message of the client: " + e);
+                }
+            }
+            scheduled.set(false);
+        } while (!processingQueue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
 
-        try {
-            ClientGenericMessage temp; //preparing to manage any message received from Client during Thread
-            while (!this.isInterrupted()) {
+    /**
+     * Queues a message to be written on the channel by the selector thread.
+     * Can be called by any thread, that waits while more than {@link DefaultValue#maxOutboundBytesPerClient}
+     * bytes are waiting to be written: the caller is the writer of the listener, so only the notifications of
+     * this client are held back. If the client doesn't read for {@link DefaultValue#outboundWriteTimeout_millis}
+     * the connection is closed.
+     *
+     * @param msg the message to send
+     * @throws IOException if the connection is closed, the client is too slow or the message cannot be encoded
+     */
+    void send(WireMessage msg) throws IOException {
+        ByteBuffer frame = MessageFrame.encode(msg);
+        boolean tooSlow = false;
+        synchronized (queuedBytes) {
+            long deadline = System.currentTimeMillis() + DefaultValue.outboundWriteTimeout_millis;
+            while (!closed && queuedBytes[0] > DefaultValue.maxOutboundBytesPerClient) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    tooSlow = true;
+                    break;
+                }
                 try {
-                    temp = (ClientGenericMessage) in.readObject(); //to read messages sent from the client
-
-                    //if it's a ping message I handle it as a "special message"
-                    if (temp.isPing()) {
-                        if (GameController.getInstance() != null) {
-                            GameController.getInstance().ping(temp.getNickname(), gameListenersServer);
-                        }
-                    } else {
-                        processingQueue.add(temp);
-                    }
-
-                } catch (IOException | ClassNotFoundException e) {
-                    printAsync("ClientSocket dies because cannot communicate no more with the client");
-                    return;
+                    queuedBytes.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the client", e);
                 }
             }
-        } finally {
-            th.interrupt();
+            if (!closed && !tooSlow) {
+                queuedBytes[0] += frame.remaining();
+            }
+        }
+        if (tooSlow) {
+            close();
+            throw new IOException("Client too slow");
+        }
+        if (closed) {
+            throw new IOException("Connection closed");
+        }
+        outbound.add(frame);
+        if (writeRequested.compareAndSet(false, true)) {
+            server.requestWrite(this);
         }
     }
 
-    private void runGameLogic() {
-        ClientGenericMessage temp;
-
-        try {
-            while (!this.isInterrupted()) {
-                temp = processingQueue.take();
+    /**
+     * Registers the interest for writing on the channel.
+     * Called only by the selector thread.
+     */
+    void enableWrite() {
+        writeRequested.set(false);
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
 
-                if(temp.isJoinGame()){
-                    temp.execute(gameListenersServer, GameController.getInstance());
-                } else temp.execute(GameController.getInstance());
+    /**
+     * Writes the queued frames until the channel can't accept more bytes.
+     * Called only by the selector thread.
+     *
+     * @throws IOException if the channel is closed
+     */
+    void write() throws IOException {
+        ByteBuffer frame;
+        while ((frame = outbound.peek()) != null) {
+            channel.write(frame);
+            if (frame.hasRemaining()) {
+                return;
+            }
+            outbound.poll();
+            synchronized (queuedBytes) {
+                queuedBytes[0] -= frame.limit();
+                queuedBytes.notifyAll();
             }
-        } catch (RemoteException | GameEndedException e) {
-            throw new RuntimeException(e);
-        } catch (InterruptedException ignored) {}
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Closes the connection, the player will be disconnected when his pings stop arriving
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        printAsync("ClientSocket dies because cannot communicate no more with the client");
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        outbound.clear();
+        synchronized (queuedBytes) {
+            queuedBytes[0] = 0;
+            queuedBytes.notifyAll();
+        }
+        server.connectionClosed();
     }
 
 }
@@ -4,63 +4,72 @@ import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.GameDelta;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.network.socket.Messages.serverToClientMessages.*;
 
+import java.io.Closeable;
 import java.io.Serializable;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.rmi.RemoteException;
+import java.util.List;
 
 
 /**
  * Class used to pass the GameListener to the client via socket
- * It has a private ObjectOutputStream where it writes the data
+ * It has a private ClientHandler where it queues the data to be sent. <br>
+ * It is {@link Closeable} so that the connection is closed when the client is too slow to keep up with the notifications.
  **/
-public class GameListenersServer implements GameListenerInterface, Serializable {
+public class GameListenersServer implements GameListenerInterface, Serializable, Closeable {
 
     /**
      * To send objects from the Server to the Client
      */
-    private final ObjectOutputStream out;
+    private final transient ClientHandler out;
 
     /**
      * Constructor to create a GameListenersHandlerSocket
-     * @param out the ObjectOutputStream
+     * @param out the connection to the client
      */
-    public GameListenersServer(ObjectOutputStream out) {
+    public GameListenersServer(ClientHandler out) {
         this.out = out;
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the message that a player has joined the game
+     * Closes the connection to the client
+     */
+    @Override
+    public void close() {
+        out.close();
+    }
+
+    /**
+     * This method is used to write on the connection the message that a player has joined the game
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void playerJoined(GameImmutable model, String nickname, Color playerColor) throws RemoteException {
         try {
-            out.writeObject(new msgPlayerJoined(model, nickname, playerColor));
-            finishSending();
+            out.send(new msgPlayerJoined(model, nickname, playerColor));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send playerJoined message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the message that a player chose the gameID and the players number
+     * This method is used to write on the connection the message that a player chose the gameID and the players number
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void requireNumPlayersGameID(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new MsgNumPlayersGameID(model));
-            finishSending();
+            out.send(new MsgNumPlayersGameID(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send playerJoined message", e);
         }
     }
@@ -74,16 +83,15 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void wrongChooseCard(GameImmutable model, String msg) throws RemoteException{
         try {
-            out.writeObject(new msgWrongChooseCard(model, msg));
-            finishSending();
+            out.send(new msgWrongChooseCard(model, msg));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send WrongChooseCard message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the message that a player is unable to join the game because it is full
+     * This method is used to write on the connection the message that a player is unable to join the game because it is full
      * @param triedToJoin is the player that has tried to join the game {@link Player}
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
@@ -91,26 +99,24 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void joinUnableGameFull(Player triedToJoin, GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgJoinUnableGameFull(triedToJoin,model));
-            finishSending();
+            out.send(new msgJoinUnableGameFull(triedToJoin,model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send gameStarted message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the message that a player is unable to join the game because the nickname is already in use
+     * This method is used to write on the connection the message that a player is unable to join the game because the nickname is already in use
      * @param triedToJoin is the player that has tried to join the game {@link Player}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void joinUnableNicknameAlreadyIn(Player triedToJoin, GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgJoinUnableNicknameAlreadyIn(triedToJoin, model));
-            finishSending();
+            out.send(new msgJoinUnableNicknameAlreadyIn(triedToJoin, model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send gameStarted message", e);
         }
     }
@@ -125,42 +131,39 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void AskForReconnection (Player triedToJoin, GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgAskForReconnection(triedToJoin, model));
-            finishSending();
+            out.send(new msgAskForReconnection(triedToJoin, model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send gameStarted message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the game started
+     * This method is used to write on the connection the game started
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void gameStarted(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgGameStarted(model));
-            finishSending();
+            out.send(new msgGameStarted(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send gameStarted message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream that the front and back of the initialCard are ready to be shown to the player
+     * This method is used to write on the connection that the front and back of the initialCard are ready to be shown to the player
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void requireInitialReady(GameImmutable model, int index) throws RemoteException, FileReadException {
         try {
-            out.writeObject(new msgRequireInitialReady(model, index));
-            finishSending();
+            out.send(new msgRequireInitialReady(model, index));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send requireInitialReady message", e);
         }
     }
@@ -174,10 +177,9 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void requireGoalsReady(GameImmutable model, int index) throws RemoteException {
         try {
-            out.writeObject(new msgRequireGoalsReady(model, index));
-            finishSending();
+            out.send(new msgRequireGoalsReady(model, index));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send requireGoalsReady message", e);
         }
     }
@@ -191,10 +193,9 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void cardsReady(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgCardsReady(model));
-            finishSending();
+            out.send(new msgCardsReady(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send requireCardsReady message", e);
         }
     }
@@ -208,10 +209,9 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void cardPlaced(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgCardPlaced(model));
-            finishSending();
+            out.send(new msgCardPlaced(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send CardPlaced message", e);
         }
     }
@@ -225,10 +225,9 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void pointsAdded(GameImmutable model)throws RemoteException{
         try {
-            out.writeObject(new msgPointsAdded(model));
-            finishSending();
+            out.send(new msgPointsAdded(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send CardPlaced message", e);
         }
     }
@@ -242,59 +241,55 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void cardDrawn(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgCardDrawn(model));
-            finishSending();
+            out.send(new msgCardDrawn(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send CardDwawn message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream that the next turn is started
+     * This method is used to write on the connection that the next turn is started
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void nextTurn(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgNextTurn(model));
-            finishSending();
+            out.send(new msgNextTurn(model));
         }  catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send Next_Turn message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream that the game ended
+     * This method is used to write on the connection that the game ended
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void gameEnded(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgGameEnded(model));
-            finishSending();
+            out.send(new msgGameEnded(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send Game_Ended message", e);
         }
     }
 
 
     /**
-     * This method is used to write on the ObjectOutputStream that the last circle is started
+     * This method is used to write on the connection that the last circle is started
      * @param model is the game model {@link GameImmutable}
      * @throws RemoteException if the connection fails
      */
     @Override
     public void lastCircle(GameImmutable model) throws RemoteException {
         try {
-            out.writeObject(new msgLastCircle(model));
-            finishSending();
+            out.send(new msgLastCircle(model));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed Last_Circle message", e);
         }
     }
@@ -309,17 +304,16 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void playerReady(GameImmutable model, String nickname) throws RemoteException {
         try {
-            out.writeObject(new msgPlayerReady(model, nickname));
-            finishSending();
+            out.send(new msgPlayerReady(model, nickname));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed platerReady message", e);
 
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream that a player has disconnected
+     * This method is used to write on the connection that a player has disconnected
      * @param model is the game model {@link GameImmutable}
      * @param nickname is the nickname of the player that has disconnected
      * @throws RemoteException if the connection fails
@@ -327,16 +321,15 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void playerDisconnected(GameImmutable model, String nickname) throws RemoteException {
         try {
-            out.writeObject(new msgPlayerDisconnected(model,nickname));
-            finishSending();
+            out.send(new msgPlayerDisconnected(model,nickname));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send playerLeft message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream the message that a player has left the game
+     * This method is used to write on the connection the message that a player has left the game
      * @param model is the game model {@link GameImmutable}
      * @param nickname is the nickname of the player
      * @throws RemoteException if the connection fails
@@ -344,25 +337,15 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void playerLeft(GameImmutable model, String nickname) throws RemoteException {
         try {
-            out.writeObject(new msgPlayerLeft(model, nickname));
-            finishSending();
+            out.send(new msgPlayerLeft(model, nickname));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send playerLeft message", e);
         }
     }
 
     /**
-     * Makes sure the message has been sent
-     * @throws IOException
-     */
-    private void finishSending() throws IOException {
-        out.flush();
-        out.reset();
-    }
-
-    /**
-     * This method is used to write on the ObjectOutputStream the message that a player has reconnected to the game
+     * This method is used to write on the connection the message that a player has reconnected to the game
      * @param gamemodel is the game model {@link GameImmutable}
      * @param nickPlayerReconnected is the nickname of the player
      * @throws RemoteException if the connection fails
@@ -370,10 +353,9 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void playerReconnected(GameImmutable gamemodel, String nickPlayerReconnected) throws RemoteException {
         try {
-            out.writeObject(new msgPlayerReconnected(gamemodel, nickPlayerReconnected));
-            finishSending();
+            out.send(new msgPlayerReconnected(gamemodel, nickPlayerReconnected));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send playerReconnected message", e);
         }
     }
@@ -386,16 +368,15 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void errorReconnecting(String why) throws RemoteException{
         try {
-            out.writeObject(new msgGenericErrorWhenEnteringGame(why));
-            finishSending();
+            out.send(new msgGenericErrorWhenEnteringGame(why));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send errorReconnecting message", e);
         }
     }
 
     /**
-     * This method is used to write on the ObjectOutputStream that only one player is connected
+     * This method is used to write on the connection that only one player is connected
      * @param gameModel is the game model {@link GameImmutable}
      * @param secondsToWaitUntilGameEnded is the number of seconds to wait until the game ends
      * @throws RemoteException if the connection fails
@@ -403,30 +384,83 @@ public class GameListenersServer implements GameListenerInterface, Serializable
     @Override
     public void onlyOnePlayerConnected(GameImmutable gameModel, int secondsToWaitUntilGameEnded) throws RemoteException {
         try {
-            out.writeObject(new msgOnlyOnePlayerConnected(gameModel,secondsToWaitUntilGameEnded));
-            finishSending();
+            out.send(new msgOnlyOnePlayerConnected(gameModel,secondsToWaitUntilGameEnded));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send onlyOnePlayerConnected message", e);
         }
     }
 
     /**
-     * Sends a message to the client.
+     * Sends a message to the client, without the game: the client adds it to its replica.
      *
-     * @param model the game model
+     * @param model the game model, not sent
      * @param msg   the message to send
      * @throws RemoteException if the reference could not be accessed
      */
     @Override
     public void sentMessage(GameImmutable model, Message msg) throws RemoteException {
+        chatReceived(msg);
+    }
+
+    /**
+     * This method is used to write on the connection a message of the chat, alone in its frame
+     * @param msg the message {@link Message}
+     * @throws RemoteException if the connection fails
+     */
+    @Override
+    public void chatReceived(Message msg) throws RemoteException {
         try {
-            out.writeObject(new msgSentMessage(model, msg));
-            finishSending();
+            out.send(new msgSentMessage(msg));
         } catch (IOException e) {
-            System.err.println("Error occurred while writing to ObjectOutputStream: " + e.getMessage());
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
             throw new RemoteException("Failed to send SentMessage message", e);
 
         }
     }
+
+    /**
+     * This method is used to write on the connection a page of the history of the chat
+     * @param page the messages of the page, from the oldest to the latest
+     * @throws RemoteException if the connection fails
+     */
+    @Override
+    public void chatHistory(List<Message> page) throws RemoteException {
+        try {
+            out.send(new msgChatHistory(page));
+        } catch (IOException e) {
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
+            throw new RemoteException("Failed to send ChatHistory message", e);
+        }
+    }
+
+    /**
+     * This method is used to write on the connection a change of the game
+     * @param delta is the change of the game {@link GameDelta}
+     * @throws RemoteException if the connection fails
+     */
+    @Override
+    public void deltaReceived(GameDelta delta) throws RemoteException {
+        try {
+            out.send(new msgGameDelta(delta));
+        } catch (IOException e) {
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
+            throw new RemoteException("Failed to send GameDelta message", e);
+        }
+    }
+
+    /**
+     * This method is used to write on the connection a full copy of the game, that replaces the replica of the client
+     * @param model is the game model {@link GameImmutable}
+     * @throws RemoteException if the connection fails
+     */
+    @Override
+    public void resynced(GameImmutable model) throws RemoteException {
+        try {
+            out.send(new msgResynced(model));
+        } catch (IOException e) {
+            System.err.println("Error occurred while sending to the client: " + e.getMessage());
+            throw new RemoteException("Failed to send Resynced message", e);
+        }
+    }
 }
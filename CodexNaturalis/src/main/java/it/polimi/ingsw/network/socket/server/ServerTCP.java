@@ -1,28 +1,64 @@
 package it.polimi.ingsw.network.socket.server;
 
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.ServerThreads;
+
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.util.ArrayList;
-import java.util.List;
-import static it.polimi.ingsw.view.TUI.PrintAsync.printAsync;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.polimi.ingsw.network.PrintAsync.printAsync;
 
 
 /**
  * Server Class
- * Handle all the incoming network requests and start for each one a specific {@link ClientHandler}
- * that handle the single Socket Connection by the Socket Network protocol
+ * Handle all the Socket connections with a single thread, waiting on a {@link Selector} for the channels
+ * that are ready to be accepted, read or written. <br>
+ * Each connection is represented by a {@link ClientHandler}, that decodes the incoming frames and
+ * hands the messages to a bounded pool of workers, so the number of threads doesn't depend on the
+ * number of connected clients. When the workers are all busy and their queue is full, the connection stops
+ * being read until its messages are accepted by the workers, so the selector never executes the game logic. <br>
+ * The selector always runs on this platform thread, the workers are virtual threads when
+ * {@link ServerThreads#isVirtual()} is true.
  */
 public class ServerTCP extends Thread{
 
     /**
-     * The Socket that represents the Server
+     * The channel that represents the Server
+     */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Selector on which all the channels are registered
+     */
+    private Selector selector;
+
+    /**
+     * Pool of workers that execute the messages received from the clients
+     */
+    private ExecutorService workers;
+
+    /**
+     * Connections that have frames waiting to be written
+     */
+    private final Queue<ClientHandler> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Connections not read because their messages were rejected by the workers, used only by the selector thread
      */
-    private ServerSocket serverSocket;
+    private final Queue<ClientHandler> pausedReads = new ArrayDeque<>();
 
     /**
-     * List of {@link ClientHandler} created associated with connections
+     * Number of connections currently open
      */
-    private List<ClientHandler> handler;
+    private final AtomicInteger connections = new AtomicInteger();
 
     /**
      * Starts the Server that is the first Socket that each Client connects on the first connection
@@ -32,10 +68,15 @@ public class ServerTCP extends Thread{
      */
     public void start(int port) throws IOException {
         try {
-            serverSocket = new ServerSocket(port);
-            handler = new ArrayList<>();
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port), DefaultValue.socketBacklog);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            workers = ServerThreads.newWorkerPool();
+            this.setName("socket-selector");
             this.start();
-            printAsync("Server Socket ready");
+            printAsync("Server Socket ready" + (ServerThreads.isVirtual() ? " (virtual threads)" : ""));
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("[ERROR] STARTING SOCKET SERVER: \n\tServer RMI exception: " + e);
@@ -43,21 +84,153 @@ public class ServerTCP extends Thread{
     }
 
     /**
-     * Accept connections and start {@link ClientHandler} handler for each one
+     * Waits for the channels that are ready and serves them: accepts the new connections,
+     * reads the incoming frames and writes the outgoing ones
      */
     public void run() {
         try {
             while (!Thread.interrupted()) {
-                handler.add(new ClientHandler(serverSocket.accept()));
-                handler.get(handler.size() - 1).start();
-                printAsync("[SOCKET] new connection accepted");
+                selector.select(pausedReads.isEmpty() ? 0 : DefaultValue.socketDispatchRetry_millis);
+                registerPendingWrites();
+                resumePausedReads();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    ClientHandler handler = (ClientHandler) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            handler.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            handler.write();
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        handler.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("[ERROR] SELECTING SOCKET CONNECTIONS: \n\tServer SOCKET exception: " + e);
+        }
+
+        closeAll();
+    }
+
+    /**
+     * Accepts all the pending connections and registers a {@link ClientHandler} for each one.
+     * The connections are counted, not logged, see {@link #getNumOfConnections()}
+     */
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                ClientHandler handler = new ClientHandler(channel, this);
+                handler.setKey(channel.register(selector, SelectionKey.OP_READ, handler));
+                connections.incrementAndGet();
             }
         } catch (IOException e) {
-            System.err.println("[ERROR] ACCEPTING WELCOME SOCKET CONNECTION: \n\tServer SOCKET exception: " + e);
+            System.err.println("[ERROR] ACCEPTING SOCKET CONNECTION: \n\tServer SOCKET exception: " + e);
+        }
+    }
+
+    /**
+     * Enables the write interest of the connections that have new frames to send
+     */
+    private void registerPendingWrites() {
+        ClientHandler handler;
+        while ((handler = pendingWrites.poll()) != null) {
+            handler.enableWrite();
         }
+    }
+
+    /**
+     * Dispatches again the messages of the connections whose reads are paused, in the order they were paused,
+     * until the workers reject them again
+     */
+    private void resumePausedReads() {
+        ClientHandler handler;
+        while ((handler = pausedReads.peek()) != null && handler.resumeRead()) {
+            pausedReads.poll();
+        }
+    }
 
+    /**
+     * Stops reading a connection until the workers accept its messages.
+     * Called only by the selector thread.
+     *
+     * @param handler the connection whose messages were rejected
+     */
+    void pauseRead(ClientHandler handler) {
+        pausedReads.add(handler);
+    }
+
+    /**
+     * Asks the selector thread to write the frames queued by a connection
+     *
+     * @param handler the connection that has frames to send
+     */
+    void requestWrite(ClientHandler handler) {
+        pendingWrites.add(handler);
+        selector.wakeup();
+    }
+
+    /**
+     * Executes a task on the pool of workers
+     *
+     * @param task the task to execute
+     * @return false if the workers are busy and their queue is full, so the task was not accepted
+     */
+    boolean dispatch(Runnable task) {
         try {
-            serverSocket.close();
+            workers.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Called when a connection is closed
+     */
+    void connectionClosed() {
+        connections.decrementAndGet();
+    }
+
+    /**
+     * @return the number of connections currently open
+     */
+    public int getNumOfConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Closes all the connections, the selector and the pool of workers
+     */
+    private void closeAll() {
+        if (selector.isOpen()) {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof ClientHandler handler) {
+                    handler.close();
+                }
+            }
+        }
+        workers.shutdownNow();
+        try {
+            serverChannel.close();
+            selector.close();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -68,16 +241,9 @@ public class ServerTCP extends Thread{
      */
     @Deprecated
     public void stopConnection() {
-        if (handler != null)
-            for (ClientHandler c : handler) {
-                c.interruptThread();
-            }
         this.interrupt();
+        if (selector != null)
+            selector.wakeup();
     }
 
 }
-
-
-
-
-
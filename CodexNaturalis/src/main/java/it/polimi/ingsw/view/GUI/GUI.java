@@ -14,6 +14,7 @@ import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.util.Duration;
 import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -734,7 +735,19 @@ public class GUI extends UI {
      */
     @Override
     public void addMessage(Message msg, GameImmutable model) {
-        show_sentMessage(model, model.getChat().getLastMessage().getSender().getNickname());
+        show_sentMessage(model, model.getChat().getLastMessage().getSender());
+    }
+
+    /**
+     * Shows a page of the history of the chat in place of the latest messages.
+     *
+     * @param page the messages of the page, from the oldest to the latest, empty if there are no older messages
+     */
+    @Override
+    public void show_chatHistory(List<Message> page) {
+        if (!page.isEmpty()) {
+            callPlatformRunLater(() -> this.guiApplication.showChatHistory(page, this.nickname));
+        }
     }
 
 }
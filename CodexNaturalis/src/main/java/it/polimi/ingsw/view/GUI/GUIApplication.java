@@ -1,5 +1,6 @@
 package it.polimi.ingsw.view.GUI;
 
+import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.NoPlayersException;
 import it.polimi.ingsw.model.Color;
 import it.polimi.ingsw.model.cards.ObjectiveCard;
@@ -491,6 +492,16 @@ public class GUIApplication extends Application {
         controller.setMessage(model.getChat().getMsgs(), myNickname);
     }
 
+    /**
+     * This method is used to show a page of the history of the chat.
+     * @param page the messages of the page, from the oldest to the latest
+     * @param myNickname the nickname of the player
+     */
+    public void showChatHistory(List<Message> page, String myNickname) {
+        MainSceneController controller = (MainSceneController) scenes.get(getSceneIndex(SceneType.MAINSCENE)).getControllerGUI();
+        controller.setMessage(page, myNickname);
+    }
+
     /**
      * This method is used to show all the important events.
      * @param importantEvents the list of the important events
@@ -1,6 +1,7 @@
 package it.polimi.ingsw.view.GUI.controllers;
 
 import it.polimi.ingsw.model.Board;
+import it.polimi.ingsw.model.cards.PlayableCard;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.view.GUI.GUIApplication;
 import javafx.event.ActionEvent;
@@ -58,20 +59,18 @@ public class BoardPopUpController extends ControllerGUI{
     public void setBoard(GameImmutable model) {
         Board board = model.getBoard();
         String imagePath;
-        int goldRandIndex= board.getGoldCardsDeck().getRandomIndex();
-        int resourceRandIndex=board.getResourcesCardsDeck().getRandomIndex();
+        PlayableCard goldTop = board.getGoldCardsDeck().peekTop(false);
+        PlayableCard resourceTop = board.getResourcesCardsDeck().peekTop(false);
 
         //GOLD CARD
-        imagePath = board.getGoldCardsDeck().getBackCards().get(goldRandIndex).getImagePath();
-        imgDeckGold.setImage(new Image(imagePath));
+        imgDeckGold.setImage(goldTop == null ? null : new Image(goldTop.getImagePath()));
         imagePath = board.getGoldCards().get(0)[0].getImagePath();
         imgGold0.setImage(new Image(imagePath));
         imagePath = board.getGoldCards().get(1)[0].getImagePath();
         imgGold1.setImage(new Image(imagePath));
 
         //RESOURCE CARD
-        imagePath = board.getResourcesCardsDeck().getBackCards().get(resourceRandIndex).getImagePath();
-        imgDeckResource.setImage(new Image(imagePath));
+        imgDeckResource.setImage(resourceTop == null ? null : new Image(resourceTop.getImagePath()));
         imagePath = board.getResourceCards().get(0)[0].getImagePath();
         imgResource0.setImage(new Image(imagePath));
         imagePath = board.getResourceCards().get(1)[0].getImagePath();
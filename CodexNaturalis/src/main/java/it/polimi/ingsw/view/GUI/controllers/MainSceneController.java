@@ -2,6 +2,7 @@ package it.polimi.ingsw.view.GUI.controllers;
 
 
 import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.model.Book;
 import it.polimi.ingsw.model.Cell;
 import it.polimi.ingsw.model.cards.PlayableCard;
 import it.polimi.ingsw.model.game.GameImmutable;
@@ -225,7 +226,7 @@ public class MainSceneController extends ControllerGUI{
         chatList.getItems().clear();
         for (Message m : msgs) {
             String time = "[" + m.getTime().getHour() + ":" + m.getTime().getMinute() + ":" + m.getTime().getSecond() + "] ";
-            String sender = m.getSender().getNickname() + ": ";
+            String sender = m.getSender() + ": ";
             String text = m.getText();
             String receiver = m.whoIsReceiver();
 
@@ -246,7 +247,7 @@ public class MainSceneController extends ControllerGUI{
                 messageText.setFill(Color.BLACK);
 
                 textFlow.getChildren().addAll(timeText, senderText, messageText);
-            } else if (receiver.toUpperCase().equals(myNickname.toUpperCase()) || m.getSender().getNickname().toUpperCase().equals(myNickname.toUpperCase())) {
+            } else if (receiver.toUpperCase().equals(myNickname.toUpperCase()) || m.getSender().toUpperCase().equals(myNickname.toUpperCase())) {
                 // Private message
                 Text privateText = new Text("[Private] ");
                 privateText.setFill(Color.BLUE);
@@ -506,16 +507,17 @@ public class MainSceneController extends ControllerGUI{
     public AnchorPane bookPane;
     @FXML
     public AnchorPane rootPane;
-    private Cell[][] bookMatrix;
+    private Book book;
 
     /**
-     * Updates the book display pane based on the player's book matrix, showing cards and managing layout dynamically.
+     * Updates the book display pane based on the cells of the player's book, showing cards and managing layout dynamically.
+     * Only the cells stored by the book are read, not the whole matrix.
      *
      * @param model    The GameImmutable object containing the game state.
      * @param nickname The nickname of the player whose book is being updated.
      */
     public void updateBookPane(GameImmutable model, String nickname) {
-        this.bookMatrix = model.getPlayerByNickname(nickname).getPlayerBook().getBookMatrix();
+        this.book = model.getPlayerByNickname(nickname).getPlayerBook();
 
         bookScrollPane.setVisible(true);
         bookScrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
@@ -540,12 +542,9 @@ public class MainSceneController extends ControllerGUI{
 
         List<Cell> cellList = new ArrayList<>();
 
-        for (int i = minI; i <= maxI; i++) {
-            for (int j = minJ; j <= maxJ; j++) {
-                Cell cell = bookMatrix[i][j];
-                if (cell.getPlacementOrder() != -1) {
-                    cellList.add(cell);
-                }
+        for (Cell cell : book.getCells()) {
+            if (cell.getPlacementOrder() != -1) {
+                cellList.add(cell);
             }
         }
 
@@ -601,33 +600,34 @@ public class MainSceneController extends ControllerGUI{
     }
 
     /**
-     * Finds the minimum and maximum indices of rows and columns containing non-null cards in the bookMatrix.
+     * Finds the minimum and maximum indices of rows and columns containing non-null cards in the book,
+     * reading only the cells stored by the book.
      * Returns an array containing these indices in the order: [minRow, minColumn, maxRow, maxColumn].
      *
      * @return An array of integers representing the limits of the submatrix containing non-null cards.
      */
     public int[] findSubMatrix() {
         int[] limits = new int[4];
-        int minI = bookMatrix.length;
-        int minJ = bookMatrix[0].length;
+        int minI = book.getRows();
+        int minJ = book.getColumns();
         int maxI = -1;
         int maxJ = -1;
 
-        for (int i = 0; i < bookMatrix.length; i++) {
-            for (int j = 0; j < bookMatrix[i].length; j++) {
-                if (bookMatrix[i][j].getCard() != null) {
-                    if (i < minI) minI = i;
-                    if (j < minJ) minJ = j;
-                    if (i > maxI) maxI = i;
-                    if (j > maxJ) maxJ = j;
-                }
+        for (Cell cell : book.getCells()) {
+            if (cell.getCard() != null) {
+                int i = cell.getRow();
+                int j = cell.getColumn();
+                if (i < minI) minI = i;
+                if (j < minJ) minJ = j;
+                if (i > maxI) maxI = i;
+                if (j > maxJ) maxJ = j;
             }
         }
 
         if (minI > 0) minI--;
         if (minJ > 0) minJ--;
-        if (maxI < bookMatrix.length - 1) maxI++;
-        if (maxJ < bookMatrix[0].length - 1) maxJ++;
+        if (maxI < book.getRows() - 1) maxI++;
+        if (maxJ < book.getColumns() - 1) maxJ++;
 
         limits[0] = minI;
         limits[1] = minJ;
@@ -689,7 +689,7 @@ public class MainSceneController extends ControllerGUI{
 
         bookPane.getChildren().clear();
 
-        this.bookMatrix = model.getPlayerByNickname(nickname).getPlayerBook().getBookMatrix();
+        this.book = model.getPlayerByNickname(nickname).getPlayerBook();
         bookPane.getChildren().clear();
 
         int[] limits = findSubMatrix();
@@ -730,14 +730,14 @@ public class MainSceneController extends ControllerGUI{
                 cardImageView.setPreserveRatio(true);
                 cardImageView.setId(i + "-" + j);
 
-                PlayableCard card = bookMatrix[i][j].getCard();
+                PlayableCard card = book.cardAt(i, j);
                 if (card != null) {
                     Image cardImage = new Image(card.getImagePath());
                     cardImageView.setImage(cardImage);
                 } else {
                     cardImageView.setImage(null);
                 }
-                if (bookMatrix[i][j].isAvailable()) {
+                if (book.isAvailable(i, j)) {
                     cardPane.setStyle("-fx-border-color: green; -fx-border-width: 3;");
                 }
                 cardPane.getChildren().add(cardImageView);
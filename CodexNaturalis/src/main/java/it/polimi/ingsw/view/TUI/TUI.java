@@ -15,6 +15,7 @@ import it.polimi.ingsw.view.Utilities.UI;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import static it.polimi.ingsw.network.PrintAsync.printAsync;
 import static it.polimi.ingsw.view.TUI.PrintAsync.printAsyncNoCursorReset;
@@ -926,6 +927,7 @@ public class TUI extends UI {
                 > Commands:
                 \t\t  type "/c + [msg]" to send a public message!
                 \t\t  type "/cs + [playerName] + [msg]" to send a private message!
+                \t\t  type "/ch" to show the older messages of the chat!
                 \t\t  type "/quit" for leaving the game!
                 \t
                 \n
@@ -954,6 +956,25 @@ public class TUI extends UI {
         show_messages(model);
     }
 
+    /**
+     * Displays a page of the history of the chat.
+     *
+     * @param page the messages of the page, from the oldest to the latest, empty if there are no older messages
+     */
+    @Override
+    public void show_chatHistory(List<Message> page) {
+        if (page.isEmpty()) {
+            printAsync("No older messages");
+            return;
+        }
+        int len = page.stream().mapToInt(m -> m.getText().length()).max().orElse(0);
+        StringBuilder ris = new StringBuilder("Older Messages:\n");
+        for (int i = 0; i < page.size(); i++) {
+            ris.append(page.get(i).toString(i, len, false)).append("\n");
+        }
+        printAsync(ris.toString());
+    }
+
     /**
      * Displays the messages sent by a specific user.
      *
@@ -60,6 +60,9 @@ public class InputController extends Thread{
                         e.printStackTrace();
                     }
                 }
+            } else if (player != null && inputData.trim().equals("/ch")) {
+                gameFlow.askOlderMessages();
+
             } else if (player != null && inputData.startsWith("/c")) {
                 inputData = inputData.charAt(2) == ' ' ? inputData.substring(3) : inputData.substring(2);
                 try {
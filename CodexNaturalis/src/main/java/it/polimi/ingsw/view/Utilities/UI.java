@@ -334,6 +334,13 @@ public abstract class UI {
      */
      public abstract void addMessage(Message msg, GameImmutable model);
 
+    /**
+     * Shows a page of the history of the chat.
+     *
+     * @param page the messages of the page, from the oldest to the latest, empty if there are no older messages
+     */
+    public abstract void show_chatHistory(List<Message> page);
+
     /**
      * Closes the wait popup.
      */
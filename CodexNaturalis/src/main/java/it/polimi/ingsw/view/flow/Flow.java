@@ -1,5 +1,7 @@
 package it.polimi.ingsw.view.flow;
+import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.game.GameDelta;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.view.Utilities.FileDisconnection;
@@ -37,4 +39,38 @@ public abstract class Flow implements GameListenerInterface {
      */
     public abstract void noConnectionError();
 
+    /**
+     * The changes of the game are applied to the replica by the client listener,
+     * that notifies the flow with the updated model, so they never reach the flow directly
+     * @param delta the change of the game
+     */
+    @Override
+    public void deltaReceived(GameDelta delta) {
+    }
+
+    /**
+     * The messages of the chat are added to the replica by the client listener,
+     * that notifies the flow with {@link #sentMessage(GameImmutable, Message)}, so they never reach the flow directly
+     * @param msg the message of the chat
+     */
+    @Override
+    public void chatReceived(Message msg) {
+    }
+
+    /**
+     * The full copy of the game sent after a divergence replaces the replica of the client listener,
+     * the flow goes on with the next changes, so it never reaches the flow directly
+     * @param model the game model
+     */
+    @Override
+    public void resynced(GameImmutable model) {
+    }
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the client listener,
+     * or for a full copy of the game if they are no longer available
+     * @param lastVersion the version of the replica, -1 if it can't be updated and a full copy is needed
+     */
+    public abstract void replicaDiverged(long lastVersion);
+
 }
@@ -1,6 +1,7 @@
 package it.polimi.ingsw.view.flow;
 
 
+import it.polimi.ingsw.Chat.Chat;
 import it.polimi.ingsw.Chat.Message;
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.exceptions.NotPlayerTurnException;
@@ -63,6 +64,16 @@ public class GameFlow extends Flow implements Runnable, ClientInterface {
      */
     private final FileDisconnection fileDisconnection;
 
+    /**
+     * Chat of the replica of the game, with the latest messages received
+     */
+    private Chat chat;
+
+    /**
+     * Number of the oldest message shown scrolling back the chat, -1 if the chat shows its latest messages
+     */
+    private long oldestShownSeq = -1;
+
     /**
      * Constructor of the class, based on the connection type it creates the clientActions and initializes the UI,
      * the FileDisconnection, the InputReader and the InputController
@@ -277,7 +288,6 @@ public class GameFlow extends Flow implements Runnable, ClientInterface {
 
             case NICKNAME_ALREADY_IN -> {
                     nickname = null;
-                    Color.addColor(this.color);
                     this.color = null;
 
                     events.add(null, EventType.BACK_TO_MENU);
@@ -289,7 +299,6 @@ public class GameFlow extends Flow implements Runnable, ClientInterface {
                     reconnect(nickname, fileDisconnection.getGameId(nickname));
                 } else {
                     nickname = null;
-                    Color.addColor(this.color);
                     this.color = null;
                     events.add(null, ERROR_RECONNECTING);
                 }
@@ -1215,7 +1224,9 @@ public class GameFlow extends Flow implements Runnable, ClientInterface {
      */
     @Override
     public void sentMessage(GameImmutable model, Message msg) throws RemoteException {
-        if (msg.whoIsReceiver().equals("*") || msg.whoIsReceiver().equalsIgnoreCase(nickname) || msg.getSender().getNickname().equalsIgnoreCase(nickname)) {
+        if (msg.whoIsReceiver().equals("*") || msg.whoIsReceiver().equalsIgnoreCase(nickname) || msg.getSender().equalsIgnoreCase(nickname)) {
+            chat = model.getChat();
+            oldestShownSeq = -1;
             ui.addMessage(msg, model);
             events.add(model, EventType.SENT_MESSAGE);
             msg.setText(msg.getText());
@@ -1236,6 +1247,75 @@ public class GameFlow extends Flow implements Runnable, ClientInterface {
         }
     }
 
+    /**
+     * Asks the server for the page of the chat sent before the oldest message shown,
+     * or for the latest messages if the client has none.
+     */
+    public void askOlderMessages() {
+        long before = oldestShownSeq >= 0 ? oldestShownSeq : (chat == null ? -1 : chat.getFirstSeq());
+        if (before == 0) {
+            ui.show_chatHistory(List.of());
+            return;
+        }
+        long fromSeq = before < 0 ? -1 : Math.max(0, before - DefaultValue.chatHistoryPage);
+        int limit = before < 0 ? DefaultValue.chatHistoryPage : (int) (before - fromSeq);
+        try {
+            getChatHistory(fromSeq, limit);
+        } catch (IOException e) {
+            noConnectionError();
+        }
+    }
+
+    /**
+     * Asks the server for a page of the history of the chat.
+     *
+     * @param fromSeq The number of the first message of the page, if negative the page holds the latest messages.
+     * @param limit   The max number of messages of the page.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    @Override
+    public void getChatHistory(long fromSeq, int limit) throws IOException {
+        clientActions.getChatHistory(fromSeq, limit);
+    }
+
+    /**
+     * Asks the server for the changes of the game missed by the replica of the client, or for a full copy of the game.
+     *
+     * @param lastVersion The version of the replica, -1 if it can't be updated and a full copy is needed.
+     * @throws IOException If there is an I/O error during communication.
+     */
+    @Override
+    public void resync(long lastVersion) throws IOException {
+        clientActions.resync(lastVersion);
+    }
+
+    /**
+     * Asks the server to realign the replica of the client listener, that diverged from the game.
+     *
+     * @param lastVersion the version of the replica, -1 if it can't be updated and a full copy is needed
+     */
+    @Override
+    public void replicaDiverged(long lastVersion) {
+        try {
+            resync(lastVersion);
+        } catch (IOException e) {
+            noConnectionError();
+        }
+    }
+
+    /**
+     * Shows a page of the history of the chat, the next page asked is the one before it.
+     *
+     * @param page the messages of the page, from the oldest to the latest
+     */
+    @Override
+    public void chatHistory(List<Message> page) {
+        if (!page.isEmpty()) {
+            oldestShownSeq = page.getFirst().getSeq();
+        }
+        ui.show_chatHistory(page);
+    }
+
     /**
      * Getter of getPlayerDisconnected()
      * @return the disconnected player
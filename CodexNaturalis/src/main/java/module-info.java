@@ -6,6 +6,7 @@ module PSP24 {
     requires java.rmi;
     requires org.fusesource.jansi;
     requires java.desktop;
+    requires java.management;
     requires json.simple;
     exports it.polimi.ingsw.view.GUI.scenes;
     exports it.polimi.ingsw.view.GUI;
@@ -35,12 +35,12 @@ public class ChatTest {
 
         chat.addMsg(message);
         assert (chat.getLastMessage().getText().equals("It's a test"));
-        assert (chat.getLastMessage().getSender().getNickname().equals("p1"));
+        assert (chat.getLastMessage().getSender().equals("p1"));
         //verifico che l'orario dell'ultimo messaggio non sia nullo
         assert (chat.getLastMessage().getTime() != null);
         chat.addMsg(player2, "Test2");
         assert (chat.getLastMessage().getText().equals("Test2"));
-        assert (chat.getLastMessage().getSender().getNickname().equals("p2"));
+        assert (chat.getLastMessage().getSender().equals("p2"));
         assert (chat.getLastMessage().getTime() != null);
 
         chat.addMsg(player2, "Test3");
@@ -62,4 +62,33 @@ public class ChatTest {
         assertEquals(DefaultValue.max_messagesShow, messages.size());
         assertEquals("Test2", messages.get(0).getText());
     }
+
+    @Test
+    @DisplayName("Test for the pages of the history of the chat")
+    void chatHistoryTest() {
+        Chat chat = new Chat(10);
+        for (int i = 0; i < 25; i++) {
+            chat.addMsg(player1, "Msg" + i);
+        }
+        //the chat keeps the last 10 messages, numbered from 15 to 24
+        assertEquals(10, chat.getMsgs().size());
+        assertEquals(15L, chat.getFirstSeq());
+        assertEquals(25L, chat.getNextSeq());
+
+        List<Message> page = chat.getPage(18, 4);
+        assertEquals(4, page.size());
+        assertEquals("Msg18", page.get(0).getText());
+        assertEquals(21L, page.get(3).getSeq());
+
+        //the messages removed from the chat are not part of the pages
+        assertEquals("Msg15", chat.getPage(0, 3).get(0).getText());
+        //a negative number asks for the latest messages
+        assertEquals("Msg22", chat.getPage(-1, 3).get(0).getText());
+        assertEquals(0, chat.getPage(25, 3).size());
+
+        //a message received by a client keeps the number given by the chat of the game
+        Chat received = new Chat();
+        received.addReceivedMsg(page.get(0));
+        assertEquals(18L, received.getLastMessage().getSeq());
+    }
 }
@@ -5,6 +5,7 @@ import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.exceptions.FileReadException;
 import it.polimi.ingsw.listener.GameListenerInterface;
 import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.GameDelta;
 import it.polimi.ingsw.model.game.GameImmutable;
 import it.polimi.ingsw.model.game.GameStatus;
 import it.polimi.ingsw.model.player.Player;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.io.IOException;
@@ -141,6 +143,26 @@ public class DisconnectionTest {
 
         }
 
+        @Override
+        public void deltaReceived(GameDelta delta) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatReceived(Message msg) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatHistory(List<Message> page) throws RemoteException {
+
+        }
+
+        @Override
+        public void resynced(GameImmutable model) throws RemoteException {
+
+        }
+
     };
     GameListenerInterface lis2 = new GameListenerInterface() {
         @Override
@@ -258,6 +280,26 @@ public class DisconnectionTest {
 
         }
 
+        @Override
+        public void deltaReceived(GameDelta delta) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatReceived(Message msg) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatHistory(List<Message> page) throws RemoteException {
+
+        }
+
+        @Override
+        public void resynced(GameImmutable model) throws RemoteException {
+
+        }
+
     };
     GameListenerInterface lis3 = new GameListenerInterface() {
         @Override
@@ -375,6 +417,26 @@ public class DisconnectionTest {
 
         }
 
+        @Override
+        public void deltaReceived(GameDelta delta) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatReceived(Message msg) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatHistory(List<Message> page) throws RemoteException {
+
+        }
+
+        @Override
+        public void resynced(GameImmutable model) throws RemoteException {
+
+        }
+
     };
 
     GameListenerInterface lis4 = new GameListenerInterface() {
@@ -493,6 +555,26 @@ public class DisconnectionTest {
 
         }
 
+        @Override
+        public void deltaReceived(GameDelta delta) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatReceived(Message msg) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatHistory(List<Message> page) throws RemoteException {
+
+        }
+
+        @Override
+        public void resynced(GameImmutable model) throws RemoteException {
+
+        }
+
     };
 
     GameListenerInterface lis5 = new GameListenerInterface() {
@@ -611,6 +693,26 @@ public class DisconnectionTest {
 
         }
 
+        @Override
+        public void deltaReceived(GameDelta delta) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatReceived(Message msg) throws RemoteException {
+
+        }
+
+        @Override
+        public void chatHistory(List<Message> page) throws RemoteException {
+
+        }
+
+        @Override
+        public void resynced(GameImmutable model) throws RemoteException {
+
+        }
+
     };
 
 
@@ -0,0 +1,68 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the messages sent in the same window are delivered in one batch, counted by the {@link ChatMetrics}
+ */
+class ChatMetricsTest {
+
+    /**
+     * @param received counted down for each message of the chat received
+     * @return a listener that counts the messages of the chat and ignores the other notifications
+     */
+    private static GameListenerInterface chatListener(CountDownLatch received) {
+        return (GameListenerInterface) Proxy.newProxyInstance(ChatMetricsTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "chatReceived" -> {
+                        received.countDown();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Test
+    void testWindowIsDeliveredInOneBatch() throws Exception {
+        GameController game = new GameController();
+        //alice and bob listen with the same listener, that receives each message once
+        CountDownLatch received = new CountDownLatch(3);
+        GameListenerInterface lis = chatListener(received);
+        for (JournalRecord record : List.of(JournalRecord.create(9, "alice", 2, game.getSeed()),
+                new JournalRecord(JournalRecord.Command.JOIN, 9, "bob"))) {
+            record.replay(game, lis);
+        }
+        ChatMetrics metrics = ChatMetrics.getInstance();
+        long batches = metrics.getBatches();
+        long messages = metrics.getMessages();
+
+        game.sentMessage(lis, new Message("one", game.getModel().getPlayerByNickname("alice")));
+        game.sentMessage(lis, new Message("two", game.getModel().getPlayerByNickname("bob")));
+        game.sentMessage(lis, new Message("three", game.getModel().getPlayerByNickname("alice")));
+        //the messages are queued in the mailbox, added to the chat in order and delivered when the window closes
+        assertTrue(game.hasPlayer("alice"));
+        assertEquals("three", game.getModel().getChat().getLastMessage().getText());
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        assertEquals(batches + 1, metrics.getBatches());
+        assertEquals(messages + 3, metrics.getMessages());
+        assertTrue(metrics.getMaxBatchSize() >= 3);
+        assertTrue(metrics.getMaxLatency_millis() > 0);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ChatMetrics.NAME)));
+        game.shutdown();
+    }
+}
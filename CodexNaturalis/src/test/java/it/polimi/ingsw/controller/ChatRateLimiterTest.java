@@ -0,0 +1,50 @@
+package it.polimi.ingsw.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the {@link ChatRateLimiter} lets a player send a burst of messages, then one message for each token
+ * earned, and that the players have their own buckets
+ */
+class ChatRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstThenRate() {
+        ChatRateLimiter limiter = new ChatRateLimiter(2, 3);
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("alice", now));
+        }
+        assertFalse(limiter.tryAcquire("alice", now));
+        //the other players are not limited by alice
+        assertTrue(limiter.tryAcquire("bob", now));
+
+        //half a second earns one token
+        assertFalse(limiter.tryAcquire("alice", now + SECOND / 4));
+        assertTrue(limiter.tryAcquire("alice", now + SECOND / 2));
+        assertFalse(limiter.tryAcquire("alice", now + SECOND / 2));
+
+        //a long pause fills the bucket up to the burst, not more
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("alice", later));
+        }
+        assertFalse(limiter.tryAcquire("alice", later));
+    }
+
+    @Test
+    void testRemovedPlayerStartsWithAFullBucket() {
+        ChatRateLimiter limiter = new ChatRateLimiter(1, 1);
+        assertTrue(limiter.tryAcquire("alice", 0));
+        assertFalse(limiter.tryAcquire("alice", 0));
+        limiter.remove("alice");
+        assertTrue(limiter.tryAcquire("alice", 0));
+        assertFalse(limiter.tryAcquire(null, 0));
+    }
+}
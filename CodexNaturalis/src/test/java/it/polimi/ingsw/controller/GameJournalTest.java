@@ -0,0 +1,139 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.player.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the records of a {@link GameJournal} are read back in order, across several segments,
+ * that a record left incomplete by a crash is skipped, that the records rebuild a game and that a checkpoint
+ * truncates the journal behind the snapshots
+ */
+class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecordsAreReadInOrderAcrossSegments() throws IOException {
+        GameJournal journal = new GameJournal(dir, 256);
+        journal.append(new JournalRecord(JournalRecord.Command.JOIN, 1, "ignored"));
+        journal.open();
+        for (int i = 0; i < 50; i++) {
+            journal.append(new JournalRecord(JournalRecord.Command.PLACE_CARD, 1, "player" + i, i, 20, 21));
+        }
+        journal.append(new JournalRecord(1, new Message("hello", new Player("player0", Color.RED))));
+        journal.close();
+        try (Stream<Path> segments = Files.list(dir)) {
+            assertTrue(segments.count() > 1);
+        }
+
+        List<JournalRecord> records = new GameJournal(dir, 256).readAll();
+        assertEquals(51, records.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(JournalRecord.Command.PLACE_CARD, records.get(i).getCommand());
+            assertEquals("player" + i, records.get(i).getNickname());
+            assertArrayEquals(new int[]{i, 20, 21}, records.get(i).getArgs());
+        }
+        assertEquals("hello", records.getLast().getMessage().getText());
+        assertEquals("player0", records.getLast().getMessage().getSender());
+    }
+
+    @Test
+    void testIncompleteRecordIsSkipped() throws IOException {
+        GameJournal journal = new GameJournal(dir, 4096);
+        journal.open();
+        journal.append(new JournalRecord(JournalRecord.Command.READY, 3, "a"));
+        journal.append(new JournalRecord(JournalRecord.Command.READY, 3, "b"));
+        journal.close();
+
+        //a crash while writing the second record corrupts its last byte
+        Path segment;
+        try (Stream<Path> segments = Files.list(dir)) {
+            segment = segments.findFirst().orElseThrow();
+        }
+        List<JournalRecord> before = new GameJournal(dir).readAll();
+        assertEquals(2, before.size());
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int end = 0;
+            while (true) {
+                file.seek(end);
+                int length = file.readInt();
+                if (length == 0) {
+                    break;
+                }
+                end += 8 + length;
+            }
+            file.seek(end - 1);
+            file.writeByte(0x7f);
+        }
+
+        List<JournalRecord> after = new GameJournal(dir).readAll();
+        assertEquals(1, after.size());
+        assertEquals("a", after.getFirst().getNickname());
+    }
+
+    @Test
+    void testRecordsRebuildTheGame() throws Exception {
+        GameController game = new GameController();
+        List<JournalRecord> records = List.of(
+                new JournalRecord(JournalRecord.Command.CREATE, 9, "alice", 2),
+                new JournalRecord(JournalRecord.Command.JOIN, 9, "bob"));
+        GameListenerInterface lis = (GameListenerInterface) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        for (JournalRecord record : records) {
+            record.replay(game, lis);
+        }
+        assertEquals(9, game.getGameId());
+        assertTrue(game.hasPlayer("alice"));
+        assertTrue(game.hasPlayer("bob"));
+        assertFalse(game.isWaitingForPlayers());
+        game.shutdown();
+    }
+
+    @Test
+    void testCheckpointTruncatesTheJournal() throws IOException {
+        GameJournal journal = new GameJournal(dir, 4096);
+        journal.open();
+        journal.append(new JournalRecord(JournalRecord.Command.READY, 5, "before"));
+        long cut = journal.mark();
+        journal.append(new JournalRecord(JournalRecord.Command.READY, 5, "in the snapshot"));
+        GameSnapshot snapshot = new GameSnapshot(5, journal.position(), new byte[]{1, 2, 3});
+        journal.append(new JournalRecord(JournalRecord.Command.READY, 5, "after"));
+        journal.checkpoint(cut, List.of(snapshot));
+        journal.close();
+        try (Stream<Path> segments = Files.list(dir)) {
+            //the first segment has been deleted
+            assertEquals(2, segments.count());
+        }
+
+        GameJournal reopened = new GameJournal(dir, 4096);
+        List<GameSnapshot> snapshots = reopened.readSnapshot();
+        assertEquals(1, snapshots.size());
+        assertEquals(5, snapshots.getFirst().getGameId());
+        assertArrayEquals(new byte[]{1, 2, 3}, snapshots.getFirst().getImage());
+        List<JournalRecord> records = reopened.readAll();
+        assertEquals(2, records.size());
+        assertTrue(records.get(0).getPosition() < snapshots.getFirst().getPosition());
+        assertEquals("after", records.get(1).getNickname());
+        assertTrue(records.get(1).getPosition() >= snapshots.getFirst().getPosition());
+    }
+}
@@ -0,0 +1,94 @@
+package it.polimi.ingsw.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the commands of a {@link GameMailbox} are executed one at a time and in order
+ */
+class GameMailboxTest {
+
+    @Test
+    void testCommandsAreNeverConcurrent() throws InterruptedException {
+        GameMailbox mailbox = new GameMailbox();
+        AtomicInteger running = new AtomicInteger();
+        int[] counter = {0};
+        int clients = 8;
+        int commands = 20000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Thread t = new Thread(() -> {
+                for (int n = 0; n < commands; n++) {
+                    GameMailbox.await(mailbox.submit(() -> {
+                        assertEquals(1, running.incrementAndGet());
+                        counter[0]++;
+                        running.decrementAndGet();
+                        return null;
+                    }));
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(clients * commands, GameMailbox.await(mailbox.submit(() -> counter[0])));
+    }
+
+    @Test
+    void testCommandsAreExecutedInOrder() throws InterruptedException {
+        GameMailbox mailbox = new GameMailbox();
+        List<Integer> executed = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int n = 0; n < 1000; n++) {
+            int value = n;
+            mailbox.tell(() -> executed.add(value));
+        }
+        mailbox.tell(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        List<Integer> copy = GameMailbox.await(mailbox.submit(() -> new ArrayList<>(executed)));
+        assertEquals(1000, copy.size());
+        for (int n = 0; n < 1000; n++) {
+            assertEquals(n, copy.get(n));
+        }
+    }
+
+    @Test
+    void testNestedCommandAndException() {
+        GameMailbox mailbox = new GameMailbox();
+        int result = GameMailbox.await(mailbox.submit(() -> GameMailbox.await(mailbox.submit(() -> 42)) + 1));
+        assertEquals(43, result);
+        assertThrows(IllegalStateException.class, () -> GameMailbox.await(mailbox.submit(() -> {
+            throw new IllegalStateException();
+        })));
+    }
+
+    @Test
+    void testDeferredCommandRunsBeforeTheNextOnes() {
+        GameMailbox mailbox = new GameMailbox();
+        List<Integer> executed = new ArrayList<>();
+        CompletableFuture<Void> first = mailbox.defer(() -> {
+            executed.add(1);
+            return null;
+        });
+        assertFalse(first.isDone());
+        GameMailbox.await(mailbox.submit(() -> executed.add(2)));
+        assertTrue(first.isDone());
+        assertEquals(List.of(1, 2), executed);
+
+        //a deferred command alone is executed by flush
+        CompletableFuture<Integer> alone = mailbox.defer(() -> 3);
+        mailbox.flush();
+        assertEquals(3, GameMailbox.await(alone));
+    }
+}
@@ -0,0 +1,141 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.model.game.GameStatus;
+import it.polimi.ingsw.model.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link GameSnapshot} rebuilds the same game, which can go on from where it was,
+ * that the commands of a game replayed with its seed rebuild exactly the same game
+ * and that the commands refused by the controller don't change the game
+ */
+class GameSnapshotTest {
+
+    /**
+     * @return a listener that ignores the notifications
+     */
+    private static GameListenerInterface silentListener() {
+        return (GameListenerInterface) Proxy.newProxyInstance(GameSnapshotTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * @param seed the seed of the game
+     * @return the commands of a game of two players, until the game starts
+     */
+    private static List<JournalRecord> startedGame(long seed) {
+        return List.of(
+                JournalRecord.create(4, "alice", 2, seed),
+                new JournalRecord(JournalRecord.Command.JOIN, 4, "bob"),
+                new JournalRecord(JournalRecord.Command.READY, 4, "alice"),
+                new JournalRecord(JournalRecord.Command.READY, 4, "bob"),
+                new JournalRecord(JournalRecord.Command.INITIAL_CARD, 4, "alice", 0),
+                new JournalRecord(JournalRecord.Command.INITIAL_CARD, 4, "bob", 1),
+                new JournalRecord(JournalRecord.Command.GOAL_CARD, 4, "alice", 1),
+                new JournalRecord(JournalRecord.Command.GOAL_CARD, 4, "bob", 0),
+                new JournalRecord(JournalRecord.Command.START, 4, "alice"));
+    }
+
+    @Test
+    void testSnapshotRebuildsTheGame() throws Exception {
+        GameController game = new GameController();
+        GameListenerInterface lis = silentListener();
+        for (JournalRecord record : startedGame(game.getSeed())) {
+            record.replay(game, lis);
+        }
+        assertEquals(GameStatus.RUNNING, game.getModel().getStatus());
+
+        GameSnapshot snapshot = GameMailbox.await(game.snapshot());
+        assertEquals(4, snapshot.getGameId());
+        Game original = game.getModel();
+        Game restored = snapshot.restore();
+
+        //the same game is encoded in the same image
+        assertArrayEquals(snapshot.getImage(), GameSnapshot.of(restored, snapshot.getPosition()).getImage());
+        assertEquals(original.getVersion(), restored.getVersion());
+        assertEquals(original.getCurrentPlayer().getNickname(), restored.getCurrentPlayer().getNickname());
+        assertArrayEquals(original.getInitialCardsDeck().getCardIDs(), restored.getInitialCardsDeck().getCardIDs());
+        assertArrayEquals(original.getBoard().getGoldCardsDeck().getCardIDs(), restored.getBoard().getGoldCardsDeck().getCardIDs());
+        for (Player p : original.getPlayers()) {
+            Player q = restored.getPlayerByNickname(p.getNickname());
+            assertEquals(p.getPlayerColor(), q.getPlayerColor());
+            assertEquals(p.getGoal().getCardID(), q.getGoal().getCardID());
+            assertEquals(p.getPlayerDeck().getMiniDeck().size(), q.getPlayerDeck().getMiniDeck().size());
+            assertEquals(p.getPlayerBook().getInitialCard().getCardID(), q.getPlayerBook().getInitialCard().getCardID());
+            assertEquals(p.getPlayerBook().getAvailableCount(), q.getPlayerBook().getAvailableCount());
+            assertSame(q, restored.getScoretrack().getPlayersByScore().stream()
+                    .filter(s -> s.getNickname().equals(p.getNickname())).findFirst().orElseThrow());
+        }
+
+        //the rebuilt game goes on
+        GameController rebuilt = new GameController(restored);
+        String current = restored.getCurrentPlayer().getNickname();
+        assertTrue(rebuilt.isThisMyTurn(current));
+        assertTrue(rebuilt.hasPlayer("bob"));
+        new JournalRecord(4, new Message("hello", restored.getPlayerByNickname("bob"))).replay(rebuilt, lis);
+        assertEquals("hello", restored.getChat().getLastMessage().getText());
+        game.shutdown();
+        rebuilt.shutdown();
+    }
+
+    @Test
+    void testSameSeedReplaysTheSameGame() throws Exception {
+        List<JournalRecord> records = startedGame(-7046029254386353131L);
+        GameListenerInterface lis = silentListener();
+        GameController first = new GameController(records.getFirst().getSeed());
+        GameController second = new GameController(records.getFirst().getSeed());
+        for (JournalRecord record : records) {
+            record.replay(first, lis);
+            record.replay(second, lis);
+        }
+        assertEquals(-7046029254386353131L, first.getSeed());
+        //same colors, same first player, same cards dealt and same decks
+        assertArrayEquals(GameMailbox.await(first.snapshot()).getImage(), GameMailbox.await(second.snapshot()).getImage());
+        assertNotEquals(first.getModel().getPlayerByNickname("alice").getPlayerColor(),
+                first.getModel().getPlayerByNickname("bob").getPlayerColor());
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void testRefusedCommandsDoNotChangeTheGame() throws Exception {
+        GameController game = new GameController();
+        GameListenerInterface lis = silentListener();
+        for (JournalRecord record : startedGame(game.getSeed())) {
+            record.replay(game, lis);
+        }
+        Game model = game.getModel();
+        String current = model.getCurrentPlayer().getNickname();
+        String other = current.equals("alice") ? "bob" : "alice";
+        long version = model.getVersion();
+        int cards = model.getPlayerByNickname(other).getPlayerDeck().getMiniDeck().size();
+
+        //out of turn, not in the game, or with a card that was not dealt
+        game.placeCardInBook(other, 0, 20, 21);
+        game.PickCardFromBoard(other, CardType.ResourceCard, true, 0);
+        game.placeCardInBook("nobody", 0, 20, 21);
+        game.PickCardFromBoard("nobody", CardType.GoldCard, true, 0);
+        game.setInitialCard("nobody", 0);
+        game.setGoalCard(other, 5);
+        assertFalse(game.isThisMyTurn("nobody"));
+
+        assertEquals(version, model.getVersion());
+        assertEquals(current, model.getCurrentPlayer().getNickname());
+        assertEquals(cards, model.getPlayerByNickname(other).getPlayerDeck().getMiniDeck().size());
+        game.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.listener.GameListenerInterface;
+import it.polimi.ingsw.model.DefaultValue;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the {@link GamesManager} sends the players that join to the games waiting for players,
+ * kept up to date by the mailbox of each game, and that a client sends chat messages only in the name of its player
+ */
+class GamesManagerTest {
+
+    /**
+     * @return a listener that ignores the notifications
+     */
+    private static GameListenerInterface silentListener() {
+        return (GameListenerInterface) Proxy.newProxyInstance(GamesManagerTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Test
+    void testJoinTakesTheGameWaitingForPlayers() throws Exception {
+        GamesManager manager = new GamesManager();
+        manager.settingGame(silentListener(), 2, 71, "alice");
+        GameController game = manager.getGame(71);
+        assertNotNull(game);
+        assertSame(game, manager.getGameOf("alice"));
+
+        manager.joinGame(silentListener(), "bob");
+        assertSame(game, manager.getGameOf("bob"));
+        assertFalse(game.isWaitingForPlayers());
+
+        //the game is full: the player is asked to create a new game
+        manager.joinGame(silentListener(), "carl");
+        assertNull(manager.getGameOf("carl"));
+        game.shutdown();
+    }
+
+    @Test
+    void testSettingAnExistingGameJoinsIt() throws Exception {
+        GamesManager manager = new GamesManager();
+        manager.settingGame(silentListener(), 3, 72, "alice");
+        manager.settingGame(silentListener(), 2, 72, "bob");
+        GameController game = manager.getGame(72);
+        assertSame(game, manager.getGameOf("bob"));
+        assertEquals(1, manager.getNumOfGames());
+        //the game still waits for its third player
+        assertTrue(game.isWaitingForPlayers());
+        manager.joinGame(silentListener(), "carl");
+        assertSame(game, manager.getGameOf("carl"));
+        game.shutdown();
+    }
+
+    @Test
+    void testNicknameOfAnotherGameIsNotTaken() throws Exception {
+        GamesManager manager = new GamesManager();
+        manager.settingGame(silentListener(), 2, 74, "alice");
+        GameController first = manager.getGame(74);
+
+        //alice is already playing: the new game isn't created and the waiting game isn't joined with her nickname
+        manager.settingGame(silentListener(), 2, 75, "alice");
+        assertNull(manager.getGame(75));
+        manager.settingGame(silentListener(), 2, 76, "bob");
+        GameController second = manager.getGame(76);
+        manager.joinGame(silentListener(), "alice");
+        assertSame(first, manager.getGameOf("alice"));
+        assertFalse(second.hasPlayer("alice"));
+        assertTrue(second.isWaitingForPlayers());
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void testMessageInTheNameOfAnotherPlayerIsDropped() throws Exception {
+        GamesManager manager = new GamesManager();
+        GameListenerInterface alice = silentListener();
+        GameListenerInterface bob = silentListener();
+        manager.settingGame(alice, 2, 73, "alice");
+        manager.joinGame(bob, "bob");
+        GameController game = manager.getGame(73);
+
+        //alice's client can't write as bob, nor take the tokens of his bucket
+        for (int i = 0; i < DefaultValue.chatBurst + 1; i++) {
+            manager.sentMessage(alice, new Message("fake", "bob", LocalTime.now()));
+        }
+        manager.sentMessage(bob, new Message("real", "bob", LocalTime.now()));
+        //the accepted message is queued in the mailbox, that is done with it once it answers
+        assertTrue(game.hasPlayer("bob"));
+        assertEquals(1, game.getModel().getChat().getMsgs().size());
+        assertEquals("real", game.getModel().getChat().getLastMessage().getText());
+        game.shutdown();
+    }
+}
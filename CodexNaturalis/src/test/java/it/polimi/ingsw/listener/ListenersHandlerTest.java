@@ -0,0 +1,201 @@
+package it.polimi.ingsw.listener;
+
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.Chat.MessagePrivate;
+import it.polimi.ingsw.model.Color;
+import it.polimi.ingsw.model.game.Game;
+import it.polimi.ingsw.model.game.GameDelta;
+import it.polimi.ingsw.model.game.GameImmutable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the chat messages are routed by the {@link ListenersHandler}:
+ * a public message reaches every player, a private message only its sender and its receiver.
+ * Checks also that the listeners are notified in parallel, that the closed ones are evicted
+ * and that a replica that diverged receives the changes it missed or a full copy of the game
+ */
+class ListenersHandlerTest {
+
+    /**
+     * @param received the texts of the chat messages received by the listener
+     * @param done     counted down when the message with text "done" is received
+     * @return a listener that records the chat messages and ignores the other notifications
+     */
+    private static GameListenerInterface chatListener(List<String> received, CountDownLatch done) {
+        return (GameListenerInterface) Proxy.newProxyInstance(ListenersHandlerTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "chatReceived" -> {
+                        String text = ((Message) args[0]).getText();
+                        received.add(text);
+                        if (text.equals("done")) {
+                            done.countDown();
+                        }
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * @param delayMillis how long the listener takes to receive a chat message
+     * @param done        counted down when a chat message is received
+     * @return a listener that is slow to receive the chat messages
+     */
+    private static GameListenerInterface slowListener(long delayMillis, CountDownLatch done) {
+        return (GameListenerInterface) Proxy.newProxyInstance(ListenersHandlerTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "chatReceived" -> {
+                        Thread.sleep(delayMillis);
+                        done.countDown();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * @param received the versions of the changes received by the listener, -1 for a full copy of the game
+     * @param done     counted down when a full copy of the game is received
+     * @return a listener that records the changes of the game and ignores the other notifications
+     */
+    private static GameListenerInterface replicaListener(List<Long> received, CountDownLatch done) {
+        return (GameListenerInterface) Proxy.newProxyInstance(ListenersHandlerTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "deltaReceived" -> {
+                        received.add(((GameDelta) args[0]).getVersion());
+                        yield null;
+                    }
+                    case "resynced" -> {
+                        assertNotNull((GameImmutable) args[0]);
+                        received.add(-1L);
+                        done.countDown();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * @return a listener whose connection fails on the first chat message
+     */
+    private static GameListenerInterface failingListener() {
+        return (GameListenerInterface) Proxy.newProxyInstance(ListenersHandlerTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "chatReceived" -> throw new IllegalStateException("connection lost");
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Test
+    void testPrivateMessageReachesOnlySenderAndReceiver() throws InterruptedException {
+        Game game = new Game();
+        game.setPlayersNumber(3);
+        List<List<String>> received = List.of(new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        assertTrue(game.addPlayer(chatListener(received.get(0), done), "alice", Color.RED));
+        assertTrue(game.addPlayer(chatListener(received.get(1), done), "bob", Color.BLUE));
+        assertTrue(game.addPlayer(chatListener(received.get(2), done), "carl", Color.GREEN));
+
+        game.sentMessage(new MessagePrivate("secret", game.getPlayerByNickname("alice"), "Bob"));
+        //a private message to the sender himself is received once
+        game.sentMessage(new MessagePrivate("note", game.getPlayerByNickname("carl"), "carl"));
+        //the notifications of a listener are delivered in order, so the public message comes after the private one
+        game.sentMessage(new Message("done", game.getPlayerByNickname("carl")));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("secret", "done"), received.get(0));
+        assertEquals(List.of("secret", "done"), received.get(1));
+        assertEquals(List.of("note", "done"), received.get(2));
+        //the private message is not in the chat shared by all the players
+        assertEquals(1, game.getChat().getMsgs().size());
+        assertEquals("done", game.getChat().getLastMessage().getText());
+    }
+
+    @Test
+    void testSlowListenersAreNotifiedInParallel() throws InterruptedException {
+        ListenersHandler handler = new ListenersHandler();
+        int n = 4;
+        long delay = 400;
+        CountDownLatch done = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) {
+            handler.addListener(slowListener(delay, done));
+        }
+
+        long start = System.nanoTime();
+        handler.notify_SentMessages(new Game(), List.of(new Message("hello", "alice", LocalTime.now())));
+        //queuing the message never waits for the listeners
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < delay);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        //the listeners have received the message together: the time is the one of the slowest, not the sum
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < n * delay);
+    }
+
+    @Test
+    void testClosedListenerIsEvicted() throws InterruptedException {
+        ListenersHandler handler = new ListenersHandler();
+        GameListenerInterface failing = failingListener();
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        GameListenerInterface alive = chatListener(received, done);
+        handler.addListener(failing);
+        handler.addListener(alive);
+        //a listener is registered only once
+        handler.addListener(alive);
+        assertEquals(2, handler.getListeners().size());
+        assertThrows(UnsupportedOperationException.class, () -> handler.getListeners().clear());
+
+        handler.notify_SentMessages(new Game(), List.of(new Message("first", "alice", LocalTime.now())));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!OutboundQueue.isClosed(failing) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(OutboundQueue.isClosed(failing));
+
+        handler.notify_SentMessages(new Game(), List.of(new Message("done", "alice", LocalTime.now())));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(alive), handler.getListeners());
+        assertFalse(OutboundQueue.isClosed(failing));
+        assertEquals(List.of("first", "done"), received);
+    }
+
+    @Test
+    void testDivergedReplicaReceivesTheMissedChangesOrAFullCopy() throws InterruptedException {
+        ListenersHandler handler = new ListenersHandler();
+        Game game = new Game();
+        handler.notify_LastCircle(game);
+        long first = game.getVersion();
+        handler.notify_LastCircle(game);
+        handler.notify_LastCircle(game);
+
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        GameListenerInterface lis = replicaListener(received, done);
+        //the listener is not registered: the changes are sent only to the replica that asked for them
+        handler.notify_Resync(game, lis, "alice", first);
+        //a replica that can't be updated gets a full copy, after the changes already queued
+        handler.notify_Resync(game, lis, "alice", -1);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(first + 1, first + 2, -1L), received);
+    }
+}
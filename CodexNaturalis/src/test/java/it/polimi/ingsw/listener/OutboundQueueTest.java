@@ -0,0 +1,139 @@
+package it.polimi.ingsw.listener;
+
+import it.polimi.ingsw.model.DefaultValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the notifications of a slow listener are queued without blocking the sender
+ * and that the overflow policies of {@link OutboundQueue} are applied when the queue is full
+ */
+class OutboundQueueTest {
+
+    private static final int CAPACITY = DefaultValue.maxPendingNotificationsPerListener;
+
+    /**
+     * @param closed set to true when the listener is closed
+     * @return a listener that does nothing, closeable as the socket listeners
+     */
+    private static GameListenerInterface listener(AtomicBoolean closed) {
+        return (GameListenerInterface) Proxy.newProxyInstance(OutboundQueueTest.class.getClassLoader(),
+                new Class<?>[]{GameListenerInterface.class, Closeable.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    /**
+     * Blocks the writer of a listener on the first notification, until the returned latch is released
+     */
+    private static CountDownLatch block(GameListenerInterface lis) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutboundQueue.send(lis, "block", OutboundQueue.Kind.EVENT, l -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {}
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    void testSlowListenerDoesNotBlockTheSender() throws InterruptedException {
+        GameListenerInterface lis = listener(new AtomicBoolean());
+        CountDownLatch release = block(lis);
+
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(CAPACITY);
+        long start = System.nanoTime();
+        for (int n = 0; n < CAPACITY; n++) {
+            int value = n;
+            assertTrue(OutboundQueue.send(lis, "event", OutboundQueue.Kind.EVENT, l -> {
+                delivered.add(value);
+                done.countDown();
+            }));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(delivered.isEmpty());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int n = 0; n < CAPACITY; n++) {
+            assertEquals(n, delivered.get(n));
+        }
+        assertFalse(OutboundQueue.isClosed(lis));
+    }
+
+    @Test
+    void testStaleSnapshotsAreDropped() throws InterruptedException {
+        AtomicBoolean closed = new AtomicBoolean();
+        GameListenerInterface lis = listener(closed);
+        CountDownLatch release = block(lis);
+
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        int sent = 2 * (CAPACITY - 2);
+        for (int n = 0; n < sent; n++) {
+            int value = n;
+            OutboundQueue.Kind kind = n % 2 == 0 ? OutboundQueue.Kind.SNAPSHOT : OutboundQueue.Kind.EVENT;
+            assertTrue(OutboundQueue.send(lis, "notify", kind, l -> delivered.add(value)));
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        OutboundQueue.send(lis, "last", OutboundQueue.Kind.EVENT, l -> done.countDown());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(closed.get());
+        //all the events are delivered in order, the snapshots are fewer than the ones sent
+        assertEquals(sent - 1, delivered.getLast());
+        assertEquals(sent / 2, delivered.stream().filter(n -> n % 2 == 1).count());
+        assertTrue(delivered.size() < sent);
+        for (int i = 1; i < delivered.size(); i++) {
+            assertTrue(delivered.get(i - 1) < delivered.get(i));
+        }
+    }
+
+    @Test
+    void testListenerTooSlowIsDisconnected() throws InterruptedException {
+        AtomicBoolean closed = new AtomicBoolean();
+        GameListenerInterface lis = listener(closed);
+        CountDownLatch release = block(lis);
+
+        for (int n = 0; n < CAPACITY; n++) {
+            assertTrue(OutboundQueue.send(lis, "event", OutboundQueue.Kind.EVENT, l -> {}));
+        }
+        assertFalse(OutboundQueue.send(lis, "event", OutboundQueue.Kind.EVENT, l -> {}));
+        assertTrue(OutboundQueue.isClosed(lis));
+        assertFalse(OutboundQueue.send(lis, "snapshot", OutboundQueue.Kind.SNAPSHOT, l -> {}));
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!closed.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(closed.get());
+
+        //once removed from the game the listener can be used again
+        OutboundQueue.release(lis);
+        assertFalse(OutboundQueue.isClosed(lis));
+        CountDownLatch delivered = new CountDownLatch(1);
+        assertTrue(OutboundQueue.send(lis, "event", OutboundQueue.Kind.EVENT, l -> delivered.countDown()));
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,63 @@
+package it.polimi.ingsw.listener;
+
+import it.polimi.ingsw.model.game.GameDelta;
+import it.polimi.ingsw.model.game.LastCircleDelta;
+import it.polimi.ingsw.model.game.PlayerReadyDelta;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link ReplayBuffer} returns the changes missed by a player, as they were sent to that player,
+ * and that it asks for a full copy of the game when they can't be replayed
+ */
+class ReplayBufferTest {
+
+    @Test
+    void testMissedChangesAreReplayedInOrder() {
+        ReplayBuffer replay = new ReplayBuffer(8);
+        for (int v = 1; v <= 5; v++) {
+            replay.record(new LastCircleDelta(v));
+        }
+        List<GameDelta> missed = replay.since(2, "p1");
+        assertEquals(3, missed.size());
+        for (int i = 0; i < missed.size(); i++) {
+            assertEquals(3 + i, missed.get(i).getVersion());
+        }
+        assertTrue(replay.since(5, "p1").isEmpty());
+        assertEquals(5, replay.since(0, "p1").size());
+    }
+
+    @Test
+    void testEachPlayerReceivesItsVersionOfTheChange() {
+        ReplayBuffer replay = new ReplayBuffer(8);
+        PlayerReadyDelta own = new PlayerReadyDelta(1, "p1", true);
+        PlayerReadyDelta others = new PlayerReadyDelta(1, "p1", false);
+        replay.record("p1", own, others);
+        assertSame(own, replay.since(0, "p1").getFirst());
+        assertSame(others, replay.since(0, "p2").getFirst());
+    }
+
+    @Test
+    void testFullCopyWhenTheChangesCantBeReplayed() {
+        ReplayBuffer replay = new ReplayBuffer(4);
+        assertNull(replay.since(0, "p1"));
+        for (int v = 1; v <= 6; v++) {
+            replay.record(new LastCircleDelta(v));
+        }
+        //versions 1 and 2 have been overwritten
+        assertNull(replay.since(1, "p1"));
+        assertEquals(4, replay.since(2, "p1").size());
+        //no replica, or a replica newer than the game
+        assertNull(replay.since(-1, "p1"));
+        assertNull(replay.since(7, "p1"));
+
+        //an event sent with a full copy of the game can't be replayed
+        replay.recordSnapshot(7);
+        replay.record(new LastCircleDelta(8));
+        assertNull(replay.since(6, "p1"));
+        assertEquals(1, replay.since(7, "p1").size());
+    }
+}
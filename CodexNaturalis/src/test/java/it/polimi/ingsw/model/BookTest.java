@@ -6,6 +6,7 @@ import it.polimi.ingsw.model.cards.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import java.util.ArrayList;
 import java.util.List;
 import it.polimi.ingsw.model.cards.GoalType;
@@ -17,8 +18,6 @@ import java.util.Map;
 public class BookTest {
 
     private Book book;
-    private Map<SymbolType, Integer> symbolMap;
-    private Map<ResourceType, Integer> resourceMap;
 
 
     @Test
@@ -58,17 +57,29 @@ public class BookTest {
         book = new Book(10, 10);
 
         // Inizializziamo la mappa dei simboli
-        symbolMap = book.getSymbolMap();
-        symbolMap.put(SymbolType.Quill, 3);
-        symbolMap.put(SymbolType.Ink, 2);
-        symbolMap.put(SymbolType.Manuscript, 1);
+        book.setSymbolCount(SymbolType.Quill, 3);
+        book.setSymbolCount(SymbolType.Ink, 2);
+        book.setSymbolCount(SymbolType.Manuscript, 1);
 
         // Inizializziamo la mappa delle risorse
-        resourceMap = book.getResourceMap();
-        resourceMap.put(ResourceType.Fungi, 4);
-        resourceMap.put(ResourceType.Animal, 3);
-        resourceMap.put(ResourceType.Plant, 2);
-        resourceMap.put(ResourceType.Insect, 1);
+        book.setResourceCount(ResourceType.Fungi, 4);
+        book.setResourceCount(ResourceType.Animal, 3);
+        book.setResourceCount(ResourceType.Plant, 2);
+        book.setResourceCount(ResourceType.Insect, 1);
+    }
+
+    @Test
+    void testResourceMapIsAReadOnlyView() {
+        Map<ResourceType, Integer> resources = book.getResourceMap();
+        assertEquals(4, resources.size());
+        Assertions.assertEquals(4, resources.get(ResourceType.Fungi).intValue());
+        assertThrows(UnsupportedOperationException.class, () -> resources.put(ResourceType.Fungi, 0));
+
+        book.increaseResource(ResourceType.Fungi);
+        Assertions.assertEquals(5, resources.get(ResourceType.Fungi).intValue());
+        assertEquals(Map.of(ResourceType.Fungi, 5, ResourceType.Animal, 3, ResourceType.Plant, 2, ResourceType.Insect, 1), resources);
+        assertEquals(Map.of(SymbolType.Quill, 3, SymbolType.Ink, 2, SymbolType.Manuscript, 1), book.getSymbolMap());
+        assertNull(resources.get(SymbolType.Quill));
     }
 
     @Test
@@ -381,6 +392,21 @@ public class BookTest {
         assertFalse(availableCellsList.contains(book.getBookMatrix()[1][0]));
     }
 
+    @Test
+    void testAvailableCellsView(){
+        Book book = new Book(70, 70);
+        book.addInitial(new Deck(CardType.InitialCard).getFrontCards().get(0));
+        //the view holds the same cells as the sorted copy, without building the matrix
+        assertEquals(book.showAvailableCells().size(), book.getAvailableCells().size());
+        assertTrue(book.getAvailableCells().containsAll(book.showAvailableCells()));
+        assertThrows(UnsupportedOperationException.class, () -> book.getAvailableCells().clear());
+        for (Cell cell : book.getAvailableCells()) {
+            assertTrue(book.isAvailable(cell.getRow(), cell.getColumn()));
+            assertNull(book.cardAt(cell.getRow(), cell.getColumn()));
+        }
+        assertNotNull(book.cardAt(35, 35));
+    }
+
    @Test
    void testUpdateCoveredCorners(){
         Book book = new Book(5, 5);
@@ -651,9 +677,9 @@ public class BookTest {
         resourceList.add(ResourceType.Animal);
         GoldCard goldCardTest = new GoldCard(0,3,true,CardType.GoldCard, CornerLabel.NoCorner,CornerLabel.Empty,CornerLabel.WithSymbol,CornerLabel.Empty, ResourceType.Fungi,true,SymbolType.Quill,1,resourceList,true,false, SymbolType.Quill);
 
-        book.getResourceMap().put(ResourceType.Fungi, 4);
-        book.getResourceMap().put(ResourceType.Animal, 1);
-        book.getResourceMap().put(ResourceType.Plant, 2);
+        book.setResourceCount(ResourceType.Fungi, 4);
+        book.setResourceCount(ResourceType.Animal, 1);
+        book.setResourceCount(ResourceType.Plant, 2);
 
         assertTrue(book.checkPlacementCondition(goldCardTest));
     }
@@ -669,7 +695,7 @@ public class BookTest {
         resourceList.add(ResourceType.Animal);
         GoldCard goldCardTest = new GoldCard(0,3,true,CardType.GoldCard, CornerLabel.NoCorner,CornerLabel.Empty,CornerLabel.WithSymbol,CornerLabel.Empty, ResourceType.Fungi,true,SymbolType.Quill,1,resourceList,true,false, SymbolType.Quill);
 
-        book.getSymbolMap().put(SymbolType.Quill, 3);
+        book.setSymbolCount(SymbolType.Quill, 3);
         book.getBookMatrix()[2][2].setAvailable(false);
         book.getBookMatrix()[2][2].setCardPointer(goldCardTest);
         book.updateBook(goldCardTest, book.getBookMatrix()[2][2]);
@@ -715,8 +741,8 @@ public class BookTest {
 
 
 
-        book.getResourceMap().put(ResourceType.Insect,1);
-        book.getResourceMap().put(ResourceType.Animal, 3);
+        book.setResourceCount(ResourceType.Insect,1);
+        book.setResourceCount(ResourceType.Animal, 3);
         book.getBookMatrix()[3][5].setCardPointer(goldCard1);
         book.getBookMatrix()[3][5].setAvailable(false);
         book.updateBook(goldCard1, book.getBookMatrix()[3][5]);
@@ -760,8 +786,8 @@ public class BookTest {
         book.addResourceCard(resourceCard3,book.getBookMatrix()[2][4]);
         book.addResourceCard(resourceCard2,book.getBookMatrix()[4][4]);
 
-        book.getResourceMap().put(ResourceType.Insect,1);
-        book.getResourceMap().put(ResourceType.Animal, 3);
+        book.setResourceCount(ResourceType.Insect,1);
+        book.setResourceCount(ResourceType.Animal, 3);
         book.getBookMatrix()[3][5].setCardPointer(goldCard1);
         book.getBookMatrix()[3][5].setAvailable(false);
         book.updateBook(goldCard1, book.getBookMatrix()[3][5]);
@@ -777,8 +803,8 @@ public class BookTest {
         placementList2.add(ResourceType.Animal);
         GoldCard goldCard2 = new GoldCard(0,3,true,CardType.GoldCard, CornerLabel.NoCorner,CornerLabel.Empty,CornerLabel.WithSymbol,CornerLabel.Empty, ResourceType.Fungi,true,SymbolType.Quill,1,placementList2,true,false, SymbolType.Quill);
 
-        book.getResourceMap().put(ResourceType.Fungi,2);
-        book.getSymbolMap().put(SymbolType.Quill,2);
+        book.setResourceCount(ResourceType.Fungi,2);
+        book.setSymbolCount(SymbolType.Quill,2);
 
         book.getBookMatrix()[5][5].setCardPointer(goldCard1);
         book.getBookMatrix()[5][5].setAvailable(false);
@@ -815,11 +841,11 @@ public class BookTest {
         GoldCard goldCard3 = new GoldCard(10,2,true,CardType.GoldCard,CornerLabel.Empty,CornerLabel.NoCorner,CornerLabel.NoCorner,CornerLabel.WithSymbol,ResourceType.Fungi,true,SymbolType.Ink,3,placementList3,false,false,null);
 
 
-        book.getSymbolMap().put(SymbolType.Quill,3);
+        book.setSymbolCount(SymbolType.Quill,3);
         //inizializzo mappe per consentire il piazzamento
-        book.getResourceMap().put(ResourceType.Fungi, 3);
-        book.getResourceMap().put(ResourceType.Animal,3);
-        book.getResourceMap().put(ResourceType.Insect,1);
+        book.setResourceCount(ResourceType.Fungi, 3);
+        book.setResourceCount(ResourceType.Animal,3);
+        book.setResourceCount(ResourceType.Insect,1);
 
         book.getBookMatrix()[3][3].setAvailable(true); //setto la prima cella ad available
         points = book.addGoldCard(goldCard3,book.getBookMatrix()[3][3]);
@@ -973,46 +999,46 @@ public class BookTest {
 
         //creo una istanza di Book su cui applicare la CheckResourceCondition (Fungi)
         Book book = new Book(70, 70);
-        book.getResourceMap().put(ResourceType.Animal, 1);
-        book.getResourceMap().put(ResourceType.Plant, 0);
-        book.getResourceMap().put(ResourceType.Insect, 15);
-        book.getResourceMap().put(ResourceType.Fungi, 6);
+        book.setResourceCount(ResourceType.Animal, 1);
+        book.setResourceCount(ResourceType.Plant, 0);
+        book.setResourceCount(ResourceType.Insect, 15);
+        book.setResourceCount(ResourceType.Fungi, 6);
 
         assertEquals(4, book.checkResourceCondition(eightObjectiveCard));
 
         //creo una istanza Book0 su cui applicare la CheckResourceCondition (Fungi)
         Book book0 = new Book(70, 70);
-        book0.getResourceMap().put(ResourceType.Animal, 1);
-        book0.getResourceMap().put(ResourceType.Plant, 0);
-        book0.getResourceMap().put(ResourceType.Insect, 15);
-        book0.getResourceMap().put(ResourceType.Fungi, 7);
+        book0.setResourceCount(ResourceType.Animal, 1);
+        book0.setResourceCount(ResourceType.Plant, 0);
+        book0.setResourceCount(ResourceType.Insect, 15);
+        book0.setResourceCount(ResourceType.Fungi, 7);
 
         assertEquals(4, book0.checkResourceCondition(eightObjectiveCard));
 
         //creo una istanza Book1 su cui applicare la CheckResourceCondition (Plant)
         Book book1 = new Book(70, 70);
-        book1.getResourceMap().put(ResourceType.Animal, 1);
-        book1.getResourceMap().put(ResourceType.Plant, 11);
-        book1.getResourceMap().put(ResourceType.Insect, 15);
-        book1.getResourceMap().put(ResourceType.Fungi, 0);
+        book1.setResourceCount(ResourceType.Animal, 1);
+        book1.setResourceCount(ResourceType.Plant, 11);
+        book1.setResourceCount(ResourceType.Insect, 15);
+        book1.setResourceCount(ResourceType.Fungi, 0);
 
         assertEquals(6, book1.checkResourceCondition(objectiveCard9));
 
         //creo una istanza Book2 su cui applicare la CheckResourceCondition (Animal)
         Book book2 = new Book(70, 70);
-        book2.getResourceMap().put(ResourceType.Animal, 1);
-        book2.getResourceMap().put(ResourceType.Plant, 11);
-        book2.getResourceMap().put(ResourceType.Insect, 15);
-        book2.getResourceMap().put(ResourceType.Fungi, 0);
+        book2.setResourceCount(ResourceType.Animal, 1);
+        book2.setResourceCount(ResourceType.Plant, 11);
+        book2.setResourceCount(ResourceType.Insect, 15);
+        book2.setResourceCount(ResourceType.Fungi, 0);
 
         assertEquals(0, book2.checkResourceCondition(objectiveCard10));
 
         //creo una istanza Book3 su cui applicare la CheckResourceCondition (Insect)
         Book book3 = new Book(70, 70);
-        book3.getResourceMap().put(ResourceType.Animal, 1);
-        book3.getResourceMap().put(ResourceType.Plant, 11);
-        book3.getResourceMap().put(ResourceType.Insect, 23);
-        book3.getResourceMap().put(ResourceType.Fungi, 23);
+        book3.setResourceCount(ResourceType.Animal, 1);
+        book3.setResourceCount(ResourceType.Plant, 11);
+        book3.setResourceCount(ResourceType.Insect, 23);
+        book3.setResourceCount(ResourceType.Fungi, 23);
 
         assertEquals(14, book3.checkResourceCondition(objectiveCard11));
 
@@ -1036,25 +1062,25 @@ public class BookTest {
 
         //creo una istanza di Book su cui applicare la CheckSymbolCondition (CASE victoryPoints=3)
         Book book = new Book(70, 70);
-        book.getSymbolMap().put(SymbolType.Quill, 1);
-        book.getSymbolMap().put(SymbolType.Ink, 1);
-        book.getSymbolMap().put(SymbolType.Manuscript, 1);
+        book.setSymbolCount(SymbolType.Quill, 1);
+        book.setSymbolCount(SymbolType.Ink, 1);
+        book.setSymbolCount(SymbolType.Manuscript, 1);
 
         assertEquals(3, book.checkSymbolCondition(objectiveCard12));
 
         //creo una seconda istanza di Book su cui applicare la CheckSymbolCondition (CASE victoryPoints=3)
         Book book1 = new Book(70, 70);
-        book1.getSymbolMap().put(SymbolType.Quill, 4);
-        book1.getSymbolMap().put(SymbolType.Ink, 10);
-        book1.getSymbolMap().put(SymbolType.Manuscript, 6);
+        book1.setSymbolCount(SymbolType.Quill, 4);
+        book1.setSymbolCount(SymbolType.Ink, 10);
+        book1.setSymbolCount(SymbolType.Manuscript, 6);
 
         assertEquals(12, book1.checkSymbolCondition(objectiveCard12));
 
         //creo una terza istanza di Book su cui applicare la CheckSymbolCondition (CASE victoryPoints=2)
         Book book2 = new Book(70, 70);
-        book2.getSymbolMap().put(SymbolType.Quill, 6);
-        book2.getSymbolMap().put(SymbolType.Ink, 0);
-        book2.getSymbolMap().put(SymbolType.Manuscript, 5);
+        book2.setSymbolCount(SymbolType.Quill, 6);
+        book2.setSymbolCount(SymbolType.Ink, 0);
+        book2.setSymbolCount(SymbolType.Manuscript, 5);
 
         assertEquals(4, book2.checkSymbolCondition(objectiveCard13));
 
@@ -1305,4 +1331,72 @@ public class BookTest {
 
 
 
+    @Test
+    void testAvailableCellLookup() throws PlacementConditionViolated, CellNotAvailableException {
+        Book book = new Book(70, 70);
+        List<ResourceType> resourceList = new ArrayList<>();
+        resourceList.add(ResourceType.Plant);
+        resourceList.add(ResourceType.Animal);
+        resourceList.add(ResourceType.Insect);
+        resourceList.add(ResourceType.Fungi);
+        InitialCard initialCard = new InitialCard(0,4,false,CardType.InitialCard,CornerLabel.WithResource,CornerLabel.WithResource,CornerLabel.WithResource,CornerLabel.WithResource,new ArrayList<>(),0,4,resourceList);
+        book.addInitial(initialCard);
+
+        assertEquals(4, book.getAvailableCount());
+        assertTrue(book.isAvailable(34, 34));
+        assertTrue(book.isAvailable(36, 36));
+        assertFalse(book.isAvailable(35, 35));
+        assertFalse(book.isAvailable(35, 36));
+        assertFalse(book.isAvailable(-1, 0));
+        assertFalse(book.isAvailable(35, 70));
+        assertSame(book.getBookMatrix()[34][36], book.getAvailableCell(34, 36));
+
+        ResourceCard resourceCard = new ResourceCard(30,4,false,CardType.ResourceCard,CornerLabel.Empty,CornerLabel.Empty,CornerLabel.Empty,CornerLabel.Empty ,ResourceType.Insect,0,0,new ArrayList<>(),false, null);
+        book.addCard(resourceCard, book.getAvailableCell(36, 36));
+        assertFalse(book.isAvailable(36, 36));
+        assertTrue(book.isAvailable(37, 37));
+        assertTrue(book.isAvailable(37, 35));
+
+        List<Cell> visited = new ArrayList<>();
+        book.forEachAvailableCell(visited::add);
+        assertEquals(book.getAvailableCount(), visited.size());
+        assertTrue(visited.containsAll(book.showAvailableCells()));
+
+        book.clear();
+        assertEquals(0, book.getAvailableCount());
+        assertFalse(book.isAvailable(34, 34));
+    }
+
+    /**
+     * Placement latency for books of growing size: the cost of finding the cell and placing the card
+     * should not depend on the size of the book. Run only with -Dcodex.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "codex.benchmark", matches = "true")
+    void benchmarkPlacement() throws PlacementConditionViolated, CellNotAvailableException {
+        List<PlayableCard> initialCards = new Deck(CardType.InitialCard).getFrontCards();
+        List<PlayableCard> resourceBacks = new Deck(CardType.ResourceCard).getBackCards();
+        int books = 2_000;
+        for (int round = 0; round < 5; round++) {
+            for (int size : new int[]{70, 140, 280, 560}) {
+                Book[] prepared = new Book[books];
+                for (int k = 0; k < books; k++) {
+                    prepared[k] = new Book(size, size);
+                    prepared[k].addInitial(initialCards.get(k % initialCards.size()));
+                }
+                System.gc();
+                long t0 = System.nanoTime();
+                for (int k = 0; k < books; k++) {
+                    Book b = prepared[k];
+                    b.addCard(resourceBacks.get(k % resourceBacks.size()), b.getAvailableCell(34, 34));
+                    b.addCard(resourceBacks.get((k + 1) % resourceBacks.size()), b.getAvailableCell(33, 33));
+                }
+                long t1 = System.nanoTime();
+                if (round == 4) {
+                    System.out.printf("[BOOK] %3dx%-3d placement %6d ns%n", size, size, (t1 - t0) / (2L * books));
+                }
+            }
+        }
+    }
+
 }
@@ -104,4 +104,39 @@ class DeckTest {
         System.out.println("Fine del test: numCards = " + deckGold.getNumCards());
     }
 
+    @Test
+    void testDecksShareTheCards() throws DeckEmptyException {
+        Deck otherGold = new Deck(CardType.GoldCard);
+        assertSame(deckGold.getFrontCards().get(0), otherGold.getFrontCards().get(0));
+        assertSame(deckGold.getBackCards().get(0), otherGold.getBackCards().get(0));
+
+        PlayableCard[] drawn = otherGold.returnCard();
+        assertEquals(40, deckGold.getNumCards());
+        assertEquals(39, otherGold.getNumCards());
+        assertTrue(deckGold.getFrontCards().contains(drawn[0]));
+        assertFalse(otherGold.getFrontCards().contains(drawn[0]));
+        assertFalse(otherGold.getBackCards().contains(drawn[1]));
+        assertEquals(drawn[0].getCardID(), drawn[1].getCardID());
+
+        Deck copy = new Deck(CardType.GoldCard, otherGold.getCardIDs(), otherGold.getRandomIndex());
+        assertArrayEquals(otherGold.getCardIDs(), copy.getCardIDs());
+        copy.removeDrawnCard(copy.getCardIDs()[0], 0);
+        assertEquals(38, copy.getNumCards());
+        assertEquals(39, otherGold.getNumCards());
+    }
+
+    @Test
+    void testReplicaFollowsTheDraws() throws DeckEmptyException {
+        Deck replica = new Deck(CardType.ResourceCard, deckResource.getCardIDs(), deckResource.getRandomIndex());
+        while (!deckResource.checkEndDeck()) {
+            PlayableCard top = deckResource.peekTop(true);
+            PlayableCard[] drawn = deckResource.returnCard();
+            assertSame(top, drawn[0]);
+            replica.removeDrawnCard(drawn[0].getCardID(), deckResource.getRandomIndex());
+            assertArrayEquals(deckResource.getCardIDs(), replica.getCardIDs());
+        }
+        assertNull(deckResource.peekTop(false));
+        assertNull(replica.peekTop(false));
+    }
+
 }
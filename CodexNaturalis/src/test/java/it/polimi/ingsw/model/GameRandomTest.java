@@ -0,0 +1,38 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.cards.CardType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the random choices of a game only depend on its seed and that a restored generator
+ * goes on with the same choices
+ */
+class GameRandomTest {
+
+    @Test
+    void testSameSeedSameDecks() {
+        Deck first = new Deck(CardType.GoldCard, new GameRandom(42));
+        Deck second = new Deck(CardType.GoldCard, new GameRandom(42));
+        while (!first.checkEndDeck()) {
+            assertEquals(first.getRandomIndex(), second.getRandomIndex());
+            assertDoesNotThrow(() -> assertEquals(first.returnCard()[0].getCardID(), second.returnCard()[0].getCardID()));
+        }
+        assertTrue(second.checkEndDeck());
+    }
+
+    @Test
+    void testRestoredGeneratorGoesOn() {
+        GameRandom random = new GameRandom(7);
+        for (int i = 0; i < 30; i++) {
+            int value = random.nextInt(40 - i);
+            assertTrue(value >= 0 && value < 40 - i);
+        }
+        GameRandom restored = new GameRandom(random.getSeed(), random.getDraws());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(random.nextInt(i + 1), restored.nextInt(i + 1));
+        }
+        assertEquals(60, restored.getDraws());
+    }
+}
@@ -0,0 +1,171 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.exceptions.CellNotAvailableException;
+import it.polimi.ingsw.exceptions.PlacementConditionViolated;
+import it.polimi.ingsw.model.cards.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the incremental placement scoring against the scanners of {@link Book} on random books
+ */
+class PatternTrackerTest {
+
+    private static List<PlayableCard> initialCards;
+    private static List<PlayableCard> placeableCards;
+    private static List<ObjectiveCard> placementObjectives;
+
+    @BeforeAll
+    static void setup() {
+        initialCards = new Deck(CardType.InitialCard).getFrontCards();
+        placeableCards = new ArrayList<>();
+        Deck resource = new Deck(CardType.ResourceCard);
+        Deck gold = new Deck(CardType.GoldCard);
+        placeableCards.addAll(resource.getFrontCards());
+        placeableCards.addAll(resource.getBackCards());
+        placeableCards.addAll(gold.getBackCards());
+        placementObjectives = new ArrayList<>();
+        for (ObjectiveCard objective : new ObjectiveDeck().getFrontCards()) {
+            if (objective.getGoalType() == GoalType.DiagonalPlacement || objective.getGoalType() == GoalType.LPlacement) {
+                placementObjectives.add(objective);
+            }
+        }
+    }
+
+    private static int scan(Book book, ObjectiveCard objective) {
+        return objective.getGoalType() == GoalType.DiagonalPlacement
+                ? book.checkDiagonalPlacement(objective) : book.checkLPlacement(objective);
+    }
+
+    /**
+     * Places random cards of few resources on random available cells, so that diagonals and L shapes are frequent
+     */
+    private static void placeRandomCard(Book book, Random random, ResourceType[] resources)
+            throws PlacementConditionViolated, CellNotAvailableException {
+        List<Cell> available = book.showAvailableCells();
+        PlayableCard card;
+        do {
+            card = placeableCards.get(random.nextInt(placeableCards.size()));
+        } while (card.getMainResource() != resources[random.nextInt(resources.length)]);
+        book.addCard(card, available.get(random.nextInt(available.size())));
+    }
+
+    @Test
+    void testSameScoreAsScannerDuringTheGame() throws PlacementConditionViolated, CellNotAvailableException {
+        Random random = new Random(8);
+        int matched = 0;
+        for (int game = 0; game < 150; game++) {
+            Book book = new Book(70, 70);
+            book.addInitial(initialCards.get(random.nextInt(initialCards.size())));
+            ResourceType[] resources = {ResourceType.values()[random.nextInt(4)], ResourceType.values()[random.nextInt(4)]};
+            for (int turn = 0; turn < 40; turn++) {
+                placeRandomCard(book, random, resources);
+                for (ObjectiveCard objective : placementObjectives) {
+                    int expected = scan(book, objective);
+                    assertEquals(expected, book.checkGoal(objective), "game " + game + " turn " + turn + " objective " + objective.getCardID());
+                    if (expected > 0) {
+                        matched++;
+                    }
+                }
+            }
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test
+    void testObjectivesTrackedWhenChosen() throws PlacementConditionViolated, CellNotAvailableException {
+        Random random = new Random(34);
+        for (int game = 0; game < 150; game++) {
+            Book book = new Book(40, 40);
+            book.addInitial(initialCards.get(random.nextInt(initialCards.size())));
+            ResourceType[] resources = {ResourceType.values()[random.nextInt(4)], ResourceType.values()[random.nextInt(4)]};
+            //the objectives are chosen after the first cards, then kept up to date by the placements
+            for (int turn = 0; turn < 30; turn++) {
+                if (turn == 3) {
+                    placementObjectives.forEach(book::trackGoal);
+                }
+                placeRandomCard(book, random, resources);
+            }
+            for (ObjectiveCard objective : placementObjectives) {
+                assertEquals(scan(book, objective), book.checkGoal(objective), "game " + game + " objective " + objective.getCardID());
+            }
+        }
+    }
+
+    @Test
+    void testSameScoreAsScannerAtTheEnd() throws PlacementConditionViolated, CellNotAvailableException {
+        Random random = new Random(21);
+        for (int game = 0; game < 150; game++) {
+            Book book = new Book(40, 40);
+            book.addInitial(initialCards.get(random.nextInt(initialCards.size())));
+            ResourceType[] resources = {ResourceType.values()[random.nextInt(4)], ResourceType.values()[random.nextInt(4)]};
+            for (int turn = 0; turn < 30; turn++) {
+                placeRandomCard(book, random, resources);
+            }
+            for (ObjectiveCard objective : placementObjectives) {
+                assertEquals(scan(book, objective), book.checkGoal(objective), "game " + game + " objective " + objective.getCardID());
+            }
+        }
+    }
+
+    @Test
+    void testSingleResourceLPlacement() throws PlacementConditionViolated, CellNotAvailableException {
+        //no objective of the game has the same main and second resource, the scanner reads such a book row by row
+        List<ObjectiveCard> objectives = new ArrayList<>();
+        for (CornerType direction : CornerType.values()) {
+            objectives.add(new ObjectiveCard(90 + direction.ordinal(), true, GoalType.LPlacement, 3, ResourceType.Fungi,
+                    direction, 0, 0, List.of(), ResourceType.Fungi));
+        }
+        Random random = new Random(13);
+        int matched = 0;
+        for (int game = 0; game < 100; game++) {
+            Book book = new Book(70, 70);
+            book.addInitial(initialCards.get(random.nextInt(initialCards.size())));
+            for (int turn = 0; turn < 40; turn++) {
+                placeRandomCard(book, random, new ResourceType[]{ResourceType.Fungi, ResourceType.Fungi, ResourceType.Plant});
+                for (ObjectiveCard objective : objectives) {
+                    int expected = book.checkLPlacement(objective);
+                    assertEquals(expected, book.checkGoal(objective), "game " + game + " turn " + turn + " direction " + objective.getDirection());
+                    if (expected > 3) {
+                        matched++;
+                    }
+                }
+            }
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test
+    void testCardReplacedOutsideAPlacement() throws PlacementConditionViolated, CellNotAvailableException {
+        Random random = new Random(5);
+        Book book = new Book(70, 70);
+        book.addInitial(initialCards.getFirst());
+        for (int turn = 0; turn < 40; turn++) {
+            placeRandomCard(book, random, new ResourceType[]{ResourceType.Fungi, ResourceType.Plant});
+        }
+        for (ObjectiveCard objective : placementObjectives) {
+            book.checkGoal(objective);
+        }
+
+        for (Cell cell : book.getCells()) {
+            if (cell.getCard() != null && cell.getCard().getMainResource() == ResourceType.Fungi) {
+                book.getBookMatrix()[cell.getRow()][cell.getColumn()].setCardPointer(null);
+                break;
+            }
+        }
+        for (ObjectiveCard objective : placementObjectives) {
+            assertEquals(scan(book, objective), book.checkGoal(objective));
+        }
+
+        book.clear();
+        for (ObjectiveCard objective : placementObjectives) {
+            assertEquals(0, book.checkGoal(objective));
+        }
+    }
+}
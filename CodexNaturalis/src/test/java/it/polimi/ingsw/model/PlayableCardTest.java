@@ -271,5 +271,36 @@ public class PlayableCardTest {
         assertEquals("Insect", initialCardTest2.getCornerContent(3));
     }*/
 
+    @Test
+    void testCornerCodes() {
+        List<ResourceType> resourceList = new ArrayList<>();
+        resourceList.add(ResourceType.Fungi);
+        resourceList.add(ResourceType.Animal);
+
+        ResourceCard resourceCardTest = new ResourceCard(5,3,true,CardType.ResourceCard,CornerLabel.WithSymbol,CornerLabel.WithResource,CornerLabel.WithResource,CornerLabel.NoCorner,ResourceType.Fungi,0,2,resourceList,true,SymbolType.Ink);
+
+        assertTrue(CornerCode.isSymbol(resourceCardTest.getCornerCode(0)));
+        assertEquals(SymbolType.Ink, CornerCode.symbol(resourceCardTest.getCornerCode(0)));
+        assertEquals(ResourceType.Fungi, CornerCode.resource(resourceCardTest.getCornerCode(1)));
+        assertEquals(ResourceType.Animal, CornerCode.resource(resourceCardTest.getCornerCode(2)));
+        assertEquals(CornerCode.NO_CORNER, resourceCardTest.getCornerCode(3));
+    }
+
+    @Test
+    void testCornerCodesMatchTheCornerContent() {
+        CardCatalog catalog = CardCatalog.getInstance();
+        for (CardType type : CardType.values()) {
+            for (int id : catalog.getCardIDs(type)) {
+                for (boolean isFront : new boolean[]{true, false}) {
+                    PlayableCard card = catalog.getCard(type, id, isFront);
+                    for (int corner = 0; corner < 4; corner++) {
+                        assertEquals(CornerCode.of(card.getCornerContent(corner)), card.getCornerCode(corner));
+                    }
+                }
+            }
+        }
+        assertEquals(CornerCode.EMPTY, CornerCode.of("Empty"));
+        assertEquals(CornerCode.NO_CORNER, CornerCode.of("NoCorner"));
+    }
 
 }
@@ -0,0 +1,85 @@
+package it.polimi.ingsw.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the timeouts of a {@link HashedWheelTimer} expire after their delay, in the order of their deadlines,
+ * and that the cancelled ones never expire
+ */
+class HashedWheelTimerTest {
+
+    @Test
+    void testTimeoutsExpireInOrder() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(10, 8);
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        //the last delay is longer than a turn of the wheel
+        timer.schedule(250, () -> {
+            expired.add(250);
+            done.countDown();
+        });
+        timer.schedule(30, () -> {
+            expired.add(30);
+            done.countDown();
+        });
+        timer.schedule(120, () -> {
+            expired.add(120);
+            done.countDown();
+        });
+        assertEquals(3, timer.pending());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(List.of(30, 120, 250), expired);
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverExpires() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(10, 8);
+        AtomicBoolean cancelledRan = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        HashedWheelTimer.Timeout cancelled = timer.schedule(50, () -> cancelledRan.set(true));
+        HashedWheelTimer.Timeout expiring = timer.schedule(100, done::countDown);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertFalse(cancelled.isPending());
+        assertEquals(1, timer.pending());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(cancelledRan.get());
+        assertFalse(expiring.isPending());
+        assertFalse(expiring.cancel());
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void testTimerRestartsAfterBeingIdle() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(10, 8);
+        CountDownLatch first = new CountDownLatch(1);
+        timer.schedule(10, first::countDown);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        //the ticks passed while idle are not counted in the delay of the next timeout
+        Thread.sleep(200);
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch second = new CountDownLatch(1);
+        timer.schedule(100, () -> {
+            ran.set(true);
+            second.countDown();
+        });
+        Thread.sleep(50);
+        assertFalse(ran.get());
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+}
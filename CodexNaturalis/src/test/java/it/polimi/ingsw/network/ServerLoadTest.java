@@ -0,0 +1,119 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.GamesManager;
+import it.polimi.ingsw.model.DefaultValue;
+import it.polimi.ingsw.network.socket.MessageFrame;
+import it.polimi.ingsw.network.socket.Messages.clientToServerMessages.ClientMsgCreateGame;
+import it.polimi.ingsw.network.socket.server.ServerTCP;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test of the socket server with platform threads and with virtual threads. <br>
+ * Every simulated client connects, joins a game of 4 players and stays connected; the test prints the
+ * latency of the first answer, the heap used and the platform threads alive once all the clients joined.
+ * Clients and server run in the same JVM, so the numbers are meant to compare the two modes. <br>
+ * After each run the clients are closed, the server is stopped with its workers and its games are removed,
+ * so a run doesn't pay for the ones before it; the pools shared by the games of the JVM are kept. <br>
+ * Every client takes two file descriptors, its socket and the one of the server: the sizes are the ones measured
+ * with a limit of 20000 descriptors, larger runs need a higher limit. <br>
+ * It is run only with -Dcodex.loadTest=true
+ */
+@EnabledIfSystemProperty(named = "codex.loadTest", matches = "true")
+public class ServerLoadTest {
+
+    private static final AtomicInteger port = new AtomicInteger(DefaultValue.Default_port_Socket + 100);
+    private static final AtomicInteger gameIds = new AtomicInteger(100000);
+
+    @ParameterizedTest(name = "{0} clients, virtual threads: {1}")
+    @CsvSource({"1000, false", "1000, true", "5000, false", "5000, true"})
+    void loadTest(int numClients, boolean virtual) throws Exception {
+        ServerThreads.setVirtual(virtual);
+        int serverPort = port.getAndIncrement();
+        ServerTCP server = new ServerTCP();
+        server.start(serverPort);
+
+        long heapBefore = usedHeap();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        long[] latencies = new long[numClients];
+        List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch joined = new CountDownLatch(numClients);
+        int firstGameId = gameIds.getAndAdd(numClients / DefaultValue.MaxNumOfPlayer + 1);
+
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < numClients; i++) {
+                int client = i;
+                clients.submit(() -> {
+                    try {
+                        Socket socket = new Socket("127.0.0.1", serverPort);
+                        sockets.add(socket);
+                        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+                        long start = System.nanoTime();
+                        MessageFrame.write(out, new ClientMsgCreateGame(DefaultValue.MaxNumOfPlayer,
+                                firstGameId + client / DefaultValue.MaxNumOfPlayer, "load" + serverPort + "_" + client));
+                        MessageFrame.read(in);
+                        latencies[client] = System.nanoTime() - start;
+                        joined.countDown();
+
+                        //keeps reading the notifications of the other players
+                        while (true) {
+                            MessageFrame.read(in);
+                        }
+                    } catch (IOException ignored) {
+                    }
+                    return null;
+                });
+            }
+
+            boolean allJoined = joined.await(10, TimeUnit.MINUTES);
+            long heapAfter = usedHeap();
+            int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            Arrays.sort(latencies);
+            System.out.printf("[LOAD] clients=%d virtual=%b connections=%d heap=%.1fMB (%dB/client) platformThreads=+%d latency p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    numClients, virtual, server.getNumOfConnections(),
+                    (heapAfter - heapBefore) / 1e6, (heapAfter - heapBefore) / numClients,
+                    threadsAfter - threadsBefore,
+                    latencies[numClients / 2] / 1e6, latencies[numClients * 99 / 100] / 1e6, latencies[numClients - 1] / 1e6);
+
+            assertEquals(0, joined.getCount(), "not all the clients joined");
+            assertEquals(true, allJoined);
+        } finally {
+            //the server closes its connections when it stops, so the clients stop reading and their executor can be closed
+            server.stopConnection();
+            server.join();
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+            }
+            clients.close();
+            GamesManager.getInstance().removeAllGames();
+            ServerThreads.setVirtual(false);
+        }
+    }
+
+    /**
+     * @return the heap used after a garbage collection
+     */
+    private static long usedHeap() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
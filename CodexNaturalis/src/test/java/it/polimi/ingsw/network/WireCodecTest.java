@@ -0,0 +1,362 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.Chat.Chat;
+import it.polimi.ingsw.Chat.Message;
+import it.polimi.ingsw.Chat.MessagePrivate;
+import it.polimi.ingsw.exceptions.ReplicaNotAlignedException;
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.model.cards.CardType;
+import it.polimi.ingsw.model.cards.ObjectiveCard;
+import it.polimi.ingsw.model.cards.PlayableCard;
+import it.polimi.ingsw.model.game.*;
+import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.socket.MessageFrame;
+import it.polimi.ingsw.network.socket.Messages.clientToServerMessages.*;
+import it.polimi.ingsw.network.socket.Messages.serverToClientMessages.*;
+import it.polimi.ingsw.network.socket.codec.ModelCodec;
+import it.polimi.ingsw.network.socket.codec.WireInput;
+import it.polimi.ingsw.network.socket.codec.WireMessage;
+import it.polimi.ingsw.network.socket.codec.WireOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the binary codec of the socket messages. <br>
+ * The benchmark against Java serialization is run only with -Dcodex.benchmark=true
+ */
+public class WireCodecTest {
+
+    private Player p1;
+    private Player p2;
+    private GameImmutable model;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        p1 = new Player("p1", Color.RED);
+        p2 = new Player("p2", Color.BLUE);
+
+        Board board = new Board();
+        board.initializeBoard();
+        Deck initialDeck = new Deck(CardType.InitialCard);
+        PlayableCard[] initial = initialDeck.returnCard();
+        ArrayList<PlayableCard[]> tempInitial = new ArrayList<>(List.of(initial, initialDeck.returnCard()));
+        ArrayList<ObjectiveCard[]> tempObjective = new ArrayList<>();
+        tempObjective.add(new ObjectiveCard[]{board.takeObjectiveCard(), board.takeObjectiveCard()});
+
+        p1.getPlayerBook().addInitial(initial[0]);
+        for (int i = 0; i < 2; i++) {
+            p1.getPlayerDeck().addCard(board.takeCardfromBoard(CardType.ResourceCard, true, 0));
+        }
+        p1.getPlayerDeck().addCard(board.takeCardfromBoard(CardType.GoldCard, false, 1));
+        Cell available = p1.getPlayerBook().showAvailableCells().get(0);
+        p1.placeCard(0, available.getRow(), available.getColumn());
+        p1.setGoal(tempObjective.get(0)[0]);
+        p1.setReadyToStart();
+        p2.setConnected(true);
+
+        ScoreTrack scoreTrack = new ScoreTrack();
+        scoreTrack.addPlayer(p1);
+        scoreTrack.addPlayer(p2);
+        scoreTrack.setPlayerScore(p1, 5);
+
+        model = new GameImmutable(7, List.of(p1, p2), 2, scoreTrack, p1, tempInitial, tempObjective, board,
+                GameStatus.RUNNING, new int[]{1, 0}, 3, 42);
+    }
+
+    /**
+     * Encodes and decodes a message with the frame used on the sockets
+     */
+    private static WireMessage roundTrip(WireMessage msg) throws IOException {
+        ByteBuffer frame = MessageFrame.encode(msg);
+        assertEquals(frame.remaining() - MessageFrame.HEADER_SIZE, frame.getInt(0));
+        frame.position(MessageFrame.HEADER_SIZE);
+        return MessageFrame.decode(frame.slice());
+    }
+
+    /**
+     * Reads a private field of a message
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T field(Object msg, String name) throws ReflectiveOperationException {
+        Class<?> c = msg.getClass();
+        while (c != null) {
+            try {
+                Field f = c.getDeclaredField(name);
+                f.setAccessible(true);
+                return (T) f.get(msg);
+            } catch (NoSuchFieldException e) {
+                c = c.getSuperclass();
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static void assertSameCard(PlayableCard expected, PlayableCard actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getCardType(), actual.getCardType());
+        assertEquals(expected.getCardID(), actual.getCardID());
+        assertEquals(expected.isFront(), actual.isFront());
+    }
+
+    @Test
+    void gameRoundTrip() throws Exception {
+        GameImmutable decoded = field(roundTrip(new msgGameStarted(model)), "model");
+
+        assertEquals(model.getGameId(), decoded.getGameId());
+        assertEquals(model.getPlayersNumber(), decoded.getPlayersNumber());
+        assertEquals(model.getStatus(), decoded.getStatus());
+        assertArrayEquals(model.getOrderArray(), decoded.getOrderArray());
+        assertEquals(model.getCurrentCardPoints(), decoded.getCurrentCardPoints());
+        assertEquals(model.getVersion(), decoded.getVersion());
+        assertSame(decoded.getPlayers().get(0), decoded.getCurrentPlayer());
+
+        Player d1 = decoded.getPlayers().get(0);
+        assertEquals("p1", d1.getNickname());
+        assertEquals(Color.RED, d1.getPlayerColor());
+        assertTrue(d1.getReadyToStart());
+        assertTrue(d1.isInitialized());
+        assertEquals(p1.getGoal().getCardID(), d1.getGoal().getCardID());
+        assertEquals(p1.getPlayerDeck().getNumCards(), d1.getPlayerDeck().getNumCards());
+        for (int i = 0; i < p1.getPlayerDeck().getMiniDeck().size(); i++) {
+            assertSameCard(p1.getPlayerDeck().getMiniDeck().get(i)[0], d1.getPlayerDeck().getMiniDeck().get(i)[0]);
+            assertSameCard(p1.getPlayerDeck().getMiniDeck().get(i)[1], d1.getPlayerDeck().getMiniDeck().get(i)[1]);
+        }
+
+        Book expected = p1.getPlayerBook();
+        Book actual = d1.getPlayerBook();
+        assertSameCard(expected.getInitialCard(), actual.getInitialCard());
+        assertEquals(expected.getPlacementOrderBook(), actual.getPlacementOrderBook());
+        assertEquals(expected.getResourceMap(), actual.getResourceMap());
+        assertEquals(expected.getSymbolMap(), actual.getSymbolMap());
+        for (int i = 0; i < expected.getBookMatrix().length; i++) {
+            for (int j = 0; j < expected.getBookMatrix()[i].length; j++) {
+                Cell e = expected.getBookMatrix()[i][j];
+                Cell a = actual.getBookMatrix()[i][j];
+                assertEquals(e.isAvailable(), a.isAvailable());
+                assertEquals(e.isWall(), a.isWall());
+                assertEquals(e.getPlacementOrder(), a.getPlacementOrder());
+                assertSameCard(e.getCardPointer(), a.getCardPointer());
+            }
+        }
+        assertEquals(expected.showAvailableCells().size(), actual.showAvailableCells().size());
+
+        assertEquals(5, decoded.getScoretrack().getPlayerScore(d1));
+        assertEquals(0, decoded.getScoretrack().getPlayerScore(decoded.getPlayers().get(1)));
+
+        Board eb = model.getBoard();
+        Board ab = decoded.getBoard();
+        assertEquals(eb.getGoldCardsDeck().getNumCards(), ab.getGoldCardsDeck().getNumCards());
+        assertEquals(eb.getGoldCardsDeck().getRandomIndex(), ab.getGoldCardsDeck().getRandomIndex());
+        assertSameCard(eb.getGoldCardsDeck().getBackCards().get(0), ab.getGoldCardsDeck().getBackCards().get(0));
+        assertSameCard(eb.getResourceCards().get(1)[0], ab.getResourceCards().get(1)[0]);
+        assertEquals(eb.getObjectiveCardsDeck().getFrontCards().size(), ab.getObjectiveCardsDeck().getFrontCards().size());
+        assertEquals(eb.getObjectiveCards()[1].getCardID(), ab.getObjectiveCards()[1].getCardID());
+        assertSameCard(model.getInitialCard().get(1)[1], decoded.getInitialCard().get(1)[1]);
+
+        //the chat has its own channel, it is not sent with the game
+        assertNull(decoded.getChat());
+
+        //a decoded game is encoded in the same bytes
+        assertArrayEquals(MessageFrame.encode(new msgGameStarted(model)).array(),
+                MessageFrame.encode(new msgGameStarted(decoded)).array());
+    }
+
+    @Test
+    void clientMessagesRoundTrip() throws Exception {
+        ClientMsgPickCard pick = (ClientMsgPickCard) roundTrip(new ClientMsgPickCard("p1", CardType.GoldCard, false, 1));
+        assertEquals("p1", pick.getNickname());
+        assertEquals(CardType.GoldCard, field(pick, "cardType"));
+        assertEquals(false, field(pick, "drawFromDeck"));
+        assertEquals(1, (int) field(pick, "pos"));
+
+        ClientMsgCreateGame create = (ClientMsgCreateGame) roundTrip(new ClientMsgCreateGame(3, 12, "p2"));
+        assertEquals("p2", create.getNickname());
+        assertTrue(create.isJoinGame());
+        assertEquals(3, (int) field(create, "numPlayers"));
+
+        assertTrue(roundTrip(new ClientMsgPing("p1")) instanceof ClientMsgPing ping && ping.isPing());
+        assertEquals("p1", field(roundTrip(new ClientMessageLeave("p1")), "nickname"));
+
+        ClientMsgNewChatMessage chat = (ClientMsgNewChatMessage) roundTrip(
+                new ClientMsgNewChatMessage(new MessagePrivate("hi", p1, "p2")));
+        Message msg = field(chat, "msg");
+        assertEquals("p1", chat.getNickname());
+        assertEquals("p1", msg.getSender());
+        assertEquals("p2", msg.whoIsReceiver());
+    }
+
+    @Test
+    void chatMessageTravelsAlone() throws Exception {
+        //the sender has a book with cards, it must not be sent with the message
+        Message sent = new MessagePrivate("see you", p1.getNickname(), "p2", LocalTime.of(11, 5));
+        msgSentMessage frame = new msgSentMessage(sent);
+        Message msg = field(roundTrip(frame), "msg");
+        assertEquals("see you", msg.getText());
+        assertEquals("p1", msg.getSender());
+        assertEquals("p2", msg.whoIsReceiver());
+        assertEquals(LocalTime.of(11, 5), msg.getTime());
+        assertTrue(MessageFrame.encode(frame).remaining() < 64);
+    }
+
+    @Test
+    void chatHistoryRoundTrip() throws Exception {
+        Chat chat = new Chat(3);
+        for (int i = 0; i < 5; i++) {
+            chat.addMsg(new Message("msg " + i, p1));
+        }
+        //the chat keeps the last 3 messages, numbered 2, 3 and 4
+        List<Message> page = field(roundTrip(new msgChatHistory(chat.getPage(3, 10))), "page");
+        assertEquals(2, page.size());
+        assertEquals("msg 3", page.get(0).getText());
+        assertEquals(3, page.get(0).getSeq());
+        assertEquals("p1", page.get(1).getSender());
+        assertEquals(4, page.get(1).getSeq());
+
+        ClientMsgChatHistory ask = (ClientMsgChatHistory) roundTrip(new ClientMsgChatHistory("p2", 17, 20));
+        assertEquals("p2", ask.getNickname());
+        assertTrue(ask.isJoinGame());
+        assertEquals(17L, (long) field(ask, "fromSeq"));
+        assertEquals(20, (int) field(ask, "limit"));
+
+        WireOutput out = new WireOutput();
+        ModelCodec.writeChat(out, chat);
+        Chat decoded = ModelCodec.readChat(new WireInput(ByteBuffer.wrap(out.toByteArray())), 3);
+        assertEquals(5, decoded.getNextSeq());
+        assertEquals(2, decoded.getFirstSeq());
+        assertEquals("msg 4", decoded.getLastMessage().getText());
+    }
+
+    @Test
+    void resyncRoundTrip() throws Exception {
+        ClientMsgResync ask = (ClientMsgResync) roundTrip(new ClientMsgResync("p2", 41));
+        assertEquals("p2", ask.getNickname());
+        assertTrue(ask.isJoinGame());
+        assertEquals(41L, (long) field(ask, "lastVersion"));
+
+        GameImmutable copy = field(roundTrip(new msgResynced(model)), "model");
+        assertEquals(model.getVersion(), copy.getVersion());
+        assertEquals(model.getPlayers().size(), copy.getPlayers().size());
+    }
+
+    @Test
+    void deltaOnADivergedReplica() {
+        //the replica is at version 42: a change after a missing one doesn't follow it
+        assertTrue(new LastCircleDelta(43).follows(model));
+        assertFalse(new LastCircleDelta(44).follows(model));
+        //a card placed on a cell that is not available can't be applied, the replica keeps its version
+        GameDelta placed = new CardPlacedDelta(43, "p1", 0, 0, 0, 2, 7, true);
+        assertThrows(ReplicaNotAlignedException.class, () -> placed.applyTo(model));
+        assertEquals(42, model.getVersion());
+    }
+
+    @Test
+    void deltasRoundTrip() throws Exception {
+        List<GameDelta> deltas = List.of(
+                new CardPlacedDelta(1, "p1", 0, 20, 21, 2, 7, true),
+                new CardDrawnDelta(2, "p1", CardType.ResourceCard, true, 0, model.getBoard().getResourceCards().get(0),
+                        model.getBoard().getResourceCards().get(1), 5, 3, false),
+                new NextTurnDelta(3, "p2", GameStatus.LAST_CIRCLE, new HashMap<>(Map.of("p1", 7, "p2", 0))),
+                new LastCircleDelta(4),
+                new PlayerReadyDelta(5, "p2", false),
+                new PlayerDisconnectedDelta(6, "p2"),
+                new PlayerReconnectedDelta(8, "p2"));
+        for (GameDelta delta : deltas) {
+            GameDelta decoded = field(roundTrip(new msgGameDelta(delta)), "delta");
+            assertEquals(delta.getClass(), decoded.getClass());
+            assertEquals(delta.getVersion(), decoded.getVersion());
+            assertArrayEquals(MessageFrame.encode(new msgGameDelta(delta)).array(),
+                    MessageFrame.encode(new msgGameDelta(decoded)).array());
+        }
+    }
+
+    @Test
+    void malformedFrames() throws Exception {
+        ByteBuffer frame = MessageFrame.encode(new msgPlayerReady(model, "p1"));
+        byte[] payload = Arrays.copyOfRange(frame.array(), MessageFrame.HEADER_SIZE, frame.limit());
+
+        //truncated
+        assertThrows(IOException.class, () -> MessageFrame.decode(ByteBuffer.wrap(payload, 0, payload.length - 1).slice()));
+        //unknown ID
+        byte[] unknown = payload.clone();
+        unknown[0] = 63;
+        assertThrows(IOException.class, () -> MessageFrame.decode(ByteBuffer.wrap(unknown)));
+        //trailing bytes
+        byte[] longer = Arrays.copyOf(payload, payload.length + 1);
+        assertThrows(IOException.class, () -> MessageFrame.decode(ByteBuffer.wrap(longer)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "codex.benchmark", matches = "true")
+    void benchmark() throws Exception {
+        Map<String, WireMessage> messages = new LinkedHashMap<>();
+        messages.put("ClientMsgPlaceCard", new ClientMsgPlaceCard("p1", 0, 20, 21));
+        messages.put("ClientMsgPing", new ClientMsgPing("p1"));
+        messages.put("msgGameDelta(CardPlaced)", new msgGameDelta(new CardPlacedDelta(1, "p1", 0, 20, 21, 2, 7, true)));
+        messages.put("msgPlayerReady", new msgPlayerReady(model, "p1"));
+        messages.put("msgNextTurn", new msgNextTurn(model));
+
+        int iterations = 20_000;
+        for (Map.Entry<String, WireMessage> e : messages.entrySet()) {
+            WireMessage msg = e.getValue();
+            byte[] serialized = serialize(msg);
+            ByteBuffer frame = MessageFrame.encode(msg);
+            frame.position(MessageFrame.HEADER_SIZE);
+            ByteBuffer payload = frame.slice();
+
+            for (int i = 0; i < iterations / 4; i++) {
+                serialize(msg);
+                deserialize(serialized);
+                MessageFrame.encode(msg);
+                MessageFrame.decode(payload.duplicate());
+            }
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                serialize(msg);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                deserialize(serialized);
+            }
+            long t2 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                MessageFrame.encode(msg);
+            }
+            long t3 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                MessageFrame.decode(payload.duplicate());
+            }
+            long t4 = System.nanoTime();
+
+            System.out.printf("[CODEC] %-26s serialization %6d B enc %7d ns dec %7d ns | binary %5d B enc %6d ns dec %6d ns%n",
+                    e.getKey(), serialized.length, (t1 - t0) / iterations, (t2 - t1) / iterations,
+                    payload.remaining(), (t3 - t2) / iterations, (t4 - t3) / iterations);
+        }
+    }
+
+    private static byte[] serialize(Object msg) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(msg);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}